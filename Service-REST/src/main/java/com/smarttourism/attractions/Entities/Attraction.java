@@ -14,7 +14,9 @@ import java.util.List;
        indexes = {
            @Index(name = "idx_city", columnList = "city"),
            @Index(name = "idx_category", columnList = "category"),
-           @Index(name = "idx_active", columnList = "is_active")
+           @Index(name = "idx_active", columnList = "is_active"),
+           @Index(name = "idx_active_rating_id", columnList = "is_active, rating, id"),
+           @Index(name = "idx_city_rating_id", columnList = "city, rating, id")
        })
 @Data
 @NoArgsConstructor
@@ -50,7 +52,16 @@ public class Attraction {
     @Column(name = "max_capacity")
     private Integer maxCapacity;
     
-    @Column(name = "current_visitors")
+    // Créneaux de visite: [openingTime, closingTime[ découpé en pas de slotDurationMinutes, slotCapacity personnes
+    // par créneau (null = pas de créneaux, visitTime reste libre)
+    @Column(name = "slot_duration_minutes")
+    private Integer slotDurationMinutes;
+    
+    @Column(name = "slot_capacity")
+    private Integer slotCapacity;
+    
+    // Écrit uniquement par LiveVisitorCounters (write-behind): jamais par les mises à jour JPA de l'entité
+    @Column(name = "current_visitors", updatable = false)
     private Integer currentVisitors = 0;
     
     private Double rating = 0.0;
@@ -58,6 +69,25 @@ public class Attraction {
     @Column(name = "total_reviews")
     private Integer totalReviews = 0;
     
+    // Histogramme des notes dénormalisé, maintenu par deltas atomiques (voir AttractionRepository.applyRatingChange)
+    @Column(name = "rating_count_1")
+    private Integer ratingCount1 = 0;
+    
+    @Column(name = "rating_count_2")
+    private Integer ratingCount2 = 0;
+    
+    @Column(name = "rating_count_3")
+    private Integer ratingCount3 = 0;
+    
+    @Column(name = "rating_count_4")
+    private Integer ratingCount4 = 0;
+    
+    @Column(name = "rating_count_5")
+    private Integer ratingCount5 = 0;
+    
+    @Column(name = "rating_sum")
+    private Long ratingSum = 0L;
+    
     @Column(name = "image_url", length = 500)
     private String imageUrl;
     
@@ -98,6 +128,12 @@ public class Attraction {
         if (currentVisitors == null) currentVisitors = 0;
         if (rating == null) rating = 0.0;
         if (totalReviews == null) totalReviews = 0;
+        if (ratingCount1 == null) ratingCount1 = 0;
+        if (ratingCount2 == null) ratingCount2 = 0;
+        if (ratingCount3 == null) ratingCount3 = 0;
+        if (ratingCount4 == null) ratingCount4 = 0;
+        if (ratingCount5 == null) ratingCount5 = 0;
+        if (ratingSum == null) ratingSum = 0L;
         if (isActive == null) isActive = true;
     }
     
@@ -107,17 +143,30 @@ public class Attraction {
     }
     
     public boolean isOpen() {
+        return isOpen(openingTime, closingTime);
+    }
+    
+    public Integer getAvailableSpots() {
+        return availableSpots(maxCapacity, currentVisitors);
+    }
+    
+    public Double getOccupancyRate() {
+        return occupancyRate(maxCapacity, currentVisitors);
+    }
+    
+    // Versions sur colonnes seules: réutilisées par les lectures partielles (fields=) sans entité chargée
+    public static boolean isOpen(LocalTime openingTime, LocalTime closingTime) {
         if (openingTime == null || closingTime == null) return true;
         LocalTime now = LocalTime.now();
         return !now.isBefore(openingTime) && !now.isAfter(closingTime);
     }
     
-    public Integer getAvailableSpots() {
+    public static Integer availableSpots(Integer maxCapacity, Integer currentVisitors) {
         if (maxCapacity == null) return null;
         return Math.max(0, maxCapacity - currentVisitors);
     }
     
-    public Double getOccupancyRate() {
+    public static Double occupancyRate(Integer maxCapacity, Integer currentVisitors) {
         if (maxCapacity == null || maxCapacity == 0) return 0.0;
         return (currentVisitors.doubleValue() / maxCapacity) * 100;
     }
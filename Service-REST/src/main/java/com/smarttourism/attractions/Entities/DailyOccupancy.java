@@ -0,0 +1,56 @@
+package com.smarttourism.attractions.Entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDate;
+
+// Compteurs matérialisés des réservations par (attraction, date de visite), tenus à jour dans la transaction
+// de chaque changement d'état (voir OccupancyLedger). confirmed_people sert aussi de registre des places:
+// il n'augmente que par un UPDATE conditionnel atomique borné par maxCapacity.
+@Entity
+@Table(name = "daily_occupancy",
+       uniqueConstraints = @UniqueConstraint(name = "uk_daily_occupancy_attraction_date",
+                                             columnNames = {"attraction_id", "visit_date"}),
+       indexes = {
+           @Index(name = "idx_daily_occupancy_date", columnList = "visit_date")
+       })
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailyOccupancy {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "attraction_id", nullable = false)
+    private Long attractionId;
+    
+    @Column(name = "visit_date", nullable = false)
+    private LocalDate visitDate;
+    
+    @Column(name = "confirmed_people", nullable = false)
+    private Integer confirmedPeople = 0;
+    
+    @Column(name = "confirmed_reservations", nullable = false)
+    private Integer confirmedReservations = 0;
+    
+    @Column(nullable = false)
+    private Integer completed = 0;
+    
+    @Column(nullable = false)
+    private Integer cancelled = 0;
+    
+    @Column(name = "no_show", nullable = false)
+    private Integer noShow = 0;
+    
+    // Tous statuts confondus (en attente inclus)
+    @Column(name = "total_reservations", nullable = false)
+    private Integer totalReservations = 0;
+    
+    // Prix total des réservations confirmées ou terminées
+    @Column(nullable = false)
+    private Double revenue = 0.0;
+}
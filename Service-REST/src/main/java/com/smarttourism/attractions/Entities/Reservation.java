@@ -13,7 +13,10 @@ import java.util.UUID;
        indexes = {
            @Index(name = "idx_tourist_id", columnList = "tourist_id"),
            @Index(name = "idx_visit_date", columnList = "visit_date"),
-           @Index(name = "idx_status", columnList = "status")
+           @Index(name = "idx_status", columnList = "status"),
+           @Index(name = "idx_reservation_attraction_time_id", columnList = "attraction_id, reservation_time, id"),
+           @Index(name = "idx_reservation_tourist_time_id", columnList = "tourist_id, reservation_time, id"),
+           @Index(name = "idx_reservation_attraction_visit", columnList = "attraction_id, visit_date, status, number_of_people")
        })
 @Data
 @NoArgsConstructor
@@ -13,7 +13,9 @@ import java.time.LocalDateTime;
        indexes = {
            @Index(name = "idx_attraction_rating", columnList = "attraction_id, rating"),
            @Index(name = "idx_tourist_id", columnList = "tourist_id"),
-           @Index(name = "idx_review_date", columnList = "review_date")
+           @Index(name = "idx_review_date", columnList = "review_date"),
+           @Index(name = "idx_review_attraction_date_id", columnList = "attraction_id, review_date, id"),
+           @Index(name = "idx_review_tourist_date_id", columnList = "tourist_id, review_date, id")
        })
 @Data
 @NoArgsConstructor
@@ -59,7 +61,8 @@ public class Review {
     @Column(name = "is_verified_visit")
     private Boolean isVerifiedVisit = false;
     
-    @Column(name = "helpful_count")
+    // Incrémenté uniquement par HelpfulVoteCounters (UPDATE relatif): jamais réécrit par une sauvegarde de l'entité
+    @Column(name = "helpful_count", updatable = false)
     private Integer helpfulCount = 0;
     
     @Column(name = "reply", columnDefinition = "TEXT")
@@ -81,8 +84,4 @@ public class Review {
         if (isVerifiedVisit == null) isVerifiedVisit = false;
         if (isEdited == null) isEdited = false;
     }
-    
-    public void markAsHelpful() {
-        this.helpfulCount++;
-    }
 }
\ No newline at end of file
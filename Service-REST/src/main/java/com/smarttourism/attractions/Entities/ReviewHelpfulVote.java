@@ -0,0 +1,32 @@
+package com.smarttourism.attractions.Entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+// Un vote "utile" par (avis, touriste): la contrainte unique déduplique aussi entre instances.
+// Écrit par lots par HelpfulVoteCounters (INSERT IGNORE), sans clé étrangère pour ne pas bloquer la suppression d'un avis
+@Entity
+@Table(name = "review_helpful_votes",
+       uniqueConstraints = @UniqueConstraint(name = "uk_review_helpful_vote_tourist",
+                                             columnNames = {"review_id", "tourist_id"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReviewHelpfulVote {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "review_id", nullable = false)
+    private Long reviewId;
+
+    @Column(name = "tourist_id", nullable = false, length = 100)
+    private String touristId;
+
+    @Column(name = "voted_at", nullable = false)
+    private LocalDateTime votedAt;
+}
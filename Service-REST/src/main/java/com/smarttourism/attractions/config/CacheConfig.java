@@ -0,0 +1,16 @@
+package com.smarttourism.attractions.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+    
+    // Noms des caches (doivent correspondre à spring.cache.cache-names)
+    public static final String ATTRACTIONS = "attractions";
+    public static final String ATTRACTION_LISTS = "attractionLists";
+    public static final String CITIES = "cities";
+    public static final String CATEGORIES = "categories";
+    public static final String AVAILABILITY_CALENDARS = "availabilityCalendars";
+}
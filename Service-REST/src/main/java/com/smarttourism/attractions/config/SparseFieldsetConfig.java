@@ -0,0 +1,37 @@
+package com.smarttourism.attractions.config;
+
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.smarttourism.attractions.dto.AttractionDTO;
+import com.smarttourism.attractions.dto.AttractionSummaryDTO;
+import com.smarttourism.attractions.dto.FieldSelection;
+import com.smarttourism.attractions.dto.ReservationDTO;
+import com.smarttourism.attractions.dto.ReservationSummaryDTO;
+import com.smarttourism.attractions.dto.ReviewDTO;
+import com.smarttourism.attractions.dto.ReviewSummaryDTO;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// Filtre Jackson posé par mix-in sur les DTO exposés: tout est écrit par défaut,
+// SparseFieldsetAdvice le remplace par la liste de ?fields= pour la requête en cours
+@Configuration
+public class SparseFieldsetConfig {
+    
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer sparseFieldsetCustomizer() {
+        return builder -> builder
+            .filters(new SimpleFilterProvider().setDefaultFilter(SimpleBeanPropertyFilter.serializeAll()))
+            .mixIn(AttractionDTO.class, FieldSelectionMixin.class)
+            .mixIn(AttractionSummaryDTO.class, FieldSelectionMixin.class)
+            .mixIn(ReservationDTO.class, FieldSelectionMixin.class)
+            .mixIn(ReservationSummaryDTO.class, FieldSelectionMixin.class)
+            .mixIn(ReviewDTO.class, FieldSelectionMixin.class)
+            .mixIn(ReviewSummaryDTO.class, FieldSelectionMixin.class);
+    }
+    
+    @JsonFilter(FieldSelection.FILTER_ID)
+    interface FieldSelectionMixin {
+    }
+}
@@ -0,0 +1,28 @@
+package com.smarttourism.attractions.config;
+
+import com.smarttourism.attractions.monitoring.StatementCountingDataSource;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import javax.sql.DataSource;
+
+// Comptage des requêtes SQL: le DataSource du pool est enveloppé dès sa création (voir SqlStatementMetricsFilter)
+@Configuration
+@ConditionalOnProperty(name = "attractions.sql.monitoring.enabled", havingValue = "true", matchIfMissing = true)
+public class SqlMonitoringConfig {
+    
+    // static: post-processeur créé avant les autres beans de configuration
+    @Bean
+    public static BeanPostProcessor statementCountingDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource && !(bean instanceof StatementCountingDataSource)) {
+                    return new StatementCountingDataSource((DataSource) bean);
+                }
+                return bean;
+            }
+        };
+    }
+}
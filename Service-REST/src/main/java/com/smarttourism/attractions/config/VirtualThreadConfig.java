@@ -0,0 +1,49 @@
+package com.smarttourism.attractions.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Profil virtual-threads (JDK 21+): chaque requête Tomcat, et donc chaque méthode @Transactional qu'elle appelle,
+// s'exécute sur son propre thread virtuel. Un thread bloqué sur MySQL ne retient plus de thread système:
+// la limite de concurrence réelle devient le pool Hikari (voir application-virtual-threads.properties).
+// Le module reste compilé en Java 17: l'exécuteur est obtenu par réflexion et son absence arrête le démarrage.
+@Configuration
+@Profile("virtual-threads")
+@Slf4j
+public class VirtualThreadConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService virtualThreadExecutor() {
+        try {
+            ExecutorService executor = (ExecutorService) Executors.class
+                .getMethod("newVirtualThreadPerTaskExecutor")
+                .invoke(null);
+            log.info("Threads virtuels activés pour les requêtes HTTP (JDK {})", Runtime.version());
+            return executor;
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(
+                "Le profil virtual-threads demande un JDK 21 ou plus (JDK actuel: " + Runtime.version() + ")", e);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Impossible de créer l'exécuteur de threads virtuels", e);
+        }
+    }
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer(ExecutorService virtualThreadExecutor) {
+        return protocolHandler -> protocolHandler.setExecutor(virtualThreadExecutor);
+    }
+
+    // Remplace l'exécuteur par défaut (@Async, requêtes MVC asynchrones) par le même exécuteur virtuel
+    @Bean(name = TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+    public AsyncTaskExecutor applicationTaskExecutor(ExecutorService virtualThreadExecutor) {
+        return new TaskExecutorAdapter(virtualThreadExecutor);
+    }
+}
@@ -1,11 +1,22 @@
 package com.smarttourism.attractions.controller;
 
 import com.smarttourism.attractions.dto.AttractionDTO;
+import com.smarttourism.attractions.dto.AttractionSummaryDTO;
+import com.smarttourism.attractions.dto.CursorPage;
+import com.smarttourism.attractions.dto.FieldSelection;
+import com.smarttourism.attractions.dto.ImportReport;
+import com.smarttourism.attractions.dto.NearbyAttractionDTO;
 import com.smarttourism.attractions.dto.requests.CreateAttractionRequest;
 import com.smarttourism.attractions.Entities.Category;
 import com.smarttourism.attractions.service.AttractionService;
+import com.smarttourism.attractions.service.BulkImportService;
+import com.smarttourism.attractions.service.RatingCountersRebuildJob;
+import com.smarttourism.attractions.service.ResourceVersions;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -16,8 +27,11 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import java.io.InputStream;
 import java.util.List;
 import java.util.Map;
 
@@ -28,6 +42,10 @@ import java.util.Map;
 public class AttractionController {
     
     private final AttractionService attractionService;
+    private final RatingCountersRebuildJob ratingCountersRebuildJob;
+    private final BulkImportService bulkImportService;
+    private final ResourceVersions resourceVersions;
+    private final ResponseBytesCache responseBytesCache;
     
     @PostMapping
     @Operation(summary = "Créer une nouvelle attraction", description = "Ajoute une nouvelle attraction touristique à la plateforme")
@@ -48,13 +66,21 @@ public class AttractionController {
         @ApiResponse(responseCode = "200", description = "Liste des attractions récupérée"),
         @ApiResponse(responseCode = "500", description = "Erreur interne du serveur")
     })
-    public ResponseEntity<List<AttractionDTO>> getAllAttractions() {
-        return ResponseEntity.ok(attractionService.getAllAttractions());
+    public ResponseEntity<List<AttractionDTO>> getAllAttractions(
+            @Parameter(description = "Champs à renvoyer, séparés par des virgules (tous par défaut)", example = "id,name,rating,imageUrl")
+            @RequestParam(name = FieldSelection.PARAMETER, required = false) String fields,
+            WebRequest request) {
+        // fields=: SELECT des seules colonnes demandées au lieu de la liste complète en cache
+        FieldSelection selection = FieldSelection.parse(fields, AttractionDTO.class);
+        String version = resourceVersions.catalogTag("all");
+        List<AttractionDTO> attractions = selection.isAll()
+            ? attractionService.getAllAttractions() : attractionService.getAllAttractions(selection);
+        return ConditionalGet.ifNoneMatch(request, ResourceVersions.withOpenState(version, attractions), () -> attractions);
     }
     
     @GetMapping("/paginated")
     @Operation(summary = "Récupérer les attractions avec pagination", description = "Retourne les attractions avec pagination et tri")
-    public ResponseEntity<Page<AttractionDTO>> getAllAttractionsPaginated(
+    public ResponseEntity<Page<AttractionSummaryDTO>> getAllAttractionsPaginated(
             @Parameter(description = "Numéro de page (0-based)", example = "0") 
             @RequestParam(defaultValue = "0") int page,
             @Parameter(description = "Taille de la page", example = "10") 
@@ -68,10 +94,21 @@ public class AttractionController {
             Sort.Direction.DESC : Sort.Direction.ASC;
         Pageable pageable = PageRequest.of(page, size, Sort.by(sortDirection, sortBy));
         
-        Page<AttractionDTO> attractions = attractionService.getAllAttractions(pageable);
+        Page<AttractionSummaryDTO> attractions = attractionService.getAttractionSummaries(pageable);
         return ResponseEntity.ok(attractions);
     }
     
+    @GetMapping("/cursor")
+    @Operation(summary = "Récupérer les attractions par curseur",
+               description = "Pagination keyset triée par note puis ID décroissants, sans COUNT et à coût constant quelle que soit la page")
+    public ResponseEntity<CursorPage<AttractionDTO>> getAllAttractionsByCursor(
+            @Parameter(description = "Curseur renvoyé par la page précédente (absent pour la première page)")
+            @RequestParam(required = false) String after,
+            @Parameter(description = "Nombre d'éléments (1-100)", example = "20")
+            @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(attractionService.getAttractionsAfter(after, limit));
+    }
+    
     @GetMapping("/{id}")
     @Operation(summary = "Récupérer une attraction par ID", description = "Retourne les détails d'une attraction spécifique")
     @ApiResponses(value = {
@@ -80,39 +117,60 @@ public class AttractionController {
     })
     public ResponseEntity<AttractionDTO> getAttractionById(
             @Parameter(description = "ID de l'attraction", required = true, example = "1")
-            @PathVariable Long id) {
-        return ResponseEntity.ok(attractionService.getAttractionById(id));
+            @PathVariable Long id,
+            WebRequest request) {
+        // L'état ouvert/fermé entre dans l'ETag: lu sur le DTO du cache catalogue (pas de SQL sauf absence du cache)
+        AttractionDTO attraction = attractionService.getAttractionById(id);
+        return ConditionalGet.ifNoneMatch(request,
+            resourceVersions.attractionTag(id, Boolean.TRUE.equals(attraction.getIsOpen())), () -> attraction);
     }
     
     @GetMapping("/city/{city}")
     @Operation(summary = "Récupérer les attractions par ville", description = "Retourne toutes les attractions d'une ville spécifique")
     public ResponseEntity<List<AttractionDTO>> getAttractionsByCity(
             @Parameter(description = "Nom de la ville", required = true, example = "Tunis")
-            @PathVariable String city) {
-        return ResponseEntity.ok(attractionService.getAttractionsByCity(city));
+            @PathVariable String city,
+            @Parameter(description = "Champs à renvoyer, séparés par des virgules (tous par défaut)", example = "id,name,rating,imageUrl")
+            @RequestParam(name = FieldSelection.PARAMETER, required = false) String fields) {
+        return ResponseEntity.ok(attractionService.getAttractionsByCity(city,
+            FieldSelection.parse(fields, AttractionDTO.class)));
     }
     
     @GetMapping("/city/{city}/paginated")
     @Operation(summary = "Récupérer les attractions par ville avec pagination")
-    public ResponseEntity<Page<AttractionDTO>> getAttractionsByCityPaginated(
+    public ResponseEntity<Page<AttractionSummaryDTO>> getAttractionsByCityPaginated(
             @PathVariable String city,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size) {
         Pageable pageable = PageRequest.of(page, size);
-        return ResponseEntity.ok(attractionService.getAttractionsByCity(city, pageable));
+        return ResponseEntity.ok(attractionService.getAttractionSummariesByCity(city, pageable));
+    }
+    
+    @GetMapping("/city/{city}/cursor")
+    @Operation(summary = "Récupérer les attractions par ville avec pagination par curseur")
+    public ResponseEntity<CursorPage<AttractionDTO>> getAttractionsByCityByCursor(
+            @PathVariable String city,
+            @Parameter(description = "Curseur renvoyé par la page précédente (absent pour la première page)")
+            @RequestParam(required = false) String after,
+            @Parameter(description = "Nombre d'éléments (1-100)", example = "20")
+            @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(attractionService.getAttractionsByCityAfter(city, after, limit));
     }
     
     @GetMapping("/category/{category}")
     @Operation(summary = "Récupérer les attractions par catégorie", description = "Retourne toutes les attractions d'une catégorie spécifique")
     public ResponseEntity<List<AttractionDTO>> getAttractionsByCategory(
             @Parameter(description = "Catégorie de l'attraction", required = true, example = "MUSEUM")
-            @PathVariable Category category) {
-        return ResponseEntity.ok(attractionService.getAttractionsByCategory(category));
+            @PathVariable Category category,
+            @Parameter(description = "Champs à renvoyer, séparés par des virgules (tous par défaut)", example = "id,name,rating,imageUrl")
+            @RequestParam(name = FieldSelection.PARAMETER, required = false) String fields) {
+        return ResponseEntity.ok(attractionService.getAttractionsByCategory(category,
+            FieldSelection.parse(fields, AttractionDTO.class)));
     }
     
     @GetMapping("/search")
     @Operation(summary = "Rechercher des attractions avec filtres", description = "Recherche d'attractions avec plusieurs filtres optionnels")
-    public ResponseEntity<Page<AttractionDTO>> searchAttractions(
+    public ResponseEntity<Page<AttractionSummaryDTO>> searchAttractions(
             @Parameter(description = "Ville de recherche") 
             @RequestParam(required = false) String city,
             @Parameter(description = "Catégorie de recherche") 
@@ -127,7 +185,7 @@ public class AttractionController {
             @RequestParam(defaultValue = "10") int size) {
         
         Pageable pageable = PageRequest.of(page, size);
-        Page<AttractionDTO> results = attractionService.searchAttractions(
+        Page<AttractionSummaryDTO> results = attractionService.searchAttractionSummaries(
             city, category, minPrice, maxPrice, minRating, pageable);
         return ResponseEntity.ok(results);
     }
@@ -140,34 +198,93 @@ public class AttractionController {
         return ResponseEntity.ok(attractionService.searchAttractions(query));
     }
     
+    @GetMapping("/nearby")
+    @Operation(summary = "Rechercher les attractions à proximité", description = "Retourne les attractions actives les plus proches d'une position, triées par distance")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Attractions proches récupérées"),
+        @ApiResponse(responseCode = "400", description = "Coordonnées ou paramètres invalides")
+    })
+    public ResponseEntity<List<NearbyAttractionDTO>> getNearbyAttractions(
+            @Parameter(description = "Latitude", required = true, example = "36.8065")
+            @RequestParam Double lat,
+            @Parameter(description = "Longitude", required = true, example = "10.1815")
+            @RequestParam Double lon,
+            @Parameter(description = "Rayon de recherche en km (sans rayon: plus proches voisins)", example = "2")
+            @RequestParam(required = false) Double radiusKm,
+            @Parameter(description = "Catégorie")
+            @RequestParam(required = false) Category category,
+            @Parameter(description = "Nombre maximum de résultats", example = "20")
+            @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(attractionService.getNearbyAttractions(lat, lon, radiusKm, category, limit));
+    }
+    
     @GetMapping("/top-rated")
     @Operation(summary = "Récupérer les attractions les mieux notées", description = "Retourne les attractions avec les meilleures notes")
-    public ResponseEntity<List<AttractionDTO>> getTopRatedAttractions() {
-        return ResponseEntity.ok(attractionService.getTopRatedAttractions());
+    @ApiResponse(responseCode = "200", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+        array = @ArraySchema(schema = @Schema(implementation = AttractionDTO.class))))
+    public ResponseEntity<?> getTopRatedAttractions(
+            @Parameter(description = "Champs à renvoyer, séparés par des virgules (tous par défaut)", example = "id,name,rating,imageUrl")
+            @RequestParam(name = FieldSelection.PARAMETER, required = false) String fields,
+            WebRequest request) {
+        FieldSelection selection = FieldSelection.parse(fields, AttractionDTO.class);
+        String version = resourceVersions.catalogTag("top-rated");
+        List<AttractionDTO> attractions = selection.isAll()
+            ? attractionService.getTopRatedAttractions() : attractionService.getTopRatedAttractions(selection);
+        return responseBytesCache.respond(request, "top-rated", ResourceVersions.withOpenState(version, attractions),
+            () -> attractions);
     }
     
     @GetMapping("/featured")
     @Operation(summary = "Récupérer les attractions en vedette", description = "Retourne les attractions marquées comme vedettes")
-    public ResponseEntity<List<AttractionDTO>> getFeaturedAttractions() {
-        return ResponseEntity.ok(attractionService.getFeaturedAttractions());
+    @ApiResponse(responseCode = "200", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+        array = @ArraySchema(schema = @Schema(implementation = AttractionDTO.class))))
+    public ResponseEntity<?> getFeaturedAttractions(
+            @Parameter(description = "Champs à renvoyer, séparés par des virgules (tous par défaut)", example = "id,name,rating,imageUrl")
+            @RequestParam(name = FieldSelection.PARAMETER, required = false) String fields,
+            WebRequest request) {
+        FieldSelection selection = FieldSelection.parse(fields, AttractionDTO.class);
+        String version = resourceVersions.catalogTag("featured");
+        List<AttractionDTO> attractions = selection.isAll()
+            ? attractionService.getFeaturedAttractions() : attractionService.getFeaturedAttractions(selection);
+        return responseBytesCache.respond(request, "featured", ResourceVersions.withOpenState(version, attractions),
+            () -> attractions);
     }
     
     @GetMapping("/cities")
     @Operation(summary = "Récupérer toutes les villes", description = "Retourne la liste de toutes les villes disponibles")
-    public ResponseEntity<List<String>> getAllCities() {
-        return ResponseEntity.ok(attractionService.getAllCities());
+    public ResponseEntity<?> getAllCities(WebRequest request) {
+        return responseBytesCache.respond(request, "cities", resourceVersions.catalogStructureTag("cities"),
+            attractionService::getAllCities);
     }
     
     @GetMapping("/categories")
     @Operation(summary = "Récupérer toutes les catégories", description = "Retourne la liste de toutes les catégories disponibles")
-    public ResponseEntity<List<Category>> getAllCategories() {
-        return ResponseEntity.ok(attractionService.getAllCategories());
+    public ResponseEntity<?> getAllCategories(WebRequest request) {
+        return responseBytesCache.respond(request, "categories", resourceVersions.catalogStructureTag("categories"),
+            attractionService::getAllCategories);
     }
     
     @GetMapping("/statistics")
     @Operation(summary = "Récupérer les statistiques", description = "Retourne les statistiques générales des attractions")
-    public ResponseEntity<Map<String, Object>> getStatistics() {
-        return ResponseEntity.ok(attractionService.getStatistics());
+    public ResponseEntity<?> getStatistics(WebRequest request) {
+        return responseBytesCache.respond(request, "statistics", resourceVersions.catalogStructureTag("statistics"),
+            attractionService::getStatistics);
+    }
+    
+    @PostMapping(value = "/import", consumes = {"application/x-ndjson", MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    @Operation(summary = "Importer des attractions en masse", description = "Fichier NDJSON (une attraction par ligne) lu en flux, validé et inséré par lots")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Import terminé, avec le détail des lignes rejetées par lot")
+    })
+    public ResponseEntity<ImportReport> importAttractions(InputStream body) {
+        return ResponseEntity.ok(bulkImportService.importAttractions(body));
+    }
+    
+    @PostMapping("/ratings/rebuild")
+    @Operation(summary = "Reconstruire les compteurs de notes", description = "Recalcule l'histogramme et la note moyenne de toutes les attractions à partir des avis")
+    public ResponseEntity<Map<String, Object>> rebuildRatingCounters() {
+        int rebuilt = ratingCountersRebuildJob.rebuildAll();
+        return ResponseEntity.ok(Map.of("rebuiltAttractions", rebuilt));
     }
     
     @PutMapping("/{id}")
@@ -194,6 +311,34 @@ public class AttractionController {
         return ResponseEntity.noContent().build();
     }
     
+    @PostMapping("/{id}/visitors/increment")
+    @Operation(summary = "Enregistrer des entrées", description = "Incrémente le compteur de visiteurs en temps réel (portiques), refusé au-delà de la capacité maximale")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Entrées enregistrées"),
+        @ApiResponse(responseCode = "400", description = "Nombre invalide, capacité maximale atteinte ou attraction inactive"),
+        @ApiResponse(responseCode = "404", description = "Attraction non trouvée")
+    })
+    public ResponseEntity<Map<String, Object>> incrementVisitors(
+            @PathVariable Long id,
+            @Parameter(description = "Nombre d'entrées", example = "1")
+            @RequestParam(defaultValue = "1") int count) {
+        return ResponseEntity.ok(attractionService.incrementVisitors(id, count));
+    }
+    
+    @PostMapping("/{id}/visitors/decrement")
+    @Operation(summary = "Enregistrer des sorties", description = "Décrémente le compteur de visiteurs en temps réel (jamais sous zéro)")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Sorties enregistrées"),
+        @ApiResponse(responseCode = "400", description = "Nombre invalide"),
+        @ApiResponse(responseCode = "404", description = "Attraction non trouvée")
+    })
+    public ResponseEntity<Map<String, Object>> decrementVisitors(
+            @PathVariable Long id,
+            @Parameter(description = "Nombre de sorties", example = "1")
+            @RequestParam(defaultValue = "1") int count) {
+        return ResponseEntity.ok(attractionService.decrementVisitors(id, count));
+    }
+    
     @PatchMapping("/{id}/visitors")
     @Operation(summary = "Mettre à jour le nombre de visiteurs", description = "Met à jour le nombre actuel de visiteurs pour une attraction")
     @ApiResponses(value = {
@@ -0,0 +1,26 @@
+package com.smarttourism.attractions.controller;
+
+import com.smarttourism.attractions.service.ResourceVersions;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+import java.util.function.Supplier;
+
+// GET conditionnel: If-None-Match est comparé à l'ETag (version en mémoire) avant de produire le corps,
+// un 304 ne lit ni la base ni le cache et ne sérialise rien. L'ETag n'est posé que sur un 200
+// (pas sur un 404 levé par le corps). no-cache: le client revalide à chaque fois
+final class ConditionalGet {
+    
+    private ConditionalGet() {
+    }
+    
+    static <T> ResponseEntity<T> ifNoneMatch(WebRequest request, String etag, Supplier<T> body) {
+        if (ResourceVersions.matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(CacheControl.noCache()).build();
+        }
+        T value = body.get();
+        return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache()).body(value);
+    }
+}
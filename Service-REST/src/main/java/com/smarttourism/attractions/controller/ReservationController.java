@@ -1,9 +1,19 @@
 package com.smarttourism.attractions.controller;
 
+import com.smarttourism.attractions.dto.AvailabilityCalendarDTO;
+import com.smarttourism.attractions.dto.CursorPage;
+import com.smarttourism.attractions.dto.FieldSelection;
+import com.smarttourism.attractions.dto.ImportReport;
 import com.smarttourism.attractions.dto.ReservationDTO;
+import com.smarttourism.attractions.dto.ReservationSummaryDTO;
+import com.smarttourism.attractions.dto.SlotAvailabilityDTO;
 import com.smarttourism.attractions.dto.requests.CreateReservationRequest;
 import com.smarttourism.attractions.Entities.Reservation;
+import com.smarttourism.attractions.service.AvailabilityService;
+import com.smarttourism.attractions.service.BulkImportService;
+import com.smarttourism.attractions.service.ReservationExportService;
 import com.smarttourism.attractions.service.ReservationService;
+import com.smarttourism.attractions.service.ResourceVersions;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -16,9 +26,14 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import java.io.InputStream;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
@@ -30,6 +45,10 @@ import java.util.Map;
 public class ReservationController {
 
     private final ReservationService reservationService;
+    private final ReservationExportService reservationExportService;
+    private final BulkImportService bulkImportService;
+    private final AvailabilityService availabilityService;
+    private final ResourceVersions resourceVersions;
 
     @PostMapping
     @Operation(
@@ -85,8 +104,11 @@ public class ReservationController {
     )
     public ResponseEntity<List<ReservationDTO>> getReservationsByTouristId(
             @Parameter(description = "ID du touriste", required = true, example = "tourist_12345")
-            @PathVariable String touristId) {
-        return ResponseEntity.ok(reservationService.getReservationsByTouristId(touristId));
+            @PathVariable String touristId,
+            @Parameter(description = "Champs à renvoyer, séparés par des virgules (tous par défaut)", example = "reservationCode,attractionName,visitDate,status")
+            @RequestParam(name = FieldSelection.PARAMETER, required = false) String fields) {
+        return ResponseEntity.ok(reservationService.getReservationsByTouristId(touristId,
+            FieldSelection.parse(fields, ReservationDTO.class)));
     }
 
     @GetMapping("/tourist/{touristId}/paginated")
@@ -94,7 +116,7 @@ public class ReservationController {
         summary = "Récupérer les réservations d'un touriste avec pagination",
         description = "Retourne les réservations d'un touriste avec pagination et tri"
     )
-    public ResponseEntity<Page<ReservationDTO>> getReservationsByTouristIdPaginated(
+    public ResponseEntity<Page<ReservationSummaryDTO>> getReservationsByTouristIdPaginated(
             @Parameter(description = "ID du touriste", required = true)
             @PathVariable String touristId,
             @Parameter(description = "Numéro de page (0-based)", example = "0")
@@ -110,7 +132,22 @@ public class ReservationController {
             Sort.Direction.DESC : Sort.Direction.ASC;
         Pageable pageable = PageRequest.of(page, size, Sort.by(sortDirection, sortBy));
         
-        return ResponseEntity.ok(reservationService.getReservationsByTouristId(touristId, pageable));
+        return ResponseEntity.ok(reservationService.getReservationSummariesByTouristId(touristId, pageable));
+    }
+
+    @GetMapping("/tourist/{touristId}/cursor")
+    @Operation(
+        summary = "Récupérer les réservations d'un touriste par curseur",
+        description = "Pagination keyset triée par date de réservation puis ID décroissants, sans COUNT"
+    )
+    public ResponseEntity<CursorPage<ReservationDTO>> getReservationsByTouristIdByCursor(
+            @Parameter(description = "ID du touriste", required = true)
+            @PathVariable String touristId,
+            @Parameter(description = "Curseur renvoyé par la page précédente (absent pour la première page)")
+            @RequestParam(required = false) String after,
+            @Parameter(description = "Nombre d'éléments (1-100)", example = "20")
+            @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(reservationService.getReservationsByTouristIdAfter(touristId, after, limit));
     }
 
     @GetMapping("/attraction/{attractionId}")
@@ -129,13 +166,27 @@ public class ReservationController {
         summary = "Récupérer les réservations d'une attraction avec pagination",
         description = "Retourne les réservations d'une attraction avec pagination"
     )
-    public ResponseEntity<Page<ReservationDTO>> getReservationsByAttractionIdPaginated(
+    public ResponseEntity<Page<ReservationSummaryDTO>> getReservationsByAttractionIdPaginated(
             @PathVariable Long attractionId,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size) {
         
         Pageable pageable = PageRequest.of(page, size);
-        return ResponseEntity.ok(reservationService.getReservationsByAttractionId(attractionId, pageable));
+        return ResponseEntity.ok(reservationService.getReservationSummariesByAttractionId(attractionId, pageable));
+    }
+
+    @GetMapping("/attraction/{attractionId}/cursor")
+    @Operation(
+        summary = "Récupérer les réservations d'une attraction par curseur",
+        description = "Pagination keyset triée par date de réservation puis ID décroissants, sans COUNT"
+    )
+    public ResponseEntity<CursorPage<ReservationDTO>> getReservationsByAttractionIdByCursor(
+            @PathVariable Long attractionId,
+            @Parameter(description = "Curseur renvoyé par la page précédente (absent pour la première page)")
+            @RequestParam(required = false) String after,
+            @Parameter(description = "Nombre d'éléments (1-100)", example = "20")
+            @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(reservationService.getReservationsByAttractionIdAfter(attractionId, after, limit));
     }
 
     @PutMapping("/{id}")
@@ -172,6 +223,15 @@ public class ReservationController {
         return ResponseEntity.ok(reservationService.updateReservationStatus(id, status));
     }
 
+    @PostMapping(value = "/import", consumes = {"application/x-ndjson", MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    @Operation(summary = "Importer des réservations en masse", description = "Fichier NDJSON (une réservation par ligne, dates passées acceptées) lu en flux, validé et inséré par lots")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Import terminé, avec le détail des lignes rejetées par lot")
+    })
+    public ResponseEntity<ImportReport> importReservations(InputStream body) {
+        return ResponseEntity.ok(bulkImportService.importReservations(body));
+    }
+
     @PostMapping("/{id}/cancel")
     @Operation(
         summary = "Annuler une réservation",
@@ -228,11 +288,71 @@ public class ReservationController {
         @ApiResponse(responseCode = "404", description = "Attraction non trouvée")
     })
     public ResponseEntity<Map<String, Object>> checkAvailability(
+            @Parameter(description = "ID de l'attraction", required = true, example = "1")
+            @PathVariable Long attractionId,
+            @Parameter(description = "Date de visite", required = true, example = "2024-12-25")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            WebRequest request) {
+        return ConditionalGet.ifNoneMatch(request, resourceVersions.availabilityTag(attractionId),
+            () -> reservationService.checkAvailability(attractionId, date));
+    }
+
+    @GetMapping("/availability")
+    @Operation(
+        summary = "Disponibilités de plusieurs attractions",
+        description = "Retourne les places restantes à une date pour une liste d'attractions ou toutes les attractions " +
+                      "d'une ville, sous forme { id: places } (-1 = capacité illimitée, 0 = complet ou inactive)"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Disponibilités récupérées"),
+        @ApiResponse(responseCode = "400", description = "Ni IDs ni ville, ou les deux")
+    })
+    public ResponseEntity<Map<Long, Integer>> getAvailability(
+            @Parameter(description = "IDs des attractions", example = "1,2,3")
+            @RequestParam(required = false) List<Long> attractionIds,
+            @Parameter(description = "Ville", example = "Tunis")
+            @RequestParam(required = false) String city,
+            @Parameter(description = "Date de visite", required = true, example = "2024-12-25")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        return ResponseEntity.ok(availabilityService.getAvailability(attractionIds, city, date));
+    }
+
+    @GetMapping("/availability/{attractionId}/calendar")
+    @Operation(
+        summary = "Calendrier de disponibilité",
+        description = "Retourne les places restantes pour chaque jour d'une période (-1 = capacité illimitée)"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Calendrier récupéré"),
+        @ApiResponse(responseCode = "400", description = "Période invalide ou hors de l'horizon de réservation"),
+        @ApiResponse(responseCode = "404", description = "Attraction non trouvée")
+    })
+    public ResponseEntity<AvailabilityCalendarDTO> getAvailabilityCalendar(
+            @Parameter(description = "ID de l'attraction", required = true, example = "1")
+            @PathVariable Long attractionId,
+            @Parameter(description = "Premier jour", required = true, example = "2024-12-01")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "Dernier jour (inclus)", required = true, example = "2024-12-31")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(availabilityService.getAvailabilityCalendar(attractionId, from, to));
+    }
+
+    @GetMapping("/availability/{attractionId}/slots")
+    @Operation(
+        summary = "Disponibilité des créneaux",
+        description = "Retourne les places restantes de chaque créneau horaire d'une journée"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Créneaux récupérés"),
+        @ApiResponse(responseCode = "400", description = "Date hors de l'horizon de réservation ou attraction sans créneaux"),
+        @ApiResponse(responseCode = "404", description = "Attraction non trouvée")
+    })
+    public ResponseEntity<SlotAvailabilityDTO> getSlotAvailability(
             @Parameter(description = "ID de l'attraction", required = true, example = "1")
             @PathVariable Long attractionId,
             @Parameter(description = "Date de visite", required = true, example = "2024-12-25")
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
-        return ResponseEntity.ok(reservationService.checkAvailability(attractionId, date));
+        return ResponseEntity.ok(availabilityService.getSlotAvailability(attractionId, date));
     }
 
     @GetMapping("/statistics/{attractionId}")
@@ -248,18 +368,32 @@ public class ReservationController {
 
     @GetMapping("/date-range")
     @Operation(
-        summary = "Récupérer les réservations par période",
-        description = "Retourne les réservations entre deux dates (pour rapports)"
+        summary = "Exporter les réservations par période",
+        description = "Exporte en flux (NDJSON ou CSV) les réservations dont la date de visite est comprise entre deux dates, " +
+                      "à mémoire constante quel que soit le volume (pour rapports)"
     )
-    public ResponseEntity<List<ReservationDTO>> getReservationsByDateRange(
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Export en cours de transmission"),
+        @ApiResponse(responseCode = "400", description = "Période invalide")
+    })
+    public ResponseEntity<StreamingResponseBody> getReservationsByDateRange(
             @Parameter(description = "Date de début", required = true, example = "2024-12-01")
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             @Parameter(description = "Date de fin", required = true, example = "2024-12-31")
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @Parameter(description = "Format d'export: NDJSON ou CSV", example = "NDJSON")
+            @RequestParam(defaultValue = "NDJSON") ReservationExportService.ExportFormat format) {
         
-        // Note: Vous devrez créer cette méthode dans le service et repository
-        // return ResponseEntity.ok(reservationService.getReservationsByDateRange(startDate, endDate));
-        return ResponseEntity.status(HttpStatus.NOT_IMPLEMENTED).build();
+        // Valider avant d'ouvrir le flux pour pouvoir encore répondre en 400
+        reservationExportService.validateExportRange(startDate, endDate);
+        
+        StreamingResponseBody body = output ->
+            reservationExportService.exportReservations(startDate, endDate, format, output);
+        String fileName = "reservations_" + startDate + "_" + endDate + "." + format.getExtension();
+        return ResponseEntity.ok()
+            .contentType(MediaType.parseMediaType(format.getContentType()))
+            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+            .body(body);
     }
 
     @DeleteMapping("/{id}")
@@ -0,0 +1,122 @@
+package com.smarttourism.attractions.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smarttourism.attractions.dto.FieldSelection;
+import com.smarttourism.attractions.service.ResourceVersions;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.WebRequest;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+// Réponses identiques pour tous les appelants (listes du catalogue): JSON UTF-8 et variante gzip gardés en octets
+// pour l'ETag courant, écrits tels quels (ByteArrayHttpMessageConverter) sans DTO, Jackson ni compression.
+// L'entrée est régénérée au premier appel qui voit une nouvelle version (ResourceVersions), y compris un nouvel
+// état ouvert/fermé des attractions listées (ResourceVersions.withOpenState).
+// Avec ?fields= la réponse est propre à la requête: chemin normal (ConditionalGet + SparseFieldsetAdvice)
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ResponseBytesCache {
+
+    // En dessous, gzip ne gagne presque rien et coûte un en-tête de plus
+    private static final int GZIP_MIN_BYTES = 256;
+
+    private final ObjectMapper objectMapper;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    public ResponseEntity<?> respond(WebRequest request, String key, String etag, Supplier<?> body) {
+        if (request.getParameter(FieldSelection.PARAMETER) != null) {
+            return ConditionalGet.ifNoneMatch(request, etag, body);
+        }
+        if (ResourceVersions.matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag)
+                .cacheControl(CacheControl.noCache()).varyBy(HttpHeaders.ACCEPT_ENCODING).build();
+        }
+
+        Entry entry = entry(key, etag, body);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+            .eTag(etag)
+            .cacheControl(CacheControl.noCache())
+            .varyBy(HttpHeaders.ACCEPT_ENCODING)
+            .contentType(MediaType.APPLICATION_JSON);
+        if (entry.gzip != null && acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING))) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").contentLength(entry.gzip.length).body(entry.gzip);
+        }
+        return response.contentLength(entry.json.length).body(entry.json);
+    }
+
+    private Entry entry(String key, String etag, Supplier<?> body) {
+        Entry current = entries.get(key);
+        if (current != null && current.etag.equals(etag)) {
+            return current;
+        }
+        // Version lue avant le corps: un corps plus récent que son ETag est régénéré au prochain changement de version
+        byte[] json = serialize(body.get());
+        byte[] gzip = json.length >= GZIP_MIN_BYTES ? gzip(json) : null;
+        Entry fresh = new Entry(etag, json, gzip != null && gzip.length < json.length ? gzip : null);
+        entries.put(key, fresh);
+        log.debug("Réponse pré-sérialisée {} régénérée ({}): {} octets, gzip {}", key, etag, json.length,
+            fresh.gzip != null ? fresh.gzip.length : "-");
+        return fresh;
+    }
+
+    private byte[] serialize(Object body) {
+        try {
+            return objectMapper.writeValueAsBytes(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Sérialisation impossible", e);
+        }
+    }
+
+    private static byte[] gzip(byte[] json) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    // Accept-Encoding: gzip (ou *) présent et non refusé par q=0
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            String name = parts[0].trim();
+            if (!name.equalsIgnoreCase("gzip") && !name.equals("*")) {
+                continue;
+            }
+            boolean refused = parts.length > 1 && parts[1].replace(" ", "").matches("q=0(\\.0*)?");
+            return !refused;
+        }
+        return false;
+    }
+
+    private static final class Entry {
+        private final String etag;
+        private final byte[] json;
+        private final byte[] gzip;
+
+        private Entry(String etag, byte[] json, byte[] gzip) {
+            this.etag = etag;
+            this.json = json;
+            this.gzip = gzip;
+        }
+    }
+}
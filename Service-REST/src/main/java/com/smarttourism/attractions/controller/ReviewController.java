@@ -1,7 +1,13 @@
 package com.smarttourism.attractions.controller;
 
+import com.smarttourism.attractions.dto.CursorPage;
+import com.smarttourism.attractions.dto.FieldSelection;
+import com.smarttourism.attractions.dto.ImportReport;
 import com.smarttourism.attractions.dto.ReviewDTO;
+import com.smarttourism.attractions.dto.ReviewSummaryDTO;
 import com.smarttourism.attractions.dto.requests.CreateReviewRequest;
+import com.smarttourism.attractions.service.BulkImportService;
+import com.smarttourism.attractions.service.ResourceVersions;
 import com.smarttourism.attractions.service.ReviewService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -15,8 +21,11 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import java.io.InputStream;
 import java.util.List;
 import java.util.Map;
 
@@ -27,6 +36,8 @@ import java.util.Map;
 public class ReviewController {
 
     private final ReviewService reviewService;
+    private final BulkImportService bulkImportService;
+    private final ResourceVersions resourceVersions;
 
     @PostMapping
     @Operation(
@@ -67,8 +78,11 @@ public class ReviewController {
     )
     public ResponseEntity<List<ReviewDTO>> getReviewsByAttractionId(
             @Parameter(description = "ID de l'attraction", required = true, example = "1")
-            @PathVariable Long attractionId) {
-        return ResponseEntity.ok(reviewService.getReviewsByAttractionId(attractionId));
+            @PathVariable Long attractionId,
+            @Parameter(description = "Champs à renvoyer, séparés par des virgules (tous par défaut)", example = "touristName,rating,title,reviewDate")
+            @RequestParam(name = FieldSelection.PARAMETER, required = false) String fields) {
+        return ResponseEntity.ok(reviewService.getReviewsByAttractionId(attractionId,
+            FieldSelection.parse(fields, ReviewDTO.class)));
     }
 
     @GetMapping("/attraction/{attractionId}/paginated")
@@ -76,7 +90,7 @@ public class ReviewController {
         summary = "Récupérer les avis d'une attraction avec pagination",
         description = "Retourne les avis d'une attraction avec pagination"
     )
-    public ResponseEntity<Page<ReviewDTO>> getReviewsByAttractionIdPaginated(
+    public ResponseEntity<Page<ReviewSummaryDTO>> getReviewsByAttractionIdPaginated(
             @PathVariable Long attractionId,
             @Parameter(description = "Numéro de page (0-based)", example = "0")
             @RequestParam(defaultValue = "0") int page,
@@ -84,7 +98,21 @@ public class ReviewController {
             @RequestParam(defaultValue = "10") int size) {
         
         Pageable pageable = PageRequest.of(page, size);
-        return ResponseEntity.ok(reviewService.getReviewsByAttractionId(attractionId, pageable));
+        return ResponseEntity.ok(reviewService.getReviewSummariesByAttractionId(attractionId, pageable));
+    }
+
+    @GetMapping("/attraction/{attractionId}/cursor")
+    @Operation(
+        summary = "Récupérer les avis d'une attraction par curseur",
+        description = "Pagination keyset triée par date puis ID décroissants, sans COUNT"
+    )
+    public ResponseEntity<CursorPage<ReviewDTO>> getReviewsByAttractionIdByCursor(
+            @PathVariable Long attractionId,
+            @Parameter(description = "Curseur renvoyé par la page précédente (absent pour la première page)")
+            @RequestParam(required = false) String after,
+            @Parameter(description = "Nombre d'éléments (1-100)", example = "20")
+            @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(reviewService.getReviewsByAttractionIdAfter(attractionId, after, limit));
     }
 
     @GetMapping("/attraction/{attractionId}/sorted")
@@ -126,13 +154,27 @@ public class ReviewController {
         summary = "Récupérer les avis d'un touriste avec pagination",
         description = "Retourne les avis d'un touriste avec pagination"
     )
-    public ResponseEntity<Page<ReviewDTO>> getReviewsByTouristIdPaginated(
+    public ResponseEntity<Page<ReviewSummaryDTO>> getReviewsByTouristIdPaginated(
             @PathVariable String touristId,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size) {
         
         Pageable pageable = PageRequest.of(page, size);
-        return ResponseEntity.ok(reviewService.getReviewsByTouristId(touristId, pageable));
+        return ResponseEntity.ok(reviewService.getReviewSummariesByTouristId(touristId, pageable));
+    }
+
+    @GetMapping("/tourist/{touristId}/cursor")
+    @Operation(
+        summary = "Récupérer les avis d'un touriste par curseur",
+        description = "Pagination keyset triée par date puis ID décroissants, sans COUNT"
+    )
+    public ResponseEntity<CursorPage<ReviewDTO>> getReviewsByTouristIdByCursor(
+            @PathVariable String touristId,
+            @Parameter(description = "Curseur renvoyé par la page précédente (absent pour la première page)")
+            @RequestParam(required = false) String after,
+            @Parameter(description = "Nombre d'éléments (1-100)", example = "20")
+            @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(reviewService.getReviewsByTouristIdAfter(touristId, after, limit));
     }
 
     @GetMapping("/attraction/{attractionId}/verified")
@@ -200,19 +242,30 @@ public class ReviewController {
         return ResponseEntity.noContent().build();
     }
 
+    @PostMapping(value = "/import", consumes = {"application/x-ndjson", MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    @Operation(summary = "Importer des avis en masse", description = "Fichier NDJSON (un avis par ligne) lu en flux, validé et inséré par lots; notes des attractions recalculées une fois à la fin")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Import terminé, avec le détail des lignes rejetées par lot")
+    })
+    public ResponseEntity<ImportReport> importReviews(InputStream body) {
+        return ResponseEntity.ok(bulkImportService.importReviews(body));
+    }
+    
     @PostMapping("/{id}/helpful")
     @Operation(
         summary = "Marquer un avis comme utile",
-        description = "Incrémente le compteur d'utilité d'un avis"
+        description = "Compte un vote utile par touriste; un second vote du même touriste est ignoré (counted=false)"
     )
     @ApiResponses(value = {
-        @ApiResponse(responseCode = "200", description = "Avis marqué comme utile"),
+        @ApiResponse(responseCode = "200", description = "Vote enregistré ou déjà présent"),
         @ApiResponse(responseCode = "404", description = "Avis non trouvé")
     })
-    public ResponseEntity<ReviewDTO> markReviewAsHelpful(
+    public ResponseEntity<Map<String, Object>> markReviewAsHelpful(
             @Parameter(description = "ID de l'avis", required = true)
-            @PathVariable Long id) {
-        return ResponseEntity.ok(reviewService.markReviewAsHelpful(id));
+            @PathVariable Long id,
+            @Parameter(description = "ID du touriste qui vote", required = true)
+            @RequestParam String touristId) {
+        return ResponseEntity.ok(reviewService.markReviewAsHelpful(id, touristId));
     }
 
     @PostMapping("/{id}/reply")
@@ -249,19 +302,20 @@ public class ReviewController {
         description = "Retourne un résumé des avis (note moyenne, distribution, etc.)"
     )
     public ResponseEntity<Map<String, Object>> getReviewSummary(
-            @PathVariable Long attractionId) {
-        
-        Map<String, Object> statistics = reviewService.getReviewStatistics(attractionId);
-        
-        // Créer un résumé simplifié
-        Map<String, Object> summary = Map.of(
-            "averageRating", statistics.get("averageRating"),
-            "totalReviews", statistics.get("totalReviews"),
-            "verifiedReviews", statistics.get("verifiedReviews"),
-            "ratingDistribution", statistics.get("ratingDistribution")
-        );
+            @PathVariable Long attractionId,
+            WebRequest request) {
         
-        return ResponseEntity.ok(summary);
+        return ConditionalGet.ifNoneMatch(request, resourceVersions.reviewSummaryTag(attractionId), () -> {
+            Map<String, Object> statistics = reviewService.getReviewStatistics(attractionId);
+            
+            // Créer un résumé simplifié
+            return Map.of(
+                "averageRating", statistics.get("averageRating"),
+                "totalReviews", statistics.get("totalReviews"),
+                "verifiedReviews", statistics.get("verifiedReviews"),
+                "ratingDistribution", statistics.get("ratingDistribution")
+            );
+        });
     }
 
     @GetMapping("/recent")
@@ -295,15 +349,26 @@ public class ReviewController {
     @GetMapping("/search")
     @Operation(
         summary = "Rechercher dans les avis",
-        description = "Recherche textuelle dans les titres et commentaires des avis"
+        description = "Recherche plein texte dans les titres et commentaires des avis (tous les mots, sans accents ni mots vides), triée par pertinence"
     )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Avis correspondants, du plus pertinent au moins pertinent"),
+        @ApiResponse(responseCode = "400", description = "Paramètres invalides")
+    })
     public ResponseEntity<List<ReviewDTO>> searchReviews(
-            @Parameter(description = "Terme de recherche", required = true)
-            @RequestParam String query) {
-        
-        // Note: Vous devrez créer cette méthode dans le service
-        // return ResponseEntity.ok(reviewService.searchReviews(query));
-        return ResponseEntity.status(HttpStatus.NOT_IMPLEMENTED).build();
+            @Parameter(description = "Terme de recherche", required = true, example = "guide passionnant")
+            @RequestParam String query,
+            @Parameter(description = "ID de l'attraction")
+            @RequestParam(required = false) Long attractionId,
+            @Parameter(description = "Note minimum (1-5)")
+            @RequestParam(required = false) Integer minRating,
+            @Parameter(description = "Note maximum (1-5)")
+            @RequestParam(required = false) Integer maxRating,
+            @Parameter(description = "Visites vérifiées uniquement (true) ou non vérifiées (false)")
+            @RequestParam(required = false) Boolean verified,
+            @Parameter(description = "Nombre maximum de résultats (1-100)", example = "20")
+            @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(reviewService.searchReviews(query, attractionId, minRating, maxRating, verified, limit));
     }
 
     @GetMapping("/attraction/{attractionId}/with-images")
@@ -0,0 +1,66 @@
+package com.smarttourism.attractions.controller;
+
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.smarttourism.attractions.dto.AttractionDTO;
+import com.smarttourism.attractions.dto.AttractionSummaryDTO;
+import com.smarttourism.attractions.dto.FieldSelection;
+import com.smarttourism.attractions.dto.ReservationDTO;
+import com.smarttourism.attractions.dto.ReservationSummaryDTO;
+import com.smarttourism.attractions.dto.ReviewDTO;
+import com.smarttourism.attractions.dto.ReviewSummaryDTO;
+import org.springframework.core.MethodParameter;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.AbstractMappingJacksonResponseBodyAdvice;
+import java.util.Map;
+import java.util.Set;
+
+// ?fields= sur les GET des trois API: le JSON écrit ne garde que les champs demandés des DTO
+// (listes, pages et curseurs compris). Les lectures qui le prennent aussi en paramètre limitent en plus les colonnes lues
+@RestControllerAdvice(assignableTypes = {AttractionController.class, ReservationController.class, ReviewController.class})
+public class SparseFieldsetAdvice extends AbstractMappingJacksonResponseBodyAdvice {
+    
+    private static final Map<Class<?>, Class<?>> DTO_BY_CONTROLLER = Map.of(
+        AttractionController.class, AttractionDTO.class,
+        ReservationController.class, ReservationDTO.class,
+        ReviewController.class, ReviewDTO.class);
+    
+    // DTO portant le filtre (voir SparseFieldsetConfig): c'est contre eux que les noms de fields= sont validés
+    private static final Set<Class<?>> FILTERED_DTOS = Set.of(
+        AttractionDTO.class, AttractionSummaryDTO.class,
+        ReservationDTO.class, ReservationSummaryDTO.class,
+        ReviewDTO.class, ReviewSummaryDTO.class);
+    
+    @Override
+    protected void beforeBodyWriteInternal(MappingJacksonValue bodyContainer, MediaType contentType,
+                                           MethodParameter returnType, ServerHttpRequest request,
+                                           ServerHttpResponse response) {
+        if (request.getMethod() != HttpMethod.GET || !(request instanceof ServletServerHttpRequest)) {
+            return;
+        }
+        String fields = ((ServletServerHttpRequest) request).getServletRequest().getParameter(FieldSelection.PARAMETER);
+        FieldSelection selection = FieldSelection.parse(fields, returnedDto(returnType));
+        if (!selection.isAll()) {
+            bodyContainer.setFilters(new SimpleFilterProvider()
+                .addFilter(FieldSelection.FILTER_ID, SimpleBeanPropertyFilter.filterOutAllExcept(selection.getNames())));
+        }
+    }
+    
+    // Page<AttractionSummaryDTO> est validé contre AttractionSummaryDTO, pas contre le DTO complet du contrôleur.
+    // ResponseEntity<?> (octets en cache) et les enveloppes sans filtre (NearbyAttractionDTO) retombent sur ce dernier
+    static Class<?> returnedDto(MethodParameter returnType) {
+        ResolvableType type = ResolvableType.forMethodParameter(returnType);
+        while (type.hasGenerics()) {
+            type = type.getGeneric(0);
+        }
+        Class<?> resolved = type.resolve();
+        return resolved != null && FILTERED_DTOS.contains(resolved) ? resolved : DTO_BY_CONTROLLER.get(returnType.getContainingClass());
+    }
+}
@@ -1,5 +1,6 @@
 package com.smarttourism.attractions.dto;
 
+import com.smarttourism.attractions.Entities.Attraction;
 import com.smarttourism.attractions.Entities.Category;
 import com.smarttourism.attractions.Entities.Location;
 import lombok.AllArgsConstructor;
@@ -21,6 +22,8 @@ public class AttractionDTO {
     private LocalTime openingTime;
     private LocalTime closingTime;
     private Integer maxCapacity;
+    private Integer slotDurationMinutes;
+    private Integer slotCapacity;
     private Integer currentVisitors;
     private Integer availableSpots;
     private Double occupancyRate;
@@ -39,4 +42,13 @@ public class AttractionDTO {
     private Integer ratingDistribution3;
     private Integer ratingDistribution4;
     private Integer ratingDistribution5;
+    
+    // Dépend de l'heure: recalculé à chaque lecture quand les horaires sont connus, pour qu'un DTO gardé en cache
+    // (ou servi derrière un ETag) ne fige pas l'état ouvert/fermé du moment de sa conversion
+    public Boolean getIsOpen() {
+        if (openingTime != null && closingTime != null) {
+            return Attraction.isOpen(openingTime, closingTime);
+        }
+        return isOpen;
+    }
 }
\ No newline at end of file
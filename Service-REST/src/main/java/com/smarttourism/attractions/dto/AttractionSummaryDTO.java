@@ -0,0 +1,23 @@
+package com.smarttourism.attractions.dto;
+
+import com.smarttourism.attractions.Entities.Category;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Carte d'attraction des listes paginées: projection JPQL (SELECT new), sans description ni contacts.
+// L'ordre des champs est celui du constructeur appelé par AttractionRepository
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AttractionSummaryDTO {
+    private Long id;
+    private String name;
+    private String city;
+    private Category category;
+    private Double entryPrice;
+    private Double rating;
+    private Integer totalReviews;
+    private String imageUrl;
+    private Boolean isFeatured;
+}
@@ -0,0 +1,18 @@
+package com.smarttourism.attractions.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDate;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AvailabilityCalendarDTO {
+    private Long attractionId;
+    private Integer totalCapacity; // null = capacité illimitée
+    private LocalDate from;
+    private LocalDate to;
+    private Map<LocalDate, Integer> availableSpots; // -1 = capacité illimitée
+}
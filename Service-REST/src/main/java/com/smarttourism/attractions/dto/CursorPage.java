@@ -0,0 +1,74 @@
+package com.smarttourism.attractions.dto;
+
+import com.smarttourism.attractions.exception.ErrorCode;
+import com.smarttourism.attractions.exception.ValidationException;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Page d'une pagination par curseur (keyset): pas de COUNT, coût constant quelle que soit la profondeur
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPage<T> {
+    
+    public static final int MAX_LIMIT = 100;
+    // Borne supérieure compatible avec DATETIME MySQL (LocalDateTime.MAX ne l'est pas)
+    public static final LocalDateTime MAX_DATE_TIME = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+    private static final String SEPARATOR = "|";
+    
+    private List<T> items;
+    private String nextCursor;
+    private boolean hasNext;
+    
+    // rows contient jusqu'à limit + 1 lignes: la ligne supplémentaire indique qu'une page suivante existe
+    public static <E, T> CursorPage<T> of(List<E> rows, int limit, Function<E, String> cursorOf, Function<E, T> mapper) {
+        boolean hasNext = rows.size() > limit;
+        List<E> pageRows = hasNext ? rows.subList(0, limit) : rows;
+        String nextCursor = hasNext ? cursorOf.apply(pageRows.get(pageRows.size() - 1)) : null;
+        return new CursorPage<>(
+            pageRows.stream().map(mapper).collect(Collectors.toList()),
+            nextCursor,
+            hasNext
+        );
+    }
+    
+    public static String encodeCursor(Object... parts) {
+        String raw = Arrays.stream(parts)
+                .map(String::valueOf)
+                .collect(Collectors.joining(SEPARATOR));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    // Décode le curseur puis convertit ses composants; tout curseur illisible est rejeté en 400
+    public static <K> K decodeCursor(String cursor, int expectedParts, Function<String[], K> parser) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", -1);
+            if (parts.length != expectedParts) {
+                throw new IllegalArgumentException("Nombre de composants inattendu: " + parts.length);
+            }
+            return parser.apply(parts);
+        } catch (RuntimeException e) {
+            throw new ValidationException(ErrorCode.INVALID_PARAMETERS, "after", "Curseur de pagination invalide");
+        }
+    }
+    
+    // Fenêtre de lecture: limit + 1 lignes, sans requête COUNT
+    public static Pageable window(int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new ValidationException(ErrorCode.INVALID_PARAMETERS, "limit",
+                "La limite doit être comprise entre 1 et " + MAX_LIMIT);
+        }
+        return PageRequest.of(0, limit + 1);
+    }
+}
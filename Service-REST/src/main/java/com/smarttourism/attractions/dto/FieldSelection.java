@@ -0,0 +1,69 @@
+package com.smarttourism.attractions.dto;
+
+import com.smarttourism.attractions.exception.ErrorCode;
+import com.smarttourism.attractions.exception.ValidationException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+// Champs demandés par ?fields=id,name,city sur les GET; ALL quand le paramètre est absent.
+// Les noms sont ceux des propriétés JSON des DTO, un nom inconnu est refusé (400)
+public final class FieldSelection {
+
+    public static final String PARAMETER = "fields";
+    public static final String FILTER_ID = "fieldSelection";
+    public static final FieldSelection ALL = new FieldSelection(null);
+
+    private static final Map<Class<?>, Set<String>> KNOWN_FIELDS = new ConcurrentHashMap<>();
+
+    private final Set<String> names;
+
+    private FieldSelection(Set<String> names) {
+        this.names = names;
+    }
+
+    public static FieldSelection parse(String fields, Class<?>... dtoTypes) {
+        if (fields == null || fields.isBlank()) {
+            return ALL;
+        }
+        Set<String> names = Arrays.stream(fields.split(","))
+                .map(String::trim)
+                .filter(name -> !name.isEmpty())
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        if (names.isEmpty()) {
+            return ALL;
+        }
+        for (String name : names) {
+            if (Arrays.stream(dtoTypes).noneMatch(type -> knownFields(type).contains(name))) {
+                throw new ValidationException(ErrorCode.INVALID_PARAMETERS, PARAMETER,
+                        "Champ inconnu dans fields: " + name);
+            }
+        }
+        return new FieldSelection(Collections.unmodifiableSet(names));
+    }
+
+    public boolean isAll() {
+        return names == null;
+    }
+
+    public boolean includes(String field) {
+        return names == null || names.contains(field);
+    }
+
+    public Set<String> getNames() {
+        return names;
+    }
+
+    private static Set<String> knownFields(Class<?> type) {
+        return KNOWN_FIELDS.computeIfAbsent(type, t -> Arrays.stream(t.getDeclaredFields())
+                .filter(field -> !Modifier.isStatic(field.getModifiers()))
+                .map(Field::getName)
+                .collect(Collectors.toUnmodifiableSet()));
+    }
+}
@@ -0,0 +1,46 @@
+package com.smarttourism.attractions.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.ArrayList;
+import java.util.List;
+
+// Bilan d'un import en masse: débit global et lignes rejetées lot par lot
+@Data
+@NoArgsConstructor
+public class ImportReport {
+    
+    private String type;
+    private long totalRows;
+    private long importedRows;
+    private long rejectedRows;
+    private long durationMs;
+    private double rowsPerSecond;
+    private List<ChunkReport> chunks = new ArrayList<>();
+    
+    public ImportReport(String type) {
+        this.type = type;
+    }
+    
+    @Data
+    @NoArgsConstructor
+    public static class ChunkReport {
+        private int chunk;
+        private long firstLine;
+        private long lastLine;
+        private int rows;
+        private int imported;
+        private int rejected;
+        private long durationMs;
+        private List<RowError> errors = new ArrayList<>();
+    }
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowError {
+        private long line;
+        private String message;
+    }
+}
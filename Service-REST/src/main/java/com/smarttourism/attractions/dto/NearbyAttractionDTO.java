@@ -0,0 +1,13 @@
+package com.smarttourism.attractions.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NearbyAttractionDTO {
+    private AttractionDTO attraction;
+    private Double distanceKm;
+}
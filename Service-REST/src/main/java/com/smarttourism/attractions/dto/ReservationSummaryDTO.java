@@ -0,0 +1,24 @@
+package com.smarttourism.attractions.dto;
+
+import com.smarttourism.attractions.Entities.Reservation;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDate;
+
+// Ligne de liste de réservations: nom de l'attraction lu par jointure SQL, sans charger l'entité.
+// L'ordre des champs est celui du constructeur appelé par ReservationRepository
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReservationSummaryDTO {
+    private Long id;
+    private String reservationCode;
+    private Long attractionId;
+    private String attractionName;
+    private LocalDate visitDate;
+    private String visitTime;
+    private Integer numberOfPeople;
+    private Reservation.ReservationStatus status;
+    private Double totalPrice;
+}
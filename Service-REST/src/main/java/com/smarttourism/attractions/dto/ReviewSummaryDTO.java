@@ -0,0 +1,24 @@
+package com.smarttourism.attractions.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+// Avis des listes paginées: nom de l'attraction lu par jointure SQL, sans réponse ni historique d'édition.
+// L'ordre des champs est celui du constructeur appelé par ReviewRepository
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReviewSummaryDTO {
+    private Long id;
+    private Long attractionId;
+    private String attractionName;
+    private String touristName;
+    private Integer rating;
+    private String title;
+    private String comment;
+    private LocalDateTime reviewDate;
+    private Boolean isVerifiedVisit;
+    private Integer helpfulCount;
+}
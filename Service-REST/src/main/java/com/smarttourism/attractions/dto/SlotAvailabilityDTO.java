@@ -0,0 +1,28 @@
+package com.smarttourism.attractions.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SlotAvailabilityDTO {
+    private Long attractionId;
+    private LocalDate date;
+    private Integer slotDurationMinutes;
+    private Integer slotCapacity;
+    private List<Slot> slots;
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Slot {
+        private LocalTime start;
+        private LocalTime end;
+        private Integer availableSpots; // 0 si complet ou attraction inactive
+    }
+}
@@ -4,6 +4,7 @@ import com.smarttourism.attractions.Entities.Category;
 import com.smarttourism.attractions.Entities.Location;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.PositiveOrZero;
 import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
@@ -42,6 +43,12 @@ public class CreateAttractionRequest {
     @PositiveOrZero(message = "La capacité maximale doit être positive ou zéro")
     private Integer maxCapacity;
     
+    @Positive(message = "La durée d'un créneau doit être positive")
+    private Integer slotDurationMinutes;
+    
+    @PositiveOrZero(message = "La capacité d'un créneau doit être positive ou zéro")
+    private Integer slotCapacity;
+    
     @Size(max = 500, message = "L'URL de l'image ne doit pas dépasser 500 caractères")
     private String imageUrl;
     
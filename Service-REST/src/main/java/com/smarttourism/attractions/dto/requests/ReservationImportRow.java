@@ -0,0 +1,22 @@
+package com.smarttourism.attractions.dto.requests;
+
+import com.smarttourism.attractions.Entities.Reservation;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+// Ligne d'import de réservations historiques: code, statut et horodatage peuvent être repris de l'ancien système
+@Data
+@EqualsAndHashCode(callSuper = true)
+@NoArgsConstructor
+public class ReservationImportRow extends CreateReservationRequest {
+    
+    @Size(max = 50, message = "Le code ne doit pas dépasser 50 caractères")
+    private String reservationCode;
+    
+    private Reservation.ReservationStatus status;
+    
+    private LocalDateTime reservationTime;
+}
@@ -0,0 +1,15 @@
+package com.smarttourism.attractions.dto.requests;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+// Ligne d'import d'avis historiques: la date de l'avis peut être fournie
+@Data
+@EqualsAndHashCode(callSuper = true)
+@NoArgsConstructor
+public class ReviewImportRow extends CreateReviewRequest {
+    
+    private LocalDateTime reviewDate;
+}
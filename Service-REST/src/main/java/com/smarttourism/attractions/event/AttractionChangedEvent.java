@@ -0,0 +1,32 @@
+package com.smarttourism.attractions.event;
+
+import lombok.Value;
+
+// Publié par les services à chaque modification d'une attraction (traité après commit)
+@Value
+public class AttractionChangedEvent {
+    
+    Long attractionId;
+    ChangeType type;
+    
+    public enum ChangeType {
+        CREATED,
+        UPDATED,
+        DELETED,
+        RATING_CHANGED,
+        VISITORS_CHANGED,
+        // Import en masse: attractionId est null, les index sont reconstruits au lieu d'être mis à jour par ID
+        BULK_IMPORTED;
+        
+        // Les villes, catégories et statistiques ne dépendent que de la création/modification/suppression
+        public boolean affectsCatalogStructure() {
+            return this == CREATED || this == UPDATED || this == DELETED || this == BULK_IMPORTED;
+        }
+        
+        // Compteur de visiteurs (portiques, chaque seconde): donnée en temps réel, seule la fiche de l'attraction
+        // change; les listes du catalogue et leurs ETag n'en dépendent pas
+        public boolean affectsCatalogLists() {
+            return this != VISITORS_CHANGED;
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.smarttourism.attractions.event;
+
+import lombok.Value;
+
+// Publié à chaque création/modification/annulation de réservation (traité après commit)
+@Value
+public class ReservationChangedEvent {
+    
+    Long attractionId;
+}
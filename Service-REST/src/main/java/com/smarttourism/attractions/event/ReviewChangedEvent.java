@@ -0,0 +1,11 @@
+package com.smarttourism.attractions.event;
+
+import lombok.Value;
+
+// Publié à chaque création/modification/suppression d'avis (traité après commit).
+// reviewId null: import en masse, l'index de recherche des avis est reconstruit
+@Value
+public class ReviewChangedEvent {
+    
+    Long reviewId;
+}
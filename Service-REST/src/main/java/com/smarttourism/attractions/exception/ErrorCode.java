@@ -4,6 +4,7 @@ public enum ErrorCode {
     // Erreurs générales
     INTERNAL_SERVER_ERROR("ERR-001", "Erreur interne du serveur"),
     VALIDATION_ERROR("ERR-002", "Erreur de validation"),
+    SERVICE_UNAVAILABLE("ERR-003", "Service momentanément surchargé"),
     
     // Erreurs liées aux attractions
     ATTRACTION_NOT_FOUND("ATTR-001", "Attraction non trouvée"),
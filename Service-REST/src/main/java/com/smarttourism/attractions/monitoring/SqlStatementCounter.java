@@ -0,0 +1,61 @@
+package com.smarttourism.attractions.monitoring;
+
+// Compteur des requêtes SQL exécutées par le thread courant entre open() et close().
+// Ouvert pour chaque requête HTTP (SqlStatementMetricsFilter) ou autour d'un appel dans les tests.
+// Les portées s'imbriquent: à la fermeture, les compteurs remontent dans la portée englobante.
+public final class SqlStatementCounter {
+    
+    private static final ThreadLocal<Scope> CURRENT = new ThreadLocal<>();
+    
+    private SqlStatementCounter() {
+    }
+    
+    public static Scope open() {
+        Scope scope = new Scope(CURRENT.get());
+        CURRENT.set(scope);
+        return scope;
+    }
+    
+    // Appelé par StatementCountingDataSource après chaque exécution (un executeBatch compte pour une)
+    static void record(long elapsedNanos) {
+        Scope scope = CURRENT.get();
+        if (scope != null) {
+            scope.statements++;
+            scope.nanos += elapsedNanos;
+        }
+    }
+    
+    public static final class Scope implements AutoCloseable {
+        private final Scope parent;
+        private int statements;
+        private long nanos;
+        private boolean closed;
+        
+        private Scope(Scope parent) {
+            this.parent = parent;
+        }
+        
+        public int getStatements() {
+            return statements;
+        }
+        
+        public long getNanos() {
+            return nanos;
+        }
+        
+        @Override
+        public void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            if (parent != null) {
+                parent.statements += statements;
+                parent.nanos += nanos;
+                CURRENT.set(parent);
+            } else {
+                CURRENT.remove();
+            }
+        }
+    }
+}
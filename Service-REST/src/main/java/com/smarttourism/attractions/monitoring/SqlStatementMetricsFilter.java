@@ -0,0 +1,70 @@
+package com.smarttourism.attractions.monitoring;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+// Requêtes SQL et temps passé en base par requête HTTP, étiquetés par endpoint (motif de l'URL, comme
+// http.server.requests). Au-delà du budget, un avertissement signale un N+1 probable.
+// Les exports en flux (StreamingResponseBody) lisent la base sur un autre thread: non comptés ici.
+@Component
+@ConditionalOnProperty(name = "attractions.sql.monitoring.enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class SqlStatementMetricsFilter extends OncePerRequestFilter {
+    
+    private final MeterRegistry meterRegistry;
+    private final int statementBudget;
+    
+    public SqlStatementMetricsFilter(MeterRegistry meterRegistry,
+                                     @Value("${attractions.sql.statement-budget:10}") int statementBudget) {
+        this.meterRegistry = meterRegistry;
+        this.statementBudget = statementBudget;
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        SqlStatementCounter.Scope scope = SqlStatementCounter.open();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            scope.close();
+            record(request, scope);
+        }
+    }
+    
+    private void record(HttpServletRequest request, SqlStatementCounter.Scope scope) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+        String method = request.getMethod();
+        
+        DistributionSummary.builder("attractions.sql.statements")
+            .description("Requêtes SQL exécutées par requête HTTP")
+            .tags("method", method, "uri", uri)
+            .register(meterRegistry)
+            .record(scope.getStatements());
+        Timer.builder("attractions.sql.time")
+            .description("Temps passé en base par requête HTTP")
+            .tags("method", method, "uri", uri)
+            .register(meterRegistry)
+            .record(scope.getNanos(), TimeUnit.NANOSECONDS);
+        
+        if (scope.getStatements() > statementBudget) {
+            log.warn("{} {} ({}): {} requêtes SQL pour un budget de {} ({} ms en base), N+1 probable",
+                method, request.getRequestURI(), uri, scope.getStatements(), statementBudget,
+                TimeUnit.NANOSECONDS.toMillis(scope.getNanos()));
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.smarttourism.attractions.monitoring;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+// Enveloppe du pool: chaque appel execute* d'un Statement est compté et chronométré dans SqlStatementCounter.
+// Couvre Hibernate comme JdbcTemplate, sans dépendance supplémentaire (proxys JDK)
+public class StatementCountingDataSource extends DelegatingDataSource {
+    
+    public StatementCountingDataSource(DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+    
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrapConnection(super.getConnection());
+    }
+    
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrapConnection(super.getConnection(username, password));
+    }
+    
+    private Connection wrapConnection(Connection connection) {
+        return proxy(Connection.class, connection, (proxy, method, args) -> {
+            Object result = invoke(connection, method, args);
+            if (result instanceof CallableStatement) {
+                return wrapStatement(CallableStatement.class, (Statement) result, (Connection) proxy);
+            }
+            if (result instanceof PreparedStatement) {
+                return wrapStatement(PreparedStatement.class, (Statement) result, (Connection) proxy);
+            }
+            if (result instanceof Statement) {
+                return wrapStatement(Statement.class, (Statement) result, (Connection) proxy);
+            }
+            return result;
+        });
+    }
+    
+    private <S extends Statement> S wrapStatement(Class<S> type, Statement statement, Connection connection) {
+        return proxy(type, statement, (proxy, method, args) -> {
+            if (method.getName().startsWith("execute")) {
+                long start = System.nanoTime();
+                try {
+                    return invoke(statement, method, args);
+                } finally {
+                    SqlStatementCounter.record(System.nanoTime() - start);
+                }
+            }
+            if (method.getName().equals("getConnection")) {
+                return connection;
+            }
+            return invoke(statement, method, args);
+        });
+    }
+    
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, Object target, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(StatementCountingDataSource.class.getClassLoader(), new Class<?>[] {type},
+            (proxy, method, args) -> {
+                // Identité du proxy, pas de la cible (les pools et Hibernate rangent les connexions en Map)
+                if (method.getName().equals("equals") && method.getParameterCount() == 1) {
+                    return proxy == args[0];
+                }
+                if (method.getName().equals("hashCode") && method.getParameterCount() == 0) {
+                    return System.identityHashCode(proxy);
+                }
+                return handler.invoke(proxy, method, args);
+            });
+    }
+    
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+}
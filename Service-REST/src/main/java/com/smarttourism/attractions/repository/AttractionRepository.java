@@ -2,18 +2,23 @@ package com.smarttourism.attractions.repository;
 
 import com.smarttourism.attractions.Entities.Attraction;
 import com.smarttourism.attractions.Entities.Category;
+import com.smarttourism.attractions.dto.AttractionSummaryDTO;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface AttractionRepository extends JpaRepository<Attraction, Long> {
+public interface AttractionRepository extends JpaRepository<Attraction, Long>, AttractionRepositoryCustom {
     
     // ✅ NOUVELLES MÉTHODES - accès via location.city
     List<Attraction> findByLocationCity(String city);
@@ -38,6 +43,14 @@ public interface AttractionRepository extends JpaRepository<Attraction, Long> {
     // Toutes les attractions
     Page<Attraction> findAll(Pageable pageable);
     
+    // IDs par lots (keyset sur l'ID) pour les traitements de masse
+    @Query("SELECT a.id FROM Attraction a WHERE a.id > :afterId ORDER BY a.id")
+    List<Long> findIdsAfter(@Param("afterId") Long afterId, Pageable pageable);
+    
+    // Attractions dont les compteurs de notes n'ont jamais été initialisés
+    @Query("SELECT a.id FROM Attraction a WHERE a.ratingSum IS NULL")
+    List<Long> findIdsByRatingSumIsNull();
+    
     // Top rated
     List<Attraction> findByIsActiveTrueOrderByRatingDesc();
     List<Attraction> findTop10ByIsActiveTrueOrderByRatingDesc();
@@ -57,6 +70,34 @@ public interface AttractionRepository extends JpaRepository<Attraction, Long> {
                                      @Param("minRating") Double minRating,
                                      Pageable pageable);
     
+    // Projections des listes paginées: seules les colonnes des cartes sont lues (ni TEXT, ni contacts)
+    String SUMMARY_SELECT = "SELECT new com.smarttourism.attractions.dto.AttractionSummaryDTO(" +
+                            "a.id, a.name, a.location.city, a.category, a.entryPrice, a.rating, a.totalReviews, " +
+                            "a.imageUrl, a.isFeatured) FROM Attraction a ";
+    String FILTERS = "WHERE (:city IS NULL OR LOWER(a.location.city) LIKE LOWER(CONCAT('%', :city, '%'))) AND " +
+                     "(:category IS NULL OR a.category = :category) AND " +
+                     "(:minPrice IS NULL OR a.entryPrice >= :minPrice) AND " +
+                     "(:maxPrice IS NULL OR a.entryPrice <= :maxPrice) AND " +
+                     "(:minRating IS NULL OR a.rating >= :minRating) AND " +
+                     "a.isActive = true";
+    
+    @Query(value = SUMMARY_SELECT + "WHERE a.isActive = true",
+           countQuery = "SELECT COUNT(a) FROM Attraction a WHERE a.isActive = true")
+    Page<AttractionSummaryDTO> findActiveSummaries(Pageable pageable);
+    
+    @Query(value = SUMMARY_SELECT + "WHERE a.location.city = :city",
+           countQuery = "SELECT COUNT(a) FROM Attraction a WHERE a.location.city = :city")
+    Page<AttractionSummaryDTO> findSummariesByCity(@Param("city") String city, Pageable pageable);
+    
+    @Query(value = SUMMARY_SELECT + FILTERS,
+           countQuery = "SELECT COUNT(a) FROM Attraction a " + FILTERS)
+    Page<AttractionSummaryDTO> findSummariesWithFilters(@Param("city") String city,
+                                                        @Param("category") Category category,
+                                                        @Param("minPrice") Double minPrice,
+                                                        @Param("maxPrice") Double maxPrice,
+                                                        @Param("minRating") Double minRating,
+                                                        Pageable pageable);
+    
     // ✅ REQUÊTE CORRIGÉE - utilise location.city
     @Query("SELECT DISTINCT a.location.city FROM Attraction a WHERE a.isActive = true AND a.location.city IS NOT NULL ORDER BY a.location.city")
     List<String> findAllCities();
@@ -73,4 +114,109 @@ public interface AttractionRepository extends JpaRepository<Attraction, Long> {
     
     @Query("SELECT COUNT(a) FROM Attraction a WHERE a.isActive = true")
     Long countActiveAttractions();
+    
+    // Statistiques: [id, ville, catégorie] des attractions actives
+    @Query("SELECT a.id, a.location.city, a.category FROM Attraction a WHERE a.isActive = true")
+    List<Object[]> findActivePlacements();
+    
+    @Query("SELECT a.id, a.location.city, a.category FROM Attraction a WHERE a.id = :id AND a.isActive = true")
+    List<Object[]> findActivePlacementById(@Param("id") Long id);
+    
+    // Import en masse: [id, entryPrice, isActive] des attractions référencées par un lot
+    @Query("SELECT a.id, a.entryPrice, a.isActive FROM Attraction a WHERE a.id IN :ids")
+    List<Object[]> findImportInfoByIds(@Param("ids") Collection<Long> ids);
+    
+    // Pagination par curseur (rating DESC, id DESC): les lignes strictement après (rating, id);
+    // la borne "<=" redondante permet un parcours d'index par plage
+    @Query("SELECT a FROM Attraction a WHERE a.isActive = true AND " +
+           "a.rating <= :rating AND (a.rating < :rating OR (a.rating = :rating AND a.id < :id)) " +
+           "ORDER BY a.rating DESC, a.id DESC")
+    List<Attraction> findActiveAfter(@Param("rating") Double rating,
+                                     @Param("id") Long id,
+                                     Pageable pageable);
+    
+    @Query("SELECT a FROM Attraction a WHERE a.isActive = true AND a.location.city = :city AND " +
+           "a.rating <= :rating AND (a.rating < :rating OR (a.rating = :rating AND a.id < :id)) " +
+           "ORDER BY a.rating DESC, a.id DESC")
+    List<Attraction> findActiveByCityAfter(@Param("city") String city,
+                                           @Param("rating") Double rating,
+                                           @Param("id") Long id,
+                                           Pageable pageable);
+    
+    // Recherche de proximité par force brute (distance haversine calculée pour chaque ligne).
+    // Utilisée tant que l'index spatial n'est pas prêt et comme référence de benchmark.
+    @Query(value = "SELECT * FROM attractions a WHERE a.is_active = true " +
+           "AND a.latitude IS NOT NULL AND a.longitude IS NOT NULL " +
+           "AND (:category IS NULL OR a.category = :category) " +
+           "AND 6371 * ACOS(LEAST(1.0, COS(RADIANS(:latitude)) * COS(RADIANS(a.latitude)) * " +
+           "    COS(RADIANS(a.longitude) - RADIANS(:longitude)) + SIN(RADIANS(:latitude)) * SIN(RADIANS(a.latitude)))) <= :radiusKm " +
+           "ORDER BY 6371 * ACOS(LEAST(1.0, COS(RADIANS(:latitude)) * COS(RADIANS(a.latitude)) * " +
+           "    COS(RADIANS(a.longitude) - RADIANS(:longitude)) + SIN(RADIANS(:latitude)) * SIN(RADIANS(a.latitude)))) " +
+           "LIMIT :limit",
+           nativeQuery = true)
+    List<Attraction> findNearbyBruteForce(@Param("latitude") double latitude,
+                                          @Param("longitude") double longitude,
+                                          @Param("radiusKm") double radiusKm,
+                                          @Param("category") String category,
+                                          @Param("limit") int limit);
+    
+    // Disponibilités de plusieurs attractions à une date en une seule requête:
+    // [id, isActive, maxCapacity, personnes confirmées] (jointure externe sur daily_occupancy: 0 si aucune ligne)
+    @Query("SELECT a.id, a.isActive, a.maxCapacity, COALESCE(o.confirmedPeople, 0) FROM Attraction a " +
+           "LEFT JOIN DailyOccupancy o ON o.attractionId = a.id AND o.visitDate = :visitDate " +
+           "WHERE a.id IN :attractionIds")
+    List<Object[]> findOccupancyByIds(@Param("attractionIds") Collection<Long> attractionIds,
+                                      @Param("visitDate") LocalDate visitDate);
+    
+    @Query("SELECT a.id, a.isActive, a.maxCapacity, COALESCE(o.confirmedPeople, 0) FROM Attraction a " +
+           "LEFT JOIN DailyOccupancy o ON o.attractionId = a.id AND o.visitDate = :visitDate " +
+           "WHERE a.location.city = :city")
+    List<Object[]> findOccupancyByCity(@Param("city") String city,
+                                       @Param("visitDate") LocalDate visitDate);
+    
+    // Mise à jour atomique du histogramme: addedRating et/ou removedRating peuvent être null.
+    // La note moyenne est calculée en premier à partir des anciennes valeurs (évaluation du SET de gauche à droite sous MySQL).
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Attraction a SET " +
+           "a.rating = CASE WHEN COALESCE(a.totalReviews, 0) " +
+           "    + (CASE WHEN :addedRating IS NULL THEN 0 ELSE 1 END) " +
+           "    - (CASE WHEN :removedRating IS NULL THEN 0 ELSE 1 END) > 0 " +
+           "  THEN (COALESCE(a.ratingSum, 0) + COALESCE(:addedRating, 0) - COALESCE(:removedRating, 0)) * 1.0 / " +
+           "    (COALESCE(a.totalReviews, 0) " +
+           "    + (CASE WHEN :addedRating IS NULL THEN 0 ELSE 1 END) " +
+           "    - (CASE WHEN :removedRating IS NULL THEN 0 ELSE 1 END)) " +
+           "  ELSE 0.0 END, " +
+           "a.ratingCount1 = COALESCE(a.ratingCount1, 0) + (CASE WHEN :addedRating = 1 THEN 1 ELSE 0 END) - (CASE WHEN :removedRating = 1 THEN 1 ELSE 0 END), " +
+           "a.ratingCount2 = COALESCE(a.ratingCount2, 0) + (CASE WHEN :addedRating = 2 THEN 1 ELSE 0 END) - (CASE WHEN :removedRating = 2 THEN 1 ELSE 0 END), " +
+           "a.ratingCount3 = COALESCE(a.ratingCount3, 0) + (CASE WHEN :addedRating = 3 THEN 1 ELSE 0 END) - (CASE WHEN :removedRating = 3 THEN 1 ELSE 0 END), " +
+           "a.ratingCount4 = COALESCE(a.ratingCount4, 0) + (CASE WHEN :addedRating = 4 THEN 1 ELSE 0 END) - (CASE WHEN :removedRating = 4 THEN 1 ELSE 0 END), " +
+           "a.ratingCount5 = COALESCE(a.ratingCount5, 0) + (CASE WHEN :addedRating = 5 THEN 1 ELSE 0 END) - (CASE WHEN :removedRating = 5 THEN 1 ELSE 0 END), " +
+           "a.ratingSum = COALESCE(a.ratingSum, 0) + COALESCE(:addedRating, 0) - COALESCE(:removedRating, 0), " +
+           "a.totalReviews = COALESCE(a.totalReviews, 0) " +
+           "    + (CASE WHEN :addedRating IS NULL THEN 0 ELSE 1 END) " +
+           "    - (CASE WHEN :removedRating IS NULL THEN 0 ELSE 1 END), " +
+           "a.updatedAt = :now " +
+           "WHERE a.id = :attractionId")
+    int applyRatingChange(@Param("attractionId") Long attractionId,
+                          @Param("addedRating") Integer addedRating,
+                          @Param("removedRating") Integer removedRating,
+                          @Param("now") LocalDateTime now);
+    
+    // Reconstruction des compteurs de notes depuis reviews dans une seule instruction par lot: les valeurs sont
+    // dérivées au moment de l'écriture (aucun applyRatingChange concurrent perdu) et aucune autre colonne n'est écrite
+    @Modifying(flushAutomatically = true)
+    @Query(value = "UPDATE attractions a SET " +
+           "rating_count_1 = (SELECT COUNT(*) FROM reviews r WHERE r.attraction_id = a.id AND r.rating = 1), " +
+           "rating_count_2 = (SELECT COUNT(*) FROM reviews r WHERE r.attraction_id = a.id AND r.rating = 2), " +
+           "rating_count_3 = (SELECT COUNT(*) FROM reviews r WHERE r.attraction_id = a.id AND r.rating = 3), " +
+           "rating_count_4 = (SELECT COUNT(*) FROM reviews r WHERE r.attraction_id = a.id AND r.rating = 4), " +
+           "rating_count_5 = (SELECT COUNT(*) FROM reviews r WHERE r.attraction_id = a.id AND r.rating = 5), " +
+           "rating_sum = (SELECT COALESCE(SUM(r.rating), 0) FROM reviews r " +
+           "    WHERE r.attraction_id = a.id AND r.rating BETWEEN 1 AND 5), " +
+           "total_reviews = (SELECT COUNT(*) FROM reviews r WHERE r.attraction_id = a.id AND r.rating BETWEEN 1 AND 5), " +
+           "rating = COALESCE((SELECT SUM(r.rating) * 1.0 / NULLIF(COUNT(*), 0) FROM reviews r " +
+           "    WHERE r.attraction_id = a.id AND r.rating BETWEEN 1 AND 5), 0.0) " +
+           "WHERE a.id IN (:attractionIds)",
+           nativeQuery = true)
+    int rebuildRatingCounters(@Param("attractionIds") Collection<Long> attractionIds);
 }
\ No newline at end of file
@@ -0,0 +1,20 @@
+package com.smarttourism.attractions.repository;
+
+import com.smarttourism.attractions.Entities.Category;
+import com.smarttourism.attractions.dto.AttractionDTO;
+import com.smarttourism.attractions.dto.FieldSelection;
+import java.util.List;
+
+// Lectures partielles (fields=): seules les colonnes des champs demandés sont sélectionnées
+public interface AttractionRepositoryCustom {
+    
+    List<AttractionDTO> findActiveWithFields(FieldSelection fields);
+    
+    List<AttractionDTO> findTopRatedWithFields(FieldSelection fields, int limit);
+    
+    List<AttractionDTO> findFeaturedWithFields(FieldSelection fields);
+    
+    List<AttractionDTO> findActiveByCityWithFields(String city, FieldSelection fields);
+    
+    List<AttractionDTO> findActiveByCategoryWithFields(Category category, FieldSelection fields);
+}
@@ -0,0 +1,86 @@
+package com.smarttourism.attractions.repository;
+
+import com.smarttourism.attractions.Entities.Attraction;
+import com.smarttourism.attractions.Entities.Category;
+import com.smarttourism.attractions.dto.AttractionDTO;
+import com.smarttourism.attractions.dto.FieldSelection;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.util.List;
+
+public class AttractionRepositoryCustomImpl implements AttractionRepositoryCustom {
+    
+    // Un champ d'AttractionDTO = une colonne; isOpen, availableSpots et occupancyRate calculés à partir des leurs
+    private static final SparseFieldQuery<Attraction, AttractionDTO> FIELDS =
+        new SparseFieldQuery<Attraction, AttractionDTO>(Attraction.class, AttractionDTO::new)
+            .column("id", a -> a.get("id"), AttractionDTO::setId)
+            .column("name", a -> a.get("name"), AttractionDTO::setName)
+            .column("city", a -> a.get("location").get("city"), AttractionDTO::setCity)
+            .column("description", a -> a.get("description"), AttractionDTO::setDescription)
+            .column("category", a -> a.get("category"), AttractionDTO::setCategory)
+            .column("location", a -> a.get("location"), AttractionDTO::setLocation)
+            .column("entryPrice", a -> a.get("entryPrice"), AttractionDTO::setEntryPrice)
+            .column("openingTime", a -> a.get("openingTime"), AttractionDTO::setOpeningTime)
+            .column("closingTime", a -> a.get("closingTime"), AttractionDTO::setClosingTime)
+            .column("maxCapacity", a -> a.get("maxCapacity"), AttractionDTO::setMaxCapacity)
+            .column("slotDurationMinutes", a -> a.get("slotDurationMinutes"), AttractionDTO::setSlotDurationMinutes)
+            .column("slotCapacity", a -> a.get("slotCapacity"), AttractionDTO::setSlotCapacity)
+            .column("currentVisitors", a -> a.get("currentVisitors"), AttractionDTO::setCurrentVisitors)
+            .column("rating", a -> a.get("rating"), AttractionDTO::setRating)
+            .column("totalReviews", a -> a.get("totalReviews"), AttractionDTO::setTotalReviews)
+            .column("imageUrl", a -> a.get("imageUrl"), AttractionDTO::setImageUrl)
+            .column("websiteUrl", a -> a.get("websiteUrl"), AttractionDTO::setWebsiteUrl)
+            .column("phoneNumber", a -> a.get("phoneNumber"), AttractionDTO::setPhoneNumber)
+            .column("email", a -> a.get("email"), AttractionDTO::setEmail)
+            .column("averageVisitDuration", a -> a.get("averageVisitDuration"), AttractionDTO::setAverageVisitDuration)
+            .column("isActive", a -> a.get("isActive"), AttractionDTO::setIsActive)
+            .column("isFeatured", a -> a.get("isFeatured"), AttractionDTO::setIsFeatured)
+            .column("ratingDistribution1", a -> a.get("ratingCount1"), AttractionDTO::setRatingDistribution1)
+            .column("ratingDistribution2", a -> a.get("ratingCount2"), AttractionDTO::setRatingDistribution2)
+            .column("ratingDistribution3", a -> a.get("ratingCount3"), AttractionDTO::setRatingDistribution3)
+            .column("ratingDistribution4", a -> a.get("ratingCount4"), AttractionDTO::setRatingDistribution4)
+            .column("ratingDistribution5", a -> a.get("ratingCount5"), AttractionDTO::setRatingDistribution5)
+            .derived("isOpen", dto -> dto.setIsOpen(Attraction.isOpen(dto.getOpeningTime(), dto.getClosingTime())),
+                "openingTime", "closingTime")
+            .derived("availableSpots", dto -> dto.setAvailableSpots(
+                Attraction.availableSpots(dto.getMaxCapacity(), dto.getCurrentVisitors())),
+                "maxCapacity", "currentVisitors")
+            .derived("occupancyRate", dto -> dto.setOccupancyRate(
+                Attraction.occupancyRate(dto.getMaxCapacity(), dto.getCurrentVisitors())),
+                "maxCapacity", "currentVisitors");
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Override
+    public List<AttractionDTO> findActiveWithFields(FieldSelection fields) {
+        return FIELDS.list(entityManager, fields, (cb, a) -> cb.isTrue(a.get("isActive")), (cb, a) -> List.of());
+    }
+    
+    @Override
+    public List<AttractionDTO> findTopRatedWithFields(FieldSelection fields, int limit) {
+        return FIELDS.list(entityManager, fields, (cb, a) -> cb.isTrue(a.get("isActive")),
+            (cb, a) -> List.of(cb.desc(a.get("rating"))), limit);
+    }
+    
+    @Override
+    public List<AttractionDTO> findFeaturedWithFields(FieldSelection fields) {
+        return FIELDS.list(entityManager, fields,
+            (cb, a) -> cb.and(cb.isTrue(a.get("isFeatured")), cb.isTrue(a.get("isActive"))),
+            (cb, a) -> List.of());
+    }
+    
+    @Override
+    public List<AttractionDTO> findActiveByCityWithFields(String city, FieldSelection fields) {
+        return FIELDS.list(entityManager, fields,
+            (cb, a) -> cb.and(cb.equal(a.get("location").get("city"), city), cb.isTrue(a.get("isActive"))),
+            (cb, a) -> List.of());
+    }
+    
+    @Override
+    public List<AttractionDTO> findActiveByCategoryWithFields(Category category, FieldSelection fields) {
+        return FIELDS.list(entityManager, fields,
+            (cb, a) -> cb.and(cb.equal(a.get("category"), category), cb.isTrue(a.get("isActive"))),
+            (cb, a) -> List.of());
+    }
+}
@@ -0,0 +1,102 @@
+package com.smarttourism.attractions.repository;
+
+import com.smarttourism.attractions.Entities.DailyOccupancy;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface DailyOccupancyRepository extends JpaRepository<DailyOccupancy, Long> {
+    
+    // Colonnes de daily_occupancy recalculées depuis reservations (amorçage, reconstruction, réconciliation)
+    String OCCUPANCY_COLUMNS = "confirmed_people, confirmed_reservations, completed, cancelled, no_show, " +
+                               "total_reservations, revenue";
+    String OCCUPANCY_AGGREGATES =
+        "COALESCE(SUM(CASE WHEN r.status = 'CONFIRMED' THEN r.number_of_people ELSE 0 END), 0), " +
+        "COALESCE(SUM(CASE WHEN r.status = 'CONFIRMED' THEN 1 ELSE 0 END), 0), " +
+        "COALESCE(SUM(CASE WHEN r.status = 'COMPLETED' THEN 1 ELSE 0 END), 0), " +
+        "COALESCE(SUM(CASE WHEN r.status = 'CANCELLED' THEN 1 ELSE 0 END), 0), " +
+        "COALESCE(SUM(CASE WHEN r.status = 'NO_SHOW' THEN 1 ELSE 0 END), 0), " +
+        "COUNT(r.id), " +
+        "COALESCE(SUM(CASE WHEN r.status IN ('CONFIRMED', 'COMPLETED') THEN r.total_price ELSE 0 END), 0)";
+    
+    // Application d'un changement d'état: 1 ligne modifiée, ou 0 si la ligne n'existe pas encore
+    // ou si l'ajout de places dépasse :capacity (Integer.MAX_VALUE = sans limite)
+    // Requête native: Hibernate transtype les paramètres DOUBLE de façon invalide sous H2 dans une expression
+    @Modifying(flushAutomatically = true)
+    @Query(value = "UPDATE daily_occupancy SET " +
+                   "confirmed_people = confirmed_people + :people, " +
+                   "confirmed_reservations = confirmed_reservations + :confirmed, " +
+                   "completed = completed + :completed, " +
+                   "cancelled = cancelled + :cancelled, " +
+                   "no_show = no_show + :noShow, " +
+                   "total_reservations = total_reservations + :total, " +
+                   "revenue = revenue + :revenue " +
+                   "WHERE attraction_id = :attractionId AND visit_date = :visitDate " +
+                   "AND (:people <= 0 OR confirmed_people + :people <= :capacity)",
+           nativeQuery = true)
+    int applyDelta(@Param("attractionId") Long attractionId,
+                   @Param("visitDate") LocalDate visitDate,
+                   @Param("capacity") int capacity,
+                   @Param("people") int people,
+                   @Param("confirmed") int confirmed,
+                   @Param("completed") int completed,
+                   @Param("cancelled") int cancelled,
+                   @Param("noShow") int noShow,
+                   @Param("total") int total,
+                   @Param("revenue") double revenue);
+    
+    // Création au premier changement de la journée, initialisée à partir des réservations existantes;
+    // INSERT IGNORE: si une transaction concurrente l'a créée entre-temps, la ligne existante est conservée
+    @Modifying(flushAutomatically = true)
+    @Query(value = "INSERT IGNORE INTO daily_occupancy (attraction_id, visit_date, " + OCCUPANCY_COLUMNS + ") " +
+                   "SELECT :attractionId, :visitDate, " + OCCUPANCY_AGGREGATES + " " +
+                   "FROM reservations r WHERE r.attraction_id = :attractionId AND r.visit_date = :visitDate",
+           nativeQuery = true)
+    int createIfAbsent(@Param("attractionId") Long attractionId,
+                       @Param("visitDate") LocalDate visitDate);
+    
+    // Reconstruction complète (table vide au démarrage)
+    @Modifying
+    @Query(value = "INSERT INTO daily_occupancy (attraction_id, visit_date, " + OCCUPANCY_COLUMNS + ") " +
+                   "SELECT r.attraction_id, r.visit_date, " + OCCUPANCY_AGGREGATES + " " +
+                   "FROM reservations r GROUP BY r.attraction_id, r.visit_date",
+           nativeQuery = true)
+    int backfill();
+    
+    @Modifying
+    @Query("DELETE FROM DailyOccupancy o WHERE o.attractionId = :attractionId AND o.visitDate = :visitDate")
+    int deleteEntry(@Param("attractionId") Long attractionId,
+                    @Param("visitDate") LocalDate visitDate);
+    
+    @Query("SELECT o.confirmedPeople FROM DailyOccupancy o " +
+           "WHERE o.attractionId = :attractionId AND o.visitDate = :visitDate")
+    Optional<Integer> findConfirmedPeople(@Param("attractionId") Long attractionId,
+                                          @Param("visitDate") LocalDate visitDate);
+    
+    // Calendrier: [visitDate, confirmedPeople] des jours ayant au moins une réservation
+    @Query("SELECT o.visitDate, o.confirmedPeople FROM DailyOccupancy o " +
+           "WHERE o.attractionId = :attractionId AND o.visitDate BETWEEN :from AND :to")
+    List<Object[]> findConfirmedPeopleBetween(@Param("attractionId") Long attractionId,
+                                              @Param("from") LocalDate from,
+                                              @Param("to") LocalDate to);
+    
+    // Statistiques d'une attraction: [totalReservations, completed], une ligne par jour au lieu d'une par réservation
+    @Query("SELECT COALESCE(SUM(o.totalReservations), 0), COALESCE(SUM(o.completed), 0) " +
+           "FROM DailyOccupancy o WHERE o.attractionId = :attractionId")
+    List<Object[]> sumTotalsByAttractionId(@Param("attractionId") Long attractionId);
+    
+    // Réconciliation: [attractionId, visitDate, colonnes de OCCUPANCY_COLUMNS] recalculées depuis reservations
+    @Query(value = "SELECT r.attraction_id, r.visit_date, " + OCCUPANCY_AGGREGATES + " " +
+                   "FROM reservations r WHERE r.visit_date BETWEEN :from AND :to GROUP BY r.attraction_id, r.visit_date",
+           nativeQuery = true)
+    List<Object[]> aggregateReservationsBetween(@Param("from") LocalDate from,
+                                                @Param("to") LocalDate to);
+    
+    List<DailyOccupancy> findByVisitDateBetween(LocalDate from, LocalDate to);
+}
@@ -1,18 +1,25 @@
 package com.smarttourism.attractions.repository;
 
 import com.smarttourism.attractions.Entities.Reservation;
+import com.smarttourism.attractions.dto.ReservationSummaryDTO;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface ReservationRepository extends JpaRepository<Reservation, Long> {
+public interface ReservationRepository extends JpaRepository<Reservation, Long>, ReservationRepositoryCustom {
     
     List<Reservation> findByTouristId(String touristId);
     List<Reservation> findByTouristIdOrderByReservationTimeDesc(String touristId);
@@ -32,6 +39,27 @@ public interface ReservationRepository extends JpaRepository<Reservation, Long>
     List<Reservation> findConfirmedReservationsForDate(@Param("attractionId") Long attractionId,
                                                       @Param("visitDate") LocalDate visitDate);
     
+    // Import en masse: [touristId, attractionId, visitDate] déjà réservés parmi ceux d'un lot
+    @Query("SELECT r.touristId, r.attraction.id, r.visitDate FROM Reservation r " +
+           "WHERE r.attraction.id IN :attractionIds AND r.touristId IN :touristIds")
+    List<Object[]> findExistingReservationKeys(@Param("attractionIds") Collection<Long> attractionIds,
+                                               @Param("touristIds") Collection<String> touristIds);
+    
+    // Import en masse: [id, touristId, status] des réservations citées par des avis
+    @Query("SELECT r.id, r.touristId, r.status FROM Reservation r WHERE r.id IN :ids")
+    List<Object[]> findImportInfoByIds(@Param("ids") Collection<Long> ids);
+    
+    // Export en flux: lecture par lots côté JDBC (useCursorFetch=true côté MySQL), entités en lecture seule
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("SELECT r FROM Reservation r JOIN FETCH r.attraction " +
+           "WHERE r.visitDate >= :startDate AND r.visitDate <= :endDate ORDER BY r.visitDate, r.id")
+    Stream<Reservation> streamReservationsBetweenDates(@Param("startDate") LocalDate startDate,
+                                                       @Param("endDate") LocalDate endDate);
+    
     @Query("SELECT COUNT(r) FROM Reservation r WHERE r.attraction.id = :attractionId AND " +
            "r.visitDate = :visitDate AND r.status = 'CONFIRMED'")
     Long countConfirmedReservationsForDate(@Param("attractionId") Long attractionId,
@@ -42,9 +70,28 @@ public interface ReservationRepository extends JpaRepository<Reservation, Long>
     Integer sumConfirmedVisitorsForDate(@Param("attractionId") Long attractionId,
                                        @Param("visitDate") LocalDate visitDate);
     
+    // Inventaire des créneaux: personnes confirmées par visitTime pour une journée, [visitTime, SUM]
+    @Query("SELECT r.visitTime, SUM(r.numberOfPeople) FROM Reservation r WHERE r.attraction.id = :attractionId AND " +
+           "r.visitDate = :visitDate AND r.status = 'CONFIRMED' GROUP BY r.visitTime")
+    List<Object[]> sumConfirmedPeopleByVisitTime(@Param("attractionId") Long attractionId,
+                                                 @Param("visitDate") LocalDate visitDate);
+    
     Page<Reservation> findByTouristId(String touristId, Pageable pageable);
     Page<Reservation> findByAttractionId(Long attractionId, Pageable pageable);
     
+    // Projections des listes paginées: nom de l'attraction par jointure, sans entité ni proxy à initialiser
+    String SUMMARY_SELECT = "SELECT new com.smarttourism.attractions.dto.ReservationSummaryDTO(" +
+                            "r.id, r.reservationCode, a.id, a.name, r.visitDate, r.visitTime, r.numberOfPeople, " +
+                            "r.status, r.totalPrice) FROM Reservation r JOIN r.attraction a ";
+    
+    @Query(value = SUMMARY_SELECT + "WHERE r.touristId = :touristId",
+           countQuery = "SELECT COUNT(r) FROM Reservation r WHERE r.touristId = :touristId")
+    Page<ReservationSummaryDTO> findSummariesByTouristId(@Param("touristId") String touristId, Pageable pageable);
+    
+    @Query(value = SUMMARY_SELECT + "WHERE a.id = :attractionId",
+           countQuery = "SELECT COUNT(r) FROM Reservation r WHERE r.attraction.id = :attractionId")
+    Page<ReservationSummaryDTO> findSummariesByAttractionId(@Param("attractionId") Long attractionId, Pageable pageable);
+    
     @Query("SELECT r FROM Reservation r WHERE r.visitDate >= :startDate AND r.visitDate <= :endDate")
     List<Reservation> findReservationsBetweenDates(@Param("startDate") LocalDate startDate,
                                                   @Param("endDate") LocalDate endDate);
@@ -53,5 +100,22 @@ public interface ReservationRepository extends JpaRepository<Reservation, Long>
            "r.status = 'COMPLETED'")
     Long countCompletedReservations(@Param("attractionId") Long attractionId);
     
+    // Pagination par curseur (reservationTime DESC, id DESC)
+    @Query("SELECT r FROM Reservation r WHERE r.attraction.id = :attractionId AND " +
+           "r.reservationTime <= :reservationTime AND (r.reservationTime < :reservationTime OR (r.reservationTime = :reservationTime AND r.id < :id)) " +
+           "ORDER BY r.reservationTime DESC, r.id DESC")
+    List<Reservation> findByAttractionIdAfter(@Param("attractionId") Long attractionId,
+                                              @Param("reservationTime") LocalDateTime reservationTime,
+                                              @Param("id") Long id,
+                                              Pageable pageable);
+    
+    @Query("SELECT r FROM Reservation r WHERE r.touristId = :touristId AND " +
+           "r.reservationTime <= :reservationTime AND (r.reservationTime < :reservationTime OR (r.reservationTime = :reservationTime AND r.id < :id)) " +
+           "ORDER BY r.reservationTime DESC, r.id DESC")
+    List<Reservation> findByTouristIdAfter(@Param("touristId") String touristId,
+                                           @Param("reservationTime") LocalDateTime reservationTime,
+                                           @Param("id") Long id,
+                                           Pageable pageable);
+    
     boolean existsByTouristIdAndAttractionIdAndVisitDate(String touristId, Long attractionId, LocalDate visitDate);
 }
\ No newline at end of file
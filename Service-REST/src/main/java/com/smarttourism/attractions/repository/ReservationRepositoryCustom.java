@@ -0,0 +1,11 @@
+package com.smarttourism.attractions.repository;
+
+import com.smarttourism.attractions.dto.FieldSelection;
+import com.smarttourism.attractions.dto.ReservationDTO;
+import java.util.List;
+
+// Lectures partielles (fields=): seules les colonnes des champs demandés sont sélectionnées
+public interface ReservationRepositoryCustom {
+    
+    List<ReservationDTO> findByTouristIdWithFields(String touristId, FieldSelection fields);
+}
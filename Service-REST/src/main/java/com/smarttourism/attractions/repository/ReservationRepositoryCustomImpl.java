@@ -0,0 +1,47 @@
+package com.smarttourism.attractions.repository;
+
+import com.smarttourism.attractions.Entities.Reservation;
+import com.smarttourism.attractions.dto.FieldSelection;
+import com.smarttourism.attractions.dto.ReservationDTO;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.util.List;
+
+public class ReservationRepositoryCustomImpl implements ReservationRepositoryCustom {
+    
+    // attractionId se lit sur la clé étrangère; seul attractionName joint la table attractions
+    private static final SparseFieldQuery<Reservation, ReservationDTO> FIELDS =
+        new SparseFieldQuery<Reservation, ReservationDTO>(Reservation.class, ReservationDTO::new)
+            .column("id", r -> r.get("id"), ReservationDTO::setId)
+            .column("reservationCode", r -> r.get("reservationCode"), ReservationDTO::setReservationCode)
+            .column("attractionId", r -> r.get("attraction").get("id"), ReservationDTO::setAttractionId)
+            .column("attractionName", r -> r.get("attraction").get("name"), ReservationDTO::setAttractionName)
+            .column("touristId", r -> r.get("touristId"), ReservationDTO::setTouristId)
+            .column("touristName", r -> r.get("touristName"), ReservationDTO::setTouristName)
+            .column("touristEmail", r -> r.get("touristEmail"), ReservationDTO::setTouristEmail)
+            .column("touristPhone", r -> r.get("touristPhone"), ReservationDTO::setTouristPhone)
+            .column("touristCountry", r -> r.get("touristCountry"), ReservationDTO::setTouristCountry)
+            .column("visitDate", r -> r.get("visitDate"), ReservationDTO::setVisitDate)
+            .column("visitTime", r -> r.get("visitTime"), ReservationDTO::setVisitTime)
+            .column("reservationTime", r -> r.get("reservationTime"), ReservationDTO::setReservationTime)
+            .column("numberOfPeople", r -> r.get("numberOfPeople"), ReservationDTO::setNumberOfPeople)
+            .column("status", r -> r.get("status"), ReservationDTO::setStatus)
+            .column("totalPrice", r -> r.get("totalPrice"), ReservationDTO::setTotalPrice)
+            .column("specialRequirements", r -> r.get("specialRequirements"), ReservationDTO::setSpecialRequirements)
+            .column("qrCodeUrl", r -> r.get("qrCodeUrl"), ReservationDTO::setQrCodeUrl)
+            .column("checkInTime", r -> r.get("checkInTime"), ReservationDTO::setCheckInTime)
+            .column("checkOutTime", r -> r.get("checkOutTime"), ReservationDTO::setCheckOutTime)
+            .column("notes", r -> r.get("notes"), ReservationDTO::setNotes)
+            .column("cancellationReason", r -> r.get("cancellationReason"), ReservationDTO::setCancellationReason)
+            .column("cancelledAt", r -> r.get("cancelledAt"), ReservationDTO::setCancelledAt);
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Override
+    public List<ReservationDTO> findByTouristIdWithFields(String touristId, FieldSelection fields) {
+        return FIELDS.list(entityManager, fields,
+            (cb, r) -> cb.equal(r.get("touristId"), touristId),
+            (cb, r) -> List.of(cb.desc(r.get("reservationTime"))));
+    }
+}
@@ -1,17 +1,20 @@
 package com.smarttourism.attractions.repository;
 
 import com.smarttourism.attractions.Entities.Review;
+import com.smarttourism.attractions.dto.ReviewSummaryDTO;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface ReviewRepository extends JpaRepository<Review, Long> {
+public interface ReviewRepository extends JpaRepository<Review, Long>, ReviewRepositoryCustom {
     
     List<Review> findByAttractionId(Long attractionId);
     List<Review> findByTouristId(String touristId);
@@ -21,6 +24,19 @@ public interface ReviewRepository extends JpaRepository<Review, Long> {
     Page<Review> findByAttractionId(Long attractionId, Pageable pageable);
     Page<Review> findByTouristId(String touristId, Pageable pageable);
     
+    // Projections des listes paginées: nom de l'attraction par jointure, sans réponse ni historique d'édition
+    String SUMMARY_SELECT = "SELECT new com.smarttourism.attractions.dto.ReviewSummaryDTO(" +
+                            "r.id, a.id, a.name, r.touristName, r.rating, r.title, r.comment, r.reviewDate, " +
+                            "r.isVerifiedVisit, r.helpfulCount) FROM Review r JOIN r.attraction a ";
+    
+    @Query(value = SUMMARY_SELECT + "WHERE a.id = :attractionId",
+           countQuery = "SELECT COUNT(r) FROM Review r WHERE r.attraction.id = :attractionId")
+    Page<ReviewSummaryDTO> findSummariesByAttractionId(@Param("attractionId") Long attractionId, Pageable pageable);
+    
+    @Query(value = SUMMARY_SELECT + "WHERE r.touristId = :touristId",
+           countQuery = "SELECT COUNT(r) FROM Review r WHERE r.touristId = :touristId")
+    Page<ReviewSummaryDTO> findSummariesByTouristId(@Param("touristId") String touristId, Pageable pageable);
+    
     @Query("SELECT r FROM Review r WHERE r.attraction.id = :attractionId ORDER BY " +
            "CASE WHEN :sortBy = 'helpful' THEN r.helpfulCount END DESC, " +
            "CASE WHEN :sortBy = 'rating' THEN r.rating END DESC, " +
@@ -39,10 +55,63 @@ public interface ReviewRepository extends JpaRepository<Review, Long> {
     Long countByAttractionIdAndRating(@Param("attractionId") Long attractionId,
                                      @Param("rating") Integer rating);
     
+    // Pagination par curseur (reviewDate DESC, id DESC)
+    @Query("SELECT r FROM Review r WHERE r.attraction.id = :attractionId AND " +
+           "r.reviewDate <= :reviewDate AND (r.reviewDate < :reviewDate OR (r.reviewDate = :reviewDate AND r.id < :id)) " +
+           "ORDER BY r.reviewDate DESC, r.id DESC")
+    List<Review> findByAttractionIdAfter(@Param("attractionId") Long attractionId,
+                                         @Param("reviewDate") LocalDateTime reviewDate,
+                                         @Param("id") Long id,
+                                         Pageable pageable);
+    
+    @Query("SELECT r FROM Review r WHERE r.touristId = :touristId AND " +
+           "r.reviewDate <= :reviewDate AND (r.reviewDate < :reviewDate OR (r.reviewDate = :reviewDate AND r.id < :id)) " +
+           "ORDER BY r.reviewDate DESC, r.id DESC")
+    List<Review> findByTouristIdAfter(@Param("touristId") String touristId,
+                                      @Param("reviewDate") LocalDateTime reviewDate,
+                                      @Param("id") Long id,
+                                      Pageable pageable);
+    
+    // Index de recherche: [id, attractionId, rating, isVerifiedVisit, title, comment], par lots triés par ID
+    String SEARCH_SELECT = "SELECT r.id, r.attraction.id, r.rating, r.isVerifiedVisit, r.title, r.comment FROM Review r ";
+    
+    @Query(SEARCH_SELECT + "WHERE r.id > :after ORDER BY r.id")
+    List<Object[]> findSearchRowsAfter(@Param("after") Long after, Pageable pageable);
+    
+    @Query(SEARCH_SELECT + "WHERE r.id = :id")
+    List<Object[]> findSearchRowById(@Param("id") Long id);
+    
+    @Query("SELECT r FROM Review r JOIN FETCH r.attraction WHERE r.id IN :ids")
+    List<Review> findWithAttractionByIdIn(@Param("ids") Collection<Long> ids);
+    
+    // Recherche sans index (index en cours de construction): LIKE sur titre et commentaire
+    @Query("SELECT r FROM Review r JOIN FETCH r.attraction a WHERE " +
+           "(LOWER(r.title) LIKE LOWER(CONCAT('%', :query, '%')) OR LOWER(r.comment) LIKE LOWER(CONCAT('%', :query, '%'))) AND " +
+           "(:attractionId IS NULL OR a.id = :attractionId) AND " +
+           "(:minRating IS NULL OR r.rating >= :minRating) AND " +
+           "(:maxRating IS NULL OR r.rating <= :maxRating) AND " +
+           "(:verified IS NULL OR r.isVerifiedVisit = :verified) " +
+           "ORDER BY r.reviewDate DESC, r.id DESC")
+    List<Review> searchByText(@Param("query") String query,
+                              @Param("attractionId") Long attractionId,
+                              @Param("minRating") Integer minRating,
+                              @Param("maxRating") Integer maxRating,
+                              @Param("verified") Boolean verified,
+                              Pageable pageable);
+    
+    // Import en masse: couples [touristId, attractionId] déjà notés parmi ceux d'un lot
+    @Query("SELECT r.touristId, r.attraction.id FROM Review r " +
+           "WHERE r.attraction.id IN :attractionIds AND r.touristId IN :touristIds")
+    List<Object[]> findExistingReviewKeys(@Param("attractionIds") Collection<Long> attractionIds,
+                                          @Param("touristIds") Collection<String> touristIds);
+    
     Optional<Review> findByTouristIdAndAttractionId(String touristId, Long attractionId);
     
     boolean existsByTouristIdAndAttractionId(String touristId, Long attractionId);
     
     @Query("SELECT r FROM Review r WHERE r.isVerifiedVisit = true AND r.attraction.id = :attractionId")
     List<Review> findVerifiedReviewsByAttractionId(@Param("attractionId") Long attractionId);
+    
+    @Query("SELECT COUNT(r) FROM Review r WHERE r.isVerifiedVisit = true AND r.attraction.id = :attractionId")
+    Long countVerifiedReviewsByAttractionId(@Param("attractionId") Long attractionId);
 }
\ No newline at end of file
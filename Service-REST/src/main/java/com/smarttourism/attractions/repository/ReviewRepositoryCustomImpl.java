@@ -0,0 +1,43 @@
+package com.smarttourism.attractions.repository;
+
+import com.smarttourism.attractions.Entities.Review;
+import com.smarttourism.attractions.dto.FieldSelection;
+import com.smarttourism.attractions.dto.ReviewDTO;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.util.List;
+
+public class ReviewRepositoryCustomImpl implements ReviewRepositoryCustom {
+    
+    // attractionId et reservationId se lisent sur les clés étrangères; seul attractionName joint la table attractions
+    private static final SparseFieldQuery<Review, ReviewDTO> FIELDS =
+        new SparseFieldQuery<Review, ReviewDTO>(Review.class, ReviewDTO::new)
+            .column("id", r -> r.get("id"), ReviewDTO::setId)
+            .column("attractionId", r -> r.get("attraction").get("id"), ReviewDTO::setAttractionId)
+            .column("attractionName", r -> r.get("attraction").get("name"), ReviewDTO::setAttractionName)
+            .column("reservationId", r -> r.get("reservation").get("id"), ReviewDTO::setReservationId)
+            .column("touristId", r -> r.get("touristId"), ReviewDTO::setTouristId)
+            .column("touristName", r -> r.get("touristName"), ReviewDTO::setTouristName)
+            .column("touristCountry", r -> r.get("touristCountry"), ReviewDTO::setTouristCountry)
+            .column("rating", r -> r.get("rating"), ReviewDTO::setRating)
+            .column("title", r -> r.get("title"), ReviewDTO::setTitle)
+            .column("comment", r -> r.get("comment"), ReviewDTO::setComment)
+            .column("reviewDate", r -> r.get("reviewDate"), ReviewDTO::setReviewDate)
+            .column("visitDate", r -> r.get("visitDate"), ReviewDTO::setVisitDate)
+            .column("isVerifiedVisit", r -> r.get("isVerifiedVisit"), ReviewDTO::setIsVerifiedVisit)
+            .column("helpfulCount", r -> r.get("helpfulCount"), ReviewDTO::setHelpfulCount)
+            .column("reply", r -> r.get("reply"), ReviewDTO::setReply)
+            .column("repliedAt", r -> r.get("repliedAt"), ReviewDTO::setRepliedAt)
+            .column("isEdited", r -> r.get("isEdited"), ReviewDTO::setIsEdited)
+            .column("editedAt", r -> r.get("editedAt"), ReviewDTO::setEditedAt);
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Override
+    public List<ReviewDTO> findByAttractionIdWithFields(Long attractionId, FieldSelection fields) {
+        return FIELDS.list(entityManager, fields,
+            (cb, r) -> cb.equal(r.get("attraction").get("id"), attractionId),
+            (cb, r) -> List.of());
+    }
+}
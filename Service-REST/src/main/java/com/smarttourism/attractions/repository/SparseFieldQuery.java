@@ -0,0 +1,117 @@
+package com.smarttourism.attractions.repository;
+
+import com.smarttourism.attractions.dto.FieldSelection;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+// Lecture partielle (fields=): SELECT limité aux colonnes des champs demandés, copiées dans un DTO vide.
+// Un champ calculé déclare les colonnes dont il dépend; il n'est calculé que s'il est demandé.
+// Une jointure (nom de l'attraction) n'apparaît dans le SQL que si un champ demandé la traverse
+final class SparseFieldQuery<E, D> {
+
+    private final Class<E> entityType;
+    private final Supplier<D> factory;
+    private final Map<String, Column<E, D>> columns = new LinkedHashMap<>();
+    private final Map<String, Derived<D>> derived = new LinkedHashMap<>();
+
+    SparseFieldQuery(Class<E> entityType, Supplier<D> factory) {
+        this.entityType = entityType;
+        this.factory = factory;
+    }
+
+    @SuppressWarnings("unchecked")
+    <T> SparseFieldQuery<E, D> column(String field, Function<Root<E>, Path<T>> path, BiConsumer<D, T> setter) {
+        columns.put(field, new Column<>(path::apply, (dto, value) -> setter.accept(dto, (T) value)));
+        return this;
+    }
+
+    SparseFieldQuery<E, D> derived(String field, Consumer<D> compute, String... requires) {
+        derived.put(field, new Derived<>(compute, List.of(requires)));
+        return this;
+    }
+
+    List<D> list(EntityManager entityManager, FieldSelection fields,
+                 BiFunction<CriteriaBuilder, Root<E>, Predicate> where,
+                 BiFunction<CriteriaBuilder, Root<E>, List<Order>> orderBy) {
+        return list(entityManager, fields, where, orderBy, Integer.MAX_VALUE);
+    }
+
+    List<D> list(EntityManager entityManager, FieldSelection fields,
+                 BiFunction<CriteriaBuilder, Root<E>, Predicate> where,
+                 BiFunction<CriteriaBuilder, Root<E>, List<Order>> orderBy, int maxResults) {
+        Set<String> selected = new LinkedHashSet<>();
+        List<Derived<D>> computed = new ArrayList<>();
+        for (String field : fields.getNames()) {
+            Derived<D> derivedField = derived.get(field);
+            if (derivedField != null) {
+                selected.addAll(derivedField.requires);
+                computed.add(derivedField);
+            } else if (columns.containsKey(field)) {
+                selected.add(field);
+            } else {
+                throw new IllegalStateException("Champ sans colonne pour " + entityType.getSimpleName() + ": " + field);
+            }
+        }
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<E> root = query.from(entityType);
+        List<Column<E, D>> read = new ArrayList<>(selected.size());
+        for (String field : selected) {
+            read.add(columns.get(field));
+        }
+        query.multiselect(read.stream().<Selection<?>>map(c -> c.path.apply(root)).toList())
+             .where(where.apply(cb, root))
+             .orderBy(orderBy.apply(cb, root));
+
+        List<Tuple> rows = entityManager.createQuery(query).setMaxResults(maxResults).getResultList();
+        List<D> result = new ArrayList<>(rows.size());
+        for (Tuple row : rows) {
+            D dto = factory.get();
+            for (int i = 0; i < read.size(); i++) {
+                read.get(i).setter.accept(dto, row.get(i));
+            }
+            computed.forEach(field -> field.compute.accept(dto));
+            result.add(dto);
+        }
+        return result;
+    }
+
+    private static final class Column<E, D> {
+        private final Function<Root<E>, Path<?>> path;
+        private final BiConsumer<D, Object> setter;
+
+        private Column(Function<Root<E>, Path<?>> path, BiConsumer<D, Object> setter) {
+            this.path = path;
+            this.setter = setter;
+        }
+    }
+
+    private static final class Derived<D> {
+        private final Consumer<D> compute;
+        private final List<String> requires;
+
+        private Derived(Consumer<D> compute, List<String> requires) {
+            this.compute = compute;
+            this.requires = requires;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.smarttourism.attractions.search;
+
+import com.smarttourism.attractions.Entities.Attraction;
+import com.smarttourism.attractions.Entities.Category;
+import com.smarttourism.attractions.Entities.Location;
+import com.smarttourism.attractions.event.AttractionChangedEvent;
+import com.smarttourism.attractions.event.AttractionChangedEvent.ChangeType;
+import com.smarttourism.attractions.repository.AttractionRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import java.util.List;
+
+// Index spatial des attractions actives géolocalisées, maintenu à partir des AttractionChangedEvent
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AttractionGeoIndex {
+    
+    private final AttractionRepository attractionRepository;
+    
+    // ~5,5 km de côté: un rayon de 2 km ne couvre que quelques cellules
+    @Value("${attractions.geo.cell-size-degrees:0.05}")
+    private double cellSizeDegrees;
+    
+    private final RebuildChanges rebuildChanges = new RebuildChanges();
+    private final RebuildRequests rebuildRequests = new RebuildRequests("geo-index", this::rebuild);
+    
+    private volatile SpatialGridIndex<Category> index;
+    private volatile boolean ready = false;
+    
+    // Sérialisé; les modifications validées pendant le parcours sont rejouées sur le nouvel index
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        long start = System.currentTimeMillis();
+        SpatialGridIndex<Category> rebuilt = new SpatialGridIndex<>(cellSizeDegrees);
+        rebuildChanges.start();
+        try {
+            attractionRepository.findByIsActiveTrue().forEach(attraction -> put(rebuilt, attraction));
+            rebuildChanges.publish(id -> apply(rebuilt, id), () -> index = rebuilt);
+        } finally {
+            rebuildChanges.abort();
+        }
+        ready = true;
+        log.info("Index spatial des attractions construit: {} attractions en {} ms",
+            rebuilt.size(), System.currentTimeMillis() - start);
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAttractionChanged(AttractionChangedEvent event) {
+        if (!event.getType().affectsCatalogStructure()) {
+            return;
+        }
+        if (event.getType() == ChangeType.BULK_IMPORTED) {
+            // Pas sur le thread de la requête d'import: les recherches de proximité gardent l'index courant
+            requestRebuild();
+            return;
+        }
+        // Enregistré avant la lecture de l'index: pendant la première construction, rejoué sur celui-ci
+        rebuildChanges.record(event.getAttractionId());
+        SpatialGridIndex<Category> current = index;
+        if (current != null) {
+            apply(current, event.getAttractionId());
+        }
+    }
+    
+    // Thread dédié; plusieurs imports rapprochés ne donnent qu'une reconstruction de plus
+    public void requestRebuild() {
+        rebuildRequests.request();
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        rebuildRequests.shutdown();
+    }
+    
+    public boolean isReady() {
+        return ready;
+    }
+    
+    public List<SpatialGridIndex.Neighbor<Category>> nearest(double latitude, double longitude, double radiusKm,
+                                                             Category category, int limit) {
+        return index.nearest(latitude, longitude, radiusKm, limit,
+            category != null ? category::equals : null);
+    }
+    
+    private void apply(SpatialGridIndex<Category> target, Long attractionId) {
+        target.remove(attractionId);
+        attractionRepository.findById(attractionId)
+                .filter(Attraction::getIsActive)
+                .ifPresent(attraction -> put(target, attraction));
+    }
+    
+    private static void put(SpatialGridIndex<Category> target, Attraction attraction) {
+        Location location = attraction.getLocation();
+        if (location != null && location.getLatitude() != null && location.getLongitude() != null) {
+            target.put(attraction.getId(), location.getLatitude(), location.getLongitude(), attraction.getCategory());
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.smarttourism.attractions.search;
+
+import com.smarttourism.attractions.Entities.Attraction;
+import com.smarttourism.attractions.event.AttractionChangedEvent;
+import com.smarttourism.attractions.event.AttractionChangedEvent.ChangeType;
+import com.smarttourism.attractions.repository.AttractionRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// Index plein texte des attractions actives (nom, ville, description), maintenu à partir des AttractionChangedEvent
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AttractionSearchIndex {
+    
+    private static final float NAME_WEIGHT = 3.0f;
+    private static final float CITY_WEIGHT = 2.0f;
+    private static final float DESCRIPTION_WEIGHT = 1.0f;
+    
+    private final AttractionRepository attractionRepository;
+    
+    private final RebuildChanges rebuildChanges = new RebuildChanges();
+    private final RebuildRequests rebuildRequests = new RebuildRequests("attraction-index", this::rebuild);
+    
+    private volatile InvertedIndex index = newIndex();
+    private volatile boolean ready = false;
+    
+    // Sérialisé; les modifications validées pendant le parcours sont rejouées sur le nouvel index
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        long start = System.currentTimeMillis();
+        InvertedIndex rebuilt = newIndex();
+        rebuildChanges.start();
+        try {
+            List<Attraction> attractions = attractionRepository.findByIsActiveTrue();
+            attractions.forEach(attraction -> rebuilt.index(attraction.getId(), fields(attraction)));
+            rebuildChanges.publish(id -> apply(rebuilt, id), () -> index = rebuilt);
+        } finally {
+            rebuildChanges.abort();
+        }
+        ready = true;
+        log.info("Index de recherche des attractions construit: {} documents en {} ms",
+            rebuilt.size(), System.currentTimeMillis() - start);
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAttractionChanged(AttractionChangedEvent event) {
+        if (!event.getType().affectsCatalogStructure()) {
+            return;
+        }
+        if (event.getType() == ChangeType.BULK_IMPORTED) {
+            // Hors de la requête d'import; l'index courant répond et reçoit les modifications en attendant
+            requestRebuild();
+            return;
+        }
+        rebuildChanges.record(event.getAttractionId());
+        apply(index, event.getAttractionId());
+    }
+    
+    // En arrière-plan, demandes regroupées (RebuildRequests)
+    public void requestRebuild() {
+        rebuildRequests.request();
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        rebuildRequests.shutdown();
+    }
+    
+    public boolean isReady() {
+        return ready;
+    }
+    
+    // IDs des attractions triés par pertinence (BM25)
+    public List<Long> search(String query, int limit) {
+        return index.search(query, limit).stream()
+                .map(InvertedIndex.Hit::getDocumentId)
+                .collect(Collectors.toList());
+    }
+    
+    private void apply(InvertedIndex target, Long attractionId) {
+        attractionRepository.findById(attractionId)
+                .filter(Attraction::getIsActive)
+                .ifPresentOrElse(
+                    attraction -> target.index(attraction.getId(), fields(attraction)),
+                    () -> target.remove(attractionId));
+    }
+    
+    private static InvertedIndex newIndex() {
+        return new InvertedIndex(new TextAnalyzer(3, Set.of()));
+    }
+    
+    private static List<InvertedIndex.Field> fields(Attraction attraction) {
+        String city = attraction.getLocation() != null ? attraction.getLocation().getCity() : null;
+        return List.of(
+            new InvertedIndex.Field(attraction.getName(), NAME_WEIGHT),
+            new InvertedIndex.Field(city, CITY_WEIGHT),
+            new InvertedIndex.Field(attraction.getDescription(), DESCRIPTION_WEIGHT)
+        );
+    }
+}
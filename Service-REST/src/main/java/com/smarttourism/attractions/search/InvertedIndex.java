@@ -0,0 +1,271 @@
+package com.smarttourism.attractions.search;
+
+import lombok.Value;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongPredicate;
+
+// Index inversé en mémoire avec classement BM25 (champs pondérés), mis à jour document par document
+public class InvertedIndex {
+    
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final int INITIAL_CAPACITY = 16;
+    private static final Comparator<Hit> RANKING =
+        Comparator.comparingDouble(Hit::getScore).reversed().thenComparing(Hit::getDocumentId);
+    
+    private final TextAnalyzer analyzer;
+    // Postings compacts (ordinaux int triés + fréquences float) au lieu de Map<Long, Float>: ~8 octets par
+    // couple (terme, document), indispensable à plusieurs millions d'avis
+    private final Map<String, Postings> postings = new HashMap<>();
+    private final Map<Long, Integer> ordinals = new HashMap<>();
+    // Indexés par ordinal; les ordinaux libérés sont réutilisés
+    private long[] documentIds = new long[INITIAL_CAPACITY];
+    private float[] documentLengths = new float[INITIAL_CAPACITY];
+    private Postings[][] documentTerms = new Postings[INITIAL_CAPACITY][];
+    private int nextOrdinal;
+    private int[] freeOrdinals = new int[INITIAL_CAPACITY];
+    private int freeCount;
+    private double totalLength;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    
+    public InvertedIndex(TextAnalyzer analyzer) {
+        this.analyzer = analyzer;
+    }
+    
+    public void index(Long documentId, List<Field> fields) {
+        Map<String, Float> frequencies = new HashMap<>();
+        float length = 0;
+        for (Field field : fields) {
+            for (String token : analyzer.tokenize(field.getText())) {
+                length += field.getWeight();
+                for (String term : analyzer.indexTerms(token)) {
+                    frequencies.merge(term, field.getWeight(), Float::sum);
+                }
+            }
+        }
+        
+        lock.writeLock().lock();
+        try {
+            removeUnlocked(documentId);
+            if (frequencies.isEmpty()) {
+                return;
+            }
+            int ordinal = allocateOrdinal(documentId);
+            Postings[] terms = new Postings[frequencies.size()];
+            int i = 0;
+            for (Map.Entry<String, Float> entry : frequencies.entrySet()) {
+                Postings termPostings = postings.computeIfAbsent(entry.getKey(), Postings::new);
+                termPostings.add(ordinal, entry.getValue());
+                terms[i++] = termPostings;
+            }
+            documentTerms[ordinal] = terms;
+            documentLengths[ordinal] = length;
+            totalLength += length;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    public void remove(Long documentId) {
+        lock.writeLock().lock();
+        try {
+            removeUnlocked(documentId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    // Tous les mots de la requête doivent correspondre (mot complet ou préfixe); résultats triés par score décroissant
+    public List<Hit> search(String query, int limit) {
+        return search(query, limit, null);
+    }
+    
+    // filter (optionnel) écarte des documents avant le calcul du score (attraction, note, ...)
+    public List<Hit> search(String query, int limit, LongPredicate filter) {
+        List<String> queryTerms = analyzer.tokenize(query);
+        if (queryTerms.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        
+        lock.readLock().lock();
+        try {
+            int documentCount = ordinals.size();
+            if (documentCount == 0) {
+                return List.of();
+            }
+            double averageLength = totalLength / documentCount;
+            
+            // Du terme le plus rare au plus fréquent: la liste la plus courte fixe les candidats,
+            // les autres ne sont consultées que pour ces candidats
+            List<Postings> termPostings = new ArrayList<>();
+            for (String term : new HashSet<>(queryTerms)) {
+                Postings posting = postings.get(term);
+                if (posting == null) {
+                    return List.of();
+                }
+                termPostings.add(posting);
+            }
+            termPostings.sort(Comparator.comparingInt(posting -> posting.size));
+            double[] idf = new double[termPostings.size()];
+            for (int i = 0; i < idf.length; i++) {
+                int frequency = termPostings.get(i).size;
+                idf[i] = Math.log(1 + (documentCount - frequency + 0.5) / (frequency + 0.5));
+            }
+            
+            // Candidats parcourus par ordinal croissant: chaque autre liste est cherchée à partir de sa
+            // dernière position (intersection de listes triées)
+            Postings rarest = termPostings.get(0);
+            int[] cursors = new int[termPostings.size()];
+            // Tas des "limit" meilleurs: la tête est le moins bon résultat retenu
+            PriorityQueue<Hit> best = new PriorityQueue<>(limit + 1, RANKING.reversed());
+            candidates:
+            for (int p = 0; p < rarest.size; p++) {
+                int ordinal = rarest.ordinals[p];
+                long documentId = documentIds[ordinal];
+                if (filter != null && !filter.test(documentId)) {
+                    continue;
+                }
+                double norm = K1 * (1 - B + B * documentLengths[ordinal] / averageLength);
+                double score = idf[0] * bm25(rarest.frequencies[p], norm);
+                for (int i = 1; i < termPostings.size(); i++) {
+                    Postings other = termPostings.get(i);
+                    int position = Arrays.binarySearch(other.ordinals, cursors[i], other.size, ordinal);
+                    if (position < 0) {
+                        cursors[i] = -position - 1;
+                        continue candidates;
+                    }
+                    cursors[i] = position + 1;
+                    score += idf[i] * bm25(other.frequencies[position], norm);
+                }
+                if (best.size() == limit && !ranksBefore(score, documentId, best.peek())) {
+                    continue;
+                }
+                best.add(new Hit(documentId, score));
+                if (best.size() > limit) {
+                    best.poll();
+                }
+            }
+            
+            List<Hit> hits = new ArrayList<>(best);
+            hits.sort(RANKING);
+            return hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return ordinals.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    private static double bm25(float frequency, double norm) {
+        return frequency * (K1 + 1) / (frequency + norm);
+    }
+    
+    // Même ordre que RANKING, sans créer de Hit pour un candidat qui ne sera pas retenu
+    private static boolean ranksBefore(double score, long documentId, Hit hit) {
+        return score > hit.getScore() || score == hit.getScore() && documentId < hit.getDocumentId();
+    }
+    
+    private int allocateOrdinal(Long documentId) {
+        int ordinal;
+        if (freeCount > 0) {
+            ordinal = freeOrdinals[--freeCount];
+        } else {
+            ordinal = nextOrdinal++;
+            if (ordinal == documentIds.length) {
+                int capacity = documentIds.length + (documentIds.length >> 1);
+                documentIds = Arrays.copyOf(documentIds, capacity);
+                documentLengths = Arrays.copyOf(documentLengths, capacity);
+                documentTerms = Arrays.copyOf(documentTerms, capacity);
+            }
+        }
+        documentIds[ordinal] = documentId;
+        ordinals.put(documentId, ordinal);
+        return ordinal;
+    }
+    
+    private void removeUnlocked(Long documentId) {
+        Integer ordinal = ordinals.remove(documentId);
+        if (ordinal == null) {
+            return;
+        }
+        for (Postings termPostings : documentTerms[ordinal]) {
+            termPostings.remove(ordinal);
+            if (termPostings.size == 0) {
+                postings.remove(termPostings.term);
+            }
+        }
+        documentTerms[ordinal] = null;
+        totalLength -= documentLengths[ordinal];
+        if (freeCount == freeOrdinals.length) {
+            freeOrdinals = Arrays.copyOf(freeOrdinals, freeOrdinals.length * 2);
+        }
+        freeOrdinals[freeCount++] = ordinal;
+    }
+    
+    // Documents d'un terme triés par ordinal: ajout en fin de tableau lors d'une reconstruction,
+    // insertion par recherche dichotomique quand un ordinal libéré est réutilisé
+    private static final class Postings {
+        private final String term;
+        private int[] ordinals = new int[2];
+        private float[] frequencies = new float[2];
+        private int size;
+        
+        private Postings(String term) {
+            this.term = term;
+        }
+        
+        private void add(int ordinal, float frequency) {
+            int position = size == 0 || ordinals[size - 1] < ordinal
+                ? size
+                : -Arrays.binarySearch(ordinals, 0, size, ordinal) - 1;
+            if (size == ordinals.length) {
+                int capacity = ordinals.length + (ordinals.length >> 1) + 1;
+                ordinals = Arrays.copyOf(ordinals, capacity);
+                frequencies = Arrays.copyOf(frequencies, capacity);
+            }
+            System.arraycopy(ordinals, position, ordinals, position + 1, size - position);
+            System.arraycopy(frequencies, position, frequencies, position + 1, size - position);
+            ordinals[position] = ordinal;
+            frequencies[position] = frequency;
+            size++;
+        }
+        
+        private void remove(int ordinal) {
+            int position = Arrays.binarySearch(ordinals, 0, size, ordinal);
+            if (position < 0) {
+                return;
+            }
+            System.arraycopy(ordinals, position + 1, ordinals, position, size - position - 1);
+            System.arraycopy(frequencies, position + 1, frequencies, position, size - position - 1);
+            size--;
+        }
+    }
+    
+    @Value
+    public static class Field {
+        String text;
+        float weight;
+    }
+    
+    @Value
+    public static class Hit {
+        Long documentId;
+        double score;
+    }
+}
@@ -0,0 +1,51 @@
+package com.smarttourism.attractions.search;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.Consumer;
+
+// IDs modifiés pendant la reconstruction d'un index: l'ancien index reste mis à jour et continue de répondre,
+// ces IDs sont rejoués sur le nouvel index avant sa publication pour qu'aucune modification ne soit perdue
+public class RebuildChanges {
+    
+    // null hors reconstruction
+    private Set<Long> changed;
+    
+    // Avant le parcours de la base: toute modification validée ensuite est soit lue, soit enregistrée
+    public synchronized void start() {
+        changed = new HashSet<>();
+    }
+    
+    // Par les écouteurs, avant d'appliquer la modification à l'index courant
+    public synchronized void record(Long id) {
+        if (changed != null) {
+            changed.add(id);
+        }
+    }
+    
+    // Rejoue d'abord hors verrou, puis le reste et la publication sous verrou: un écouteur qui enregistre
+    // après la publication lit forcément le nouvel index
+    public void publish(Consumer<Long> replay, Runnable swap) {
+        drain().forEach(replay);
+        synchronized (this) {
+            Set<Long> remaining = drain();
+            changed = null;
+            remaining.forEach(replay);
+            swap.run();
+        }
+    }
+    
+    // Reconstruction échouée: l'ancien index reste en place et a reçu toutes les modifications
+    public synchronized void abort() {
+        changed = null;
+    }
+    
+    private synchronized Set<Long> drain() {
+        if (changed == null) {
+            return Set.of();
+        }
+        Set<Long> ids = changed;
+        changed = new HashSet<>();
+        return ids;
+    }
+}
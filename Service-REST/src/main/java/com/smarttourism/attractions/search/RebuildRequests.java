@@ -0,0 +1,50 @@
+package com.smarttourism.attractions.search;
+
+import lombok.extern.slf4j.Slf4j;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Reconstruction d'un index hors du thread appelant (requête HTTP d'un import) et une seule à la fois:
+// les demandes reçues pendant une reconstruction sont regroupées en une seule suivante
+// (une écriture validée pendant le parcours a pu lui échapper)
+@Slf4j
+public class RebuildRequests {
+    
+    private final String name;
+    private final Runnable rebuild;
+    private final ExecutorService executor;
+    private final AtomicInteger pending = new AtomicInteger();
+    
+    public RebuildRequests(String name, Runnable rebuild) {
+        this.name = name;
+        this.rebuild = rebuild;
+        this.executor = Executors.newSingleThreadExecutor(task -> {
+            Thread thread = new Thread(task, name + "-rebuild");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    
+    public void request() {
+        if (pending.getAndIncrement() == 0) {
+            executor.execute(this::rebuildWhileRequested);
+        }
+    }
+    
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+    
+    private void rebuildWhileRequested() {
+        int handled;
+        do {
+            handled = pending.get();
+            try {
+                rebuild.run();
+            } catch (RuntimeException e) {
+                log.error("Échec de la reconstruction de l'index {}, l'index précédent reste en place", name, e);
+            }
+        } while (pending.addAndGet(-handled) > 0);
+    }
+}
@@ -0,0 +1,161 @@
+package com.smarttourism.attractions.search;
+
+import com.smarttourism.attractions.event.ReviewChangedEvent;
+import com.smarttourism.attractions.repository.ReviewRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongPredicate;
+import java.util.stream.Collectors;
+
+// Index plein texte des avis (titre, commentaire), maintenu à partir des ReviewChangedEvent.
+// Mots complets sans n-grammes (volume), mots vides français/anglais retirés; attraction, note et visite
+// vérifiée sont gardées à côté de l'index et filtrées pendant le parcours des postings, avant le score.
+// ~500 octets par avis pour l'index (mesuré sur 3 millions d'avis synthétiques, ReviewSearchBenchmarkTest)
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ReviewSearchIndex {
+    
+    private static final float TITLE_WEIGHT = 2.0f;
+    private static final float COMMENT_WEIGHT = 1.0f;
+    private static final int REBUILD_BATCH_SIZE = 10_000;
+    
+    private static final Set<String> STOP_WORDS = analyzedStopWords(
+        "a au aux avec ce ces c cet cette d dans de des du elle en et est eu il ils j je l la le les leur lui " +
+        "m ma mais me mes moi mon n ne nos notre nous on ou par pas pour qu que qui s sa se ses si son sur " +
+        "t ta te tes toi ton tu un une vos votre vous y ete etait sont tres " +
+        "an and are as at be but by for from has have i in is it its of on or that the their this to " +
+        "was we were with you");
+    
+    private final ReviewRepository reviewRepository;
+    
+    private final RebuildChanges rebuildChanges = new RebuildChanges();
+    private final RebuildRequests rebuildRequests = new RebuildRequests("review-index", this::rebuild);
+    
+    private volatile Corpus corpus = new Corpus();
+    private volatile boolean ready = false;
+    
+    // Au démarrage, sur le thread principal (le LIKE sert les recherches en attendant); ailleurs requestRebuild()
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        long start = System.currentTimeMillis();
+        Corpus rebuilt = new Corpus();
+        rebuildChanges.start();
+        try {
+            // Parcours par clé (id > dernier lu): coût constant par lot, sans charger les entités
+            Long after = 0L;
+            List<Object[]> rows;
+            do {
+                rows = reviewRepository.findSearchRowsAfter(after, PageRequest.of(0, REBUILD_BATCH_SIZE));
+                for (Object[] row : rows) {
+                    rebuilt.put(row);
+                    after = (Long) row[0];
+                }
+            } while (rows.size() == REBUILD_BATCH_SIZE);
+            // Avis créés, modifiés ou supprimés pendant le parcours: rejoués avant de remplacer l'index
+            rebuildChanges.publish(reviewId -> apply(rebuilt, reviewId), () -> corpus = rebuilt);
+        } finally {
+            rebuildChanges.abort();
+        }
+        ready = true;
+        log.info("Index de recherche des avis construit: {} documents en {} ms",
+            rebuilt.index.size(), System.currentTimeMillis() - start);
+    }
+    
+    // Import d'avis: une reconstruction en arrière-plan, les demandes rapprochées regroupées
+    public void requestRebuild() {
+        rebuildRequests.request();
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReviewChanged(ReviewChangedEvent event) {
+        if (event.getReviewId() == null) {
+            requestRebuild();
+            return;
+        }
+        rebuildChanges.record(event.getReviewId());
+        apply(corpus, event.getReviewId());
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        rebuildRequests.shutdown();
+    }
+    
+    public boolean isReady() {
+        return ready;
+    }
+    
+    // IDs des avis triés par pertinence (BM25); chaque filtre null est ignoré
+    public List<Long> search(String query, Long attractionId, Integer minRating, Integer maxRating,
+                             Boolean verified, int limit) {
+        Corpus current = corpus;
+        LongPredicate filter = null;
+        if (attractionId != null || minRating != null || maxRating != null || verified != null) {
+            filter = reviewId -> {
+                Facets facets = current.facets.get(reviewId);
+                return facets != null
+                    && (attractionId == null || attractionId.equals(facets.attractionId))
+                    && (minRating == null || facets.rating >= minRating)
+                    && (maxRating == null || facets.rating <= maxRating)
+                    && (verified == null || verified == facets.verified);
+            };
+        }
+        return current.index.search(query, limit, filter).stream()
+                .map(InvertedIndex.Hit::getDocumentId)
+                .collect(Collectors.toList());
+    }
+    
+    private void apply(Corpus target, Long reviewId) {
+        reviewRepository.findSearchRowById(reviewId).stream()
+                .findFirst()
+                .ifPresentOrElse(target::put, () -> target.remove(reviewId));
+    }
+    
+    // Mots vides passés par la même normalisation que le texte indexé (accents, translittérations)
+    private static Set<String> analyzedStopWords(String words) {
+        return Set.copyOf(new TextAnalyzer(0, Set.of()).tokenize(words));
+    }
+    
+    private static final class Corpus {
+        private final InvertedIndex index = new InvertedIndex(new TextAnalyzer(0, STOP_WORDS));
+        private final Map<Long, Facets> facets = new ConcurrentHashMap<>();
+        
+        // [id, attractionId, rating, isVerifiedVisit, title, comment]
+        private void put(Object[] row) {
+            Long reviewId = (Long) row[0];
+            Integer rating = (Integer) row[2];
+            facets.put(reviewId, new Facets((Long) row[1], rating != null ? rating : 0, Boolean.TRUE.equals(row[3])));
+            index.index(reviewId, List.of(
+                new InvertedIndex.Field((String) row[4], TITLE_WEIGHT),
+                new InvertedIndex.Field((String) row[5], COMMENT_WEIGHT)));
+        }
+        
+        private void remove(Long reviewId) {
+            index.remove(reviewId);
+            facets.remove(reviewId);
+        }
+    }
+    
+    private static final class Facets {
+        private final Long attractionId;
+        private final int rating;
+        private final boolean verified;
+        
+        private Facets(Long attractionId, int rating, boolean verified) {
+            this.attractionId = attractionId;
+            this.rating = rating;
+            this.verified = verified;
+        }
+    }
+}
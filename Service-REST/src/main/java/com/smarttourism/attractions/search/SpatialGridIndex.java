@@ -0,0 +1,187 @@
+package com.smarttourism.attractions.search;
+
+import lombok.Value;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Index spatial en grille régulière (cellules de cellSizeDegrees x cellSizeDegrees).
+// Les k plus proches voisins sont trouvés en parcourant les anneaux de cellules autour du point de recherche.
+// Le passage de l'antiméridien (±180°) n'est pas géré.
+public class SpatialGridIndex<T> {
+    
+    public static final double EARTH_RADIUS_KM = 6371.0;
+    private static final double KM_PER_DEGREE = Math.PI * EARTH_RADIUS_KM / 180.0;
+    
+    private final double cellSizeDegrees;
+    private final Map<Long, List<Entry<T>>> cells = new HashMap<>();
+    private final Map<Long, Entry<T>> entries = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private int minRow = Integer.MAX_VALUE;
+    private int maxRow = Integer.MIN_VALUE;
+    private int minColumn = Integer.MAX_VALUE;
+    private int maxColumn = Integer.MIN_VALUE;
+    
+    public SpatialGridIndex(double cellSizeDegrees) {
+        this.cellSizeDegrees = cellSizeDegrees;
+    }
+    
+    public void put(Long id, double latitude, double longitude, T payload) {
+        Entry<T> entry = new Entry<>(id, latitude, longitude, payload);
+        int row = row(latitude);
+        int column = column(longitude);
+        
+        lock.writeLock().lock();
+        try {
+            removeUnlocked(id);
+            entries.put(id, entry);
+            cells.computeIfAbsent(cellKey(row, column), key -> new ArrayList<>()).add(entry);
+            minRow = Math.min(minRow, row);
+            maxRow = Math.max(maxRow, row);
+            minColumn = Math.min(minColumn, column);
+            maxColumn = Math.max(maxColumn, column);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            removeUnlocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    // Les "limit" entrées les plus proches dans un rayon de radiusKm, triées par distance (haversine) croissante
+    public List<Neighbor<T>> nearest(double latitude, double longitude, double radiusKm, int limit, Predicate<T> filter) {
+        int centerRow = row(latitude);
+        int centerColumn = column(longitude);
+        List<Neighbor<T>> candidates = new ArrayList<>();
+        Comparator<Neighbor<T>> byDistance = Comparator.comparingDouble(Neighbor::getDistanceKm);
+        
+        lock.readLock().lock();
+        try {
+            if (entries.isEmpty()) {
+                return List.of();
+            }
+            int maxRing = Math.max(
+                Math.max(Math.abs(centerRow - minRow), Math.abs(maxRow - centerRow)),
+                Math.max(Math.abs(centerColumn - minColumn), Math.abs(maxColumn - centerColumn)));
+            
+            for (int ring = 0; ring <= maxRing; ring++) {
+                for (int row = centerRow - ring; row <= centerRow + ring; row++) {
+                    boolean edgeRow = row == centerRow - ring || row == centerRow + ring;
+                    int step = edgeRow || ring == 0 ? 1 : 2 * ring;
+                    for (int column = centerColumn - ring; column <= centerColumn + ring; column += step) {
+                        collect(cells.get(cellKey(row, column)), latitude, longitude, radiusKm, filter, candidates);
+                    }
+                }
+                
+                // Distance minimale garantie pour tout point situé hors des anneaux déjà parcourus
+                double coveredKm = coveredDistanceKm(latitude, ring);
+                if (coveredKm >= radiusKm) {
+                    break;
+                }
+                if (candidates.size() >= limit) {
+                    candidates.sort(byDistance);
+                    if (candidates.get(limit - 1).getDistanceKm() <= coveredKm) {
+                        break;
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        
+        candidates.sort(byDistance);
+        return candidates.size() > limit ? new ArrayList<>(candidates.subList(0, limit)) : candidates;
+    }
+    
+    public static double haversineKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1.0, Math.sqrt(a)));
+    }
+    
+    private void collect(List<Entry<T>> cell, double latitude, double longitude, double radiusKm,
+                         Predicate<T> filter, List<Neighbor<T>> candidates) {
+        if (cell == null) {
+            return;
+        }
+        for (Entry<T> entry : cell) {
+            if (filter != null && !filter.test(entry.getPayload())) {
+                continue;
+            }
+            double distance = haversineKm(latitude, longitude, entry.getLatitude(), entry.getLongitude());
+            if (distance <= radiusKm) {
+                candidates.add(new Neighbor<>(entry.getId(), entry.getPayload(), distance));
+            }
+        }
+    }
+    
+    private double coveredDistanceKm(double latitude, int ring) {
+        double farthestLatitude = Math.min(89.0, Math.abs(latitude) + (ring + 1) * cellSizeDegrees);
+        // Marge de 1% : la distance le long d'un parallèle majore légèrement la distance orthodromique
+        return 0.99 * ring * cellSizeDegrees * KM_PER_DEGREE * Math.cos(Math.toRadians(farthestLatitude));
+    }
+    
+    private void removeUnlocked(Long id) {
+        Entry<T> previous = entries.remove(id);
+        if (previous != null) {
+            long key = cellKey(row(previous.getLatitude()), column(previous.getLongitude()));
+            List<Entry<T>> cell = cells.get(key);
+            if (cell != null) {
+                cell.removeIf(entry -> entry.getId().equals(id));
+                if (cell.isEmpty()) {
+                    cells.remove(key);
+                }
+            }
+        }
+    }
+    
+    private int row(double latitude) {
+        return (int) Math.floor(latitude / cellSizeDegrees);
+    }
+    
+    private int column(double longitude) {
+        return (int) Math.floor(longitude / cellSizeDegrees);
+    }
+    
+    private static long cellKey(int row, int column) {
+        return ((long) row << 32) | (column & 0xffffffffL);
+    }
+    
+    @Value
+    private static class Entry<T> {
+        Long id;
+        double latitude;
+        double longitude;
+        T payload;
+    }
+    
+    @Value
+    public static class Neighbor<T> {
+        Long id;
+        T payload;
+        double distanceKm;
+    }
+}
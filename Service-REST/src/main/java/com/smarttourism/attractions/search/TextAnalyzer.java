@@ -0,0 +1,91 @@
+package com.smarttourism.attractions.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+// Normalisation et découpage du texte pour l'index inversé:
+// minuscules, suppression des accents (français) et des signes diacritiques des translittérations arabes,
+// découpage en mots puis n-grammes de préfixe pour la recherche partielle
+public class TextAnalyzer {
+    
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    // ʿayn / hamza des translittérations (Qayrawān, Ka'bah) supprimés à l'intérieur des mots
+    private static final Pattern TRANSLITERATION_MARKS = Pattern.compile("[ʿʾʻʼ]");
+    
+    private final int minGram;
+    private final Set<String> stopWords;
+    
+    // minGram <= 0 désactive les n-grammes
+    public TextAnalyzer(int minGram, Set<String> stopWords) {
+        this.minGram = minGram;
+        this.stopWords = stopWords;
+    }
+    
+    public static String fold(String text) {
+        String folded = Normalizer.normalize(text, Normalizer.Form.NFD);
+        folded = COMBINING_MARKS.matcher(folded).replaceAll("");
+        folded = TRANSLITERATION_MARKS.matcher(folded).replaceAll("");
+        return folded.toLowerCase(Locale.ROOT)
+                .replace("œ", "oe")
+                .replace("æ", "ae")
+                .replace("ß", "ss");
+    }
+    
+    // Mots normalisés, sans mots vides
+    public List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.isBlank()) {
+            return tokens;
+        }
+        
+        String folded = fold(text);
+        int start = -1;
+        for (int i = 0; i <= folded.length(); i++) {
+            boolean wordChar = i < folded.length() && Character.isLetterOrDigit(folded.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                String token = foldTransliteration(folded.substring(start, i));
+                if (!token.isEmpty() && !stopWords.contains(token)) {
+                    tokens.add(token);
+                }
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+    
+    // Termes indexés pour un mot: le mot complet et ses préfixes de longueur >= minGram
+    public List<String> indexTerms(String token) {
+        if (minGram <= 0 || token.length() <= minGram) {
+            return List.of(token);
+        }
+        List<String> terms = new ArrayList<>(token.length() - minGram + 1);
+        for (int length = minGram; length <= token.length(); length++) {
+            terms.add(token.substring(0, length));
+        }
+        return terms;
+    }
+    
+    // Variantes courantes des translittérations de l'arabe: Djerba/Jerba, Qairouan/Kairouan, Hammamet/Hamamet
+    private static String foldTransliteration(String token) {
+        String folded = token
+                .replace("dj", "j")
+                .replace("ou", "u")
+                .replace("q", "k")
+                .replace("ph", "f");
+        
+        StringBuilder collapsed = new StringBuilder(folded.length());
+        for (int i = 0; i < folded.length(); i++) {
+            char c = folded.charAt(i);
+            if (i == 0 || c != folded.charAt(i - 1) || Character.isDigit(c)) {
+                collapsed.append(c);
+            }
+        }
+        return collapsed.toString();
+    }
+}
@@ -1,23 +1,37 @@
 package com.smarttourism.attractions.service;
 
+import com.smarttourism.attractions.config.CacheConfig;
 import com.smarttourism.attractions.dto.AttractionDTO;
+import com.smarttourism.attractions.dto.AttractionSummaryDTO;
+import com.smarttourism.attractions.dto.CursorPage;
+import com.smarttourism.attractions.dto.FieldSelection;
+import com.smarttourism.attractions.dto.NearbyAttractionDTO;
 import com.smarttourism.attractions.dto.requests.CreateAttractionRequest;
 import com.smarttourism.attractions.Entities.Attraction;
 import com.smarttourism.attractions.Entities.Category;
+import com.smarttourism.attractions.event.AttractionChangedEvent;
+import com.smarttourism.attractions.event.AttractionChangedEvent.ChangeType;
 import com.smarttourism.attractions.exception.BusinessException;
 import com.smarttourism.attractions.exception.ErrorCode;
 import com.smarttourism.attractions.exception.ResourceNotFoundException;
 import com.smarttourism.attractions.exception.ValidationException;
 import com.smarttourism.attractions.repository.AttractionRepository;
-import com.smarttourism.attractions.repository.ReviewRepository;
+import com.smarttourism.attractions.search.AttractionGeoIndex;
+import com.smarttourism.attractions.search.AttractionSearchIndex;
+import com.smarttourism.attractions.search.SpatialGridIndex;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -26,7 +40,18 @@ import java.util.stream.Collectors;
 public class AttractionService {
     
     private final AttractionRepository attractionRepository;
-    private final ReviewRepository reviewRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final LiveVisitorCounters liveVisitorCounters;
+    private final AttractionSearchIndex attractionSearchIndex;
+    private final AttractionGeoIndex attractionGeoIndex;
+    private final AttractionStatistics attractionStatistics;
+    
+    // "index" (index inversé en mémoire) ou "sql" (LIKE sur la base, pour comparaison)
+    @Value("${attractions.search.engine:index}")
+    private String searchEngine;
+    
+    @Value("${attractions.search.max-results:100}")
+    private int searchMaxResults;
     
     @Transactional
     public AttractionDTO createAttraction(CreateAttractionRequest request) {
@@ -40,6 +65,7 @@ public class AttractionService {
         try {
             Attraction savedAttraction = attractionRepository.save(attraction);
             log.info("Attraction créée avec ID: {}", savedAttraction.getId());
+            eventPublisher.publishEvent(new AttractionChangedEvent(savedAttraction.getId(), ChangeType.CREATED));
             return convertToDTO(savedAttraction);
         } catch (Exception e) {
             log.error("Erreur lors de la création de l'attraction", e);
@@ -48,6 +74,7 @@ public class AttractionService {
         }
     }
     
+    @Cacheable(cacheNames = CacheConfig.ATTRACTIONS, key = "#id")
     public AttractionDTO getAttractionById(Long id) {
         log.debug("Récupération de l'attraction avec ID: {}", id);
         
@@ -67,70 +94,133 @@ public class AttractionService {
         return convertToDTO(attraction);
     }
     
+    @Cacheable(cacheNames = CacheConfig.ATTRACTION_LISTS, key = "'all'")
     public List<AttractionDTO> getAllAttractions() {
         log.debug("Récupération de toutes les attractions");
-        return attractionRepository.findByIsActiveTrue().stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return convertToDTOs(attractionRepository.findByIsActiveTrue());
+    }
+    
+    // Lecture partielle hors cache: le contrôleur garde la liste en cache quand fields= est absent
+    public List<AttractionDTO> getAllAttractions(FieldSelection fields) {
+        log.debug("Récupération partielle de toutes les attractions: {}", fields.getNames());
+        return attractionRepository.findActiveWithFields(fields);
     }
     
     public Page<AttractionDTO> getAllAttractions(Pageable pageable) {
         log.debug("Récupération des attractions avec pagination");
-        return attractionRepository.findByIsActiveTrue(pageable)
-                .map(this::convertToDTO);
+        return convertToDTOs(attractionRepository.findByIsActiveTrue(pageable));
+    }
+    
+    // Listes paginées: projection SQL directement en DTO (pas d'entité gérée, pas de colonnes TEXT)
+    public Page<AttractionSummaryDTO> getAttractionSummaries(Pageable pageable) {
+        log.debug("Récupération des résumés d'attractions avec pagination");
+        return attractionRepository.findActiveSummaries(pageable);
+    }
+    
+    public CursorPage<AttractionDTO> getAttractionsAfter(String after, int limit) {
+        log.debug("Récupération des attractions par curseur (limite {})", limit);
+        Object[] key = decodeAttractionCursor(after);
+        List<Attraction> rows = attractionRepository.findActiveAfter(
+            (Double) key[0], (Long) key[1], CursorPage.window(limit));
+        return toCursorPage(rows, limit);
+    }
+    
+    public CursorPage<AttractionDTO> getAttractionsByCityAfter(String city, String after, int limit) {
+        log.debug("Récupération des attractions de {} par curseur (limite {})", city, limit);
+        Object[] key = decodeAttractionCursor(after);
+        List<Attraction> rows = attractionRepository.findActiveByCityAfter(
+            city, (Double) key[0], (Long) key[1], CursorPage.window(limit));
+        return toCursorPage(rows, limit);
     }
     
     public List<AttractionDTO> getAttractionsByCity(String city) {
         log.debug("Récupération des attractions pour la ville: {}", city);
-        List<Attraction> attractions = attractionRepository.findByLocationCity(city);
-        return attractions.stream()
+        List<Attraction> attractions = attractionRepository.findByLocationCity(city).stream()
                 .filter(Attraction::getIsActive)
-                .map(this::convertToDTO)
                 .collect(Collectors.toList());
+        return convertToDTOs(attractions);
+    }
+    
+    // fields=: seules les colonnes demandées sont lues, les champs calculés seulement s'ils sont demandés
+    public List<AttractionDTO> getAttractionsByCity(String city, FieldSelection fields) {
+        if (fields.isAll()) {
+            return getAttractionsByCity(city);
+        }
+        log.debug("Récupération partielle des attractions pour la ville {}: {}", city, fields.getNames());
+        return attractionRepository.findActiveByCityWithFields(city, fields);
     }
     
     public Page<AttractionDTO> getAttractionsByCity(String city, Pageable pageable) {
         log.debug("Récupération des attractions pour la ville {} avec pagination", city);
-        return attractionRepository.findByLocationCity(city, pageable)
-                .map(this::convertToDTO);
+        return convertToDTOs(attractionRepository.findByLocationCity(city, pageable));
+    }
+    
+    public Page<AttractionSummaryDTO> getAttractionSummariesByCity(String city, Pageable pageable) {
+        log.debug("Récupération des résumés d'attractions pour la ville {} avec pagination", city);
+        return attractionRepository.findSummariesByCity(city, pageable);
     }
     
     public List<AttractionDTO> getAttractionsByCategory(Category category) {
         log.debug("Récupération des attractions de catégorie: {}", category);
-        List<Attraction> attractions = attractionRepository.findByCategory(category);
-        return attractions.stream()
+        List<Attraction> attractions = attractionRepository.findByCategory(category).stream()
                 .filter(Attraction::getIsActive)
-                .map(this::convertToDTO)
                 .collect(Collectors.toList());
+        return convertToDTOs(attractions);
+    }
+    
+    public List<AttractionDTO> getAttractionsByCategory(Category category, FieldSelection fields) {
+        if (fields.isAll()) {
+            return getAttractionsByCategory(category);
+        }
+        log.debug("Récupération partielle des attractions de catégorie {}: {}", category, fields.getNames());
+        return attractionRepository.findActiveByCategoryWithFields(category, fields);
     }
     
     public Page<AttractionDTO> searchAttractions(String city, Category category, 
                                                 Double minPrice, Double maxPrice,
                                                 Double minRating, Pageable pageable) {
         log.debug("Recherche d'attractions avec filtres: city={}, category={}", city, category);
-        return attractionRepository.findWithFilters(city, category, minPrice, maxPrice, minRating, pageable)
-                .map(this::convertToDTO);
+        return convertToDTOs(attractionRepository.findWithFilters(
+                city, category, minPrice, maxPrice, minRating, pageable));
+    }
+    
+    public Page<AttractionSummaryDTO> searchAttractionSummaries(String city, Category category,
+                                                              Double minPrice, Double maxPrice,
+                                                              Double minRating, Pageable pageable) {
+        log.debug("Recherche de résumés d'attractions avec filtres: city={}, category={}", city, category);
+        return attractionRepository.findSummariesWithFilters(
+                city, category, minPrice, maxPrice, minRating, pageable);
     }
     
+    @Cacheable(cacheNames = CacheConfig.ATTRACTION_LISTS, key = "'topRated'")
     public List<AttractionDTO> getTopRatedAttractions() {
         log.debug("Récupération des attractions les mieux notées");
-        return attractionRepository.findTop10ByIsActiveTrueOrderByRatingDesc().stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return convertToDTOs(attractionRepository.findTop10ByIsActiveTrueOrderByRatingDesc());
+    }
+    
+    public List<AttractionDTO> getTopRatedAttractions(FieldSelection fields) {
+        log.debug("Récupération partielle des attractions les mieux notées: {}", fields.getNames());
+        return attractionRepository.findTopRatedWithFields(fields, 10);
     }
     
+    @Cacheable(cacheNames = CacheConfig.ATTRACTION_LISTS, key = "'featured'")
     public List<AttractionDTO> getFeaturedAttractions() {
         log.debug("Récupération des attractions en vedette");
-        return attractionRepository.findByIsFeaturedTrueAndIsActiveTrue().stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return convertToDTOs(attractionRepository.findByIsFeaturedTrueAndIsActiveTrue());
     }
     
+    public List<AttractionDTO> getFeaturedAttractions(FieldSelection fields) {
+        log.debug("Récupération partielle des attractions en vedette: {}", fields.getNames());
+        return attractionRepository.findFeaturedWithFields(fields);
+    }
+    
+    @Cacheable(CacheConfig.CITIES)
     public List<String> getAllCities() {
         log.debug("Récupération de toutes les villes");
         return attractionRepository.findAllCities();
     }
     
+    @Cacheable(CacheConfig.CATEGORIES)
     public List<Category> getAllCategories() {
         log.debug("Récupération de toutes les catégories");
         return attractionRepository.findAllCategories();
@@ -153,6 +243,7 @@ public class AttractionService {
         
         Attraction updatedAttraction = attractionRepository.save(attraction);
         log.info("Attraction mise à jour avec ID: {}", updatedAttraction.getId());
+        eventPublisher.publishEvent(new AttractionChangedEvent(id, ChangeType.UPDATED));
         return convertToDTO(updatedAttraction);
     }
     
@@ -176,68 +267,92 @@ public class AttractionService {
         attraction.setIsActive(false);
         attractionRepository.save(attraction);
         log.info("Attraction désactivée avec ID: {}", id);
+        eventPublisher.publishEvent(new AttractionChangedEvent(id, ChangeType.DELETED));
     }
     
-    @Transactional
+    // Écrit en mémoire puis recopié en base par LiveVisitorCounters (write-behind)
     public void updateCurrentVisitors(Long attractionId, Integer visitorCount) {
         log.debug("Mise à jour des visiteurs pour l'attraction ID {}: {}", attractionId, visitorCount);
-        
-        Attraction attraction = attractionRepository.findById(attractionId)
-                .orElseThrow(() -> new ResourceNotFoundException(
-                    ErrorCode.ATTRACTION_NOT_FOUND,
-                    "Attraction",
-                    "id",
-                    attractionId
-                ));
-        
-        if (!attraction.getIsActive()) {
-            throw new BusinessException(ErrorCode.ATTRACTION_INACTIVE,
-                "Impossible de mettre à jour les visiteurs: attraction inactive");
-        }
-        
-        if (attraction.getMaxCapacity() != null && visitorCount > attraction.getMaxCapacity()) {
-            throw new BusinessException(ErrorCode.ATTRACTION_FULL,
-                String.format("Nombre de visiteurs (%d) dépasse la capacité maximale (%d)",
-                    visitorCount, attraction.getMaxCapacity()));
-        }
-        
-        if (visitorCount < 0) {
-            throw new ValidationException(ErrorCode.INVALID_CAPACITY,
-                "visitorCount", "Le nombre de visiteurs ne peut pas être négatif");
-        }
-        
-        attraction.setCurrentVisitors(visitorCount);
-        attractionRepository.save(attraction);
+        liveVisitorCounters.set(attractionId, visitorCount);
         log.info("Visiteurs mis à jour pour l'attraction ID {}: {}", attractionId, visitorCount);
     }
     
+    public Map<String, Object> incrementVisitors(Long attractionId, int count) {
+        int current = liveVisitorCounters.increment(attractionId, count);
+        return visitorsResponse(attractionId, current);
+    }
+    
+    public Map<String, Object> decrementVisitors(Long attractionId, int count) {
+        int current = liveVisitorCounters.decrement(attractionId, count);
+        return visitorsResponse(attractionId, current);
+    }
+    
     public List<AttractionDTO> searchAttractions(String query) {
         log.debug("Recherche d'attractions avec la requête: {}", query);
-        return attractionRepository.search(query).stream()
+        
+        if (!"sql".equalsIgnoreCase(searchEngine) && attractionSearchIndex.isReady()) {
+            List<Long> rankedIds = attractionSearchIndex.search(query, searchMaxResults);
+            Map<Long, Attraction> attractionsById = attractionRepository.findAllById(rankedIds).stream()
+                    .collect(Collectors.toMap(Attraction::getId, Function.identity()));
+            List<Attraction> attractions = rankedIds.stream()
+                    .map(attractionsById::get)
+                    .filter(attraction -> attraction != null && attraction.getIsActive())
+                    .collect(Collectors.toList());
+            return convertToDTOs(attractions);
+        }
+        
+        List<Attraction> attractions = attractionRepository.search(query).stream()
                 .filter(Attraction::getIsActive)
-                .map(this::convertToDTO)
                 .collect(Collectors.toList());
+        return convertToDTOs(attractions);
     }
     
-    public Map<String, Object> getStatistics() {
-        log.debug("Récupération des statistiques des attractions");
+    public List<NearbyAttractionDTO> getNearbyAttractions(Double latitude, Double longitude, Double radiusKm,
+                                                          Category category, int limit) {
+        log.debug("Recherche des attractions proches de ({}, {}) dans un rayon de {} km", latitude, longitude, radiusKm);
+        validateNearbyRequest(latitude, longitude, radiusKm, limit);
+        
+        // Sans rayon: les "limit" plus proches voisins, quelle que soit la distance
+        double effectiveRadiusKm = radiusKm != null ? radiusKm : Double.MAX_VALUE;
         
-        Long totalAttractions = attractionRepository.countActiveAttractions();
-        List<String> cities = attractionRepository.findAllCities();
-        List<Category> categories = attractionRepository.findAllCategories();
+        if (attractionGeoIndex.isReady()) {
+            List<SpatialGridIndex.Neighbor<Category>> neighbors = attractionGeoIndex.nearest(
+                latitude, longitude, effectiveRadiusKm, category, limit);
+            List<Long> ids = neighbors.stream()
+                    .map(SpatialGridIndex.Neighbor::getId)
+                    .collect(Collectors.toList());
+            Map<Long, Attraction> attractionsById = attractionRepository.findAllById(ids).stream()
+                    .collect(Collectors.toMap(Attraction::getId, Function.identity()));
+            return neighbors.stream()
+                    .filter(neighbor -> attractionsById.containsKey(neighbor.getId()))
+                    .map(neighbor -> new NearbyAttractionDTO(
+                        convertToDTO(attractionsById.get(neighbor.getId())), neighbor.getDistanceKm()))
+                    .collect(Collectors.toList());
+        }
         
-        return Map.of(
-            "totalAttractions", totalAttractions,
-            "totalCities", cities.size(),
-            "totalCategories", categories.size(),
-            "cities", cities,
-            "categories", categories.stream()
-                .map(Enum::name)
-                .collect(Collectors.toList())
-        );
-    }
-    
-    private void validateAttractionRequest(CreateAttractionRequest request) {
+        return attractionRepository.findNearbyBruteForce(latitude, longitude,
+                    Math.min(effectiveRadiusKm, Math.PI * SpatialGridIndex.EARTH_RADIUS_KM),
+                    category != null ? category.name() : null, limit).stream()
+                .map(attraction -> new NearbyAttractionDTO(convertToDTO(attraction),
+                    SpatialGridIndex.haversineKm(latitude, longitude,
+                        attraction.getLocation().getLatitude(), attraction.getLocation().getLongitude())))
+                .collect(Collectors.toList());
+    }
+    
+    public Map<String, Object> getStatistics() {
+        log.debug("Récupération des statistiques des attractions");
+        return attractionStatistics.snapshot();
+    }
+    
+    private Map<String, Object> visitorsResponse(Long attractionId, int current) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("attractionId", attractionId);
+        response.put("currentVisitors", current);
+        response.put("maxCapacity", liveVisitorCounters.maxCapacity(attractionId));
+        return response;
+    }
+    
+    void validateAttractionRequest(CreateAttractionRequest request) {
         if (request.getMaxCapacity() != null && request.getMaxCapacity() < 0) {
             throw new ValidationException(ErrorCode.INVALID_CAPACITY,
                 "maxCapacity", "La capacité doit être positive ou nulle");
@@ -252,6 +367,31 @@ public class AttractionService {
             throw new ValidationException(ErrorCode.INVALID_PARAMETERS,
                 "averageVisitDuration", "La durée moyenne doit être positive");
         }
+        
+        SlotInventory.validateDefinition(request.getOpeningTime(), request.getClosingTime(),
+            request.getSlotDurationMinutes(), request.getSlotCapacity());
+    }
+    
+    private void validateNearbyRequest(Double latitude, Double longitude, Double radiusKm, int limit) {
+        if (latitude == null || latitude < -90 || latitude > 90) {
+            throw new ValidationException(ErrorCode.INVALID_PARAMETERS,
+                "lat", "La latitude doit être comprise entre -90 et 90");
+        }
+        
+        if (longitude == null || longitude < -180 || longitude > 180) {
+            throw new ValidationException(ErrorCode.INVALID_PARAMETERS,
+                "lon", "La longitude doit être comprise entre -180 et 180");
+        }
+        
+        if (radiusKm != null && radiusKm <= 0) {
+            throw new ValidationException(ErrorCode.INVALID_PARAMETERS,
+                "radiusKm", "Le rayon doit être positif");
+        }
+        
+        if (limit < 1 || limit > 100) {
+            throw new ValidationException(ErrorCode.INVALID_PARAMETERS,
+                "limit", "La limite doit être comprise entre 1 et 100");
+        }
     }
     
     private void mapRequestToAttraction(CreateAttractionRequest request, Attraction attraction) {
@@ -265,6 +405,8 @@ public class AttractionService {
         attraction.setOpeningTime(request.getOpeningTime());
         attraction.setClosingTime(request.getClosingTime());
         attraction.setMaxCapacity(request.getMaxCapacity());
+        attraction.setSlotDurationMinutes(request.getSlotDurationMinutes());
+        attraction.setSlotCapacity(request.getSlotCapacity());
         attraction.setImageUrl(request.getImageUrl());
         attraction.setWebsiteUrl(request.getWebsiteUrl());
         attraction.setPhoneNumber(request.getPhoneNumber());
@@ -273,7 +415,32 @@ public class AttractionService {
         attraction.setIsFeatured(request.getIsFeatured() != null ? request.getIsFeatured() : false);
     }
     
-    private AttractionDTO convertToDTO(Attraction attraction) {
+    // Première page: bornes au-delà de toute valeur réelle pour garder une seule requête
+    private Object[] decodeAttractionCursor(String after) {
+        if (after == null || after.isBlank()) {
+            return new Object[]{Double.MAX_VALUE, Long.MAX_VALUE};
+        }
+        return CursorPage.decodeCursor(after, 2,
+            parts -> new Object[]{Double.valueOf(parts[0]), Long.valueOf(parts[1])});
+    }
+    
+    private CursorPage<AttractionDTO> toCursorPage(List<Attraction> rows, int limit) {
+        return CursorPage.of(rows, limit,
+            attraction -> CursorPage.encodeCursor(attraction.getRating(), attraction.getId()),
+            this::convertToDTO);
+    }
+    
+    private List<AttractionDTO> convertToDTOs(List<Attraction> attractions) {
+        return attractions.stream()
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
+    }
+    
+    private Page<AttractionDTO> convertToDTOs(Page<Attraction> attractions) {
+        return attractions.map(this::convertToDTO);
+    }
+    
+    AttractionDTO convertToDTO(Attraction attraction) {
         AttractionDTO dto = new AttractionDTO();
         dto.setId(attraction.getId());
         dto.setName(attraction.getName());
@@ -286,6 +453,8 @@ public class AttractionService {
         dto.setOpeningTime(attraction.getOpeningTime());
         dto.setClosingTime(attraction.getClosingTime());
         dto.setMaxCapacity(attraction.getMaxCapacity());
+        dto.setSlotDurationMinutes(attraction.getSlotDurationMinutes());
+        dto.setSlotCapacity(attraction.getSlotCapacity());
         dto.setCurrentVisitors(attraction.getCurrentVisitors());
         dto.setAvailableSpots(attraction.getAvailableSpots());
         dto.setOccupancyRate(attraction.getOccupancyRate());
@@ -300,26 +469,13 @@ public class AttractionService {
         dto.setIsFeatured(attraction.getIsFeatured());
         dto.setIsOpen(attraction.isOpen());
         
-        // Calculer la distribution des notes
-        if (attraction.getId() != null) {
-            Map<Integer, Long> ratingDistribution = calculateRatingDistribution(attraction.getId());
-            dto.setRatingDistribution1(ratingDistribution.getOrDefault(1, 0L).intValue());
-            dto.setRatingDistribution2(ratingDistribution.getOrDefault(2, 0L).intValue());
-            dto.setRatingDistribution3(ratingDistribution.getOrDefault(3, 0L).intValue());
-            dto.setRatingDistribution4(ratingDistribution.getOrDefault(4, 0L).intValue());
-            dto.setRatingDistribution5(ratingDistribution.getOrDefault(5, 0L).intValue());
-        }
+        // Distribution des notes lue directement sur la ligne (compteurs dénormalisés)
+        dto.setRatingDistribution1(attraction.getRatingCount1());
+        dto.setRatingDistribution2(attraction.getRatingCount2());
+        dto.setRatingDistribution3(attraction.getRatingCount3());
+        dto.setRatingDistribution4(attraction.getRatingCount4());
+        dto.setRatingDistribution5(attraction.getRatingCount5());
         
         return dto;
     }
-    
-    private Map<Integer, Long> calculateRatingDistribution(Long attractionId) {
-        return Map.of(
-            1, reviewRepository.countByAttractionIdAndRating(attractionId, 1),
-            2, reviewRepository.countByAttractionIdAndRating(attractionId, 2),
-            3, reviewRepository.countByAttractionIdAndRating(attractionId, 3),
-            4, reviewRepository.countByAttractionIdAndRating(attractionId, 4),
-            5, reviewRepository.countByAttractionIdAndRating(attractionId, 5)
-        );
-    }
 }
\ No newline at end of file
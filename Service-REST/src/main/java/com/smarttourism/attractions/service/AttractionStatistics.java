@@ -0,0 +1,154 @@
+package com.smarttourism.attractions.service;
+
+import com.smarttourism.attractions.Entities.Category;
+import com.smarttourism.attractions.event.AttractionChangedEvent;
+import com.smarttourism.attractions.event.AttractionChangedEvent.ChangeType;
+import com.smarttourism.attractions.repository.AttractionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Statistiques du catalogue (totaux, attractions par ville et par catégorie) construites au premier appel
+// puis tenues à jour par les AttractionChangedEvent. Lecture sans verrou d'un instantané immuable;
+// les mises à jour (rares) sont sérialisées et publient un nouvel instantané par échange de référence
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AttractionStatistics {
+
+    private final AttractionRepository attractionRepository;
+
+    private final AtomicReference<Map<String, Object>> snapshot = new AtomicReference<>();
+
+    // Protégés par le verrou de l'instance: ville/catégorie connues de chaque attraction active, et compteurs
+    private final Map<Long, Placement> placements = new HashMap<>();
+    private final Map<String, Integer> cityCounts = new TreeMap<>();
+    private final Map<Category, Integer> categoryCounts = new EnumMap<>(Category.class);
+
+    public Map<String, Object> snapshot() {
+        Map<String, Object> current = snapshot.get();
+        return current != null ? current : initialize();
+    }
+
+    private synchronized Map<String, Object> initialize() {
+        Map<String, Object> current = snapshot.get();
+        return current != null ? current : rebuild();
+    }
+
+    public synchronized Map<String, Object> rebuild() {
+        long start = System.currentTimeMillis();
+        placements.clear();
+        cityCounts.clear();
+        categoryCounts.clear();
+        for (Object[] row : attractionRepository.findActivePlacements()) {
+            Placement placement = new Placement((String) row[1], (Category) row[2]);
+            placements.put((Long) row[0], placement);
+            count(placement, 1);
+        }
+        Map<String, Object> rebuilt = publish();
+        log.info("Statistiques du catalogue construites: {} attractions en {} ms",
+            placements.size(), System.currentTimeMillis() - start);
+        return rebuilt;
+    }
+
+    // Avant ResourceVersions: l'ETag des statistiques ne change qu'une fois le nouvel instantané publié
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAttractionChanged(AttractionChangedEvent event) {
+        if (event.getType().affectsCatalogStructure()) {
+            apply(event);
+        }
+    }
+
+    private synchronized void apply(AttractionChangedEvent event) {
+        // Pas encore construit: le premier appel lira l'état courant de la base.
+        // Vérifié sous le verrou: une construction en cours se termine avant que l'événement soit appliqué
+        if (snapshot.get() == null) {
+            return;
+        }
+        if (event.getType() == ChangeType.BULK_IMPORTED) {
+            rebuild();
+            return;
+        }
+        Long attractionId = event.getAttractionId();
+        Placement previous = placements.get(attractionId);
+        Placement current = attractionRepository.findActivePlacementById(attractionId).stream()
+            .findFirst()
+            .map(row -> new Placement((String) row[1], (Category) row[2]))
+            .orElse(null);
+        if (Objects.equals(previous, current)) {
+            return;
+        }
+        if (previous != null) {
+            placements.remove(attractionId);
+            count(previous, -1);
+        }
+        if (current != null) {
+            placements.put(attractionId, current);
+            count(current, 1);
+        }
+        publish();
+        log.debug("Statistiques du catalogue mises à jour pour l'attraction {}", attractionId);
+    }
+
+    private void count(Placement placement, int delta) {
+        if (placement.city != null) {
+            cityCounts.merge(placement.city, delta, (a, b) -> a + b == 0 ? null : a + b);
+        }
+        if (placement.category != null) {
+            categoryCounts.merge(placement.category, delta, (a, b) -> a + b == 0 ? null : a + b);
+        }
+    }
+
+    private Map<String, Object> publish() {
+        Map<String, Integer> byCity = Collections.unmodifiableMap(new LinkedHashMap<>(cityCounts));
+        Map<String, Integer> byCategory = new LinkedHashMap<>();
+        categoryCounts.forEach((category, count) -> byCategory.put(category.name(), count));
+
+        Map<String, Object> statistics = new LinkedHashMap<>();
+        statistics.put("totalAttractions", (long) placements.size());
+        statistics.put("totalCities", byCity.size());
+        statistics.put("totalCategories", byCategory.size());
+        statistics.put("cities", List.copyOf(byCity.keySet()));
+        statistics.put("categories", List.copyOf(byCategory.keySet()));
+        statistics.put("attractionsByCity", byCity);
+        statistics.put("attractionsByCategory", Collections.unmodifiableMap(byCategory));
+
+        Map<String, Object> published = Collections.unmodifiableMap(statistics);
+        snapshot.set(published);
+        return published;
+    }
+
+    private static final class Placement {
+        private final String city;
+        private final Category category;
+
+        private Placement(String city, Category category) {
+            this.city = city;
+            this.category = category;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Placement placement
+                && Objects.equals(city, placement.city) && category == placement.category;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(city, category);
+        }
+    }
+}
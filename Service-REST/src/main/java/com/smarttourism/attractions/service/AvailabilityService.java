@@ -0,0 +1,213 @@
+package com.smarttourism.attractions.service;
+
+import com.smarttourism.attractions.config.CacheConfig;
+import com.smarttourism.attractions.dto.AvailabilityCalendarDTO;
+import com.smarttourism.attractions.dto.SlotAvailabilityDTO;
+import com.smarttourism.attractions.Entities.Attraction;
+import com.smarttourism.attractions.event.AttractionChangedEvent;
+import com.smarttourism.attractions.event.ReservationChangedEvent;
+import com.smarttourism.attractions.exception.ErrorCode;
+import com.smarttourism.attractions.exception.ResourceNotFoundException;
+import com.smarttourism.attractions.exception.ValidationException;
+import com.smarttourism.attractions.repository.AttractionRepository;
+import com.smarttourism.attractions.repository.DailyOccupancyRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Disponibilités sur plusieurs jours ou plusieurs attractions, lues dans daily_occupancy (une ligne par jour).
+// Le calendrier est mis en cache par attraction et invalidé dès qu'une réservation (ou la capacité) de celle-ci change
+@Service
+@Slf4j
+public class AvailabilityService {
+    
+    private static final int MAX_ATTRACTION_IDS = 500;
+    
+    private final AttractionRepository attractionRepository;
+    private final DailyOccupancyRepository dailyOccupancyRepository;
+    private final CacheManager cacheManager;
+    private final SlotInventory slotInventory;
+    private final int horizonDays;
+    
+    public AvailabilityService(AttractionRepository attractionRepository,
+                               DailyOccupancyRepository dailyOccupancyRepository,
+                               CacheManager cacheManager,
+                               SlotInventory slotInventory,
+                               @Value("${attractions.availability.calendar-horizon-days:366}") int horizonDays) {
+        this.attractionRepository = attractionRepository;
+        this.dailyOccupancyRepository = dailyOccupancyRepository;
+        this.cacheManager = cacheManager;
+        this.slotInventory = slotInventory;
+        this.horizonDays = horizonDays;
+    }
+    
+    public AvailabilityCalendarDTO getAvailabilityCalendar(Long attractionId, LocalDate from, LocalDate to) {
+        log.debug("Calendrier de disponibilité pour l'attraction ID {} du {} au {}", attractionId, from, to);
+        
+        LocalDate today = LocalDate.now();
+        if (from == null || to == null || from.isAfter(to)) {
+            throw new ValidationException(ErrorCode.INVALID_DATE, "from",
+                "La date de début doit être antérieure ou égale à la date de fin");
+        }
+        if (from.isBefore(today) || to.isAfter(today.plusDays(horizonDays - 1))) {
+            throw new ValidationException(ErrorCode.INVALID_DATE, "to",
+                String.format("Le calendrier couvre les %d prochains jours à partir d'aujourd'hui", horizonDays));
+        }
+        
+        Calendar calendar = calendar(attractionId, today);
+        Map<LocalDate, Integer> availableSpots = new LinkedHashMap<>();
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+            availableSpots.put(date, calendar.availableSpots(date));
+        }
+        return new AvailabilityCalendarDTO(attractionId, calendar.maxCapacity, from, to, availableSpots);
+    }
+    
+    // Tous les créneaux d'une journée en un appel, servis par l'inventaire en mémoire
+    public SlotAvailabilityDTO getSlotAvailability(Long attractionId, LocalDate date) {
+        log.debug("Disponibilité des créneaux pour l'attraction ID {} le {}", attractionId, date);
+        
+        LocalDate today = LocalDate.now();
+        if (date == null || date.isBefore(today) || date.isAfter(today.plusDays(horizonDays - 1))) {
+            throw new ValidationException(ErrorCode.INVALID_DATE, "date",
+                String.format("Les créneaux sont consultables sur les %d prochains jours à partir d'aujourd'hui", horizonDays));
+        }
+        return slotInventory.availability(attractionId, date);
+    }
+    
+    // Places restantes par attraction à une date (liste d'IDs ou ville): une seule agrégation jointe à maxCapacity,
+    // les IDs inconnus sont absents de la réponse
+    public Map<Long, Integer> getAvailability(List<Long> attractionIds, String city, LocalDate date) {
+        boolean byIds = attractionIds != null && !attractionIds.isEmpty();
+        boolean byCity = city != null && !city.isBlank();
+        log.debug("Disponibilités multiples à la date {} ({})", date, byIds ? attractionIds.size() + " IDs" : city);
+        
+        if (byIds == byCity) {
+            throw new ValidationException(ErrorCode.INVALID_PARAMETERS, "attractionIds",
+                "Indiquer soit une liste d'IDs d'attractions, soit une ville");
+        }
+        if (byIds && attractionIds.size() > MAX_ATTRACTION_IDS) {
+            throw new ValidationException(ErrorCode.INVALID_PARAMETERS, "attractionIds",
+                String.format("Au plus %d attractions par requête", MAX_ATTRACTION_IDS));
+        }
+        if (date == null) {
+            throw new ValidationException(ErrorCode.INVALID_DATE, "date", "La date de visite est obligatoire");
+        }
+        
+        List<Object[]> rows = byIds
+            ? attractionRepository.findOccupancyByIds(new HashSet<>(attractionIds), date)
+            : attractionRepository.findOccupancyByCity(city.trim(), date);
+        Map<Long, Integer> availableSpots = new LinkedHashMap<>();
+        for (Object[] row : rows) {
+            Integer maxCapacity = (Integer) row[2];
+            int reserved = ((Number) row[3]).intValue();
+            // Mêmes conventions que checkAvailability: 0 si inactive, -1 si capacité illimitée
+            int spots = !Boolean.TRUE.equals(row[1]) ? 0
+                : maxCapacity == null ? -1
+                : Math.max(0, maxCapacity - reserved);
+            availableSpots.put((Long) row[0], spots);
+        }
+        return availableSpots;
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReservationChanged(ReservationChangedEvent event) {
+        evict(event.getAttractionId());
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAttractionChanged(AttractionChangedEvent event) {
+        if (!event.getType().affectsCatalogStructure()) {
+            return;
+        }
+        if (event.getAttractionId() == null) {
+            Cache cache = cacheManager.getCache(CacheConfig.AVAILABILITY_CALENDARS);
+            if (cache != null) {
+                cache.clear();
+            }
+            return;
+        }
+        evict(event.getAttractionId());
+    }
+    
+    private Calendar calendar(Long attractionId, LocalDate today) {
+        Cache cache = cacheManager.getCache(CacheConfig.AVAILABILITY_CALENDARS);
+        if (cache == null) {
+            return loadCalendar(attractionId, today);
+        }
+        Calendar calendar;
+        try {
+            calendar = cache.get(attractionId, () -> loadCalendar(attractionId, today));
+        } catch (Cache.ValueRetrievalException e) {
+            // Attraction introuvable: remonter l'exception métier telle quelle
+            throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+        }
+        // Entrée chargée un jour précédent: sa fenêtre ne couvre plus l'horizon demandé
+        if (!calendar.start.equals(today)) {
+            calendar = loadCalendar(attractionId, today);
+            cache.put(attractionId, calendar);
+        }
+        return calendar;
+    }
+    
+    private Calendar loadCalendar(Long attractionId, LocalDate today) {
+        Attraction attraction = attractionRepository.findById(attractionId)
+                .orElseThrow(() -> new ResourceNotFoundException(
+                    ErrorCode.ATTRACTION_NOT_FOUND,
+                    "Attraction",
+                    "id",
+                    attractionId
+                ));
+        
+        boolean active = Boolean.TRUE.equals(attraction.getIsActive());
+        Map<LocalDate, Integer> reserved = new HashMap<>();
+        if (attraction.getMaxCapacity() != null && active) {
+            List<Object[]> rows = dailyOccupancyRepository.findConfirmedPeopleBetween(
+                attractionId, today, today.plusDays(horizonDays - 1));
+            for (Object[] row : rows) {
+                reserved.put((LocalDate) row[0], ((Number) row[1]).intValue());
+            }
+        }
+        return new Calendar(today, attraction.getMaxCapacity(), active, reserved);
+    }
+    
+    private void evict(Long attractionId) {
+        Cache cache = cacheManager.getCache(CacheConfig.AVAILABILITY_CALENDARS);
+        if (cache != null && attractionId != null) {
+            cache.evict(attractionId);
+        }
+    }
+    
+    private static final class Calendar {
+        private final LocalDate start;
+        private final Integer maxCapacity;
+        private final boolean active;
+        private final Map<LocalDate, Integer> reserved;
+        
+        private Calendar(LocalDate start, Integer maxCapacity, boolean active, Map<LocalDate, Integer> reserved) {
+            this.start = start;
+            this.maxCapacity = maxCapacity;
+            this.active = active;
+            this.reserved = reserved;
+        }
+        
+        // Mêmes conventions que checkAvailability: 0 si inactive, -1 si capacité illimitée
+        private int availableSpots(LocalDate date) {
+            if (!active) {
+                return 0;
+            }
+            if (maxCapacity == null) {
+                return -1;
+            }
+            return Math.max(0, maxCapacity - reserved.getOrDefault(date, 0));
+        }
+    }
+}
@@ -0,0 +1,395 @@
+package com.smarttourism.attractions.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smarttourism.attractions.Entities.Location;
+import com.smarttourism.attractions.Entities.Reservation;
+import com.smarttourism.attractions.dto.ImportReport;
+import com.smarttourism.attractions.dto.requests.CreateAttractionRequest;
+import com.smarttourism.attractions.dto.requests.ReservationImportRow;
+import com.smarttourism.attractions.dto.requests.ReviewImportRow;
+import com.smarttourism.attractions.event.AttractionChangedEvent;
+import com.smarttourism.attractions.event.AttractionChangedEvent.ChangeType;
+import com.smarttourism.attractions.event.ReservationChangedEvent;
+import com.smarttourism.attractions.event.ReviewChangedEvent;
+import com.smarttourism.attractions.exception.ValidationException;
+import com.smarttourism.attractions.repository.AttractionRepository;
+import com.smarttourism.attractions.repository.ReservationRepository;
+import com.smarttourism.attractions.repository.ReviewRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import jakarta.validation.constraints.FutureOrPresent;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.lang.annotation.Annotation;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+// Import en masse (NDJSON, une ligne = un objet): lecture en flux, validation par lots,
+// insertion par batch JDBC et recalcul des données dérivées une seule fois par import
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BulkImportService {
+    
+    private static final int MAX_ERRORS_PER_CHUNK = 50;
+    
+    private static final String INSERT_ATTRACTION =
+        "INSERT INTO attractions (name, description, category, latitude, longitude, address, postal_code, city, " +
+        "country, entry_price, opening_time, closing_time, max_capacity, current_visitors, rating, total_reviews, " +
+        "rating_count_1, rating_count_2, rating_count_3, rating_count_4, rating_count_5, rating_sum, image_url, " +
+        "website_url, phone_number, email, average_visit_duration, is_active, is_featured, created_at, updated_at) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0, 0, 0, 0, 0, 0, 0, 0, 0, ?, ?, ?, ?, ?, true, ?, ?, ?)";
+    
+    private static final String INSERT_REVIEW =
+        "INSERT INTO reviews (attraction_id, reservation_id, tourist_id, tourist_name, tourist_country, rating, " +
+        "title, comment, review_date, visit_date, is_verified_visit, helpful_count, is_edited) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0, false)";
+    
+    private static final String INSERT_RESERVATION =
+        "INSERT INTO reservations (reservation_code, attraction_id, tourist_id, tourist_name, tourist_email, " +
+        "tourist_phone, tourist_country, visit_date, visit_time, reservation_time, number_of_people, status, " +
+        "total_price, special_requirements) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final AttractionRepository attractionRepository;
+    private final ReviewRepository reviewRepository;
+    private final ReservationRepository reservationRepository;
+    private final AttractionService attractionService;
+    private final ReviewService reviewService;
+    private final RatingCountersRebuildJob ratingCountersRebuildJob;
+    private final OccupancyLedger occupancyLedger;
+    private final SlotInventory slotInventory;
+    private final ApplicationEventPublisher eventPublisher;
+    
+    @Value("${attractions.import.chunk-size:1000}")
+    private int chunkSize;
+    
+    public ImportReport importAttractions(InputStream input) {
+        ImportReport report = runImport("attractions", input, CreateAttractionRequest.class, Set.of(),
+            this::insertAttractions);
+        if (report.getImportedRows() > 0) {
+            // Une seule invalidation des caches et reconstruction des index pour tout l'import
+            eventPublisher.publishEvent(new AttractionChangedEvent(null, ChangeType.BULK_IMPORTED));
+        }
+        return report;
+    }
+    
+    public ImportReport importReviews(InputStream input) {
+        Set<Long> ratedAttractions = new HashSet<>();
+        ImportReport report = runImport("reviews", input, ReviewImportRow.class, Set.of(),
+            (rows, chunkReport) -> insertReviews(rows, chunkReport, ratedAttractions));
+        if (!ratedAttractions.isEmpty()) {
+            // Notes recalculées une fois par attraction touchée, et non à chaque avis
+            ratingCountersRebuildJob.rebuild(ratedAttractions);
+        }
+        if (report.getImportedRows() > 0) {
+            // Index de recherche des avis reconstruit une fois pour tout l'import, en arrière-plan
+            eventPublisher.publishEvent(new ReviewChangedEvent(null));
+        }
+        return report;
+    }
+    
+    public ImportReport importReservations(InputStream input) {
+        // Réservations historiques: une date de visite passée est acceptée
+        return runImport("reservations", input, ReservationImportRow.class, Set.of(FutureOrPresent.class),
+            this::insertReservations);
+    }
+    
+    private <T> ImportReport runImport(String type, InputStream input, Class<T> rowType,
+                                       Set<Class<? extends Annotation>> relaxed, ChunkWriter<T> writer) {
+        log.info("Début de l'import en masse: {}", type);
+        ImportReport report = new ImportReport(type);
+        long start = System.nanoTime();
+        
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            List<Line> chunk = new ArrayList<>(chunkSize);
+            long lineNumber = 0;
+            String text;
+            while ((text = reader.readLine()) != null) {
+                lineNumber++;
+                if (text.isBlank()) {
+                    continue;
+                }
+                chunk.add(new Line(lineNumber, text));
+                if (chunk.size() == chunkSize) {
+                    processChunk(chunk, rowType, relaxed, writer, report);
+                    chunk = new ArrayList<>(chunkSize);
+                }
+            }
+            if (!chunk.isEmpty()) {
+                processChunk(chunk, rowType, relaxed, writer, report);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        
+        long nanos = System.nanoTime() - start;
+        report.setDurationMs(nanos / 1_000_000);
+        report.setRowsPerSecond(nanos > 0 ? report.getImportedRows() * 1e9 / nanos : 0);
+        log.info("Import {} terminé: {} lignes, {} importées, {} rejetées en {} ms ({} lignes/s)",
+            type, report.getTotalRows(), report.getImportedRows(), report.getRejectedRows(),
+            report.getDurationMs(), Math.round(report.getRowsPerSecond()));
+        return report;
+    }
+    
+    private <T> void processChunk(List<Line> lines, Class<T> rowType, Set<Class<? extends Annotation>> relaxed,
+                                  ChunkWriter<T> writer, ImportReport report) {
+        long start = System.nanoTime();
+        ImportReport.ChunkReport chunkReport = new ImportReport.ChunkReport();
+        chunkReport.setChunk(report.getChunks().size() + 1);
+        chunkReport.setFirstLine(lines.get(0).getNumber());
+        chunkReport.setLastLine(lines.get(lines.size() - 1).getNumber());
+        chunkReport.setRows(lines.size());
+        
+        List<Row<T>> rows = new ArrayList<>(lines.size());
+        for (Line line : lines) {
+            try {
+                T value = objectMapper.readValue(line.getText(), rowType);
+                List<ConstraintViolation<T>> violations = validator.validate(value).stream()
+                    .filter(violation -> !relaxed.contains(
+                        violation.getConstraintDescriptor().getAnnotation().annotationType()))
+                    .collect(Collectors.toList());
+                if (violations.isEmpty()) {
+                    rows.add(new Row<>(line.getNumber(), value));
+                } else {
+                    reject(chunkReport, line.getNumber(), violations.stream()
+                        .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                        .sorted()
+                        .collect(Collectors.joining("; ")));
+                }
+            } catch (JsonProcessingException e) {
+                reject(chunkReport, line.getNumber(), "JSON invalide: " + e.getOriginalMessage());
+            }
+        }
+        
+        if (!rows.isEmpty()) {
+            try {
+                Integer imported = transactionTemplate.execute(status -> writer.write(rows, chunkReport));
+                chunkReport.setImported(imported != null ? imported : 0);
+            } catch (DataAccessException e) {
+                // Le lot entier est annulé: toutes ses lignes valides sont rejetées
+                log.warn("Lot {} rejeté par la base: {}", chunkReport.getChunk(), e.getMostSpecificCause().getMessage());
+                chunkReport.setImported(0);
+                rows.forEach(row -> reject(chunkReport, row.getLine(),
+                    "Lot annulé par la base: " + e.getMostSpecificCause().getMessage()));
+            }
+        }
+        
+        chunkReport.setRejected(chunkReport.getRows() - chunkReport.getImported());
+        chunkReport.setDurationMs((System.nanoTime() - start) / 1_000_000);
+        report.getChunks().add(chunkReport);
+        report.setTotalRows(report.getTotalRows() + chunkReport.getRows());
+        report.setImportedRows(report.getImportedRows() + chunkReport.getImported());
+        report.setRejectedRows(report.getRejectedRows() + chunkReport.getRejected());
+        log.info("Import {}: lot {} (lignes {}-{}) → {} importées, {} rejetées en {} ms", report.getType(),
+            chunkReport.getChunk(), chunkReport.getFirstLine(), chunkReport.getLastLine(),
+            chunkReport.getImported(), chunkReport.getRejected(), chunkReport.getDurationMs());
+    }
+    
+    private int insertAttractions(List<Row<CreateAttractionRequest>> rows, ImportReport.ChunkReport chunkReport) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> batch = new ArrayList<>(rows.size());
+        for (Row<CreateAttractionRequest> row : rows) {
+            CreateAttractionRequest request = row.getValue();
+            try {
+                attractionService.validateAttractionRequest(request);
+            } catch (ValidationException e) {
+                reject(chunkReport, row.getLine(), e.getMessage());
+                continue;
+            }
+            Location location = request.getLocation();
+            String city = location.getCity() != null ? location.getCity() : request.getCity();
+            batch.add(new Object[] {
+                request.getName(), request.getDescription(), request.getCategory().name(),
+                location.getLatitude(), location.getLongitude(), location.getAddress(), location.getPostalCode(),
+                city, location.getCountry(), request.getEntryPrice(), request.getOpeningTime(),
+                request.getClosingTime(), request.getMaxCapacity(), request.getImageUrl(), request.getWebsiteUrl(),
+                request.getPhoneNumber(), request.getEmail(), request.getAverageVisitDuration(),
+                Boolean.TRUE.equals(request.getIsFeatured()), now, now
+            });
+        }
+        return insert(INSERT_ATTRACTION, batch);
+    }
+    
+    private int insertReviews(List<Row<ReviewImportRow>> rows, ImportReport.ChunkReport chunkReport,
+                              Set<Long> ratedAttractions) {
+        Set<Long> attractionIds = rows.stream().map(row -> row.getValue().getAttractionId()).collect(Collectors.toSet());
+        Set<String> touristIds = rows.stream().map(row -> row.getValue().getTouristId()).collect(Collectors.toSet());
+        Set<Long> reservationIds = rows.stream().map(row -> row.getValue().getReservationId())
+            .filter(id -> id != null).collect(Collectors.toSet());
+        
+        Map<Long, Object[]> attractions = indexById(attractionRepository.findImportInfoByIds(attractionIds));
+        Map<Long, Object[]> reservations = reservationIds.isEmpty() ? Map.of()
+            : indexById(reservationRepository.findImportInfoByIds(reservationIds));
+        Set<String> existing = reviewRepository.findExistingReviewKeys(attractionIds, touristIds).stream()
+            .map(key -> key[0] + "|" + key[1])
+            .collect(Collectors.toCollection(HashSet::new));
+        
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> batch = new ArrayList<>(rows.size());
+        for (Row<ReviewImportRow> row : rows) {
+            ReviewImportRow request = row.getValue();
+            try {
+                reviewService.validateReviewRequest(request);
+            } catch (ValidationException e) {
+                reject(chunkReport, row.getLine(), e.getMessage());
+                continue;
+            }
+            Object[] attraction = attractions.get(request.getAttractionId());
+            if (attraction == null) {
+                reject(chunkReport, row.getLine(), "Attraction introuvable: " + request.getAttractionId());
+                continue;
+            }
+            if (!existing.add(request.getTouristId() + "|" + request.getAttractionId())) {
+                reject(chunkReport, row.getLine(), "Ce touriste a déjà noté cette attraction");
+                continue;
+            }
+            
+            boolean verified = false;
+            if (request.getReservationId() != null) {
+                Object[] reservation = reservations.get(request.getReservationId());
+                if (reservation == null || !request.getTouristId().equals(reservation[1])
+                        || reservation[2] != Reservation.ReservationStatus.COMPLETED) {
+                    reject(chunkReport, row.getLine(), "Réservation introuvable, d'un autre touriste ou non terminée: "
+                        + request.getReservationId());
+                    continue;
+                }
+                verified = true;
+            }
+            
+            batch.add(new Object[] {
+                request.getAttractionId(), request.getReservationId(), request.getTouristId(),
+                request.getTouristName(), request.getTouristCountry(), request.getRating(), request.getTitle(),
+                request.getComment(), request.getReviewDate() != null ? request.getReviewDate() : now,
+                request.getVisitDate(), verified
+            });
+            ratedAttractions.add(request.getAttractionId());
+        }
+        return insert(INSERT_REVIEW, batch);
+    }
+    
+    private int insertReservations(List<Row<ReservationImportRow>> rows, ImportReport.ChunkReport chunkReport) {
+        Set<Long> attractionIds = rows.stream().map(row -> row.getValue().getAttractionId()).collect(Collectors.toSet());
+        Set<String> touristIds = rows.stream().map(row -> row.getValue().getTouristId()).collect(Collectors.toSet());
+        
+        Map<Long, Object[]> attractions = indexById(attractionRepository.findImportInfoByIds(attractionIds));
+        Set<String> existing = reservationRepository.findExistingReservationKeys(attractionIds, touristIds).stream()
+            .map(key -> key[0] + "|" + key[1] + "|" + key[2])
+            .collect(Collectors.toCollection(HashSet::new));
+        
+        LocalDate today = LocalDate.now();
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> batch = new ArrayList<>(rows.size());
+        Map<Long, Set<LocalDate>> touchedDates = new HashMap<>();
+        for (Row<ReservationImportRow> row : rows) {
+            ReservationImportRow request = row.getValue();
+            if (request.getNumberOfPeople() == null || request.getNumberOfPeople() <= 0
+                    || request.getNumberOfPeople() > 50) {
+                reject(chunkReport, row.getLine(), "Le nombre de personnes doit être compris entre 1 et 50");
+                continue;
+            }
+            Object[] attraction = attractions.get(request.getAttractionId());
+            if (attraction == null) {
+                reject(chunkReport, row.getLine(), "Attraction introuvable: " + request.getAttractionId());
+                continue;
+            }
+            if (!existing.add(request.getTouristId() + "|" + request.getAttractionId() + "|" + request.getVisitDate())) {
+                reject(chunkReport, row.getLine(), "Réservation déjà existante pour ce touriste à cette date");
+                continue;
+            }
+            
+            // Historique: une visite passée sans statut explicite est considérée comme terminée
+            Reservation.ReservationStatus status = request.getStatus() != null ? request.getStatus()
+                : request.getVisitDate().isBefore(today) ? Reservation.ReservationStatus.COMPLETED
+                : Reservation.ReservationStatus.CONFIRMED;
+            touchedDates.computeIfAbsent(request.getAttractionId(), id -> new HashSet<>()).add(request.getVisitDate());
+            Double entryPrice = (Double) attraction[1];
+            batch.add(new Object[] {
+                request.getReservationCode() != null ? request.getReservationCode()
+                    : "RES-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase(),
+                request.getAttractionId(), request.getTouristId(), request.getTouristName(),
+                request.getTouristEmail(), request.getTouristPhone(), request.getTouristCountry(),
+                request.getVisitDate(), request.getVisitTime(),
+                request.getReservationTime() != null ? request.getReservationTime() : now,
+                request.getNumberOfPeople(), status.name(),
+                entryPrice != null ? entryPrice * request.getNumberOfPeople() : 0.0,
+                request.getSpecialRequirements()
+            });
+        }
+        int imported = insert(INSERT_RESERVATION, batch);
+        // daily_occupancy recalculée pour les dates touchées dans la transaction du lot, créneaux rechargés après son commit
+        touchedDates.forEach((attractionId, dates) -> {
+            dates.forEach(date -> {
+                occupancyLedger.rebuild(attractionId, date);
+                slotInventory.reload(attractionId, date);
+            });
+            eventPublisher.publishEvent(new ReservationChangedEvent(attractionId));
+        });
+        return imported;
+    }
+    
+    private int insert(String sql, List<Object[]> batch) {
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        jdbcTemplate.batchUpdate(sql, batch);
+        return batch.size();
+    }
+    
+    private static Map<Long, Object[]> indexById(List<Object[]> rows) {
+        Map<Long, Object[]> byId = new HashMap<>();
+        rows.forEach(row -> byId.put((Long) row[0], row));
+        return byId;
+    }
+    
+    private static void reject(ImportReport.ChunkReport chunkReport, long line, String message) {
+        if (chunkReport.getErrors().size() < MAX_ERRORS_PER_CHUNK) {
+            chunkReport.getErrors().add(new ImportReport.RowError(line, message));
+        }
+    }
+    
+    @FunctionalInterface
+    private interface ChunkWriter<T> {
+        int write(List<Row<T>> rows, ImportReport.ChunkReport chunkReport);
+    }
+    
+    @Getter
+    @AllArgsConstructor
+    private static class Line {
+        private final long number;
+        private final String text;
+    }
+    
+    @Getter
+    @AllArgsConstructor
+    private static class Row<T> {
+        private final long line;
+        private final T value;
+    }
+}
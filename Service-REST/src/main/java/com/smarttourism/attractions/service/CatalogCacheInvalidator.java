@@ -0,0 +1,51 @@
+package com.smarttourism.attractions.service;
+
+import com.smarttourism.attractions.config.CacheConfig;
+import com.smarttourism.attractions.event.AttractionChangedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CatalogCacheInvalidator {
+    
+    private final CacheManager cacheManager;
+    
+    // Avant ResourceVersions: un ETag incrémenté ne doit jamais être associé à une entrée de cache périmée
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAttractionChanged(AttractionChangedEvent event) {
+        log.debug("Invalidation du cache catalogue: attraction {} ({})", event.getAttractionId(), event.getType());
+        
+        evict(CacheConfig.ATTRACTIONS, event.getAttractionId());
+        if (event.getType().affectsCatalogLists()) {
+            clear(CacheConfig.ATTRACTION_LISTS);
+        }
+        
+        if (event.getType().affectsCatalogStructure()) {
+            clear(CacheConfig.CITIES);
+            clear(CacheConfig.CATEGORIES);
+        }
+    }
+    
+    private void evict(String cacheName, Object key) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null && key != null) {
+            cache.evict(key);
+        }
+    }
+    
+    private void clear(String cacheName) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.smarttourism.attractions.service;
+
+import com.smarttourism.attractions.Entities.DailyOccupancy;
+import com.smarttourism.attractions.event.ReservationChangedEvent;
+import com.smarttourism.attractions.repository.DailyOccupancyRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+// Compare daily_occupancy aux agrégats recalculés depuis reservations sur une fenêtre de dates,
+// signale chaque dérive et (par défaut) recalcule la ligne concernée
+@Component
+@Slf4j
+public class DailyOccupancyReconciliationJob {
+    
+    private static final double REVENUE_TOLERANCE = 0.005;
+    
+    private final DailyOccupancyRepository dailyOccupancyRepository;
+    private final OccupancyLedger occupancyLedger;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int pastDays;
+    private final int futureDays;
+    private final boolean repair;
+    
+    public DailyOccupancyReconciliationJob(DailyOccupancyRepository dailyOccupancyRepository,
+                                           OccupancyLedger occupancyLedger,
+                                           TransactionTemplate transactionTemplate,
+                                           ApplicationEventPublisher eventPublisher,
+                                           @Value("${attractions.occupancy.reconcile-past-days:30}") int pastDays,
+                                           @Value("${attractions.availability.calendar-horizon-days:366}") int futureDays,
+                                           @Value("${attractions.occupancy.repair:true}") boolean repair) {
+        this.dailyOccupancyRepository = dailyOccupancyRepository;
+        this.occupancyLedger = occupancyLedger;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.pastDays = pastDays;
+        this.futureDays = futureDays;
+        this.repair = repair;
+    }
+    
+    // Remplit la table au premier démarrage (réservations antérieures à son introduction)
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillIfEmpty() {
+        if (dailyOccupancyRepository.count() == 0) {
+            Integer rows = transactionTemplate.execute(status -> dailyOccupancyRepository.backfill());
+            if (rows != null && rows > 0) {
+                log.info("daily_occupancy initialisée: {} lignes", rows);
+            }
+        }
+    }
+    
+    @Scheduled(cron = "${attractions.occupancy.reconcile-cron:0 15 4 * * *}")
+    public void scheduledReconcile() {
+        LocalDate today = LocalDate.now();
+        reconcile(today.minusDays(pastDays), today.plusDays(futureDays));
+    }
+    
+    // Retourne le nombre de lignes en dérive (manquantes, en trop ou différentes) sur [from, to]
+    public int reconcile(LocalDate from, LocalDate to) {
+        log.info("Réconciliation de daily_occupancy du {} au {}", from, to);
+        
+        Map<String, DailyOccupancy> expected = new HashMap<>();
+        for (Object[] row : dailyOccupancyRepository.aggregateReservationsBetween(from, to)) {
+            DailyOccupancy occupancy = fromAggregate(row);
+            expected.put(key(occupancy), occupancy);
+        }
+        Map<String, DailyOccupancy> actual = new HashMap<>();
+        for (DailyOccupancy occupancy : dailyOccupancyRepository.findByVisitDateBetween(from, to)) {
+            actual.put(key(occupancy), occupancy);
+        }
+        
+        List<DailyOccupancy> drifted = new ArrayList<>();
+        expected.forEach((key, occupancy) -> {
+            DailyOccupancy stored = actual.get(key);
+            if (stored == null || !sameCounters(stored, occupancy)) {
+                log.warn("Dérive de daily_occupancy pour l'attraction ID {} le {}: attendu {}, trouvé {}",
+                    occupancy.getAttractionId(), occupancy.getVisitDate(), describe(occupancy), describe(stored));
+                drifted.add(occupancy);
+            }
+        });
+        actual.forEach((key, stored) -> {
+            if (!expected.containsKey(key) && stored.getTotalReservations() != 0) {
+                log.warn("Dérive de daily_occupancy pour l'attraction ID {} le {}: aucune réservation, trouvé {}",
+                    stored.getAttractionId(), stored.getVisitDate(), describe(stored));
+                drifted.add(stored);
+            }
+        });
+        
+        if (repair) {
+            // Une transaction courte par ligne: le verrou de ligne n'est pas tenu pendant toute la passe
+            for (DailyOccupancy occupancy : drifted) {
+                transactionTemplate.executeWithoutResult(status ->
+                    occupancyLedger.rebuild(occupancy.getAttractionId(), occupancy.getVisitDate()));
+                eventPublisher.publishEvent(new ReservationChangedEvent(occupancy.getAttractionId()));
+            }
+        }
+        log.info("Réconciliation de daily_occupancy terminée: {} lignes en dérive{}",
+            drifted.size(), repair && !drifted.isEmpty() ? " (corrigées)" : "");
+        return drifted.size();
+    }
+    
+    private static DailyOccupancy fromAggregate(Object[] row) {
+        DailyOccupancy occupancy = new DailyOccupancy();
+        occupancy.setAttractionId(((Number) row[0]).longValue());
+        occupancy.setVisitDate(toLocalDate(row[1]));
+        occupancy.setConfirmedPeople(((Number) row[2]).intValue());
+        occupancy.setConfirmedReservations(((Number) row[3]).intValue());
+        occupancy.setCompleted(((Number) row[4]).intValue());
+        occupancy.setCancelled(((Number) row[5]).intValue());
+        occupancy.setNoShow(((Number) row[6]).intValue());
+        occupancy.setTotalReservations(((Number) row[7]).intValue());
+        occupancy.setRevenue(((Number) row[8]).doubleValue());
+        return occupancy;
+    }
+    
+    // Requête native: java.sql.Date ou LocalDate selon le pilote
+    private static LocalDate toLocalDate(Object value) {
+        return value instanceof java.sql.Date ? ((java.sql.Date) value).toLocalDate() : (LocalDate) value;
+    }
+    
+    private static boolean sameCounters(DailyOccupancy stored, DailyOccupancy expected) {
+        return Objects.equals(stored.getConfirmedPeople(), expected.getConfirmedPeople())
+            && Objects.equals(stored.getConfirmedReservations(), expected.getConfirmedReservations())
+            && Objects.equals(stored.getCompleted(), expected.getCompleted())
+            && Objects.equals(stored.getCancelled(), expected.getCancelled())
+            && Objects.equals(stored.getNoShow(), expected.getNoShow())
+            && Objects.equals(stored.getTotalReservations(), expected.getTotalReservations())
+            && Math.abs(stored.getRevenue() - expected.getRevenue()) < REVENUE_TOLERANCE;
+    }
+    
+    private static String key(DailyOccupancy occupancy) {
+        return occupancy.getAttractionId() + "|" + occupancy.getVisitDate();
+    }
+    
+    private static String describe(DailyOccupancy occupancy) {
+        if (occupancy == null) {
+            return "aucune ligne";
+        }
+        return String.format("[confirmées=%d (%d pers.), terminées=%d, annulées=%d, absents=%d, total=%d, revenu=%.2f]",
+            occupancy.getConfirmedReservations(), occupancy.getConfirmedPeople(), occupancy.getCompleted(),
+            occupancy.getCancelled(), occupancy.getNoShow(), occupancy.getTotalReservations(), occupancy.getRevenue());
+    }
+}
@@ -0,0 +1,222 @@
+package com.smarttourism.attractions.service;
+
+import com.smarttourism.attractions.exception.ErrorCode;
+import com.smarttourism.attractions.exception.ResourceNotFoundException;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+// Votes "utile" des avis: dédupliqués par touriste et comptés en mémoire (LongAdder, sans écriture de la ligne
+// de l'avis), puis écrits par lots: INSERT IGNORE des votes et un seul
+// UPDATE helpful_count = helpful_count + n par avis, n étant le nombre de votes réellement insérés.
+// Seuls les avis ayant des votes en attente sont gardés en mémoire, avec leurs votants pas encore écrits;
+// les votes déjà écrits sont retrouvés par la clé unique (review_id, tourist_id)
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class HelpfulVoteCounters {
+    
+    private static final String COUNT_SQL = "SELECT helpful_count FROM reviews WHERE id = ?";
+    private static final String VOTED_SQL =
+        "SELECT COUNT(*) FROM review_helpful_votes WHERE review_id = ? AND tourist_id = ?";
+    private static final String INSERT_VOTE_SQL =
+        "INSERT IGNORE INTO review_helpful_votes (review_id, tourist_id, voted_at) VALUES (?, ?, ?)";
+    private static final String FLUSH_SQL = "UPDATE reviews SET helpful_count = helpful_count + ? WHERE id = ?";
+    private static final String DELETE_VOTES_SQL = "DELETE FROM review_helpful_votes WHERE review_id = ?";
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    
+    private final Map<Long, Counter> counters = new ConcurrentHashMap<>();
+    private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+    
+    // false si ce touriste a déjà voté pour cet avis (en attente ici ou déjà écrit en base)
+    public boolean vote(Long reviewId, String touristId) {
+        Counter existing = counters.get(reviewId);
+        if (existing != null && existing.voters.contains(touristId)) {
+            return false;
+        }
+        if (jdbcTemplate.queryForObject(VOTED_SQL, Integer.class, reviewId, touristId) > 0) {
+            return false;
+        }
+        while (true) {
+            Counter counter = counter(reviewId);
+            // Verrou court, sans SQL: un compteur retiré par flush() ne reçoit plus de vote
+            synchronized (counter) {
+                if (counter.retired) {
+                    continue;
+                }
+                if (!counter.voters.add(touristId)) {
+                    return false;
+                }
+                counter.unsaved.add(touristId);
+                counter.pending.increment();
+            }
+            dirty.add(reviewId);
+            return true;
+        }
+    }
+    
+    // Valeur en base au chargement du compteur ou au dernier lot, plus les votes pas encore écrits
+    public int helpfulCount(Long reviewId) {
+        Counter counter = counters.get(reviewId);
+        if (counter != null) {
+            return counter.persisted + counter.pending.intValue();
+        }
+        return persistedCount(reviewId);
+    }
+    
+    // Sérialisé: persisted n'est modifié que par le lot en cours
+    @Scheduled(fixedDelayString = "${attractions.reviews.helpful-flush-interval-ms:1000}")
+    public synchronized int flush() {
+        if (dirty.isEmpty()) {
+            return 0;
+        }
+        // Retirer l'ID avant de vider la file: un vote concurrent le remarque pour le prochain lot
+        List<Long> reviewIds = new ArrayList<>();
+        List<List<String>> drained = new ArrayList<>();
+        List<Object[]> votes = new ArrayList<>();
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        for (Iterator<Long> iterator = dirty.iterator(); iterator.hasNext(); ) {
+            Long reviewId = iterator.next();
+            iterator.remove();
+            Counter counter = counters.get(reviewId);
+            if (counter == null) {
+                continue;
+            }
+            List<String> touristIds = new ArrayList<>();
+            for (String touristId; (touristId = counter.unsaved.poll()) != null; ) {
+                touristIds.add(touristId);
+                votes.add(new Object[] {reviewId, touristId, now});
+            }
+            if (!touristIds.isEmpty()) {
+                reviewIds.add(reviewId);
+                drained.add(touristIds);
+            }
+        }
+        if (reviewIds.isEmpty()) {
+            return 0;
+        }
+        
+        int[] inserted;
+        try {
+            inserted = transactionTemplate.execute(status -> write(reviewIds, drained, votes));
+        } catch (RuntimeException e) {
+            for (int i = 0; i < reviewIds.size(); i++) {
+                Counter counter = counters.get(reviewIds.get(i));
+                if (counter != null) {
+                    counter.unsaved.addAll(drained.get(i));
+                    dirty.add(reviewIds.get(i));
+                }
+            }
+            log.error("Échec de l'écriture des votes utiles, nouvel essai au prochain cycle", e);
+            return 0;
+        }
+        
+        for (int i = 0; i < reviewIds.size(); i++) {
+            Counter counter = counters.get(reviewIds.get(i));
+            if (counter != null) {
+                counter.persisted += inserted[i];
+                counter.pending.add(-drained.get(i).size());
+                // Désormais en base: un second vote est refusé par la clé unique
+                counter.voters.removeAll(drained.get(i));
+                retireIfIdle(reviewIds.get(i), counter);
+            }
+        }
+        log.debug("Votes utiles écrits pour {} avis ({} votes)", reviewIds.size(), votes.size());
+        return votes.size();
+    }
+    
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+    
+    // Suppression d'un avis (dans sa transaction): votes en attente abandonnés, votes écrits supprimés
+    public void discard(Long reviewId) {
+        Counter counter = counters.remove(reviewId);
+        if (counter != null) {
+            synchronized (counter) {
+                counter.retired = true;
+            }
+        }
+        dirty.remove(reviewId);
+        jdbcTemplate.update(DELETE_VOTES_SQL, reviewId);
+    }
+    
+    // Nombre de votes réellement insérés par avis: un doublon venu d'une autre instance est ignoré et non compté
+    private int[] write(List<Long> reviewIds, List<List<String>> drained, List<Object[]> votes) {
+        int[] rows = jdbcTemplate.batchUpdate(INSERT_VOTE_SQL, votes);
+        int[] inserted = new int[reviewIds.size()];
+        List<Object[]> increments = new ArrayList<>();
+        int row = 0;
+        for (int i = 0; i < reviewIds.size(); i++) {
+            for (int j = 0; j < drained.get(i).size(); j++, row++) {
+                // SUCCESS_NO_INFO (lots réécrits par le pilote): compté comme inséré
+                inserted[i] += rows[row] != 0 ? 1 : 0;
+            }
+            if (inserted[i] > 0) {
+                increments.add(new Object[] {inserted[i], reviewIds.get(i)});
+            }
+        }
+        if (!increments.isEmpty()) {
+            jdbcTemplate.batchUpdate(FLUSH_SQL, increments);
+        }
+        return inserted;
+    }
+    
+    // Tout écrit: le compteur et ses votants sont libérés, le prochain vote relit helpful_count
+    // (votes écrits entre-temps par d'autres instances compris)
+    private void retireIfIdle(Long reviewId, Counter counter) {
+        synchronized (counter) {
+            if (counter.unsaved.isEmpty()) {
+                counter.retired = true;
+                counters.remove(reviewId, counter);
+            }
+        }
+    }
+    
+    int trackedReviews() {
+        return counters.size();
+    }
+    
+    private Counter counter(Long reviewId) {
+        return counters.computeIfAbsent(reviewId, id -> new Counter(persistedCount(id)));
+    }
+    
+    private int persistedCount(Long reviewId) {
+        List<Integer> count = jdbcTemplate.queryForList(COUNT_SQL, Integer.class, reviewId);
+        if (count.isEmpty()) {
+            throw new ResourceNotFoundException(ErrorCode.REVIEW_NOT_FOUND, "Avis", "id", reviewId);
+        }
+        return count.get(0) != null ? count.get(0) : 0;
+    }
+    
+    private static final class Counter {
+        // Votants acceptés mais pas encore écrits: la taille suit le débit de votes d'un intervalle de flush
+        private final Set<String> voters = ConcurrentHashMap.newKeySet();
+        private final Queue<String> unsaved = new ConcurrentLinkedQueue<>();
+        private final LongAdder pending = new LongAdder();
+        private volatile int persisted;
+        private boolean retired;
+        
+        private Counter(int persisted) {
+            this.persisted = persisted;
+        }
+    }
+}
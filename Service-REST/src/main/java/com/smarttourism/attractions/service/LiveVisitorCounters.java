@@ -0,0 +1,227 @@
+package com.smarttourism.attractions.service;
+
+import com.smarttourism.attractions.Entities.Attraction;
+import com.smarttourism.attractions.event.AttractionChangedEvent;
+import com.smarttourism.attractions.event.AttractionChangedEvent.ChangeType;
+import com.smarttourism.attractions.exception.BusinessException;
+import com.smarttourism.attractions.exception.ErrorCode;
+import com.smarttourism.attractions.exception.ResourceNotFoundException;
+import com.smarttourism.attractions.exception.ValidationException;
+import com.smarttourism.attractions.repository.AttractionRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Compteurs de visiteurs en temps réel: un compteur atomique par attraction (CAS, sans verrou),
+// contrôlé contre maxCapacity à chaque passage et recopié dans current_visitors par lots (write-behind)
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class LiveVisitorCounters {
+
+    private static final String FLUSH_SQL = "UPDATE attractions SET current_visitors = ? WHERE id = ?";
+
+    private final AttractionRepository attractionRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final Map<Long, Counter> counters = new ConcurrentHashMap<>();
+    private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+
+    public int current(Long attractionId) {
+        return counter(attractionId).value.get();
+    }
+
+    public Integer maxCapacity(Long attractionId) {
+        return counter(attractionId).maxCapacity;
+    }
+
+    public int increment(Long attractionId, int count) {
+        validateCount(count);
+        Counter counter = counter(attractionId);
+        counter.checkActive();
+        int next;
+        int current;
+        do {
+            current = counter.value.get();
+            next = current + count;
+            Integer maxCapacity = counter.maxCapacity;
+            if (maxCapacity != null && next > maxCapacity) {
+                throw new BusinessException(ErrorCode.ATTRACTION_FULL,
+                    String.format("Nombre de visiteurs (%d) dépasse la capacité maximale (%d)", next, maxCapacity));
+            }
+        } while (!counter.value.compareAndSet(current, next));
+        dirty.add(attractionId);
+        return next;
+    }
+
+    // Un compteur ne descend jamais sous zéro (sorties comptées après un redémarrage, portiques désynchronisés)
+    public int decrement(Long attractionId, int count) {
+        validateCount(count);
+        Counter counter = counter(attractionId);
+        int next;
+        int current;
+        do {
+            current = counter.value.get();
+            next = Math.max(0, current - count);
+        } while (!counter.value.compareAndSet(current, next));
+        if (current < count) {
+            log.warn("Sortie de {} visiteurs pour l'attraction ID {} alors que seuls {} étaient comptés",
+                count, attractionId, current);
+        }
+        dirty.add(attractionId);
+        return next;
+    }
+
+    public void set(Long attractionId, int visitorCount) {
+        if (visitorCount < 0) {
+            throw new ValidationException(ErrorCode.INVALID_CAPACITY,
+                "visitorCount", "Le nombre de visiteurs ne peut pas être négatif");
+        }
+        Counter counter = counter(attractionId);
+        counter.checkActive();
+        Integer maxCapacity = counter.maxCapacity;
+        if (maxCapacity != null && visitorCount > maxCapacity) {
+            throw new BusinessException(ErrorCode.ATTRACTION_FULL,
+                String.format("Nombre de visiteurs (%d) dépasse la capacité maximale (%d)", visitorCount, maxCapacity));
+        }
+        counter.value.set(visitorCount);
+        dirty.add(attractionId);
+    }
+
+    // Variantes transactionnelles (check-in / check-out): le mouvement est annulé si la transaction échoue
+    public void enter(Long attractionId, int count) {
+        increment(attractionId, count);
+        onRollback(() -> decrement(attractionId, count));
+    }
+
+    public void leave(Long attractionId, int count) {
+        decrement(attractionId, count);
+        onRollback(() -> increment(attractionId, count));
+    }
+
+    @Scheduled(fixedDelayString = "${attractions.visitors.flush-interval-ms:1000}")
+    public int flush() {
+        if (dirty.isEmpty()) {
+            return 0;
+        }
+        // Retirer l'ID avant de lire la valeur: un mouvement concurrent le remarque pour le prochain lot
+        List<Object[]> batch = new ArrayList<>();
+        List<Long> flushed = new ArrayList<>();
+        for (Iterator<Long> iterator = dirty.iterator(); iterator.hasNext(); ) {
+            Long attractionId = iterator.next();
+            iterator.remove();
+            Counter counter = counters.get(attractionId);
+            if (counter != null) {
+                batch.add(new Object[] {counter.value.get(), attractionId});
+                flushed.add(attractionId);
+            }
+        }
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        try {
+            jdbcTemplate.batchUpdate(FLUSH_SQL, batch);
+        } catch (RuntimeException e) {
+            dirty.addAll(flushed);
+            log.error("Échec de l'écriture des compteurs de visiteurs, nouvel essai au prochain cycle", e);
+            return 0;
+        }
+        flushed.forEach(attractionId -> eventPublisher.publishEvent(
+            new AttractionChangedEvent(attractionId, ChangeType.VISITORS_CHANGED)));
+        log.debug("Compteurs de visiteurs écrits pour {} attractions", flushed.size());
+        return flushed.size();
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    // Capacité ou statut modifiés: mettre à jour les bornes sans perdre la valeur en mémoire
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAttractionChanged(AttractionChangedEvent event) {
+        Counter counter = event.getAttractionId() != null ? counters.get(event.getAttractionId()) : null;
+        if (counter == null || !event.getType().affectsCatalogStructure()) {
+            return;
+        }
+        if (event.getType() == ChangeType.DELETED) {
+            counters.remove(event.getAttractionId());
+            dirty.remove(event.getAttractionId());
+            return;
+        }
+        attractionRepository.findById(event.getAttractionId()).ifPresent(attraction -> {
+            counter.maxCapacity = attraction.getMaxCapacity();
+            counter.active = Boolean.TRUE.equals(attraction.getIsActive());
+        });
+    }
+
+    private Counter counter(Long attractionId) {
+        return counters.computeIfAbsent(attractionId, id -> {
+            Attraction attraction = attractionRepository.findById(id)
+                    .orElseThrow(() -> new ResourceNotFoundException(
+                        ErrorCode.ATTRACTION_NOT_FOUND,
+                        "Attraction",
+                        "id",
+                        id
+                    ));
+            int current = attraction.getCurrentVisitors() != null ? attraction.getCurrentVisitors() : 0;
+            return new Counter(current, attraction.getMaxCapacity(), Boolean.TRUE.equals(attraction.getIsActive()));
+        });
+    }
+
+    private static void validateCount(int count) {
+        if (count <= 0) {
+            throw new ValidationException(ErrorCode.INVALID_PARAMETERS,
+                "count", "Le nombre de visiteurs doit être positif");
+        }
+    }
+
+    private static void onRollback(Runnable compensation) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK) {
+                    compensation.run();
+                }
+            }
+        });
+    }
+
+    private static final class Counter {
+        private final AtomicInteger value;
+        private volatile Integer maxCapacity;
+        private volatile boolean active;
+
+        private Counter(int value, Integer maxCapacity, boolean active) {
+            this.value = new AtomicInteger(value);
+            this.maxCapacity = maxCapacity;
+            this.active = active;
+        }
+
+        private void checkActive() {
+            if (!active) {
+                throw new BusinessException(ErrorCode.ATTRACTION_INACTIVE,
+                    "Impossible de mettre à jour les visiteurs: attraction inactive");
+            }
+        }
+    }
+}
@@ -0,0 +1,234 @@
+package com.smarttourism.attractions.service;
+
+import com.smarttourism.attractions.Entities.Reservation;
+import com.smarttourism.attractions.event.AttractionChangedEvent;
+import com.smarttourism.attractions.exception.BusinessException;
+import com.smarttourism.attractions.exception.ErrorCode;
+import com.smarttourism.attractions.repository.DailyOccupancyRepository;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Tient daily_occupancy à jour dans la transaction de chaque changement d'état d'une réservation.
+// Les places confirmées n'augmentent que par un UPDATE conditionnel atomique (confirmed_people + n <= maxCapacity),
+// donc deux réservations concurrentes ne peuvent pas dépasser la capacité; un rollback annule le mouvement.
+// Devant la base, un indice de places restantes par clé (une entrée par attraction puis par date) refuse
+// sans aller-retour SQL les demandes sur une date déjà complète: seules les clés disputées se partagent un verrou de ligne.
+@Component
+@Slf4j
+public class OccupancyLedger {
+
+    private final DailyOccupancyRepository dailyOccupancyRepository;
+    private final long hintTtlMillis;
+
+    private final Map<Long, Map<LocalDate, Hint>> hints = new ConcurrentHashMap<>();
+
+    public OccupancyLedger(DailyOccupancyRepository dailyOccupancyRepository,
+                           @Value("${attractions.capacity.hint-ttl-ms:2000}") long hintTtlMillis) {
+        this.dailyOccupancyRepository = dailyOccupancyRepository;
+        this.hintTtlMillis = hintTtlMillis;
+    }
+
+    // À appeler AVANT de modifier l'entité: la ligne du jour est amorcée depuis la table reservations
+    // et doit y trouver l'état précédent. before = null pour une création.
+    // Les places de la nouvelle date sont prises d'abord: un refus laisse tout inchangé.
+    public void move(Long attractionId, Integer maxCapacity, State before, State after) {
+        if (before == null) {
+            apply(attractionId, maxCapacity, after.getVisitDate(), Counters.of(after));
+        } else if (before.getVisitDate().equals(after.getVisitDate())) {
+            apply(attractionId, maxCapacity, after.getVisitDate(), Counters.of(after).minus(Counters.of(before)));
+        } else {
+            apply(attractionId, maxCapacity, after.getVisitDate(), Counters.of(after));
+            apply(attractionId, maxCapacity, before.getVisitDate(), Counters.NONE.minus(Counters.of(before)));
+        }
+    }
+
+    public int confirmedPeople(Long attractionId, LocalDate visitDate) {
+        return dailyOccupancyRepository.findConfirmedPeople(attractionId, visitDate).orElse(0);
+    }
+
+    // Import en masse: ligne recalculée depuis les réservations, dans la transaction du lot
+    public void rebuild(Long attractionId, LocalDate visitDate) {
+        dailyOccupancyRepository.deleteEntry(attractionId, visitDate);
+        dailyOccupancyRepository.createIfAbsent(attractionId, visitDate);
+        afterCommit(() -> forget(attractionId, visitDate));
+    }
+
+    // Capacité modifiée ou attraction désactivée: les indices ne sont plus fiables
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAttractionChanged(AttractionChangedEvent event) {
+        if (!event.getType().affectsCatalogStructure()) {
+            return;
+        }
+        if (event.getAttractionId() == null) {
+            hints.clear();
+        } else {
+            hints.remove(event.getAttractionId());
+        }
+    }
+
+    private void apply(Long attractionId, Integer maxCapacity, LocalDate visitDate, Counters delta) {
+        if (delta.isZero()) {
+            return;
+        }
+        boolean capped = maxCapacity != null && delta.people > 0;
+        if (capped) {
+            Hint hint = hint(attractionId, visitDate);
+            if (hint != null && hint.remaining < delta.people) {
+                throw noAvailability(hint.remaining);
+            }
+        }
+
+        int capacity = capped ? maxCapacity : Integer.MAX_VALUE;
+        if (update(attractionId, visitDate, capacity, delta)) {
+            return;
+        }
+        Optional<Integer> confirmed = dailyOccupancyRepository.findConfirmedPeople(attractionId, visitDate);
+        if (confirmed.isEmpty()) {
+            // Premier mouvement de la journée: créer la ligne puis retenter
+            dailyOccupancyRepository.createIfAbsent(attractionId, visitDate);
+            if (update(attractionId, visitDate, capacity, delta)) {
+                return;
+            }
+            confirmed = dailyOccupancyRepository.findConfirmedPeople(attractionId, visitDate);
+        }
+
+        int remaining = Math.max(0, capacity - confirmed.orElse(0));
+        hints.computeIfAbsent(attractionId, id -> new ConcurrentHashMap<>())
+             .put(visitDate, new Hint(remaining, System.currentTimeMillis() + hintTtlMillis));
+        throw noAvailability(remaining);
+    }
+
+    private boolean update(Long attractionId, LocalDate visitDate, int capacity, Counters delta) {
+        int updated = dailyOccupancyRepository.applyDelta(attractionId, visitDate, capacity, delta.people,
+            delta.confirmed, delta.completed, delta.cancelled, delta.noShow, delta.total, delta.revenue);
+        if (updated == 1 && delta.people < 0) {
+            afterCommit(() -> forget(attractionId, visitDate));
+        }
+        return updated == 1;
+    }
+
+    private Hint hint(Long attractionId, LocalDate visitDate) {
+        Map<LocalDate, Hint> dates = hints.get(attractionId);
+        Hint hint = dates != null ? dates.get(visitDate) : null;
+        if (hint != null && hint.expiresAt < System.currentTimeMillis()) {
+            dates.remove(visitDate, hint);
+            return null;
+        }
+        return hint;
+    }
+
+    private void forget(Long attractionId, LocalDate visitDate) {
+        Map<LocalDate, Hint> dates = hints.get(attractionId);
+        if (dates != null) {
+            dates.remove(visitDate);
+        }
+    }
+
+    private static BusinessException noAvailability(int remaining) {
+        return new BusinessException(ErrorCode.NO_AVAILABILITY,
+            String.format("Pas assez de places disponibles. Places restantes: %d", remaining));
+    }
+
+    // Les places rendues ne deviennent visibles qu'au commit: oublier l'indice avant risquerait
+    // qu'une demande concurrente le repositionne à partir de l'état précédent
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    // État d'une réservation vu par les compteurs (journée ici, créneau dans SlotInventory)
+    @Getter
+    @AllArgsConstructor
+    public static final class State {
+        private final LocalDate visitDate;
+        private final String visitTime;
+        private final Reservation.ReservationStatus status;
+        private final int numberOfPeople;
+        private final double totalPrice;
+
+        public static State of(Reservation reservation) {
+            return new State(reservation.getVisitDate(), reservation.getVisitTime(), reservation.getStatus(),
+                reservation.getNumberOfPeople(), reservation.getTotalPrice() != null ? reservation.getTotalPrice() : 0.0);
+        }
+
+        public State withStatus(Reservation.ReservationStatus newStatus) {
+            return new State(visitDate, visitTime, newStatus, numberOfPeople, totalPrice);
+        }
+    }
+
+    private static final class Counters {
+        private static final Counters NONE = new Counters(0, 0, 0, 0, 0, 0, 0.0);
+
+        private final int people;
+        private final int confirmed;
+        private final int completed;
+        private final int cancelled;
+        private final int noShow;
+        private final int total;
+        private final double revenue;
+
+        private Counters(int people, int confirmed, int completed, int cancelled, int noShow, int total, double revenue) {
+            this.people = people;
+            this.confirmed = confirmed;
+            this.completed = completed;
+            this.cancelled = cancelled;
+            this.noShow = noShow;
+            this.total = total;
+            this.revenue = revenue;
+        }
+
+        // Mêmes règles que DailyOccupancyRepository.OCCUPANCY_AGGREGATES
+        private static Counters of(State state) {
+            Reservation.ReservationStatus status = state.getStatus() != null
+                ? state.getStatus() : Reservation.ReservationStatus.CONFIRMED;
+            boolean isConfirmed = status == Reservation.ReservationStatus.CONFIRMED;
+            boolean earns = isConfirmed || status == Reservation.ReservationStatus.COMPLETED;
+            return new Counters(
+                isConfirmed ? state.getNumberOfPeople() : 0,
+                isConfirmed ? 1 : 0,
+                status == Reservation.ReservationStatus.COMPLETED ? 1 : 0,
+                status == Reservation.ReservationStatus.CANCELLED ? 1 : 0,
+                status == Reservation.ReservationStatus.NO_SHOW ? 1 : 0,
+                1,
+                earns ? state.getTotalPrice() : 0.0);
+        }
+
+        private Counters minus(Counters other) {
+            return new Counters(people - other.people, confirmed - other.confirmed, completed - other.completed,
+                cancelled - other.cancelled, noShow - other.noShow, total - other.total, revenue - other.revenue);
+        }
+
+        private boolean isZero() {
+            return people == 0 && confirmed == 0 && completed == 0 && cancelled == 0 && noShow == 0
+                && total == 0 && revenue == 0.0;
+        }
+    }
+
+    private static final class Hint {
+        private final int remaining;
+        private final long expiresAt;
+
+        private Hint(int remaining, long expiresAt) {
+            this.remaining = remaining;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
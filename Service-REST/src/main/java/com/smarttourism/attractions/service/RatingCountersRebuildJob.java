@@ -0,0 +1,81 @@
+package com.smarttourism.attractions.service;
+
+import com.smarttourism.attractions.event.AttractionChangedEvent;
+import com.smarttourism.attractions.event.AttractionChangedEvent.ChangeType;
+import com.smarttourism.attractions.repository.AttractionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+// Recalcule entièrement les compteurs de notes (histogramme, somme, moyenne) à partir de la table reviews
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RatingCountersRebuildJob {
+    
+    private static final int BATCH_SIZE = 500;
+    
+    private final AttractionRepository attractionRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    
+    // Initialise les lignes créées avant l'introduction des compteurs
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillMissingCounters() {
+        List<Long> missing = attractionRepository.findIdsByRatingSumIsNull();
+        if (!missing.isEmpty()) {
+            log.info("Initialisation des compteurs de notes pour {} attractions", missing.size());
+            rebuild(missing);
+        }
+    }
+    
+    @Scheduled(cron = "${attractions.ratings.rebuild-cron:0 30 3 * * *}")
+    public void scheduledRebuild() {
+        rebuildAll();
+    }
+    
+    public int rebuildAll() {
+        log.info("Reconstruction des compteurs de notes des attractions");
+        int rebuilt = 0;
+        long afterId = 0;
+        List<Long> batch;
+        do {
+            batch = attractionRepository.findIdsAfter(afterId, PageRequest.of(0, BATCH_SIZE));
+            if (!batch.isEmpty()) {
+                rebuildBatch(batch);
+                afterId = batch.get(batch.size() - 1);
+                rebuilt += batch.size();
+            }
+        } while (batch.size() == BATCH_SIZE);
+        log.info("Compteurs de notes reconstruits pour {} attractions", rebuilt);
+        return rebuilt;
+    }
+    
+    // Reconstruction ciblée (ex. après un import d'avis): une instruction par lot d'attractions
+    public int rebuild(Collection<Long> attractionIds) {
+        List<Long> ids = new ArrayList<>(attractionIds);
+        for (int from = 0; from < ids.size(); from += BATCH_SIZE) {
+            rebuildBatch(ids.subList(from, Math.min(from + BATCH_SIZE, ids.size())));
+        }
+        log.info("Compteurs de notes reconstruits pour {} attractions", ids.size());
+        return ids.size();
+    }
+    
+    // Un seul UPDATE ensembliste: les compteurs sont dérivés de reviews dans l'instruction qui les écrit,
+    // sans entité chargée ni réécriture des autres colonnes (modifications concurrentes du catalogue préservées)
+    private void rebuildBatch(List<Long> ids) {
+        transactionTemplate.executeWithoutResult(status -> {
+            attractionRepository.rebuildRatingCounters(ids);
+            ids.forEach(id -> eventPublisher.publishEvent(new AttractionChangedEvent(id, ChangeType.RATING_CHANGED)));
+        });
+    }
+}
@@ -0,0 +1,129 @@
+package com.smarttourism.attractions.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smarttourism.attractions.Entities.Reservation;
+import com.smarttourism.attractions.dto.ReservationDTO;
+import com.smarttourism.attractions.exception.ErrorCode;
+import com.smarttourism.attractions.exception.ValidationException;
+import com.smarttourism.attractions.repository.ReservationRepository;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ReservationExportService {
+    
+    public enum ExportFormat {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+        
+        private final String contentType;
+        private final String extension;
+        
+        ExportFormat(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+        
+        public String getContentType() {
+            return contentType;
+        }
+        
+        public String getExtension() {
+            return extension;
+        }
+    }
+    
+    private static final String[] CSV_HEADER = {
+        "id", "reservationCode", "attractionId", "attractionName", "touristId", "touristName",
+        "touristEmail", "touristCountry", "visitDate", "visitTime", "reservationTime", "numberOfPeople",
+        "status", "totalPrice", "checkInTime", "checkOutTime", "cancelledAt"
+    };
+    
+    private final ReservationRepository reservationRepository;
+    private final ReservationService reservationService;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    
+    public void validateExportRange(LocalDate startDate, LocalDate endDate) {
+        if (startDate == null || endDate == null || startDate.isAfter(endDate)) {
+            throw new ValidationException(ErrorCode.INVALID_DATE, "startDate",
+                "La date de début doit être antérieure ou égale à la date de fin");
+        }
+    }
+    
+    // Écrit les réservations au fil de la lecture: chaque entité est détachée après écriture,
+    // la mémoire reste constante quel que soit le volume exporté
+    @Transactional(readOnly = true)
+    public long exportReservations(LocalDate startDate, LocalDate endDate, ExportFormat format, OutputStream output) {
+        validateExportRange(startDate, endDate);
+        log.info("Export {} des réservations du {} au {}", format, startDate, endDate);
+        
+        long start = System.nanoTime();
+        long rows = 0;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8), 64 * 1024);
+        try (Stream<Reservation> reservations = reservationRepository.streamReservationsBetweenDates(startDate, endDate)) {
+            if (format == ExportFormat.CSV) {
+                writeCsvLine(writer, CSV_HEADER);
+            }
+            Iterator<Reservation> iterator = reservations.iterator();
+            while (iterator.hasNext()) {
+                Reservation reservation = iterator.next();
+                ReservationDTO dto = reservationService.convertToDTO(reservation);
+                entityManager.detach(reservation);
+                if (format == ExportFormat.CSV) {
+                    writeCsvLine(writer, toCsvValues(dto));
+                } else {
+                    writer.write(objectMapper.writeValueAsString(dto));
+                    writer.write('\n');
+                }
+                rows++;
+            }
+            writer.flush();
+        } catch (IOException e) {
+            // Client déconnecté ou erreur d'écriture: le curseur est fermé par le try-with-resources
+            throw new UncheckedIOException(e);
+        }
+        
+        log.info("Export terminé: {} réservations en {} ms", rows, (System.nanoTime() - start) / 1_000_000);
+        return rows;
+    }
+    
+    private String[] toCsvValues(ReservationDTO dto) {
+        return Stream.of(
+            dto.getId(), dto.getReservationCode(), dto.getAttractionId(), dto.getAttractionName(),
+            dto.getTouristId(), dto.getTouristName(), dto.getTouristEmail(), dto.getTouristCountry(),
+            dto.getVisitDate(), dto.getVisitTime(), dto.getReservationTime(), dto.getNumberOfPeople(),
+            dto.getStatus(), dto.getTotalPrice(), dto.getCheckInTime(), dto.getCheckOutTime(), dto.getCancelledAt()
+        ).map(value -> Objects.toString(value, "")).toArray(String[]::new);
+    }
+    
+    private void writeCsvLine(Writer writer, String[] values) throws IOException {
+        writer.write(Arrays.stream(values).map(this::escapeCsv).collect(Collectors.joining(",")));
+        writer.write("\r\n");
+    }
+    
+    private String escapeCsv(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -1,17 +1,23 @@
 package com.smarttourism.attractions.service;
 
+import com.smarttourism.attractions.dto.CursorPage;
+import com.smarttourism.attractions.dto.FieldSelection;
 import com.smarttourism.attractions.dto.ReservationDTO;
+import com.smarttourism.attractions.dto.ReservationSummaryDTO;
 import com.smarttourism.attractions.dto.requests.CreateReservationRequest;
 import com.smarttourism.attractions.Entities.Attraction;
 import com.smarttourism.attractions.Entities.Reservation;
+import com.smarttourism.attractions.event.ReservationChangedEvent;
 import com.smarttourism.attractions.exception.BusinessException;
 import com.smarttourism.attractions.exception.ErrorCode;
 import com.smarttourism.attractions.exception.ResourceNotFoundException;
 import com.smarttourism.attractions.exception.ValidationException;
 import com.smarttourism.attractions.repository.AttractionRepository;
+import com.smarttourism.attractions.repository.DailyOccupancyRepository;
 import com.smarttourism.attractions.repository.ReservationRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -29,6 +35,11 @@ public class ReservationService {
     
     private final ReservationRepository reservationRepository;
     private final AttractionRepository attractionRepository;
+    private final DailyOccupancyRepository dailyOccupancyRepository;
+    private final LiveVisitorCounters liveVisitorCounters;
+    private final OccupancyLedger occupancyLedger;
+    private final SlotInventory slotInventory;
+    private final ApplicationEventPublisher eventPublisher;
     
     @Transactional
     public ReservationDTO createReservation(CreateReservationRequest request) {
@@ -49,18 +60,6 @@ public class ReservationService {
                 "Impossible de réserver: l'attraction est inactive");
         }
         
-        if (attraction.getMaxCapacity() != null) {
-            Integer totalVisitors = reservationRepository.sumConfirmedVisitorsForDate(
-                attraction.getId(), request.getVisitDate());
-            totalVisitors = totalVisitors != null ? totalVisitors : 0;
-            
-            if (totalVisitors + request.getNumberOfPeople() > attraction.getMaxCapacity()) {
-                throw new BusinessException(ErrorCode.NO_AVAILABILITY,
-                    String.format("Pas assez de places disponibles. Places restantes: %d",
-                        attraction.getMaxCapacity() - totalVisitors));
-            }
-        }
-        
         // Vérifier si l'utilisateur a déjà une réservation pour cette date
         boolean existingReservation = reservationRepository.existsByTouristIdAndAttractionIdAndVisitDate(
             request.getTouristId(), attraction.getId(), request.getVisitDate());
@@ -73,8 +72,15 @@ public class ReservationService {
         Reservation reservation = new Reservation();
         mapRequestToReservation(request, attraction, reservation);
         
+        // Places prises par UPDATE conditionnel atomique: refusé sans écriture si la date est complète;
+        // puis dans l'inventaire du créneau (annulé avec la transaction si la suite échoue)
+        OccupancyLedger.State after = OccupancyLedger.State.of(reservation);
+        occupancyLedger.move(attraction.getId(), attraction.getMaxCapacity(), null, after);
+        slotInventory.move(attraction, null, after);
+        
         try {
             Reservation savedReservation = reservationRepository.save(reservation);
+            eventPublisher.publishEvent(new ReservationChangedEvent(attraction.getId()));
             log.info("Réservation créée avec code: {}", savedReservation.getReservationCode());
             return convertToDTO(savedReservation);
         } catch (Exception e) {
@@ -119,12 +125,27 @@ public class ReservationService {
                 .collect(Collectors.toList());
     }
     
+    // fields=: seules les colonnes demandées sont lues, jointure sur attractions seulement pour attractionName
+    public List<ReservationDTO> getReservationsByTouristId(String touristId, FieldSelection fields) {
+        if (fields.isAll()) {
+            return getReservationsByTouristId(touristId);
+        }
+        log.debug("Récupération partielle des réservations pour le touriste ID {}: {}", touristId, fields.getNames());
+        return reservationRepository.findByTouristIdWithFields(touristId, fields);
+    }
+    
     public Page<ReservationDTO> getReservationsByTouristId(String touristId, Pageable pageable) {
         log.debug("Récupération des réservations pour le touriste ID {} avec pagination", touristId);
         return reservationRepository.findByTouristId(touristId, pageable)
                 .map(this::convertToDTO);
     }
     
+    // Listes paginées: projection avec jointure SQL, sans chargement paresseux de l'attraction par ligne
+    public Page<ReservationSummaryDTO> getReservationSummariesByTouristId(String touristId, Pageable pageable) {
+        log.debug("Récupération des résumés de réservations pour le touriste ID {} avec pagination", touristId);
+        return reservationRepository.findSummariesByTouristId(touristId, pageable);
+    }
+    
     public List<ReservationDTO> getReservationsByAttractionId(Long attractionId) {
         log.debug("Récupération des réservations pour l'attraction ID: {}", attractionId);
         return reservationRepository.findByAttractionId(attractionId).stream()
@@ -138,6 +159,27 @@ public class ReservationService {
                 .map(this::convertToDTO);
     }
     
+    public Page<ReservationSummaryDTO> getReservationSummariesByAttractionId(Long attractionId, Pageable pageable) {
+        log.debug("Récupération des résumés de réservations pour l'attraction ID {} avec pagination", attractionId);
+        return reservationRepository.findSummariesByAttractionId(attractionId, pageable);
+    }
+    
+    public CursorPage<ReservationDTO> getReservationsByTouristIdAfter(String touristId, String after, int limit) {
+        log.debug("Récupération des réservations du touriste ID {} par curseur (limite {})", touristId, limit);
+        Object[] key = decodeReservationCursor(after);
+        List<Reservation> rows = reservationRepository.findByTouristIdAfter(
+            touristId, (LocalDateTime) key[0], (Long) key[1], CursorPage.window(limit));
+        return toCursorPage(rows, limit);
+    }
+    
+    public CursorPage<ReservationDTO> getReservationsByAttractionIdAfter(Long attractionId, String after, int limit) {
+        log.debug("Récupération des réservations de l'attraction ID {} par curseur (limite {})", attractionId, limit);
+        Object[] key = decodeReservationCursor(after);
+        List<Reservation> rows = reservationRepository.findByAttractionIdAfter(
+            attractionId, (LocalDateTime) key[0], (Long) key[1], CursorPage.window(limit));
+        return toCursorPage(rows, limit);
+    }
+    
     @Transactional
     public ReservationDTO updateReservationStatus(Long id, Reservation.ReservationStatus newStatus) {
         log.info("Mise à jour du statut de la réservation ID {}: {}", id, newStatus);
@@ -152,6 +194,12 @@ public class ReservationService {
         
         validateStatusTransition(reservation.getStatus(), newStatus);
         
+        // Repasser en CONFIRMED reprend des places (et peut être refusé), le quitter les rend
+        Attraction attraction = reservation.getAttraction();
+        OccupancyLedger.State before = OccupancyLedger.State.of(reservation);
+        occupancyLedger.move(attraction.getId(), attraction.getMaxCapacity(), before, before.withStatus(newStatus));
+        slotInventory.move(attraction, before, before.withStatus(newStatus));
+        
         if (newStatus == Reservation.ReservationStatus.CANCELLED) {
             reservation.setCancelledAt(LocalDateTime.now());
             reservation.setCancellationReason("Annulée par l'utilisateur");
@@ -159,6 +207,7 @@ public class ReservationService {
         
         reservation.setStatus(newStatus);
         Reservation updatedReservation = reservationRepository.save(reservation);
+        eventPublisher.publishEvent(new ReservationChangedEvent(attraction.getId()));
         log.info("Statut de la réservation ID {} mis à jour à: {}", id, newStatus);
         return convertToDTO(updatedReservation);
     }
@@ -194,14 +243,19 @@ public class ReservationService {
                 "La nouvelle date de visite doit être dans le futur");
         }
         
-        // Si la date change, vérifier la disponibilité
-        if (!reservation.getVisitDate().equals(request.getVisitDate())) {
-            Map<String, Object> availability = checkAvailability(reservation.getAttraction().getId(), request.getVisitDate());
-            if (!(Boolean) availability.get("available")) {
-                throw new BusinessException(ErrorCode.NO_AVAILABILITY,
-                    "Pas de disponibilité pour la nouvelle date");
-            }
-        }
+        // Recalculer le prix
+        Attraction attraction = reservation.getAttraction();
+        Double totalPrice = attraction.getEntryPrice() != null ? 
+            attraction.getEntryPrice() * request.getNumberOfPeople() : 0.0;
+        
+        // Déplacer les compteurs: la nouvelle date ou le nouveau créneau (ou le supplément de places) d'abord,
+        // puis l'ancien; un refus laisse la réservation, daily_occupancy et les créneaux inchangés
+        String visitTime = slotInventory.normalizeVisitTime(attraction, request.getVisitTime());
+        OccupancyLedger.State before = OccupancyLedger.State.of(reservation);
+        OccupancyLedger.State after = new OccupancyLedger.State(request.getVisitDate(), visitTime,
+            reservation.getStatus(), request.getNumberOfPeople(), totalPrice);
+        occupancyLedger.move(attraction.getId(), attraction.getMaxCapacity(), before, after);
+        slotInventory.move(attraction, before, after);
         
         // Mettre à jour les informations
         reservation.setTouristName(request.getTouristName());
@@ -209,16 +263,13 @@ public class ReservationService {
         reservation.setTouristPhone(request.getTouristPhone());
         reservation.setTouristCountry(request.getTouristCountry());
         reservation.setVisitDate(request.getVisitDate());
-        reservation.setVisitTime(request.getVisitTime());
+        reservation.setVisitTime(visitTime);
         reservation.setNumberOfPeople(request.getNumberOfPeople());
         reservation.setSpecialRequirements(request.getSpecialRequirements());
-        
-        // Recalculer le prix
-        Double totalPrice = reservation.getAttraction().getEntryPrice() != null ? 
-            reservation.getAttraction().getEntryPrice() * request.getNumberOfPeople() : 0.0;
         reservation.setTotalPrice(totalPrice);
         
         Reservation updatedReservation = reservationRepository.save(reservation);
+        eventPublisher.publishEvent(new ReservationChangedEvent(reservation.getAttraction().getId()));
         log.info("Réservation ID {} mise à jour", id);
         return convertToDTO(updatedReservation);
     }
@@ -245,11 +296,17 @@ public class ReservationService {
                 "Impossible d'annuler une réservation dont la date est passée");
         }
         
+        OccupancyLedger.State before = OccupancyLedger.State.of(reservation);
+        occupancyLedger.move(reservation.getAttraction().getId(), reservation.getAttraction().getMaxCapacity(),
+            before, before.withStatus(Reservation.ReservationStatus.CANCELLED));
+        slotInventory.move(reservation.getAttraction(), before, before.withStatus(Reservation.ReservationStatus.CANCELLED));
+        
         reservation.setStatus(Reservation.ReservationStatus.CANCELLED);
         reservation.setCancelledAt(LocalDateTime.now());
         reservation.setCancellationReason(reason);
         
         Reservation cancelledReservation = reservationRepository.save(reservation);
+        eventPublisher.publishEvent(new ReservationChangedEvent(reservation.getAttraction().getId()));
         log.info("Réservation ID {} annulée", id);
         return convertToDTO(cancelledReservation);
     }
@@ -276,6 +333,13 @@ public class ReservationService {
                 "Le check-in n'est possible que le jour de la visite");
         }
         
+        if (reservation.getCheckInTime() != null) {
+            throw new BusinessException(ErrorCode.RESERVATION_CONFLICT,
+                "Check-in déjà effectué pour cette réservation");
+        }
+        
+        // Refusé si l'attraction est pleine; annulé automatiquement si la transaction échoue
+        liveVisitorCounters.enter(reservation.getAttraction().getId(), reservation.getNumberOfPeople());
         reservation.setCheckInTime(LocalDateTime.now());
         Reservation checkedInReservation = reservationRepository.save(reservation);
         log.info("Check-in effectué pour la réservation ID: {}", id);
@@ -299,9 +363,21 @@ public class ReservationService {
                 "Impossible de check-out sans check-in préalable");
         }
         
+        if (reservation.getCheckOutTime() != null) {
+            throw new BusinessException(ErrorCode.RESERVATION_CONFLICT,
+                "Check-out déjà effectué pour cette réservation");
+        }
+        
+        liveVisitorCounters.leave(reservation.getAttraction().getId(), reservation.getNumberOfPeople());
+        // Une réservation terminée ne compte plus parmi les confirmées mais parmi les visites effectuées
+        OccupancyLedger.State before = OccupancyLedger.State.of(reservation);
+        occupancyLedger.move(reservation.getAttraction().getId(), reservation.getAttraction().getMaxCapacity(),
+            before, before.withStatus(Reservation.ReservationStatus.COMPLETED));
+        slotInventory.move(reservation.getAttraction(), before, before.withStatus(Reservation.ReservationStatus.COMPLETED));
         reservation.setCheckOutTime(LocalDateTime.now());
         reservation.setStatus(Reservation.ReservationStatus.COMPLETED);
         Reservation checkedOutReservation = reservationRepository.save(reservation);
+        eventPublisher.publishEvent(new ReservationChangedEvent(reservation.getAttraction().getId()));
         log.info("Check-out effectué pour la réservation ID: {}", id);
         return convertToDTO(checkedOutReservation);
     }
@@ -309,8 +385,10 @@ public class ReservationService {
     public Map<String, Object> getReservationStatistics(Long attractionId) {
         log.debug("Récupération des statistiques de réservation pour l'attraction ID: {}", attractionId);
         
-        Long totalReservations = reservationRepository.countByAttractionId(attractionId);
-        Long completedReservations = reservationRepository.countCompletedReservations(attractionId);
+        // Somme des lignes de daily_occupancy (une par jour) au lieu de compter toutes les réservations
+        Object[] totals = dailyOccupancyRepository.sumTotalsByAttractionId(attractionId).get(0);
+        Long totalReservations = ((Number) totals[0]).longValue();
+        Long completedReservations = ((Number) totals[1]).longValue();
         
         return Map.of(
             "totalReservations", totalReservations != null ? totalReservations : 0,
@@ -347,8 +425,8 @@ public class ReservationService {
             );
         }
         
-        Integer totalVisitors = reservationRepository.sumConfirmedVisitorsForDate(attractionId, date);
-        totalVisitors = totalVisitors != null ? totalVisitors : 0;
+        // Lecture d'une ligne de daily_occupancy au lieu d'un SUM sur les réservations du jour
+        Integer totalVisitors = occupancyLedger.confirmedPeople(attractionId, date);
         Integer availableSpots = Math.max(0, attraction.getMaxCapacity() - totalVisitors);
         
         return Map.of(
@@ -360,7 +438,7 @@ public class ReservationService {
         );
     }
     
-    private void validateReservationRequest(CreateReservationRequest request) {
+    void validateReservationRequest(CreateReservationRequest request) {
         if (request.getVisitDate().isBefore(LocalDate.now())) {
             throw new BusinessException(ErrorCode.INVALID_DATE,
                 "La date de visite doit être aujourd'hui ou dans le futur");
@@ -399,7 +477,7 @@ public class ReservationService {
         reservation.setTouristPhone(request.getTouristPhone());
         reservation.setTouristCountry(request.getTouristCountry());
         reservation.setVisitDate(request.getVisitDate());
-        reservation.setVisitTime(request.getVisitTime());
+        reservation.setVisitTime(slotInventory.normalizeVisitTime(attraction, request.getVisitTime()));
         reservation.setNumberOfPeople(request.getNumberOfPeople());
         reservation.setSpecialRequirements(request.getSpecialRequirements());
         
@@ -409,7 +487,21 @@ public class ReservationService {
         reservation.setTotalPrice(totalPrice);
     }
     
-    private ReservationDTO convertToDTO(Reservation reservation) {
+    private Object[] decodeReservationCursor(String after) {
+        if (after == null || after.isBlank()) {
+            return new Object[]{CursorPage.MAX_DATE_TIME, Long.MAX_VALUE};
+        }
+        return CursorPage.decodeCursor(after, 2,
+            parts -> new Object[]{LocalDateTime.parse(parts[0]), Long.valueOf(parts[1])});
+    }
+    
+    private CursorPage<ReservationDTO> toCursorPage(List<Reservation> rows, int limit) {
+        return CursorPage.of(rows, limit,
+            reservation -> CursorPage.encodeCursor(reservation.getReservationTime(), reservation.getId()),
+            this::convertToDTO);
+    }
+    
+    ReservationDTO convertToDTO(Reservation reservation) {
         ReservationDTO dto = new ReservationDTO();
         dto.setId(reservation.getId());
         dto.setReservationCode(reservation.getReservationCode());
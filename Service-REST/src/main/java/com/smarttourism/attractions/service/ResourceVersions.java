@@ -0,0 +1,112 @@
+package com.smarttourism.attractions.service;
+
+import com.smarttourism.attractions.dto.AttractionDTO;
+import com.smarttourism.attractions.event.AttractionChangedEvent;
+import com.smarttourism.attractions.event.ReservationChangedEvent;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Versions en mémoire des lectures interrogées en boucle, converties en ETag et comparées à If-None-Match
+// sans requête SQL. Incrémentées après commit, après l'invalidation des caches (CatalogCacheInvalidator passe avant).
+// L'époque (démarrage de l'instance) empêche un ETag obtenu avant un redémarrage de correspondre à un compteur
+// reparti de zéro; d'une instance à l'autre les ETag diffèrent et donnent simplement un 200
+@Component
+public class ResourceVersions {
+    
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final ConcurrentHashMap<Long, Long> attractions = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, Long> reservations = new ConcurrentHashMap<>();
+    // Visiteurs: seule la fiche de l'attraction en dépend
+    private final ConcurrentHashMap<Long, Long> visitors = new ConcurrentHashMap<>();
+    // Import en masse (attractionId null): toutes les attractions changent de version
+    private final AtomicLong generation = new AtomicLong();
+    private final AtomicLong catalog = new AtomicLong();
+    private final AtomicLong catalogStructure = new AtomicLong();
+    
+    // Fiche d'une attraction: note, visiteurs et modifications, plus l'état ouvert/fermé qui change avec l'heure
+    // sans aucun événement (sinon un client resterait en 304 sur l'état d'avant l'ouverture ou la fermeture)
+    public String attractionTag(Long attractionId, boolean open) {
+        return "\"a" + attractionId + "-" + epoch + "-" + generation.get() + "." + attractions.getOrDefault(attractionId, 0L)
+            + "." + visitors.getOrDefault(attractionId, 0L) + (open ? ".o" : ".f") + "\"";
+    }
+    
+    // Résumé des avis: les avis publient RATING_CHANGED sur leur attraction
+    public String reviewSummaryTag(Long attractionId) {
+        return "\"r" + attractionId + "-" + epoch + "-" + generation.get() + "." + attractions.getOrDefault(attractionId, 0L) + "\"";
+    }
+    
+    // Disponibilité: capacité de l'attraction et réservations
+    public String availabilityTag(Long attractionId) {
+        return "\"d" + attractionId + "-" + epoch + "-" + generation.get() + "." + attractions.getOrDefault(attractionId, 0L)
+            + "." + reservations.getOrDefault(attractionId, 0L) + "\"";
+    }
+    
+    // Listes du catalogue (vedettes, mieux notées...): ETag faible, version commune à tout le catalogue
+    public String catalogTag(String list) {
+        return "W/\"" + list + "-" + epoch + "-" + catalog.get() + "\"";
+    }
+    
+    // Liste d'attractions: l'état ouvert/fermé de chaque élément (recalculé à l'heure courante) s'ajoute à la version,
+    // comme pour attractionTag. Version lue avant la liste: une liste plus récente que sa version est renvoyée
+    // à nouveau au prochain changement
+    public static String withOpenState(String catalogTag, List<AttractionDTO> attractions) {
+        long state = 1;
+        for (AttractionDTO attraction : attractions) {
+            state = 31 * state + (Boolean.TRUE.equals(attraction.getIsOpen()) ? 1 : 0);
+        }
+        return catalogTag.substring(0, catalogTag.length() - 1) + ".o" + Long.toString(state, 36) + "\"";
+    }
+    
+    // Villes, catégories et statistiques: ne changent qu'à la création/modification/suppression
+    public String catalogStructureTag(String list) {
+        return "W/\"" + list + "-" + epoch + "-s" + catalogStructure.get() + "\"";
+    }
+    
+    // If-None-Match: comparaison faible (préfixe W/ ignoré), liste d'ETag séparés par des virgules ou *
+    public static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        String opaque = opaque(etag);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String trimmed = candidate.trim();
+            if (trimmed.equals("*") || opaque(trimmed).equals(opaque)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private static String opaque(String etag) {
+        return etag.startsWith("W/") ? etag.substring(2) : etag;
+    }
+    
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAttractionChanged(AttractionChangedEvent event) {
+        if (!event.getType().affectsCatalogLists()) {
+            visitors.merge(event.getAttractionId(), 1L, Long::sum);
+            return;
+        }
+        if (event.getAttractionId() == null) {
+            generation.incrementAndGet();
+        } else {
+            attractions.merge(event.getAttractionId(), 1L, Long::sum);
+        }
+        catalog.incrementAndGet();
+        if (event.getType().affectsCatalogStructure()) {
+            catalogStructure.incrementAndGet();
+        }
+    }
+    
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReservationChanged(ReservationChangedEvent event) {
+        reservations.merge(event.getAttractionId(), 1L, Long::sum);
+    }
+}
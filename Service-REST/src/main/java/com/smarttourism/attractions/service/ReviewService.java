@@ -1,10 +1,16 @@
 package com.smarttourism.attractions.service;
 
+import com.smarttourism.attractions.dto.CursorPage;
+import com.smarttourism.attractions.dto.FieldSelection;
 import com.smarttourism.attractions.dto.ReviewDTO;
+import com.smarttourism.attractions.dto.ReviewSummaryDTO;
 import com.smarttourism.attractions.dto.requests.CreateReviewRequest;
 import com.smarttourism.attractions.Entities.Attraction;
 import com.smarttourism.attractions.Entities.Reservation;
 import com.smarttourism.attractions.Entities.Review;
+import com.smarttourism.attractions.event.AttractionChangedEvent;
+import com.smarttourism.attractions.event.AttractionChangedEvent.ChangeType;
+import com.smarttourism.attractions.event.ReviewChangedEvent;
 import com.smarttourism.attractions.exception.BusinessException;
 import com.smarttourism.attractions.exception.ErrorCode;
 import com.smarttourism.attractions.exception.ResourceNotFoundException;
@@ -12,15 +18,21 @@ import com.smarttourism.attractions.exception.ValidationException;
 import com.smarttourism.attractions.repository.AttractionRepository;
 import com.smarttourism.attractions.repository.ReservationRepository;
 import com.smarttourism.attractions.repository.ReviewRepository;
+import com.smarttourism.attractions.search.ReviewSearchIndex;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -31,6 +43,9 @@ public class ReviewService {
     private final ReviewRepository reviewRepository;
     private final AttractionRepository attractionRepository;
     private final ReservationRepository reservationRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final HelpfulVoteCounters helpfulVoteCounters;
+    private final ReviewSearchIndex reviewSearchIndex;
     
     @Transactional
     public ReviewDTO createReview(CreateReviewRequest request) {
@@ -91,8 +106,10 @@ public class ReviewService {
         try {
             Review savedReview = reviewRepository.save(review);
             
-            // Mettre à jour la note moyenne de l'attraction
-            updateAttractionRating(attraction);
+            // Mettre à jour la note moyenne et l'histogramme de l'attraction (delta atomique)
+            attractionRepository.applyRatingChange(attraction.getId(), savedReview.getRating(), null, LocalDateTime.now());
+            eventPublisher.publishEvent(new AttractionChangedEvent(attraction.getId(), ChangeType.RATING_CHANGED));
+            eventPublisher.publishEvent(new ReviewChangedEvent(savedReview.getId()));
             
             log.info("Avis créé avec ID: {}", savedReview.getId());
             return convertToDTO(savedReview);
@@ -124,12 +141,27 @@ public class ReviewService {
                 .collect(Collectors.toList());
     }
     
+    // fields=: seules les colonnes demandées sont lues, jointure sur attractions seulement pour attractionName
+    public List<ReviewDTO> getReviewsByAttractionId(Long attractionId, FieldSelection fields) {
+        if (fields.isAll()) {
+            return getReviewsByAttractionId(attractionId);
+        }
+        log.debug("Récupération partielle des avis pour l'attraction ID {}: {}", attractionId, fields.getNames());
+        return reviewRepository.findByAttractionIdWithFields(attractionId, fields);
+    }
+    
     public Page<ReviewDTO> getReviewsByAttractionId(Long attractionId, Pageable pageable) {
         log.debug("Récupération des avis pour l'attraction ID {} avec pagination", attractionId);
         return reviewRepository.findByAttractionId(attractionId, pageable)
                 .map(this::convertToDTO);
     }
     
+    // Listes paginées: projection avec jointure SQL, sans réponse ni historique d'édition
+    public Page<ReviewSummaryDTO> getReviewSummariesByAttractionId(Long attractionId, Pageable pageable) {
+        log.debug("Récupération des résumés d'avis pour l'attraction ID {} avec pagination", attractionId);
+        return reviewRepository.findSummariesByAttractionId(attractionId, pageable);
+    }
+    
     public Page<ReviewDTO> getReviewsByAttractionIdSorted(Long attractionId, String sortBy, Pageable pageable) {
         log.debug("Récupération des avis triés pour l'attraction ID {}: {}", attractionId, sortBy);
         return reviewRepository.findByAttractionIdSorted(attractionId, sortBy, pageable)
@@ -149,6 +181,27 @@ public class ReviewService {
                 .map(this::convertToDTO);
     }
     
+    public Page<ReviewSummaryDTO> getReviewSummariesByTouristId(String touristId, Pageable pageable) {
+        log.debug("Récupération des résumés d'avis du touriste ID {} avec pagination", touristId);
+        return reviewRepository.findSummariesByTouristId(touristId, pageable);
+    }
+    
+    public CursorPage<ReviewDTO> getReviewsByAttractionIdAfter(Long attractionId, String after, int limit) {
+        log.debug("Récupération des avis pour l'attraction ID {} par curseur (limite {})", attractionId, limit);
+        Object[] key = decodeReviewCursor(after);
+        List<Review> rows = reviewRepository.findByAttractionIdAfter(
+            attractionId, (LocalDateTime) key[0], (Long) key[1], CursorPage.window(limit));
+        return toCursorPage(rows, limit);
+    }
+    
+    public CursorPage<ReviewDTO> getReviewsByTouristIdAfter(String touristId, String after, int limit) {
+        log.debug("Récupération des avis du touriste ID {} par curseur (limite {})", touristId, limit);
+        Object[] key = decodeReviewCursor(after);
+        List<Review> rows = reviewRepository.findByTouristIdAfter(
+            touristId, (LocalDateTime) key[0], (Long) key[1], CursorPage.window(limit));
+        return toCursorPage(rows, limit);
+    }
+    
     public List<ReviewDTO> getVerifiedReviewsByAttractionId(Long attractionId) {
         log.debug("Récupération des avis vérifiés pour l'attraction ID: {}", attractionId);
         return reviewRepository.findVerifiedReviewsByAttractionId(attractionId).stream()
@@ -188,12 +241,17 @@ public class ReviewService {
         review.setTitle(request.getTitle());
         review.setComment(request.getComment());
         review.setIsEdited(true);
-        review.setEditedAt(java.time.LocalDateTime.now());
+        review.setEditedAt(LocalDateTime.now());
         
         Review updatedReview = reviewRepository.save(review);
         
-        // Mettre à jour la note moyenne de l'attraction
-        updateAttractionRating(review.getAttraction());
+        // Mettre à jour la note moyenne et l'histogramme de l'attraction (delta atomique)
+        if (!oldRating.equals(updatedReview.getRating())) {
+            attractionRepository.applyRatingChange(review.getAttraction().getId(),
+                updatedReview.getRating(), oldRating, LocalDateTime.now());
+            eventPublisher.publishEvent(new AttractionChangedEvent(review.getAttraction().getId(), ChangeType.RATING_CHANGED));
+        }
+        eventPublisher.publishEvent(new ReviewChangedEvent(updatedReview.getId()));
         
         log.info("Avis mis à jour avec ID: {}", updatedReview.getId());
         return convertToDTO(updatedReview);
@@ -216,32 +274,62 @@ public class ReviewService {
                 "Vous n'êtes pas autorisé à supprimer cet avis");
         }
         
-        Attraction attraction = review.getAttraction();
+        Long attractionId = review.getAttraction().getId();
+        Integer rating = review.getRating();
+        helpfulVoteCounters.discard(id);
         reviewRepository.delete(review);
         
-        // Mettre à jour la note moyenne de l'attraction
-        updateAttractionRating(attraction);
+        // Mettre à jour la note moyenne et l'histogramme de l'attraction (delta atomique)
+        attractionRepository.applyRatingChange(attractionId, null, rating, LocalDateTime.now());
+        eventPublisher.publishEvent(new AttractionChangedEvent(attractionId, ChangeType.RATING_CHANGED));
+        eventPublisher.publishEvent(new ReviewChangedEvent(id));
         
         log.info("Avis supprimé avec ID: {}", id);
     }
     
-    @Transactional
-    public ReviewDTO markReviewAsHelpful(Long id) {
-        log.info("Marquage de l'avis ID {} comme utile", id);
-        
-        Review review = reviewRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException(
-                    ErrorCode.REVIEW_NOT_FOUND,
-                    "Avis",
-                    "id",
-                    id
-                ));
+    // Index inversé (BM25) dès qu'il est construit; avant, LIKE sur la base trié par date
+    @Transactional(readOnly = true)
+    public List<ReviewDTO> searchReviews(String query, Long attractionId, Integer minRating, Integer maxRating,
+                                         Boolean verified, int limit) {
+        log.debug("Recherche d'avis avec la requête: {}", query);
+        validateSearchRequest(query, minRating, maxRating, limit);
+        
+        if (!reviewSearchIndex.isReady()) {
+            return reviewRepository.searchByText(query.trim(), attractionId, minRating, maxRating, verified,
+                    PageRequest.of(0, limit)).stream()
+                    .map(this::convertToDTO)
+                    .collect(Collectors.toList());
+        }
         
-        review.markAsHelpful();
-        Review updatedReview = reviewRepository.save(review);
+        List<Long> rankedIds = reviewSearchIndex.search(query, attractionId, minRating, maxRating, verified, limit);
+        if (rankedIds.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Review> reviewsById = reviewRepository.findWithAttractionByIdIn(rankedIds).stream()
+                .collect(Collectors.toMap(Review::getId, Function.identity()));
+        return rankedIds.stream()
+                .map(reviewsById::get)
+                .filter(review -> review != null)
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
+    }
+    
+    // Sans transaction ni chargement de l'avis: le vote est compté en mémoire et écrit par lots
+    public Map<String, Object> markReviewAsHelpful(Long id, String touristId) {
+        if (touristId == null || touristId.isBlank()) {
+            throw new ValidationException(ErrorCode.INVALID_PARAMETERS,
+                "touristId", "L'identifiant du touriste est obligatoire");
+        }
+        boolean counted = helpfulVoteCounters.vote(id, touristId);
+        if (!counted) {
+            log.debug("Vote utile ignoré: le touriste {} a déjà voté pour l'avis ID {}", touristId, id);
+        }
         
-        log.info("Avis ID {} marqué comme utile. Total: {}", id, updatedReview.getHelpfulCount());
-        return convertToDTO(updatedReview);
+        Map<String, Object> response = new HashMap<>();
+        response.put("reviewId", id);
+        response.put("helpfulCount", helpfulVoteCounters.helpfulCount(id));
+        response.put("counted", counted);
+        return response;
     }
     
     @Transactional
@@ -267,27 +355,33 @@ public class ReviewService {
     public Map<String, Object> getReviewStatistics(Long attractionId) {
         log.debug("Récupération des statistiques d'avis pour l'attraction ID: {}", attractionId);
         
-        Double averageRating = reviewRepository.calculateAverageRating(attractionId);
-        Long totalReviews = reviewRepository.countByAttractionId(attractionId);
-        Long verifiedReviews = (long) reviewRepository.findVerifiedReviewsByAttractionId(attractionId).size();
+        Attraction attraction = attractionRepository.findById(attractionId)
+                .orElseThrow(() -> new ResourceNotFoundException(
+                    ErrorCode.ATTRACTION_NOT_FOUND,
+                    "Attraction",
+                    "id",
+                    attractionId
+                ));
+        Long verifiedReviews = reviewRepository.countVerifiedReviewsByAttractionId(attractionId);
         
+        // Histogramme lu sur les compteurs dénormalisés de l'attraction
         Map<Integer, Long> ratingDistribution = Map.of(
-            1, reviewRepository.countByAttractionIdAndRating(attractionId, 1),
-            2, reviewRepository.countByAttractionIdAndRating(attractionId, 2),
-            3, reviewRepository.countByAttractionIdAndRating(attractionId, 3),
-            4, reviewRepository.countByAttractionIdAndRating(attractionId, 4),
-            5, reviewRepository.countByAttractionIdAndRating(attractionId, 5)
+            1, attraction.getRatingCount1().longValue(),
+            2, attraction.getRatingCount2().longValue(),
+            3, attraction.getRatingCount3().longValue(),
+            4, attraction.getRatingCount4().longValue(),
+            5, attraction.getRatingCount5().longValue()
         );
         
         return Map.of(
-            "averageRating", averageRating != null ? averageRating : 0.0,
-            "totalReviews", totalReviews != null ? totalReviews : 0,
+            "averageRating", attraction.getRating() != null ? attraction.getRating() : 0.0,
+            "totalReviews", attraction.getTotalReviews() != null ? attraction.getTotalReviews().longValue() : 0L,
             "verifiedReviews", verifiedReviews,
             "ratingDistribution", ratingDistribution
         );
     }
     
-    private void validateReviewRequest(CreateReviewRequest request) {
+    void validateReviewRequest(CreateReviewRequest request) {
         if (request.getRating() == null || request.getRating() < 1 || request.getRating() > 5) {
             throw new ValidationException(ErrorCode.INVALID_RATING,
                 "rating", "La note doit être entre 1 et 5");
@@ -299,6 +393,28 @@ public class ReviewService {
         }
     }
     
+    private void validateSearchRequest(String query, Integer minRating, Integer maxRating, int limit) {
+        if (query == null || query.isBlank()) {
+            throw new ValidationException(ErrorCode.INVALID_PARAMETERS,
+                "query", "Le terme de recherche est obligatoire");
+        }
+        
+        if (minRating != null && (minRating < 1 || minRating > 5)) {
+            throw new ValidationException(ErrorCode.INVALID_RATING,
+                "minRating", "La note doit être entre 1 et 5");
+        }
+        
+        if (maxRating != null && (maxRating < 1 || maxRating > 5)) {
+            throw new ValidationException(ErrorCode.INVALID_RATING,
+                "maxRating", "La note doit être entre 1 et 5");
+        }
+        
+        if (limit < 1 || limit > 100) {
+            throw new ValidationException(ErrorCode.INVALID_PARAMETERS,
+                "limit", "La limite doit être comprise entre 1 et 100");
+        }
+    }
+    
     private void mapRequestToReview(CreateReviewRequest request, Attraction attraction, Review review) {
         review.setAttraction(attraction);
         review.setTouristId(request.getTouristId());
@@ -310,19 +426,21 @@ public class ReviewService {
         review.setVisitDate(request.getVisitDate());
     }
     
-    @Transactional
-    protected void updateAttractionRating(Attraction attraction) {
-        Double newAverageRating = reviewRepository.calculateAverageRating(attraction.getId());
-        Long totalReviews = reviewRepository.countByAttractionId(attraction.getId());
-        
-        attraction.setRating(newAverageRating != null ? newAverageRating : 0.0);
-        attraction.setTotalReviews(totalReviews != null ? totalReviews.intValue() : 0);
-        attractionRepository.save(attraction);
-        
-        log.debug("Note moyenne de l'attraction {} mise à jour: {}", attraction.getId(), newAverageRating);
+    private Object[] decodeReviewCursor(String after) {
+        if (after == null || after.isBlank()) {
+            return new Object[]{CursorPage.MAX_DATE_TIME, Long.MAX_VALUE};
+        }
+        return CursorPage.decodeCursor(after, 2,
+            parts -> new Object[]{LocalDateTime.parse(parts[0]), Long.valueOf(parts[1])});
+    }
+    
+    private CursorPage<ReviewDTO> toCursorPage(List<Review> rows, int limit) {
+        return CursorPage.of(rows, limit,
+            review -> CursorPage.encodeCursor(review.getReviewDate(), review.getId()),
+            this::convertToDTO);
     }
     
-    private ReviewDTO convertToDTO(Review review) {
+    ReviewDTO convertToDTO(Review review) {
         ReviewDTO dto = new ReviewDTO();
         dto.setId(review.getId());
         dto.setAttractionId(review.getAttraction().getId());
@@ -0,0 +1,448 @@
+package com.smarttourism.attractions.service;
+
+import com.smarttourism.attractions.dto.SlotAvailabilityDTO;
+import com.smarttourism.attractions.Entities.Attraction;
+import com.smarttourism.attractions.Entities.Reservation;
+import com.smarttourism.attractions.event.AttractionChangedEvent;
+import com.smarttourism.attractions.exception.BusinessException;
+import com.smarttourism.attractions.exception.ErrorCode;
+import com.smarttourism.attractions.exception.ResourceNotFoundException;
+import com.smarttourism.attractions.exception.ValidationException;
+import com.smarttourism.attractions.repository.AttractionRepository;
+import com.smarttourism.attractions.repository.ReservationRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Inventaire des créneaux horaires: pour chaque attraction à créneaux et chaque date, un tableau compact
+// (une case par créneau) des personnes confirmées. Les disponibilités d'une journée se lisent en mémoire,
+// les réservations y prennent et rendent leurs places par CAS (sans verrou) et un rollback annule le mouvement.
+// Une journée est chargée au premier accès par une seule agrégation sur reservations; la capacité
+// journalière (maxCapacity) reste garantie en base par OccupancyLedger.
+// Une nouvelle définition des créneaux (durée, capacité, horaires, statut) est appliquée en recopiant les
+// journées chargées, places prises par des réservations pas encore validées comprises.
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SlotInventory {
+
+    static final int MIN_SLOT_MINUTES = 5;
+    private static final DateTimeFormatter SLOT_FORMAT = DateTimeFormatter.ofPattern("HH:mm");
+
+    private final AttractionRepository attractionRepository;
+    private final ReservationRepository reservationRepository;
+
+    private final Map<Long, Slots> inventories = new ConcurrentHashMap<>();
+
+    // Durée et capacité vont ensemble et au moins un créneau doit tenir entre l'ouverture et la fermeture
+    public static void validateDefinition(LocalTime openingTime, LocalTime closingTime,
+                                          Integer slotDurationMinutes, Integer slotCapacity) {
+        if (slotDurationMinutes == null && slotCapacity == null) {
+            return;
+        }
+        if (slotDurationMinutes == null || slotCapacity == null) {
+            throw new ValidationException(ErrorCode.INVALID_PARAMETERS, "slotDurationMinutes",
+                "La durée et la capacité des créneaux doivent être renseignées ensemble");
+        }
+        if (slotDurationMinutes < MIN_SLOT_MINUTES) {
+            throw new ValidationException(ErrorCode.INVALID_PARAMETERS, "slotDurationMinutes",
+                String.format("Un créneau dure au moins %d minutes", MIN_SLOT_MINUTES));
+        }
+        if (slotCapacity < 0) {
+            throw new ValidationException(ErrorCode.INVALID_CAPACITY, "slotCapacity",
+                "La capacité d'un créneau doit être positive ou nulle");
+        }
+        if (openingTime == null || closingTime == null
+                || Duration.between(openingTime, closingTime).toMinutes() < slotDurationMinutes) {
+            throw new ValidationException(ErrorCode.INVALID_PARAMETERS, "slotDurationMinutes",
+                "Les créneaux demandent des horaires d'ouverture contenant au moins un créneau");
+        }
+    }
+
+    // Attraction à créneaux: visitTime doit désigner le début d'un créneau, renvoyé au format HH:mm.
+    // Sans créneaux, visitTime reste libre ("MORNING", "FULL_DAY", ...)
+    public String normalizeVisitTime(Attraction attraction, String visitTime) {
+        Slots slots = slots(attraction);
+        if (slots == null) {
+            return visitTime;
+        }
+        Definition definition = slots.definition;
+        int index = definition.indexOf(visitTime);
+        if (index < 0) {
+            throw new ValidationException(ErrorCode.TIME_SLOT_UNAVAILABLE, "visitTime",
+                String.format("Créneau inconnu: les créneaux commencent à %s toutes les %d minutes, le dernier à %s",
+                    SLOT_FORMAT.format(definition.opening), definition.durationMinutes,
+                    SLOT_FORMAT.format(definition.start(definition.count - 1))));
+        }
+        return SLOT_FORMAT.format(definition.start(index));
+    }
+
+    // À appeler avec les mêmes états que OccupancyLedger.move: le nouveau créneau est pris d'abord,
+    // un refus laisse l'ancien intact; seules les réservations confirmées occupent un créneau
+    public void move(Attraction attraction, OccupancyLedger.State before, OccupancyLedger.State after) {
+        while (true) {
+            Slots slots = slots(attraction);
+            if (slots == null) {
+                return;
+            }
+            Lock lock = slots.lock.readLock();
+            lock.lock();
+            try {
+                // Inventaire remplacé entre-temps par une nouvelle définition: recommencer sur celui-ci
+                if (slots.successor != null) {
+                    continue;
+                }
+                move(attraction.getId(), slots, before, after);
+                return;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    // Disponibilités de tous les créneaux d'une journée, lues en mémoire une fois la journée chargée
+    public SlotAvailabilityDTO availability(Long attractionId, LocalDate date) {
+        Slots slots = inventories.computeIfAbsent(attractionId, id -> new Slots(Definition.of(
+            attractionRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException(
+                    ErrorCode.ATTRACTION_NOT_FOUND,
+                    "Attraction",
+                    "id",
+                    id
+                )))));
+        Definition definition = slots.definition;
+        if (definition == null) {
+            throw new BusinessException(ErrorCode.INVALID_PARAMETERS,
+                "Cette attraction ne propose pas de créneaux horaires");
+        }
+
+        AtomicIntegerArray booked = day(attractionId, slots, date);
+        List<SlotAvailabilityDTO.Slot> result = new ArrayList<>(definition.count);
+        for (int i = 0; i < definition.count; i++) {
+            int spots = definition.active ? Math.max(0, definition.capacity - booked.get(i)) : 0;
+            result.add(new SlotAvailabilityDTO.Slot(definition.start(i),
+                definition.start(i).plusMinutes(definition.durationMinutes), spots));
+        }
+        return new SlotAvailabilityDTO(attractionId, date, definition.durationMinutes, definition.capacity, result);
+    }
+
+    // Réservations écrites hors de move (import en masse): la journée est rechargée après le commit
+    public void reload(Long attractionId, LocalDate date) {
+        afterCommit(() -> {
+            Slots slots = inventories.get(attractionId);
+            if (slots != null) {
+                slots.days.remove(date);
+            }
+        });
+    }
+
+    // Seule une nouvelle définition des créneaux remplace l'inventaire (une description modifiée le garde).
+    // Pas de rechargement depuis reservations: une place prise par une réservation pas encore validée n'y est pas
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAttractionChanged(AttractionChangedEvent event) {
+        if (!event.getType().affectsCatalogStructure()) {
+            return;
+        }
+        if (event.getAttractionId() == null) {
+            new ArrayList<>(inventories.keySet()).forEach(this::refresh);
+        } else {
+            refresh(event.getAttractionId());
+        }
+    }
+
+    @Scheduled(cron = "${attractions.slots.purge-cron:0 5 0 * * *}")
+    public void purgePastDays() {
+        LocalDate today = LocalDate.now();
+        inventories.values().forEach(slots -> slots.days.keySet().removeIf(date -> date.isBefore(today)));
+    }
+
+    // Sérialisé (événements rares); le verrou exclusif attend les prises et rendus de places en cours
+    private synchronized void refresh(Long attractionId) {
+        Slots current = inventories.get(attractionId);
+        if (current == null) {
+            return;
+        }
+        Definition definition = attractionRepository.findById(attractionId).map(Definition::of).orElse(null);
+        if (Objects.equals(definition, current.definition)) {
+            return;
+        }
+        Lock lock = current.lock.writeLock();
+        lock.lock();
+        try {
+            Slots migrated = new Slots(definition);
+            if (definition != null && current.definition != null) {
+                current.days.forEach((date, booked) -> migrated.days.put(date, migrate(current.definition, booked, definition)));
+            }
+            current.successor = migrated;
+            inventories.put(attractionId, migrated);
+        } finally {
+            lock.unlock();
+        }
+        log.info("Créneaux de l'attraction ID {} redéfinis, {} journées reportées", attractionId, current.days.size());
+    }
+
+    // Personnes de chaque créneau reportées sur le créneau de même début; un créneau disparu est ignoré,
+    // comme ses réservations au chargement depuis la base
+    private static AtomicIntegerArray migrate(Definition from, AtomicIntegerArray booked, Definition to) {
+        AtomicIntegerArray migrated = new AtomicIntegerArray(to.count);
+        for (int i = 0; i < from.count; i++) {
+            int index = to.indexOf(from.start(i));
+            if (index >= 0) {
+                migrated.addAndGet(index, booked.get(i));
+            }
+        }
+        return migrated;
+    }
+
+    private void move(Long attractionId, Slots slots, OccupancyLedger.State before, OccupancyLedger.State after) {
+        Seat released = seat(slots.definition, before);
+        Seat taken = seat(slots.definition, after);
+        if (taken != null && released != null && taken.sameSlot(released)) {
+            int delta = taken.people - released.people;
+            if (delta > 0) {
+                take(attractionId, slots, new Seat(taken.date, taken.index, delta));
+            } else if (delta < 0) {
+                release(attractionId, slots, new Seat(taken.date, taken.index, -delta));
+            }
+            return;
+        }
+        if (taken != null) {
+            take(attractionId, slots, taken);
+        }
+        if (released != null) {
+            release(attractionId, slots, released);
+        }
+    }
+
+    private Slots slots(Attraction attraction) {
+        if (attraction.getSlotDurationMinutes() == null) {
+            return null;
+        }
+        Slots slots = inventories.computeIfAbsent(attraction.getId(), id -> new Slots(Definition.of(attraction)));
+        return slots.definition != null ? slots : null;
+    }
+
+    // Les journées passées ne sont pas tenues en mémoire: rien à prendre ni à rendre
+    private static Seat seat(Definition definition, OccupancyLedger.State state) {
+        if (state == null || state.getVisitDate().isBefore(LocalDate.now())) {
+            return null;
+        }
+        if (state.getStatus() != null && state.getStatus() != Reservation.ReservationStatus.CONFIRMED) {
+            return null;
+        }
+        int index = definition.indexOf(state.getVisitTime());
+        return index < 0 ? null : new Seat(state.getVisitDate(), index, state.getNumberOfPeople());
+    }
+
+    private void take(Long attractionId, Slots slots, Seat seat) {
+        Definition definition = slots.definition;
+        AtomicIntegerArray booked = day(attractionId, slots, seat.date);
+        int current;
+        int next;
+        do {
+            current = booked.get(seat.index);
+            next = current + seat.people;
+            if (next > definition.capacity) {
+                throw new BusinessException(ErrorCode.TIME_SLOT_UNAVAILABLE,
+                    String.format("Créneau de %s complet. Places restantes: %d",
+                        SLOT_FORMAT.format(definition.start(seat.index)), Math.max(0, definition.capacity - current)));
+            }
+        } while (!booked.compareAndSet(seat.index, current, next));
+        LocalTime start = definition.start(seat.index);
+        onRollback(() -> compensate(slots, seat.date, booked, start, -seat.people));
+    }
+
+    private void release(Long attractionId, Slots slots, Seat seat) {
+        AtomicIntegerArray booked = day(attractionId, slots, seat.date);
+        adjust(booked, seat.index, -seat.people);
+        LocalTime start = slots.definition.start(seat.index);
+        onRollback(() -> compensate(slots, seat.date, booked, start, seat.people));
+    }
+
+    // Annulation au rollback, sur l'inventaire qui a reçu la place recopiée si la définition a changé depuis.
+    // Une journée rechargée depuis la base entre-temps ne contient pas le mouvement: rien à annuler
+    private static void compensate(Slots slots, LocalDate date, AtomicIntegerArray booked, LocalTime start, int people) {
+        Lock lock = slots.lock.readLock();
+        lock.lock();
+        try {
+            if (slots.successor == null) {
+                adjust(booked, slots.definition.indexOf(start), people);
+                return;
+            }
+            Slots successor = slots.successor;
+            AtomicIntegerArray migrated = successor.days.get(date);
+            if (slots.days.get(date) == booked && migrated != null && successor.definition.indexOf(start) >= 0) {
+                compensate(successor, date, migrated, start, people);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Un créneau ne descend jamais sous zéro (journée rechargée entre-temps)
+    private static void adjust(AtomicIntegerArray booked, int index, int people) {
+        booked.getAndUpdate(index, current -> Math.max(0, current + people));
+    }
+
+    private AtomicIntegerArray day(Long attractionId, Slots slots, LocalDate date) {
+        return slots.days.computeIfAbsent(date, d -> load(attractionId, slots.definition, d));
+    }
+
+    private AtomicIntegerArray load(Long attractionId, Definition definition, LocalDate date) {
+        AtomicIntegerArray booked = new AtomicIntegerArray(definition.count);
+        int outsideSlots = 0;
+        for (Object[] row : reservationRepository.sumConfirmedPeopleByVisitTime(attractionId, date)) {
+            int index = definition.indexOf((String) row[0]);
+            if (index < 0) {
+                outsideSlots++;
+            } else {
+                booked.addAndGet(index, ((Number) row[1]).intValue());
+            }
+        }
+        if (outsideSlots > 0) {
+            log.warn("{} horaires de réservation hors créneaux ignorés pour l'attraction ID {} le {}",
+                outsideSlots, attractionId, date);
+        }
+        return booked;
+    }
+
+    private static void onRollback(Runnable compensation) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK) {
+                    compensation.run();
+                }
+            }
+        });
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static final class Slots {
+        private final Definition definition; // null = attraction sans créneaux
+        private final Map<LocalDate, AtomicIntegerArray> days = new ConcurrentHashMap<>();
+        // Partagé par les prises et rendus de places, exclusif pour le remplacement par une nouvelle définition
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        private Slots successor; // écrit sous le verrou exclusif, lu sous le verrou partagé
+
+        private Slots(Definition definition) {
+            this.definition = definition;
+        }
+    }
+
+    private static final class Definition {
+        private final LocalTime opening;
+        private final int durationMinutes;
+        private final int capacity;
+        private final int count;
+        private final boolean active;
+
+        private Definition(LocalTime opening, int durationMinutes, int capacity, int count, boolean active) {
+            this.opening = opening;
+            this.durationMinutes = durationMinutes;
+            this.capacity = capacity;
+            this.count = count;
+            this.active = active;
+        }
+
+        private static Definition of(Attraction attraction) {
+            Integer duration = attraction.getSlotDurationMinutes();
+            if (duration == null || attraction.getSlotCapacity() == null
+                    || attraction.getOpeningTime() == null || attraction.getClosingTime() == null) {
+                return null;
+            }
+            int count = (int) (Duration.between(attraction.getOpeningTime(), attraction.getClosingTime()).toMinutes()
+                / duration);
+            return count <= 0 ? null : new Definition(attraction.getOpeningTime(), duration,
+                attraction.getSlotCapacity(), count, Boolean.TRUE.equals(attraction.getIsActive()));
+        }
+
+        private LocalTime start(int index) {
+            return opening.plusMinutes((long) index * durationMinutes);
+        }
+
+        // -1 si visitTime n'est pas le début d'un créneau ("10:00" ou "10:00:00")
+        private int indexOf(String visitTime) {
+            if (visitTime == null) {
+                return -1;
+            }
+            try {
+                return indexOf(LocalTime.parse(visitTime.trim()));
+            } catch (DateTimeParseException e) {
+                return -1;
+            }
+        }
+
+        private int indexOf(LocalTime time) {
+            long minutes = Duration.between(opening, time).toMinutes();
+            if (minutes < 0 || minutes % durationMinutes != 0 || time.getSecond() != 0 || time.getNano() != 0) {
+                return -1;
+            }
+            long index = minutes / durationMinutes;
+            return index < count ? (int) index : -1;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof Definition)) {
+                return false;
+            }
+            Definition definition = (Definition) other;
+            return opening.equals(definition.opening) && durationMinutes == definition.durationMinutes
+                && capacity == definition.capacity && count == definition.count && active == definition.active;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(opening, durationMinutes, capacity, count, active);
+        }
+    }
+
+    private static final class Seat {
+        private final LocalDate date;
+        private final int index;
+        private final int people;
+
+        private Seat(LocalDate date, int index, int people) {
+            this.date = date;
+            this.index = index;
+            this.people = people;
+        }
+
+        private boolean sameSlot(Seat other) {
+            return date.equals(other.date) && index == other.index;
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.smarttourism.attractions.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smarttourism.attractions.config.SparseFieldsetConfig;
+import com.smarttourism.attractions.dto.AttractionDTO;
+import com.smarttourism.attractions.service.ResourceVersions;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.ServletWebRequest;
+import java.io.ByteArrayInputStream;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResponseBytesCacheTest {
+
+    private final ObjectMapper objectMapper = objectMapper();
+    private final ResponseBytesCache cache = new ResponseBytesCache(objectMapper);
+    private final AtomicInteger serializations = new AtomicInteger();
+
+    @Test
+    void bytesAreBuiltOncePerVersionAndServedGzippedWhenAccepted() throws Exception {
+        ResponseEntity<?> identity = cache.respond(request(null, null), "featured", "W/\"featured-1-1\"", featured());
+        ResponseEntity<?> gzipped = cache.respond(request("br, gzip;q=0.8", null), "featured", "W/\"featured-1-1\"", featured());
+
+        assertThat(serializations).hasValue(1);
+        assertThat(identity.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isNull();
+        assertThat(identity.getHeaders().getVary()).contains(HttpHeaders.ACCEPT_ENCODING);
+        assertThat(gzipped.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+        byte[] json = (byte[]) identity.getBody();
+        byte[] compressed = (byte[]) gzipped.getBody();
+        assertThat(compressed.length).isLessThan(json.length);
+        assertThat(new GZIPInputStream(new ByteArrayInputStream(compressed)).readAllBytes()).isEqualTo(json);
+        assertThat(objectMapper.readTree(json).get(0).get("name").asText()).isEqualTo("Attraction 0");
+
+        cache.respond(request(null, null), "featured", "W/\"featured-1-2\"", featured());
+        assertThat(serializations).hasValue(2);
+    }
+
+    @Test
+    void cachedBytesFollowTheOpenStateOfTheListedAttractions() throws Exception {
+        AttractionDTO attraction = new AttractionDTO();
+        attraction.setId(1L);
+        attraction.setOpeningTime(LocalTime.MIN);
+        attraction.setClosingTime(LocalTime.MAX);
+        List<AttractionDTO> list = List.of(attraction);
+        String version = "W/\"featured-1-1\"";
+
+        ResponseEntity<?> open = cache.respond(request(null, null), "featured",
+            ResourceVersions.withOpenState(version, list), () -> list);
+        assertThat(objectMapper.readTree((byte[]) open.getBody()).get(0).get("isOpen").asBoolean()).isTrue();
+
+        // Fermeture sans changement du catalogue: nouvel ETag, octets régénérés
+        attraction.setOpeningTime(LocalTime.MAX);
+        ResponseEntity<?> closed = cache.respond(request(null, null, open.getHeaders().getETag()), "featured",
+            ResourceVersions.withOpenState(version, list), () -> list);
+        assertThat(closed.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(objectMapper.readTree((byte[]) closed.getBody()).get(0).get("isOpen").asBoolean()).isFalse();
+    }
+
+    @Test
+    void notModifiedAndFieldSelectionSkipTheByteCache() {
+        ResponseEntity<?> notModified = cache.respond(request("gzip", null, "W/\"cities-1-s1\""), "cities",
+            "W/\"cities-1-s1\"", featured());
+        assertThat(notModified.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(serializations).hasValue(0);
+
+        ResponseEntity<?> sparse = cache.respond(request("gzip", "id,name"), "featured", "W/\"featured-1-1\"", featured());
+        assertThat(sparse.getBody()).isInstanceOf(List.class);
+        assertThat(sparse.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isNull();
+    }
+
+    @Test
+    void acceptEncodingHonoursExplicitRefusal() {
+        assertThat(ResponseBytesCache.acceptsGzip("gzip, deflate, br")).isTrue();
+        assertThat(ResponseBytesCache.acceptsGzip("*")).isTrue();
+        assertThat(ResponseBytesCache.acceptsGzip("gzip;q=0, identity")).isFalse();
+        assertThat(ResponseBytesCache.acceptsGzip("br")).isFalse();
+        assertThat(ResponseBytesCache.acceptsGzip(null)).isFalse();
+    }
+
+    private Supplier<List<AttractionDTO>> featured() {
+        return () -> {
+            serializations.incrementAndGet();
+            return IntStream.range(0, 20).mapToObj(i -> {
+                AttractionDTO dto = new AttractionDTO();
+                dto.setId((long) i);
+                dto.setName("Attraction " + i);
+                dto.setDescription("Description détaillée de l'attraction");
+                return dto;
+            }).toList();
+        };
+    }
+
+    private static ServletWebRequest request(String acceptEncoding, String fields) {
+        return request(acceptEncoding, fields, null);
+    }
+
+    private static ServletWebRequest request(String acceptEncoding, String fields, String ifNoneMatch) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/attractions/featured");
+        if (acceptEncoding != null) {
+            request.addHeader(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+        }
+        if (ifNoneMatch != null) {
+            request.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        if (fields != null) {
+            request.setParameter("fields", fields);
+        }
+        return new ServletWebRequest(request);
+    }
+
+    private static ObjectMapper objectMapper() {
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json();
+        new SparseFieldsetConfig().sparseFieldsetCustomizer().customize(builder);
+        return builder.build();
+    }
+}
@@ -0,0 +1,45 @@
+package com.smarttourism.attractions.controller;
+
+import com.smarttourism.attractions.dto.AttractionDTO;
+import com.smarttourism.attractions.dto.AttractionSummaryDTO;
+import com.smarttourism.attractions.dto.FieldSelection;
+import com.smarttourism.attractions.dto.ReviewSummaryDTO;
+import com.smarttourism.attractions.exception.ValidationException;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.MethodParameter;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SparseFieldsetAdviceTest {
+
+    @Test
+    void fieldsAreValidatedAgainstTheDtoTheEndpointReturns() {
+        assertThat(SparseFieldsetAdvice.returnedDto(returnType(AttractionController.class, "getAllAttractionsPaginated")))
+            .isEqualTo(AttractionSummaryDTO.class);
+        assertThat(SparseFieldsetAdvice.returnedDto(returnType(ReviewController.class, "getReviewsByTouristIdPaginated")))
+            .isEqualTo(ReviewSummaryDTO.class);
+        assertThat(SparseFieldsetAdvice.returnedDto(returnType(AttractionController.class, "getAttractionById")))
+            .isEqualTo(AttractionDTO.class);
+        // Octets en cache (ResponseEntity<?>) et NearbyAttractionDTO: DTO complet du contrôleur
+        assertThat(SparseFieldsetAdvice.returnedDto(returnType(AttractionController.class, "getTopRatedAttractions")))
+            .isEqualTo(AttractionDTO.class);
+        assertThat(SparseFieldsetAdvice.returnedDto(returnType(AttractionController.class, "getNearbyAttractions")))
+            .isEqualTo(AttractionDTO.class);
+
+        // Champ d'AttractionDTO absent du résumé: refusé au lieu d'être ignoré en silence
+        assertThatThrownBy(() -> FieldSelection.parse("id,description",
+                SparseFieldsetAdvice.returnedDto(returnType(AttractionController.class, "getAllAttractionsPaginated"))))
+            .isInstanceOf(ValidationException.class)
+            .hasMessageContaining("description");
+    }
+
+    private static MethodParameter returnType(Class<?> controller, String method) {
+        return Arrays.stream(controller.getMethods())
+            .filter(m -> m.getName().equals(method))
+            .findFirst()
+            .map(m -> new MethodParameter(m, -1))
+            .orElseThrow();
+    }
+}
@@ -0,0 +1,158 @@
+package com.smarttourism.attractions.load;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+
+// Générateur en modèle ouvert: les requêtes partent à débit constant, quel que soit le temps de réponse du service.
+// La latence est mesurée depuis l'instant de départ prévu (pas l'instant d'envoi réel): un service qui ralentit
+// le générateur voit ce retard compté dans ses percentiles (pas d'omission coordonnée).
+class OpenModelLoadGenerator {
+
+    private static final long HIGHEST_TRACKABLE_NANOS = TimeUnit.MINUTES.toNanos(1);
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final String baseUrl;
+    private final HttpClient client;
+    private final List<Operation> operations = new ArrayList<>();
+    private int totalWeight;
+
+    OpenModelLoadGenerator(String baseUrl) {
+        this.baseUrl = baseUrl;
+        this.client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    }
+
+    // Opération du mélange: poids relatif et fabrique de requête (appelée sur le thread d'émission)
+    OpenModelLoadGenerator operation(String name, int weight, Function<ThreadLocalRandom, HttpRequest.Builder> request) {
+        operations.add(new Operation(name, weight, request));
+        totalWeight += weight;
+        return this;
+    }
+
+    URI uri(String path) {
+        return URI.create(baseUrl + path);
+    }
+
+    // Émet ratePerSecond requêtes par seconde pendant duration, puis attend les réponses en vol
+    Map<String, Result> run(int ratePerSecond, Duration duration) {
+        operations.forEach(Operation::reset);
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / ratePerSecond;
+        long total = duration.toNanos() / intervalNanos;
+        List<CompletableFuture<?>> inFlight = new ArrayList<>();
+
+        long start = System.nanoTime();
+        for (long n = 0; n < total; n++) {
+            long intended = start + n * intervalNanos;
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            Operation operation = pick(ThreadLocalRandom.current());
+            HttpRequest request = operation.request.apply(ThreadLocalRandom.current())
+                .timeout(REQUEST_TIMEOUT)
+                .build();
+            inFlight.add(client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .handle((response, error) -> {
+                    operation.record(intended, error == null && response.statusCode() < 400);
+                    return null;
+                }));
+        }
+        long issuedNanos = System.nanoTime() - start;
+        CompletableFuture.allOf(inFlight.toArray(new CompletableFuture[0])).join();
+
+        Map<String, Result> results = new LinkedHashMap<>();
+        Histogram all = new Histogram(HIGHEST_TRACKABLE_NANOS, 3);
+        long allErrors = 0;
+        for (Operation operation : operations) {
+            Result result = operation.result(issuedNanos);
+            all.add(result.histogram);
+            allErrors += result.errors;
+            results.put(operation.name, result);
+        }
+        results.put("all", new Result(all, allErrors, issuedNanos));
+        return results;
+    }
+
+    private Operation pick(ThreadLocalRandom random) {
+        int ticket = random.nextInt(totalWeight);
+        for (Operation operation : operations) {
+            ticket -= operation.weight;
+            if (ticket < 0) {
+                return operation;
+            }
+        }
+        throw new IllegalStateException("Mélange d'opérations vide");
+    }
+
+    private static final class Operation {
+        private final String name;
+        private final int weight;
+        private final Function<ThreadLocalRandom, HttpRequest.Builder> request;
+        private final Recorder recorder = new Recorder(HIGHEST_TRACKABLE_NANOS, 3);
+        private final AtomicLong errors = new AtomicLong();
+
+        private Operation(String name, int weight, Function<ThreadLocalRandom, HttpRequest.Builder> request) {
+            this.name = name;
+            this.weight = weight;
+            this.request = request;
+        }
+
+        private void record(long intendedNanos, boolean success) {
+            if (!success) {
+                errors.incrementAndGet();
+                return;
+            }
+            recorder.recordValue(Math.min(System.nanoTime() - intendedNanos, HIGHEST_TRACKABLE_NANOS));
+        }
+
+        private void reset() {
+            recorder.reset();
+            errors.set(0);
+        }
+
+        private Result result(long elapsedNanos) {
+            return new Result(recorder.getIntervalHistogram(), errors.get(), elapsedNanos);
+        }
+    }
+
+    static final class Result {
+        final Histogram histogram;
+        final long errors;
+        final long elapsedNanos;
+
+        private Result(Histogram histogram, long errors, long elapsedNanos) {
+            this.histogram = histogram;
+            this.errors = errors;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        long requests() {
+            return histogram.getTotalCount() + errors;
+        }
+
+        double throughput() {
+            return requests() / (elapsedNanos / 1e9);
+        }
+
+        double percentileMillis(double percentile) {
+            return histogram.getValueAtPercentile(percentile) / 1e6;
+        }
+    }
+}
@@ -0,0 +1,255 @@
+package com.smarttourism.attractions.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.smarttourism.attractions.AttractionsServiceApplication;
+import com.smarttourism.attractions.Entities.Category;
+import com.smarttourism.attractions.event.AttractionChangedEvent;
+import com.smarttourism.attractions.event.AttractionChangedEvent.ChangeType;
+import com.smarttourism.attractions.load.OpenModelLoadGenerator.Result;
+import com.smarttourism.attractions.service.DailyOccupancyReconciliationJob;
+import com.smarttourism.attractions.service.RatingCountersRebuildJob;
+import org.HdrHistogram.HistogramLogWriter;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.http.HttpRequest;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Test de charge de bout en bout, sans MySQL: le service démarre sur H2 (mode MySQL), la base est remplie
+// par INSERT ... SELECT (des millions de lignes en quelques secondes) puis un mélange recherche / disponibilité /
+// avis / réservation est envoyé à débit constant. Les rapports (JSON des percentiles + journal HdrHistogram)
+// sont écrits dans target/load-reports/open-model-<label>.* pour être comparés d'un commit à l'autre.
+// Lancement (la base en mémoire occupe le tas du test, d'où -DargLine):
+//   mvn test -Dgroups=benchmark -Dsurefire.excludedGroups= -Dtest=OpenModelLoadTest -DargLine=-Xmx3g
+//            [-Dload.rate=200 -Dload.duration=30 -Dload.reservations=1000000 -Dload.label=$(git rev-parse --short HEAD)]
+@Tag("benchmark")
+class OpenModelLoadTest {
+
+    private static final int ATTRACTIONS = Integer.getInteger("load.attractions", 10_000);
+    private static final int RESERVATIONS = Integer.getInteger("load.reservations", 1_000_000);
+    private static final int REVIEWS = Integer.getInteger("load.reviews", 1_000_000);
+    private static final int RATE = Integer.getInteger("load.rate", 200);
+    private static final int WARMUP_SECONDS = Integer.getInteger("load.warmup", 10);
+    private static final int DURATION_SECONDS = Integer.getInteger("load.duration", 30);
+    private static final String LABEL = System.getProperty("load.label", "latest");
+    private static final Path REPORT_DIR = Paths.get("target", "load-reports");
+
+    private static final String[] CITIES = {"Tunis", "Sousse", "Sfax", "Nabeul", "Bizerte", "Kairouan",
+        "Monastir", "Tozeur", "Djerba", "Tabarka"};
+    // Réservations futures (places encore ouvertes) sur les BOOKING_DAYS prochains jours
+    private static final int BOOKING_DAYS = 60;
+    private static final int SEED_CHUNK = 50_000;
+
+    private final AtomicLong touristSequence = new AtomicLong();
+
+    @Test
+    void mixedTrafficAtConstantArrivalRate() throws IOException {
+        // Journal des sessions Hibernate coupé: écrit à chaque requête, il mesurerait la console plutôt que le service
+        String[] args = {
+            "--server.port=0",
+            "--spring.datasource.url=jdbc:h2:mem:load_open_model;MODE=MySQL;DB_CLOSE_DELAY=-1",
+            "--spring.jpa.properties.hibernate.generate_statistics=false",
+            "--logging.level.root=WARN"
+        };
+
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(AttractionsServiceApplication.class)
+                .profiles("test")
+                .run(args)) {
+            long seedStart = System.nanoTime();
+            seed(context);
+            Duration seedTime = Duration.ofNanos(System.nanoTime() - seedStart);
+
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            OpenModelLoadGenerator generator = mix(new OpenModelLoadGenerator("http://localhost:" + port));
+            generator.run(RATE, Duration.ofSeconds(WARMUP_SECONDS));
+            Map<String, Result> results = generator.run(RATE, Duration.ofSeconds(DURATION_SECONDS));
+
+            print(results, seedTime, System.out);
+            writeReports(results);
+
+            Result all = results.get("all");
+            assertThat(all.histogram.getTotalCount()).isPositive();
+            assertThat(all.errors).isLessThan(all.requests() / 100 + 1);
+        }
+    }
+
+    // Mélange de trafic d'un site touristique: surtout des lectures, quelques écritures
+    private OpenModelLoadGenerator mix(OpenModelLoadGenerator generator) {
+        return generator
+            .operation("search", 25, random -> HttpRequest.newBuilder(generator.uri("/attractions/search?city="
+                + CITIES[random.nextInt(CITIES.length)] + "&category=" + randomCategory(random) + "&size=20")))
+            .operation("quick-search", 15, random -> HttpRequest.newBuilder(generator.uri("/attractions/search/quick?query="
+                + CITIES[random.nextInt(CITIES.length)])))
+            .operation("availability", 25, random -> HttpRequest.newBuilder(generator.uri("/reservations/availability/"
+                + randomAttraction(random) + "?date=" + randomBookingDate(random))))
+            .operation("reviews", 20, random -> HttpRequest.newBuilder(generator.uri("/reviews/attraction/"
+                + randomAttraction(random) + "/paginated?size=10")))
+            .operation("booking", 10, random -> post(generator, "/reservations", String.format(
+                "{\"attractionId\":%d,\"touristId\":\"load-%d\",\"touristName\":\"Touriste\"," +
+                "\"touristEmail\":\"load@example.com\",\"visitDate\":\"%s\",\"visitTime\":\"MORNING\",\"numberOfPeople\":%d}",
+                randomAttraction(random), touristSequence.incrementAndGet(), randomBookingDate(random), 1 + random.nextInt(4))))
+            .operation("review", 5, random -> post(generator, "/reviews", String.format(
+                "{\"attractionId\":%d,\"touristId\":\"load-%d\",\"touristName\":\"Touriste\",\"rating\":%d," +
+                "\"title\":\"Visite\",\"comment\":\"Très belle visite\"}",
+                randomAttraction(random), touristSequence.incrementAndGet(), 1 + random.nextInt(5))));
+    }
+
+    private HttpRequest.Builder post(OpenModelLoadGenerator generator, String path, String json) {
+        return HttpRequest.newBuilder(generator.uri(path))
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(json));
+    }
+
+    private long randomAttraction(ThreadLocalRandom random) {
+        return 1 + random.nextInt(ATTRACTIONS);
+    }
+
+    private String randomCategory(ThreadLocalRandom random) {
+        return Category.values()[random.nextInt(Category.values().length)].name();
+    }
+
+    private LocalDate randomBookingDate(ThreadLocalRandom random) {
+        return LocalDate.now().plusDays(1 + random.nextInt(BOOKING_DAYS));
+    }
+
+    // Remplissage en SQL ensembliste, puis mêmes étapes qu'après un import en masse: daily_occupancy
+    // et index en mémoire reconstruits par le service lui-même
+    private void seed(ConfigurableApplicationContext context) {
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+
+        insertRange(jdbcTemplate, "INSERT INTO attractions (name, description, category, latitude, longitude, city, country, " +
+            "entry_price, opening_time, closing_time, max_capacity, rating, total_reviews, is_active, is_featured, " +
+            "current_visitors) " +
+            "SELECT 'Attraction ' || X, 'Site touristique numéro ' || X, " + caseOf(Category.values()) + ", " +
+            "30 + MOD(X, 700) / 100.0, 8 + MOD(X, 300) / 100.0, " + caseOf(CITIES) + ", 'Tunisie', " +
+            "MOD(X, 30), TIME '09:00:00', TIME '18:00:00', 500 + MOD(X, 1500), 0, 0, TRUE, MOD(X, 50) = 0, 0 " +
+            "FROM SYSTEM_RANGE(?, ?)", ATTRACTIONS);
+
+        // Historique (visites passées) et 10 % de réservations confirmées à venir
+        insertRange(jdbcTemplate, "INSERT INTO reservations (reservation_code, attraction_id, tourist_id, tourist_name, " +
+            "tourist_email, visit_date, visit_time, reservation_time, number_of_people, status, total_price) " +
+            "SELECT 'SEED-' || X, MOD(X, " + ATTRACTIONS + ") + 1, 'seed-' || MOD(X, 100000), 'Touriste', " +
+            "'seed@example.com', " +
+            "CASE WHEN MOD(X, 10) = 0 THEN DATEADD('DAY', 1 + MOD(X / 10, " + BOOKING_DAYS + "), CURRENT_DATE) " +
+            "ELSE DATEADD('DAY', -1 - MOD(X, 730), CURRENT_DATE) END, 'MORNING', " +
+            "DATEADD('DAY', -800 + MOD(X, 790), CURRENT_TIMESTAMP), 1 + MOD(X, 4), " +
+            "CASE WHEN MOD(X, 10) = 0 THEN 'CONFIRMED' WHEN MOD(X, 10) = 1 THEN 'CANCELLED' ELSE 'COMPLETED' END, " +
+            "10.0 * (1 + MOD(X, 4)) " +
+            "FROM SYSTEM_RANGE(?, ?)", RESERVATIONS);
+
+        insertRange(jdbcTemplate, "INSERT INTO reviews (attraction_id, tourist_id, tourist_name, tourist_country, rating, " +
+            "title, comment, review_date, visit_date, is_verified_visit, helpful_count, is_edited) " +
+            "SELECT MOD(X, " + ATTRACTIONS + ") + 1, 'seed-' || X, 'Touriste', 'Tunisie', 1 + MOD(X * 7, 5), " +
+            "'Avis ' || X, 'Commentaire de visite numéro ' || X, DATEADD('MINUTE', -MOD(X, 1000000), CURRENT_TIMESTAMP), " +
+            "DATEADD('DAY', -1 - MOD(X, 730), CURRENT_DATE), MOD(X, 3) = 0, MOD(X, 20), FALSE " +
+            "FROM SYSTEM_RANGE(?, ?)", REVIEWS);
+
+        // Compteurs de notes dénormalisés en une seule passe groupée sur reviews
+        jdbcTemplate.update("MERGE INTO attractions a USING (SELECT attraction_id, " +
+            "SUM(CASE WHEN rating = 1 THEN 1 ELSE 0 END) c1, SUM(CASE WHEN rating = 2 THEN 1 ELSE 0 END) c2, " +
+            "SUM(CASE WHEN rating = 3 THEN 1 ELSE 0 END) c3, SUM(CASE WHEN rating = 4 THEN 1 ELSE 0 END) c4, " +
+            "SUM(CASE WHEN rating = 5 THEN 1 ELSE 0 END) c5, COUNT(*) total, SUM(rating) rating_sum " +
+            "FROM reviews GROUP BY attraction_id) r ON a.id = r.attraction_id " +
+            "WHEN MATCHED THEN UPDATE SET rating_count_1 = r.c1, rating_count_2 = r.c2, rating_count_3 = r.c3, " +
+            "rating_count_4 = r.c4, rating_count_5 = r.c5, total_reviews = r.total, rating_sum = r.rating_sum, " +
+            "rating = CAST(r.rating_sum AS DOUBLE) / r.total");
+        // Attractions sans avis (petits volumes): compteurs à zéro plutôt que NULL
+        context.getBean(RatingCountersRebuildJob.class).backfillMissingCounters();
+        context.getBean(DailyOccupancyReconciliationJob.class).backfillIfEmpty();
+        context.publishEvent(new AttractionChangedEvent(null, ChangeType.BULK_IMPORTED));
+    }
+
+    // Un INSERT ... SELECT par tranche de SEED_CHUNK lignes, validé aussitôt (auto-commit): le journal
+    // d'annulation de H2 reste borné quel que soit le volume
+    private void insertRange(JdbcTemplate jdbcTemplate, String sql, int rows) {
+        for (int from = 1; from <= rows; from += SEED_CHUNK) {
+            jdbcTemplate.update(sql, from, Math.min(rows, from + SEED_CHUNK - 1));
+        }
+    }
+
+    // CASE MOD(X, n) WHEN 0 THEN 'v0' ... END: valeurs réparties uniformément sur les lignes générées
+    private String caseOf(Object[] values) {
+        StringBuilder sql = new StringBuilder("CASE MOD(X, ").append(values.length).append(")");
+        for (int i = 0; i < values.length; i++) {
+            sql.append(" WHEN ").append(i).append(" THEN '").append(values[i]).append("'");
+        }
+        return sql.append(" END").toString();
+    }
+
+    private void print(Map<String, Result> results, Duration seedTime, PrintStream out) {
+        out.printf("📈 Charge en modèle ouvert: %d req/s pendant %d s (%d attractions, %d réservations, %d avis, " +
+            "remplissage %d s)%n", RATE, DURATION_SECONDS, ATTRACTIONS, RESERVATIONS, REVIEWS, seedTime.toSeconds());
+        out.printf("   %-14s %9s %9s %9s %9s %9s %9s %9s%n",
+            "opération", "requêtes", "req/s", "p50 ms", "p90 ms", "p99 ms", "max ms", "erreurs");
+        results.forEach((name, result) -> out.printf("   %-14s %9d %9.1f %9.2f %9.2f %9.2f %9.2f %9d%n",
+            name, result.requests(), result.throughput(), result.percentileMillis(50), result.percentileMillis(90),
+            result.percentileMillis(99), result.histogram.getMaxValue() / 1e6, result.errors));
+    }
+
+    // JSON à clés ordonnées (diff lisible entre deux commits) + journal HdrHistogram complet par opération
+    private void writeReports(Map<String, Result> results) throws IOException {
+        Files.createDirectories(REPORT_DIR);
+
+        Map<String, Object> scenario = new LinkedHashMap<>();
+        scenario.put("ratePerSecond", RATE);
+        scenario.put("warmupSeconds", WARMUP_SECONDS);
+        scenario.put("durationSeconds", DURATION_SECONDS);
+        scenario.put("attractions", ATTRACTIONS);
+        scenario.put("reservations", RESERVATIONS);
+        scenario.put("reviews", REVIEWS);
+        scenario.put("jdk", Runtime.version().toString());
+        scenario.put("processors", Runtime.getRuntime().availableProcessors());
+
+        Map<String, Object> operations = new LinkedHashMap<>();
+        results.forEach((name, result) -> {
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("requests", result.requests());
+            summary.put("errors", result.errors);
+            summary.put("throughputPerSecond", round(result.throughput()));
+            summary.put("meanMs", round(result.histogram.getMean() / 1e6));
+            summary.put("p50Ms", round(result.percentileMillis(50)));
+            summary.put("p90Ms", round(result.percentileMillis(90)));
+            summary.put("p99Ms", round(result.percentileMillis(99)));
+            summary.put("p999Ms", round(result.percentileMillis(99.9)));
+            summary.put("maxMs", round(result.histogram.getMaxValue() / 1e6));
+            operations.put(name, summary);
+        });
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("label", LABEL);
+        report.put("scenario", scenario);
+        report.put("operations", operations);
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT)
+            .writeValue(REPORT_DIR.resolve("open-model-" + LABEL + ".json").toFile(), report);
+
+        try (PrintStream log = new PrintStream(REPORT_DIR.resolve("open-model-" + LABEL + ".hlog").toFile())) {
+            HistogramLogWriter writer = new HistogramLogWriter(log);
+            writer.outputLogFormatVersion();
+            writer.outputLegend();
+            results.forEach((name, result) -> {
+                result.histogram.setTag(name);
+                writer.outputIntervalHistogram(result.histogram);
+            });
+        }
+    }
+
+    private double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+}
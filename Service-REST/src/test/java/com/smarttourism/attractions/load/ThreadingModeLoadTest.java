@@ -0,0 +1,216 @@
+package com.smarttourism.attractions.load;
+
+import com.smarttourism.attractions.AttractionsServiceApplication;
+import com.smarttourism.attractions.Entities.Category;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import javax.sql.DataSource;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Compare le pool de threads Tomcat classique et le profil virtual-threads sous la même charge HTTP:
+// moitié de lectures servies par le cache, moitié de lectures qui gardent une connexion pendant DB_LATENCY_MS
+// (latence MySQL simulée). Même pool Hikari et même plafond de threads Tomcat dans les deux modes.
+// Le mode virtuel n'est mesuré que sur JDK 21+.
+// Lancement: mvn test -Dgroups=benchmark -Dsurefire.excludedGroups= -Dtest=ThreadingModeLoadTest
+@Tag("benchmark")
+class ThreadingModeLoadTest {
+
+    private static final int ATTRACTIONS = 100;
+    private static final int CLIENTS = 256;
+    private static final int TOMCAT_THREADS = 64;
+    private static final int POOL_SIZE = 16;
+    private static final long DB_LATENCY_MS = 10;
+    private static final long WARMUP_SECONDS = 3;
+    private static final long MEASURE_SECONDS = 10;
+
+    @Test
+    void platformVersusVirtualThreads() throws Exception {
+        List<String> report = new ArrayList<>();
+        report.add(String.format("%-10s %10s %10s %10s %10s %8s", "mode", "requêtes", "req/s", "p50 ms", "p99 ms", "erreurs"));
+        report.add(run("platform").format());
+        if (Runtime.version().feature() >= 21) {
+            report.add(run("virtual").format());
+        } else {
+            report.add(String.format("%-10s ignoré: JDK %d, threads virtuels à partir du JDK 21",
+                "virtual", Runtime.version().feature()));
+        }
+
+        System.out.printf("🧵 Modes d'exécution (%d clients, %d threads Tomcat, pool de %d connexions, latence base %d ms)%n",
+            CLIENTS, TOMCAT_THREADS, POOL_SIZE, DB_LATENCY_MS);
+        report.forEach(line -> System.out.println("   " + line));
+    }
+
+    private Result run(String mode) throws Exception {
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(AttractionsServiceApplication.class, SlowDatabase.class)
+            .profiles("virtual".equals(mode) ? new String[] {"test", "virtual-threads"} : new String[] {"test"});
+        // Arguments de ligne de commande: prioritaires sur application.properties et les fichiers de profil.
+        // Journal des sessions Hibernate coupé: écrit à chaque requête, il mesurerait la console plutôt que le service
+        String[] args = {
+            "--server.port=0",
+            "--spring.datasource.url=jdbc:h2:mem:load_" + mode + ";MODE=MySQL;DB_CLOSE_DELAY=-1",
+            "--spring.datasource.hikari.maximum-pool-size=" + POOL_SIZE,
+            "--spring.datasource.hikari.minimum-idle=" + POOL_SIZE,
+            "--server.tomcat.threads.max=" + TOMCAT_THREADS,
+            "--spring.jpa.properties.hibernate.generate_statistics=false",
+            "--logging.level.root=WARN"
+        };
+
+        try (ConfigurableApplicationContext context = builder.run(args)) {
+            seed(context.getBean(JdbcTemplate.class));
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            String baseUrl = "http://localhost:" + port;
+
+            load(baseUrl, TimeUnit.SECONDS.toNanos(WARMUP_SECONDS));
+            Result result = load(baseUrl, TimeUnit.SECONDS.toNanos(MEASURE_SECONDS));
+            result.mode = mode;
+            assertThat(result.latencies.length).isPositive();
+            return result;
+        }
+    }
+
+    // Charge en boucle fermée: chaque client enchaîne ses requêtes pendant la durée donnée
+    private Result load(String baseUrl, long durationNanos) throws Exception {
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        ExecutorService executor = Executors.newFixedThreadPool(CLIENTS);
+        long deadline = System.nanoTime() + durationNanos;
+        String visitDate = LocalDate.now().plusDays(7).toString();
+
+        List<Future<long[]>> workers = new ArrayList<>();
+        for (int c = 0; c < CLIENTS; c++) {
+            workers.add(executor.submit(() -> {
+                long[] latencies = new long[1024];
+                int count = 0;
+                int errors = 0;
+                while (System.nanoTime() < deadline) {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    long id = 1 + random.nextInt(ATTRACTIONS);
+                    String path = random.nextBoolean()
+                        ? (random.nextBoolean() ? "/attractions/top-rated" : "/attractions/categories")
+                        : "/reservations/availability/" + id + "?date=" + visitDate;
+                    long start = System.nanoTime();
+                    HttpResponse<Void> response = client.send(
+                        HttpRequest.newBuilder(URI.create(baseUrl + path)).GET().build(),
+                        HttpResponse.BodyHandlers.discarding());
+                    long elapsed = System.nanoTime() - start;
+                    if (response.statusCode() != 200) {
+                        errors++;
+                        continue;
+                    }
+                    if (count == latencies.length) {
+                        latencies = Arrays.copyOf(latencies, count * 2);
+                    }
+                    latencies[count++] = elapsed;
+                }
+                long[] result = Arrays.copyOf(latencies, count + 1);
+                result[count] = errors;
+                return result;
+            }));
+        }
+
+        List<long[]> perClient = new ArrayList<>();
+        int errors = 0;
+        for (Future<long[]> worker : workers) {
+            long[] result = worker.get();
+            errors += (int) result[result.length - 1];
+            perClient.add(Arrays.copyOf(result, result.length - 1));
+        }
+        executor.shutdown();
+        assertThat(executor.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+
+        long[] all = perClient.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+        return new Result(all, errors, durationNanos);
+    }
+
+    private void seed(JdbcTemplate jdbcTemplate) {
+        List<Object[]> rows = new ArrayList<>(ATTRACTIONS);
+        for (int i = 0; i < ATTRACTIONS; i++) {
+            rows.add(new Object[] {"Attraction " + i, Category.values()[i % Category.values().length].name(),
+                36.8, 10.18, "Ville " + (i % 10), 1_000, 4.0 + (i % 10) / 10.0});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO attractions (name, category, latitude, longitude, city, max_capacity, " +
+            "rating, is_active, is_featured, current_visitors, total_reviews) VALUES (?, ?, ?, ?, ?, ?, ?, true, false, 0, 0)",
+            rows);
+    }
+
+    private static final class Result {
+        private final long[] latencies;
+        private final int errors;
+        private final long durationNanos;
+        private String mode;
+
+        private Result(long[] latencies, int errors, long durationNanos) {
+            this.latencies = latencies;
+            this.errors = errors;
+            this.durationNanos = durationNanos;
+        }
+
+        private double percentileMillis(double percentile) {
+            int index = (int) Math.min(latencies.length - 1, Math.ceil(percentile * latencies.length) - 1);
+            return latencies[Math.max(0, index)] / 1e6;
+        }
+
+        private String format() {
+            return String.format("%-10s %10d %10.0f %10.2f %10.2f %8d", mode, latencies.length,
+                latencies.length / (durationNanos / 1e9), percentileMillis(0.50), percentileMillis(0.99), errors);
+        }
+    }
+
+    // Latence réseau + requête MySQL simulée: chaque connexion empruntée au pool est gardée DB_LATENCY_MS de plus.
+    // Source explicite de l'application (pas de @Configuration): ignorée par le scan des autres tests
+    static class SlowDatabase {
+
+        @Bean
+        static BeanPostProcessor slowDataSourcePostProcessor() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (!(bean instanceof DataSource) || bean instanceof SlowDataSource) {
+                        return bean;
+                    }
+                    return new SlowDataSource((DataSource) bean);
+                }
+            };
+        }
+    }
+
+    static class SlowDataSource extends DelegatingDataSource {
+
+        SlowDataSource(DataSource target) {
+            super(target);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            Connection connection = super.getConnection();
+            try {
+                Thread.sleep(DB_LATENCY_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return connection;
+        }
+    }
+}
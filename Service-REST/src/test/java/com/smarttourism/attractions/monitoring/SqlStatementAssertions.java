@@ -0,0 +1,30 @@
+package com.smarttourism.attractions.monitoring;
+
+import java.util.function.Supplier;
+
+// Verrouille le nombre de requêtes SQL d'un appel de service ou d'endpoint. Le DataSource doit être enveloppé:
+// @Import(SqlMonitoringConfig.class) dans les tests @DataJpaTest. Vider le contexte de persistance avant
+// l'appel (flush + clear), sinon les entités déjà chargées masquent les requêtes.
+public final class SqlStatementAssertions {
+
+    private SqlStatementAssertions() {
+    }
+
+    public static int countStatements(Runnable call) {
+        try (SqlStatementCounter.Scope scope = SqlStatementCounter.open()) {
+            call.run();
+            return scope.getStatements();
+        }
+    }
+
+    public static <T> T assertStatements(int expected, Supplier<T> call) {
+        try (SqlStatementCounter.Scope scope = SqlStatementCounter.open()) {
+            T result = call.get();
+            if (scope.getStatements() != expected) {
+                throw new AssertionError(String.format("Requêtes SQL: %d attendues, %d exécutées (%d ms en base)",
+                    expected, scope.getStatements(), scope.getNanos() / 1_000_000));
+            }
+            return result;
+        }
+    }
+}
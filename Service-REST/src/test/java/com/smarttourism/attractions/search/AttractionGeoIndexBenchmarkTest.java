@@ -0,0 +1,83 @@
+package com.smarttourism.attractions.search;
+
+import com.smarttourism.attractions.Entities.Attraction;
+import com.smarttourism.attractions.Entities.Category;
+import com.smarttourism.attractions.repository.AttractionRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Compare l'index spatial en mémoire à la requête SQL haversine par force brute.
+// Lancement: mvn test -Dgroups=benchmark -Dsurefire.excludedGroups=
+@Tag("benchmark")
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import(AttractionGeoIndex.class)
+class AttractionGeoIndexBenchmarkTest {
+
+    private static final int ATTRACTIONS = 20_000;
+    private static final int QUERIES = 100;
+    private static final double RADIUS_KM = 2.0;
+    private static final int LIMIT = 20;
+
+    @Autowired
+    private AttractionGeoIndex attractionGeoIndex;
+
+    @Autowired
+    private AttractionRepository attractionRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void spatialIndexVersusBruteForceSql() {
+        Random random = new Random(7);
+        List<Object[]> rows = new ArrayList<>(ATTRACTIONS);
+        for (int i = 0; i < ATTRACTIONS; i++) {
+            rows.add(new Object[] {"Attraction " + i, Category.values()[i % Category.values().length].name(),
+                30.2 + random.nextDouble() * 7.0, 7.6 + random.nextDouble() * 3.8, "Ville " + (i % 50)});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO attractions (name, category, latitude, longitude, city, is_active, " +
+            "is_featured, current_visitors, rating, total_reviews) VALUES (?, ?, ?, ?, ?, true, false, 0, 0, 0)", rows);
+        attractionGeoIndex.rebuild();
+
+        double[][] queries = new double[QUERIES][];
+        for (int i = 0; i < QUERIES; i++) {
+            queries[i] = new double[] {30.2 + random.nextDouble() * 7.0, 7.6 + random.nextDouble() * 3.8};
+        }
+
+        long sqlStart = System.nanoTime();
+        List<List<Long>> sqlResults = new ArrayList<>();
+        for (double[] query : queries) {
+            sqlResults.add(attractionRepository.findNearbyBruteForce(query[0], query[1], RADIUS_KM, null, LIMIT)
+                .stream().map(Attraction::getId).collect(Collectors.toList()));
+        }
+        long sqlNanos = System.nanoTime() - sqlStart;
+
+        long indexStart = System.nanoTime();
+        List<List<Long>> indexResults = new ArrayList<>();
+        for (double[] query : queries) {
+            indexResults.add(attractionGeoIndex.nearest(query[0], query[1], RADIUS_KM, null, LIMIT)
+                .stream().map(SpatialGridIndex.Neighbor::getId).collect(Collectors.toList()));
+        }
+        long indexNanos = System.nanoTime() - indexStart;
+
+        System.out.printf("📍 Proximité (%d attractions, rayon %.1f km, %d requêtes)%n", ATTRACTIONS, RADIUS_KM, QUERIES);
+        System.out.printf("   SQL force brute : %8.3f ms/requête%n", sqlNanos / 1e6 / QUERIES);
+        System.out.printf("   Index spatial   : %8.3f ms/requête%n", indexNanos / 1e6 / QUERIES);
+
+        assertThat(indexResults).isEqualTo(sqlResults);
+    }
+}
@@ -0,0 +1,95 @@
+package com.smarttourism.attractions.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InvertedIndexTest {
+
+    private InvertedIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new InvertedIndex(new TextAnalyzer(3, Set.of()));
+        index.index(1L, fields("Musée du Bardo", "Tunis", "Collection de mosaïques romaines"));
+        index.index(2L, fields("Amphithéâtre d'El Jem", "El Jem", "Amphithéâtre romain classé"));
+        index.index(3L, fields("Grande Mosquée de Kairouan", "Kairouan", "Mosquée historique"));
+        index.index(4L, fields("Île de Djerba", "Djerba", "Plages et synagogue de la Ghriba"));
+        index.index(5L, fields("Thermes d'Antonin", "Carthage", "Ruines romaines près de la mosquée"));
+    }
+
+    @Test
+    void matchesWithoutAccentsAndOnWordPrefixes() {
+        assertThat(index.search("musee", 10)).extracting(InvertedIndex.Hit::getDocumentId).containsExactly(1L);
+        assertThat(index.search("amphitheatre", 10)).extracting(InvertedIndex.Hit::getDocumentId).containsExactly(2L);
+        assertThat(index.search("mosaiq", 10)).extracting(InvertedIndex.Hit::getDocumentId).containsExactly(1L);
+        assertThat(index.search("carth", 10)).extracting(InvertedIndex.Hit::getDocumentId).containsExactly(5L);
+    }
+
+    @Test
+    void foldsCommonTransliterationVariants() {
+        assertThat(index.search("Qairouan", 10)).extracting(InvertedIndex.Hit::getDocumentId).containsExactly(3L);
+        assertThat(index.search("Jerba", 10)).extracting(InvertedIndex.Hit::getDocumentId).containsExactly(4L);
+    }
+
+    @Test
+    void ranksNameMatchesAboveDescriptionMatches() {
+        assertThat(index.search("mosquee", 10)).extracting(InvertedIndex.Hit::getDocumentId).containsExactly(3L, 5L);
+    }
+
+    @Test
+    void requiresEveryQueryTerm() {
+        assertThat(index.search("mosquee kairouan", 10)).extracting(InvertedIndex.Hit::getDocumentId).containsExactly(3L);
+        assertThat(index.search("mosquee tunis", 10)).isEmpty();
+    }
+
+    @Test
+    void filterIsAppliedBeforeRankingAndLimitKeepsTheBestHits() {
+        List<InvertedIndex.Hit> all = index.search("romain", 10);
+        assertThat(all).extracting(InvertedIndex.Hit::getDocumentId).containsExactlyInAnyOrder(1L, 2L, 5L);
+
+        assertThat(index.search("romain", 2)).isEqualTo(all.subList(0, 2));
+        Long best = all.get(0).getDocumentId();
+        assertThat(index.search("romain", 1, id -> id != best)).isEqualTo(all.subList(1, 2));
+        assertThat(index.search("romain", 10, id -> false)).isEmpty();
+    }
+
+    @Test
+    void reindexingAndRemovalAreIncremental() {
+        index.index(1L, fields("Musée national du Bardo", "Le Bardo", "Mosaïques"));
+        assertThat(index.search("tunis", 10)).isEmpty();
+        assertThat(index.search("national", 10)).extracting(InvertedIndex.Hit::getDocumentId).containsExactly(1L);
+
+        index.remove(1L);
+        assertThat(index.search("bardo", 10)).isEmpty();
+        assertThat(index.size()).isEqualTo(4);
+    }
+
+    @Test
+    void freedSlotsAreReusedWithoutMixingDocuments() {
+        // Le document 6 reprend la place libérée par le 2, au milieu des listes de "romain" et "mosquee"
+        index.remove(2L);
+        index.index(6L, fields("Mosquée romaine", "Tunis", "Ruines"));
+        index.index(7L, fields("Forum romain", "Dougga", "Ruines romaines"));
+
+        assertThat(index.search("romain", 10)).extracting(InvertedIndex.Hit::getDocumentId)
+            .containsExactlyInAnyOrder(1L, 5L, 6L, 7L);
+        assertThat(index.search("mosquee romain", 10)).extracting(InvertedIndex.Hit::getDocumentId)
+            .containsExactlyInAnyOrder(5L, 6L);
+        assertThat(index.search("ruines tunis", 10)).extracting(InvertedIndex.Hit::getDocumentId)
+            .containsExactly(6L);
+        assertThat(index.search("amphitheatre", 10)).isEmpty();
+        assertThat(index.size()).isEqualTo(6);
+    }
+
+    private static List<InvertedIndex.Field> fields(String name, String city, String description) {
+        return List.of(
+            new InvertedIndex.Field(name, 3.0f),
+            new InvertedIndex.Field(city, 2.0f),
+            new InvertedIndex.Field(description, 1.0f)
+        );
+    }
+}
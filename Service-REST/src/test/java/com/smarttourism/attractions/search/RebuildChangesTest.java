@@ -0,0 +1,56 @@
+package com.smarttourism.attractions.search;
+
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RebuildChangesTest {
+
+    @Test
+    void changesDuringARebuildAreReplayedBeforeTheSwap() {
+        RebuildChanges changes = new RebuildChanges();
+        List<String> applied = new ArrayList<>();
+
+        // Hors reconstruction: rien n'est retenu
+        changes.record(1L);
+
+        changes.start();
+        changes.record(2L);
+        changes.record(3L);
+        changes.record(2L);
+        changes.publish(id -> {
+            applied.add("replay " + id);
+            // Modification validée pendant le rejeu: rejouée elle aussi, avant la publication
+            if (id == 2L) {
+                changes.record(4L);
+            }
+        }, () -> applied.add("swap"));
+
+        assertThat(applied).containsExactlyInAnyOrder("replay 2", "replay 3", "replay 4", "swap");
+        assertThat(applied).last().isEqualTo("swap");
+
+        // Après publication, les écouteurs écrivent directement dans le nouvel index
+        applied.clear();
+        changes.record(5L);
+        changes.start();
+        changes.publish(id -> applied.add("replay " + id), () -> applied.add("swap"));
+        assertThat(applied).containsExactly("swap");
+    }
+
+    @Test
+    void abortedRebuildStopsRecording() {
+        RebuildChanges changes = new RebuildChanges();
+        List<Long> replayed = new ArrayList<>();
+
+        changes.start();
+        changes.record(1L);
+        changes.abort();
+        changes.record(2L);
+
+        changes.start();
+        changes.publish(replayed::add, () -> { });
+        assertThat(replayed).isEmpty();
+    }
+}
@@ -0,0 +1,64 @@
+package com.smarttourism.attractions.search;
+
+import org.junit.jupiter.api.Test;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RebuildRequestsTest {
+
+    @Test
+    void requestsDuringARebuildAreCoalescedIntoOneMore() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(2);
+        AtomicInteger rebuilds = new AtomicInteger();
+        RebuildRequests requests = new RebuildRequests("test-index", () -> {
+            rebuilds.incrementAndGet();
+            started.countDown();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            done.countDown();
+        });
+        try {
+            requests.request();
+            assertThat(started.await(10, TimeUnit.SECONDS)).isTrue();
+
+            // Trois imports validés pendant le parcours: une seule reconstruction suivante
+            requests.request();
+            requests.request();
+            requests.request();
+            release.countDown();
+
+            assertThat(done.await(10, TimeUnit.SECONDS)).isTrue();
+            Thread.sleep(200);
+            assertThat(rebuilds).hasValue(2);
+        } finally {
+            requests.shutdown();
+        }
+    }
+
+    @Test
+    void failedRebuildDoesNotBlockLaterRequests() throws Exception {
+        CountDownLatch done = new CountDownLatch(2);
+        RebuildRequests requests = new RebuildRequests("test-index", () -> {
+            done.countDown();
+            if (done.getCount() == 1) {
+                throw new IllegalStateException("base indisponible");
+            }
+        });
+        try {
+            requests.request();
+            Thread.sleep(200);
+            requests.request();
+            assertThat(done.await(10, TimeUnit.SECONDS)).isTrue();
+        } finally {
+            requests.shutdown();
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.smarttourism.attractions.search;
+
+import com.smarttourism.attractions.repository.ReviewRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Compare l'index inversé des avis (BM25) au LIKE sur titre et commentaire.
+// Lancement: mvn test -Dgroups=benchmark -Dsurefire.excludedGroups=
+@Tag("benchmark")
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import(ReviewSearchIndex.class)
+class ReviewSearchBenchmarkTest {
+
+    private static final int REVIEWS = 100_000;
+    private static final int VOCABULARY = 5_000;
+    private static final int WORDS_PER_COMMENT = 30;
+    private static final int QUERIES = 50;
+    private static final int LIMIT = 20;
+
+    @Autowired
+    private ReviewSearchIndex reviewSearchIndex;
+
+    @Autowired
+    private ReviewRepository reviewRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void invertedIndexVersusLike() {
+        jdbcTemplate.update("INSERT INTO attractions (name, category, latitude, longitude, city, is_active, " +
+            "is_featured, current_visitors, rating, total_reviews) VALUES ('Bardo', 'MUSEUM', 36.8, 10.1, 'Tunis', " +
+            "true, false, 0, 0, 0)");
+        Long attractionId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM attractions", Long.class);
+
+        // Fréquences de mots à peu près zipfiennes: quelques mots très courants, une longue traîne de mots rares
+        Random random = new Random(11);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>(REVIEWS);
+        for (int i = 0; i < REVIEWS; i++) {
+            StringBuilder comment = new StringBuilder();
+            for (int w = 0; w < WORDS_PER_COMMENT; w++) {
+                comment.append(word(random)).append(' ');
+            }
+            rows.add(new Object[] {attractionId, "touriste-" + i, 1 + i % 5, word(random) + " " + word(random),
+                comment.toString(), now, i % 3 == 0});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO reviews (attraction_id, tourist_id, tourist_name, rating, title, " +
+            "comment, review_date, is_verified_visit, helpful_count, is_edited) VALUES (?, ?, 'Touriste', ?, ?, ?, ?, ?, 0, false)",
+            rows);
+
+        long buildStart = System.nanoTime();
+        reviewSearchIndex.rebuild();
+        long buildNanos = System.nanoTime() - buildStart;
+
+        List<String> queries = new ArrayList<>();
+        for (int i = 0; i < QUERIES; i++) {
+            queries.add(i % 2 == 0 ? word(random) : word(random) + " " + word(random));
+        }
+
+        long likeStart = System.nanoTime();
+        for (String query : queries) {
+            reviewRepository.searchByText(query.split(" ")[0], null, null, null, null, PageRequest.of(0, LIMIT));
+        }
+        long likeNanos = System.nanoTime() - likeStart;
+
+        long indexStart = System.nanoTime();
+        int hits = 0;
+        for (String query : queries) {
+            hits += reviewSearchIndex.search(query, null, 4, null, null, LIMIT).size();
+        }
+        long indexNanos = System.nanoTime() - indexStart;
+
+        System.out.printf("🔎 Recherche d'avis (%d avis, %d requêtes, %d résultats max)%n", REVIEWS, QUERIES, LIMIT);
+        System.out.printf("   Construction de l'index : %8.0f ms%n", buildNanos / 1e6);
+        System.out.printf("   LIKE (un seul mot)      : %8.3f ms/requête%n", likeNanos / 1e6 / QUERIES);
+        System.out.printf("   Index inversé + filtre  : %8.3f ms/requête%n", indexNanos / 1e6 / QUERIES);
+
+        assertThat(hits).isPositive();
+    }
+
+    // Volume visé (plusieurs millions d'avis), sans base: mémoire retenue par l'index et temps de requête.
+    // Lancement avec un tas suffisant: -DargLine=-Xmx3g
+    @Test
+    void millionsOfReviewsInMemory() {
+        int documents = Integer.getInteger("benchmark.reviews", 3_000_000);
+        Random random = new Random(7);
+        long before = usedHeap();
+        long buildStart = System.nanoTime();
+        InvertedIndex index = new InvertedIndex(new TextAnalyzer(0, Set.of()));
+        StringBuilder comment = new StringBuilder();
+        for (long id = 1; id <= documents; id++) {
+            comment.setLength(0);
+            for (int w = 0; w < WORDS_PER_COMMENT; w++) {
+                comment.append(word(random)).append(' ');
+            }
+            index.index(id, List.of(
+                new InvertedIndex.Field(word(random) + " " + word(random), 2.0f),
+                new InvertedIndex.Field(comment.toString(), 1.0f)));
+        }
+        long buildNanos = System.nanoTime() - buildStart;
+        long retained = usedHeap() - before;
+
+        long queryStart = System.nanoTime();
+        int hits = 0;
+        for (int i = 0; i < QUERIES; i++) {
+            String query = i % 2 == 0 ? word(random) : word(random) + " " + word(random);
+            hits += index.search(query, LIMIT, id -> id % 5 == 0).size();
+        }
+        long queryNanos = System.nanoTime() - queryStart;
+
+        System.out.printf("🔎 Index des avis en mémoire (%d avis)%n", index.size());
+        System.out.printf("   Construction            : %8.0f ms%n", buildNanos / 1e6);
+        System.out.printf("   Tas retenu              : %8.0f Mo (%d octets/avis)%n",
+            retained / 1e6, retained / documents);
+        System.out.printf("   Requête filtrée         : %8.3f ms/requête%n", queryNanos / 1e6 / QUERIES);
+
+        assertThat(index.size()).isEqualTo(documents);
+        assertThat(hits).isPositive();
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static String word(Random random) {
+        int rank = (int) Math.min(VOCABULARY - 1, Math.floor(Math.pow(VOCABULARY, random.nextDouble())));
+        return "mot" + Integer.toString(rank, 36);
+    }
+}
@@ -0,0 +1,67 @@
+package com.smarttourism.attractions.search;
+
+import org.junit.jupiter.api.Test;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SpatialGridIndexTest {
+
+    private static final int POINTS = 5_000;
+
+    @Test
+    void nearestMatchesBruteForceScan() {
+        Random random = new Random(42);
+        double[][] points = new double[POINTS][];
+        SpatialGridIndex<String> index = new SpatialGridIndex<>(0.05);
+        for (int i = 0; i < POINTS; i++) {
+            points[i] = new double[] {30.0 + random.nextDouble() * 7.5, 7.5 + random.nextDouble() * 4.0};
+            index.put((long) i, points[i][0], points[i][1], i % 3 == 0 ? "MUSEUM" : "PARK");
+        }
+
+        for (int query = 0; query < 50; query++) {
+            double latitude = 30.0 + random.nextDouble() * 7.5;
+            double longitude = 7.5 + random.nextDouble() * 4.0;
+            double radiusKm = query % 2 == 0 ? 15.0 : Double.MAX_VALUE;
+
+            List<Long> expected = IntStream.range(0, POINTS)
+                    .filter(i -> i % 3 == 0)
+                    .filter(i -> distance(latitude, longitude, points[i]) <= radiusKm)
+                    .boxed()
+                    .sorted(Comparator.comparingDouble(i -> distance(latitude, longitude, points[i])))
+                    .limit(10)
+                    .map(Long::valueOf)
+                    .collect(Collectors.toList());
+
+            List<Long> actual = index.nearest(latitude, longitude, radiusKm, 10, "MUSEUM"::equals).stream()
+                    .map(SpatialGridIndex.Neighbor::getId)
+                    .collect(Collectors.toList());
+
+            assertThat(actual).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    void movedAndRemovedEntriesAreReflected() {
+        SpatialGridIndex<String> index = new SpatialGridIndex<>(0.05);
+        index.put(1L, 36.8065, 10.1815, "MUSEUM");
+        index.put(2L, 36.8531, 10.3231, "MONUMENT");
+
+        index.put(1L, 33.8076, 10.8451, "MUSEUM");
+        assertThat(index.nearest(36.8065, 10.1815, 2.0, 10, null)).isEmpty();
+        assertThat(index.nearest(33.80, 10.84, 2.0, 10, null))
+                .extracting(SpatialGridIndex.Neighbor::getId).containsExactly(1L);
+
+        index.remove(2L);
+        assertThat(index.size()).isEqualTo(1);
+        assertThat(index.nearest(36.85, 10.32, 50.0, 10, null)).isEmpty();
+    }
+
+    private static double distance(double latitude, double longitude, double[] point) {
+        return SpatialGridIndex.haversineKm(latitude, longitude, point[0], point[1]);
+    }
+}
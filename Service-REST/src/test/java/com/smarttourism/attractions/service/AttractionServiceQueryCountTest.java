@@ -0,0 +1,114 @@
+package com.smarttourism.attractions.service;
+
+import com.smarttourism.attractions.Entities.Attraction;
+import com.smarttourism.attractions.Entities.Category;
+import com.smarttourism.attractions.Entities.Location;
+import com.smarttourism.attractions.Entities.Review;
+import com.smarttourism.attractions.dto.AttractionDTO;
+import com.smarttourism.attractions.search.AttractionGeoIndex;
+import com.smarttourism.attractions.search.AttractionSearchIndex;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({AttractionService.class, AttractionSearchIndex.class, AttractionGeoIndex.class, AttractionStatistics.class, LiveVisitorCounters.class})
+class AttractionServiceQueryCountTest {
+
+    @Autowired
+    private AttractionService attractionService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    @Test
+    void listEndpointsUseAFixedNumberOfQueriesWhateverTheSize() {
+        seedAttractions(5);
+        long smallList = countStatements(() -> attractionService.getAllAttractions());
+
+        seedAttractions(45);
+        long largeList = countStatements(() -> attractionService.getAllAttractions());
+
+        assertThat(smallList).isEqualTo(largeList).isEqualTo(1);
+    }
+
+    @Test
+    void pagedEndpointsUseAFixedNumberOfQueriesWhateverThePageSize() {
+        seedAttractions(50);
+
+        long smallPage = countStatements(() -> attractionService.getAllAttractions(PageRequest.of(0, 5)));
+        long largePage = countStatements(() -> attractionService.getAllAttractions(PageRequest.of(0, 40)));
+
+        assertThat(smallPage).isEqualTo(largePage).isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    void ratingDistributionIsLoadedForEveryAttractionOfThePage() {
+        seedAttractions(3);
+
+        Page<AttractionDTO> page = attractionService.getAllAttractions(PageRequest.of(0, 10));
+
+        assertThat(page.getContent()).hasSize(3).allSatisfy(dto -> {
+            assertThat(dto.getRatingDistribution1()).isZero();
+            assertThat(dto.getRatingDistribution4()).isEqualTo(1);
+            assertThat(dto.getRatingDistribution5()).isEqualTo(2);
+        });
+    }
+
+    private long countStatements(Runnable call) {
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+        call.run();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private void seedAttractions(int count) {
+        for (int i = 0; i < count; i++) {
+            Attraction attraction = new Attraction();
+            attraction.setName("Attraction " + i);
+            attraction.setCategory(Category.MUSEUM);
+            attraction.setLocation(new Location(36.8, 10.18, "Rue " + i, "1000", "Tunis", "Tunisie"));
+            attraction.setRatingCount4(1);
+            attraction.setRatingCount5(2);
+            attraction.setRatingSum(14L);
+            attraction.setTotalReviews(3);
+            entityManager.persist(attraction);
+
+            for (int rating : List.of(4, 5, 5)) {
+                Review review = new Review();
+                review.setAttraction(attraction);
+                review.setTouristId("tourist_" + i + "_" + rating + "_" + System.nanoTime());
+                review.setTouristName("Touriste");
+                review.setRating(rating);
+                entityManager.persist(review);
+            }
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.smarttourism.attractions.service;
+
+import com.smarttourism.attractions.Entities.Attraction;
+import com.smarttourism.attractions.Entities.Category;
+import com.smarttourism.attractions.Entities.Location;
+import com.smarttourism.attractions.config.SqlMonitoringConfig;
+import com.smarttourism.attractions.event.AttractionChangedEvent;
+import com.smarttourism.attractions.event.AttractionChangedEvent.ChangeType;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import java.util.Map;
+
+import static com.smarttourism.attractions.monitoring.SqlStatementAssertions.assertStatements;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({SqlMonitoringConfig.class, AttractionStatistics.class})
+class AttractionStatisticsTest {
+
+    @Autowired
+    private AttractionStatistics statistics;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void snapshotIsBuiltInOneQueryThenServedWithoutQueries() {
+        entityManager.persist(attraction("Bardo", "Tunis", Category.MUSEUM));
+        entityManager.persist(attraction("Médina", "Tunis", Category.HISTORICAL));
+        entityManager.persist(attraction("Port El Kantaoui", "Sousse", Category.BEACH));
+        clearPersistenceContext();
+
+        Map<String, Object> built = assertStatements(1, statistics::rebuild);
+        Map<String, Object> served = assertStatements(0, statistics::snapshot);
+
+        assertThat(served).isSameAs(built);
+        assertThat(built).containsEntry("totalAttractions", 3L)
+            .containsEntry("totalCities", 2)
+            .containsEntry("totalCategories", 3)
+            .containsEntry("attractionsByCity", Map.of("Sousse", 1, "Tunis", 2))
+            .containsEntry("attractionsByCategory", Map.of("MUSEUM", 1, "HISTORICAL", 1, "BEACH", 1));
+        assertThat(built.get("cities")).asList().containsExactly("Sousse", "Tunis");
+    }
+
+    @Test
+    void structuralEventsUpdateTheCountsIncrementally() {
+        Attraction bardo = attraction("Bardo", "Tunis", Category.MUSEUM);
+        Attraction medina = attraction("Médina", "Tunis", Category.HISTORICAL);
+        entityManager.persist(bardo);
+        entityManager.persist(medina);
+        clearPersistenceContext();
+        Map<String, Object> before = statistics.rebuild();
+
+        Attraction carthage = attraction("Carthage", "Carthage", Category.HISTORICAL);
+        entityManager.persist(carthage);
+        entityManager.find(Attraction.class, bardo.getId()).setIsActive(false);
+        clearPersistenceContext();
+
+        assertStatements(1, () -> changed(carthage.getId(), ChangeType.CREATED));
+        assertStatements(1, () -> changed(bardo.getId(), ChangeType.DELETED));
+        Map<String, Object> after = statistics.snapshot();
+
+        assertThat(before).containsEntry("totalAttractions", 2L);
+        assertThat(after).containsEntry("totalAttractions", 2L)
+            .containsEntry("attractionsByCity", Map.of("Carthage", 1, "Tunis", 1))
+            .containsEntry("attractionsByCategory", Map.of("HISTORICAL", 2))
+            .containsEntry("totalCategories", 1);
+
+        // Une note ou une fréquentation ne touche ni villes ni catégories: aucune requête, même instantané
+        assertStatements(0, () -> changed(medina.getId(), ChangeType.RATING_CHANGED));
+        assertThat(statistics.snapshot()).isSameAs(after);
+    }
+
+    private Void changed(Long attractionId, ChangeType type) {
+        statistics.onAttractionChanged(new AttractionChangedEvent(attractionId, type));
+        return null;
+    }
+
+    private Attraction attraction(String name, String city, Category category) {
+        Attraction attraction = new Attraction();
+        attraction.setName(name);
+        attraction.setDescription("Description détaillée");
+        attraction.setCategory(category);
+        attraction.setMaxCapacity(100);
+        attraction.setLocation(new Location(36.8, 10.18, "Rue", "1000", city, "Tunisie"));
+        return attraction;
+    }
+
+    private void clearPersistenceContext() {
+        entityManager.flush();
+        entityManager.clear();
+    }
+}
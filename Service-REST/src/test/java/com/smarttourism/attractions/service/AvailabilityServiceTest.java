@@ -0,0 +1,179 @@
+package com.smarttourism.attractions.service;
+
+import com.smarttourism.attractions.config.CacheConfig;
+import com.smarttourism.attractions.Entities.Attraction;
+import com.smarttourism.attractions.Entities.Category;
+import com.smarttourism.attractions.Entities.Location;
+import com.smarttourism.attractions.dto.AvailabilityCalendarDTO;
+import com.smarttourism.attractions.dto.ReservationDTO;
+import com.smarttourism.attractions.dto.requests.CreateReservationRequest;
+import com.smarttourism.attractions.exception.ValidationException;
+import com.smarttourism.attractions.repository.AttractionRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.cache.CacheType;
+import org.springframework.boot.test.autoconfigure.core.AutoConfigureCache;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Sans transaction de test: l'invalidation du cache se fait après le commit des réservations
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@AutoConfigureCache(cacheProvider = CacheType.CAFFEINE)
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({AvailabilityService.class, ReservationService.class, LiveVisitorCounters.class, OccupancyLedger.class,
+         SlotInventory.class, CacheConfig.class})
+class AvailabilityServiceTest {
+
+    @Autowired
+    private AvailabilityService availabilityService;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private AttractionRepository attractionRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM daily_occupancy");
+        jdbcTemplate.update("DELETE FROM reservations");
+        jdbcTemplate.update("DELETE FROM attractions");
+    }
+
+    @Test
+    void sixtyDayCalendarIsOneAggregateThenServedFromCache() {
+        Long id = saveAttraction(10).getId();
+        LocalDate today = LocalDate.now();
+        reservationService.createReservation(request(id, "a", today.plusDays(1), 4));
+        reservationService.createReservation(request(id, "b", today.plusDays(1), 6));
+        reservationService.createReservation(request(id, "c", today.plusDays(30), 3));
+
+        statistics.clear();
+        AvailabilityCalendarDTO calendar = availabilityService.getAvailabilityCalendar(id, today, today.plusDays(59));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2); // attraction + GROUP BY visitDate
+
+        assertThat(calendar.getTotalCapacity()).isEqualTo(10);
+        assertThat(calendar.getAvailableSpots()).hasSize(60)
+            .containsEntry(today, 10)
+            .containsEntry(today.plusDays(1), 0)
+            .containsEntry(today.plusDays(30), 7);
+
+        statistics.clear();
+        availabilityService.getAvailabilityCalendar(id, today.plusDays(7), today.plusDays(37));
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    @Test
+    void reservationChangesEvictTheAttractionCalendar() {
+        Long id = saveAttraction(5).getId();
+        LocalDate date = LocalDate.now().plusDays(2);
+        assertThat(availabilityService.getAvailabilityCalendar(id, date, date).getAvailableSpots()).containsEntry(date, 5);
+
+        ReservationDTO reservation = reservationService.createReservation(request(id, "a", date, 2));
+        assertThat(availabilityService.getAvailabilityCalendar(id, date, date).getAvailableSpots()).containsEntry(date, 3);
+
+        reservationService.cancelReservation(reservation.getId(), "Empêchement");
+        assertThat(availabilityService.getAvailabilityCalendar(id, date, date).getAvailableSpots()).containsEntry(date, 5);
+    }
+
+    @Test
+    void calendarIsLimitedToUpcomingDaysWithinTheHorizon() {
+        Long id = saveAttraction(5).getId();
+        LocalDate today = LocalDate.now();
+
+        assertThatThrownBy(() -> availabilityService.getAvailabilityCalendar(id, today.minusDays(1), today))
+            .isInstanceOf(ValidationException.class);
+        assertThatThrownBy(() -> availabilityService.getAvailabilityCalendar(id, today.plusDays(3), today))
+            .isInstanceOf(ValidationException.class);
+        assertThatThrownBy(() -> availabilityService.getAvailabilityCalendar(id, today, today.plusYears(2)))
+            .isInstanceOf(ValidationException.class);
+    }
+
+    @Test
+    void cityAvailabilityIsOneAggregateWhateverTheNumberOfAttractions() {
+        LocalDate date = LocalDate.now().plusDays(5);
+        List<Attraction> attractions = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            attractions.add(saveAttraction(i == 0 ? null : 10));
+        }
+        Attraction closed = attractions.get(2);
+        closed.setIsActive(false);
+        attractionRepository.save(closed);
+        reservationService.createReservation(request(attractions.get(1).getId(), "a", date, 4));
+        reservationService.createReservation(request(attractions.get(1).getId(), "b", date.plusDays(1), 9));
+        reservationService.createReservation(request(attractions.get(3).getId(), "c", date, 10));
+
+        statistics.clear();
+        Map<Long, Integer> byCity = availabilityService.getAvailability(null, "Mahdia", date);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+
+        assertThat(byCity).hasSize(200)
+            .containsEntry(attractions.get(0).getId(), -1)
+            .containsEntry(attractions.get(1).getId(), 6)
+            .containsEntry(closed.getId(), 0)
+            .containsEntry(attractions.get(3).getId(), 0)
+            .containsEntry(attractions.get(4).getId(), 10);
+
+        Map<Long, Integer> byIds = availabilityService.getAvailability(
+            List.of(attractions.get(1).getId(), attractions.get(4).getId(), -1L), null, date);
+        assertThat(byIds).containsOnly(
+            Map.entry(attractions.get(1).getId(), 6),
+            Map.entry(attractions.get(4).getId(), 10));
+
+        assertThatThrownBy(() -> availabilityService.getAvailability(List.of(1L), "Mahdia", date))
+            .isInstanceOf(ValidationException.class);
+    }
+
+    private CreateReservationRequest request(Long attractionId, String touristId, LocalDate date, int people) {
+        CreateReservationRequest request = new CreateReservationRequest();
+        request.setAttractionId(attractionId);
+        request.setTouristId(touristId);
+        request.setTouristName("Touriste " + touristId);
+        request.setTouristEmail(touristId + "@example.com");
+        request.setVisitDate(date);
+        request.setNumberOfPeople(people);
+        return request;
+    }
+
+    private Attraction saveAttraction(Integer maxCapacity) {
+        Attraction attraction = new Attraction();
+        attraction.setName("Amphithéâtre d'El Jem");
+        attraction.setCategory(Category.HISTORICAL);
+        attraction.setMaxCapacity(maxCapacity);
+        attraction.setLocation(new Location(35.30, 10.71, "El Jem", "5160", "Mahdia", "Tunisie"));
+        return attractionRepository.save(attraction);
+    }
+}
@@ -0,0 +1,161 @@
+package com.smarttourism.attractions.service;
+
+import com.smarttourism.attractions.Entities.Attraction;
+import com.smarttourism.attractions.Entities.Category;
+import com.smarttourism.attractions.Entities.Location;
+import com.smarttourism.attractions.Entities.Reservation;
+import com.smarttourism.attractions.dto.ImportReport;
+import com.smarttourism.attractions.event.AttractionChangedEvent;
+import com.smarttourism.attractions.event.AttractionChangedEvent.ChangeType;
+import com.smarttourism.attractions.repository.AttractionRepository;
+import com.smarttourism.attractions.repository.ReservationRepository;
+import com.smarttourism.attractions.search.AttractionGeoIndex;
+import com.smarttourism.attractions.search.AttractionSearchIndex;
+import com.smarttourism.attractions.search.ReviewSearchIndex;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@TestPropertySource(properties = "attractions.import.chunk-size=2")
+@RecordApplicationEvents
+@ImportAutoConfiguration({JacksonAutoConfiguration.class, ValidationAutoConfiguration.class})
+@Import({BulkImportService.class, AttractionService.class, ReviewService.class, HelpfulVoteCounters.class,
+         ReviewSearchIndex.class, RatingCountersRebuildJob.class, AttractionSearchIndex.class, AttractionGeoIndex.class,
+         AttractionStatistics.class, LiveVisitorCounters.class, OccupancyLedger.class, SlotInventory.class})
+class BulkImportServiceTest {
+
+    @Autowired
+    private BulkImportService bulkImportService;
+
+    @Autowired
+    private ApplicationEvents applicationEvents;
+
+    @Autowired
+    private AttractionRepository attractionRepository;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void attractionsAreImportedInChunksAndInvalidRowsReportedByLine() {
+        ImportReport report = bulkImportService.importAttractions(ndjson(
+            attractionLine("Musée du Bardo", "MUSEUM", "Tunis"),
+            "{pas du json",
+            attractionLine("Sidi Bou Saïd", "HISTORICAL", "Tunis"),
+            "",
+            "{\"category\":\"PARK\",\"city\":\"Tunis\",\"location\":{\"city\":\"Tunis\"}}",
+            attractionLine("Parc du Belvédère", "PARK", "Tunis")));
+
+        assertThat(report.getTotalRows()).isEqualTo(5);
+        assertThat(report.getImportedRows()).isEqualTo(3);
+        assertThat(report.getRejectedRows()).isEqualTo(2);
+        assertThat(report.getChunks()).hasSize(3);
+        assertThat(report.getChunks()).flatExtracting(ImportReport.ChunkReport::getErrors)
+            .extracting(ImportReport.RowError::getLine)
+            .containsExactly(2L, 5L);
+        assertThat(attractionRepository.count()).isEqualTo(3);
+        // Un seul événement pour tout l'import: caches et index sont reconstruits une fois
+        assertThat(applicationEvents.stream(AttractionChangedEvent.class))
+            .extracting(AttractionChangedEvent::getType)
+            .containsExactly(ChangeType.BULK_IMPORTED);
+    }
+
+    @Test
+    void reviewsAreRejectedPerRowAndRatingsRecomputedOnce() {
+        Attraction bardo = persistAttraction("Musée du Bardo", 10.0);
+        Long id = bardo.getId();
+
+        ImportReport report = bulkImportService.importReviews(ndjson(
+            reviewLine(id, "tourist_1", 5),
+            reviewLine(id, "tourist_2", 3),
+            reviewLine(id, "tourist_1", 4),
+            reviewLine(999_999L, "tourist_3", 4),
+            reviewLine(id, "tourist_4", 6)));
+
+        assertThat(report.getImportedRows()).isEqualTo(2);
+        assertThat(report.getRejectedRows()).isEqualTo(3);
+        assertThat(applicationEvents.stream(AttractionChangedEvent.class)).hasSize(1);
+        entityManager.flush();
+        entityManager.clear();
+        Attraction reloaded = attractionRepository.findById(id).orElseThrow();
+        assertThat(reloaded.getTotalReviews()).isEqualTo(2);
+        assertThat(reloaded.getRating()).isEqualTo(4.0);
+        assertThat(reloaded.getRatingCount5()).isEqualTo(1);
+        assertThat(reloaded.getRatingCount3()).isEqualTo(1);
+    }
+
+    @Test
+    void historicalReservationsAcceptPastDatesAndGetDerivedFields() {
+        Attraction bardo = persistAttraction("Musée du Bardo", 12.0);
+        LocalDate lastYear = LocalDate.now().minusYears(1);
+
+        ImportReport report = bulkImportService.importReservations(ndjson(
+            reservationLine(bardo.getId(), "tourist_1", lastYear, 3),
+            reservationLine(bardo.getId(), "tourist_1", lastYear, 2),
+            reservationLine(bardo.getId(), "tourist_2", lastYear, 0)));
+
+        assertThat(report.getImportedRows()).isEqualTo(1);
+        assertThat(report.getRejectedRows()).isEqualTo(2);
+        List<Reservation> reservations = reservationRepository.findByAttractionId(bardo.getId());
+        assertThat(reservations).singleElement().satisfies(reservation -> {
+            assertThat(reservation.getStatus()).isEqualTo(Reservation.ReservationStatus.COMPLETED);
+            assertThat(reservation.getTotalPrice()).isEqualTo(36.0);
+            assertThat(reservation.getReservationCode()).startsWith("RES-");
+        });
+    }
+
+    private Attraction persistAttraction(String name, double entryPrice) {
+        Attraction attraction = new Attraction();
+        attraction.setName(name);
+        attraction.setCategory(Category.MUSEUM);
+        attraction.setEntryPrice(entryPrice);
+        attraction.setLocation(new Location(36.81, 10.13, "Le Bardo", "2000", "Tunis", "Tunisie"));
+        entityManager.persist(attraction);
+        entityManager.flush();
+        return attraction;
+    }
+
+    private static String attractionLine(String name, String category, String city) {
+        return String.format("{\"name\":\"%s\",\"category\":\"%s\",\"city\":\"%s\",\"entryPrice\":8.0," +
+            "\"location\":{\"latitude\":36.8,\"longitude\":10.18,\"city\":\"%s\",\"country\":\"Tunisie\"}}",
+            name, category, city, city);
+    }
+
+    private static String reviewLine(Long attractionId, String touristId, int rating) {
+        return String.format("{\"attractionId\":%d,\"touristId\":\"%s\",\"touristName\":\"Touriste\",\"rating\":%d," +
+            "\"reviewDate\":\"2023-06-01T10:00:00\"}", attractionId, touristId, rating);
+    }
+
+    private static String reservationLine(Long attractionId, String touristId, LocalDate visitDate, int people) {
+        return String.format("{\"attractionId\":%d,\"touristId\":\"%s\",\"touristName\":\"Touriste\"," +
+            "\"touristEmail\":\"%s@example.com\",\"visitDate\":\"%s\",\"numberOfPeople\":%d}",
+            attractionId, touristId, touristId, visitDate, people);
+    }
+
+    private static InputStream ndjson(String... lines) {
+        return new ByteArrayInputStream(String.join("\n", lines).getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,103 @@
+package com.smarttourism.attractions.service;
+
+import com.smarttourism.attractions.Entities.Attraction;
+import com.smarttourism.attractions.Entities.Category;
+import com.smarttourism.attractions.Entities.Location;
+import com.smarttourism.attractions.dto.CursorPage;
+import com.smarttourism.attractions.dto.ReviewDTO;
+import com.smarttourism.attractions.search.ReviewSearchIndex;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Compare la page 1000 en OFFSET/LIMIT (+ COUNT) à la même page atteinte par curseur.
+// Lancement: mvn test -Dgroups=benchmark -Dsurefire.excludedGroups=
+@Tag("benchmark")
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({ReviewService.class, HelpfulVoteCounters.class, ReviewSearchIndex.class})
+class CursorPaginationBenchmarkTest {
+
+    private static final int PAGE_SIZE = 20;
+    private static final int TARGET_PAGE = 1000;
+    private static final int REVIEWS = PAGE_SIZE * (TARGET_PAGE + 10);
+    private static final int RUNS = 50;
+
+    @Autowired
+    private ReviewService reviewService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void deepPageOffsetVersusCursor() {
+        Attraction attraction = new Attraction();
+        attraction.setName("Médina de Tunis");
+        attraction.setCategory(Category.HISTORICAL);
+        attraction.setLocation(new Location(36.8, 10.17, "Médina", "1000", "Tunis", "Tunisie"));
+        entityManager.persist(attraction);
+        entityManager.flush();
+        Long attractionId = attraction.getId();
+
+        List<Object[]> rows = new ArrayList<>(REVIEWS);
+        LocalDateTime start = LocalDateTime.of(2020, 1, 1, 0, 0);
+        for (int i = 0; i < REVIEWS; i++) {
+            rows.add(new Object[] {attractionId, "tourist_" + i, start.plusMinutes(i)});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO reviews (attraction_id, tourist_id, tourist_name, rating, review_date, " +
+            "is_verified_visit, helpful_count, is_edited) VALUES (?, ?, 'Touriste', 4, ?, false, 0, false)", rows);
+
+        PageRequest offsetPage = PageRequest.of(TARGET_PAGE, PAGE_SIZE,
+            Sort.by(Sort.Direction.DESC, "reviewDate").and(Sort.by(Sort.Direction.DESC, "id")));
+        List<ReviewDTO> lastOfPreviousPage = reviewService.getReviewsByAttractionId(attractionId,
+            PageRequest.of(TARGET_PAGE - 1, PAGE_SIZE, offsetPage.getSort())).getContent();
+        ReviewDTO anchor = lastOfPreviousPage.get(PAGE_SIZE - 1);
+        String cursor = CursorPage.encodeCursor(anchor.getReviewDate(), anchor.getId());
+
+        List<ReviewDTO> offsetResult = null;
+        List<ReviewDTO> cursorResult = null;
+        // Échauffement
+        for (int i = 0; i < 5; i++) {
+            reviewService.getReviewsByAttractionId(attractionId, offsetPage);
+            reviewService.getReviewsByAttractionIdAfter(attractionId, cursor, PAGE_SIZE);
+        }
+
+        long offsetStart = System.nanoTime();
+        for (int i = 0; i < RUNS; i++) {
+            entityManager.clear();
+            offsetResult = reviewService.getReviewsByAttractionId(attractionId, offsetPage).getContent();
+        }
+        long offsetNanos = System.nanoTime() - offsetStart;
+
+        long cursorStart = System.nanoTime();
+        for (int i = 0; i < RUNS; i++) {
+            entityManager.clear();
+            cursorResult = reviewService.getReviewsByAttractionIdAfter(attractionId, cursor, PAGE_SIZE).getItems();
+        }
+        long cursorNanos = System.nanoTime() - cursorStart;
+
+        System.out.printf("📄 Page %d de %d avis (%d par page, %d exécutions)%n", TARGET_PAGE, REVIEWS, PAGE_SIZE, RUNS);
+        System.out.printf("   OFFSET + COUNT : %8.3f ms/page%n", offsetNanos / 1e6 / RUNS);
+        System.out.printf("   Curseur        : %8.3f ms/page%n", cursorNanos / 1e6 / RUNS);
+
+        assertThat(cursorResult).extracting(ReviewDTO::getId)
+            .containsExactlyElementsOf(offsetResult.stream().map(ReviewDTO::getId).toList());
+    }
+}
@@ -0,0 +1,126 @@
+package com.smarttourism.attractions.service;
+
+import com.smarttourism.attractions.Entities.Attraction;
+import com.smarttourism.attractions.Entities.Category;
+import com.smarttourism.attractions.Entities.Location;
+import com.smarttourism.attractions.dto.AttractionDTO;
+import com.smarttourism.attractions.dto.CursorPage;
+import com.smarttourism.attractions.dto.ReviewDTO;
+import com.smarttourism.attractions.exception.ValidationException;
+import com.smarttourism.attractions.search.AttractionGeoIndex;
+import com.smarttourism.attractions.search.AttractionSearchIndex;
+import com.smarttourism.attractions.search.ReviewSearchIndex;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({AttractionService.class, ReviewService.class, HelpfulVoteCounters.class, ReviewSearchIndex.class,
+         AttractionSearchIndex.class, AttractionGeoIndex.class, AttractionStatistics.class, LiveVisitorCounters.class})
+class CursorPaginationTest {
+
+    @Autowired
+    private AttractionService attractionService;
+
+    @Autowired
+    private ReviewService reviewService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void reviewCursorWalksEveryRowOnceEvenWithEqualDates() {
+        Long attractionId = persistAttraction("Tunis", 4.0).getId();
+        // Trois avis par horodatage: le départage par ID doit éviter doublons et trous
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            rows.add(new Object[] {attractionId, "tourist_" + i, LocalDateTime.of(2024, 5, 1, 10, 0).plusMinutes(i / 3)});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO reviews (attraction_id, tourist_id, tourist_name, rating, review_date, " +
+            "is_verified_visit, helpful_count, is_edited) VALUES (?, ?, 'Touriste', 4, ?, false, 0, false)", rows);
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+
+        List<ReviewDTO> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            statistics.clear();
+            CursorPage<ReviewDTO> page = reviewService.getReviewsByAttractionIdAfter(attractionId, cursor, 10);
+            assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+            seen.addAll(page.getItems());
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertThat(pages).isEqualTo(3);
+        assertThat(seen).extracting(ReviewDTO::getId).hasSize(25).doesNotHaveDuplicates();
+        assertThat(seen).isSortedAccordingTo(Comparator.comparing(ReviewDTO::getReviewDate)
+            .thenComparing(ReviewDTO::getId).reversed());
+    }
+
+    @Test
+    void attractionCursorFollowsRatingThenIdAndSkipsInactive() {
+        persistAttraction("Sousse", 4.5);
+        persistAttraction("Tunis", 3.0);
+        persistAttraction("Tunis", 4.5);
+        Attraction inactive = persistAttraction("Tunis", 5.0);
+        inactive.setIsActive(false);
+        persistAttraction("Tunis", 2.0);
+        entityManager.flush();
+
+        CursorPage<AttractionDTO> first = attractionService.getAttractionsByCityAfter("Tunis", null, 2);
+        CursorPage<AttractionDTO> second = attractionService.getAttractionsByCityAfter("Tunis", first.getNextCursor(), 2);
+
+        assertThat(first.isHasNext()).isTrue();
+        assertThat(first.getItems()).extracting(AttractionDTO::getRating).containsExactly(4.5, 3.0);
+        assertThat(second.isHasNext()).isFalse();
+        assertThat(second.getNextCursor()).isNull();
+        assertThat(second.getItems()).extracting(AttractionDTO::getRating).containsExactly(2.0);
+        assertThat(attractionService.getAttractionsAfter(null, 10).getItems()).hasSize(4);
+    }
+
+    @Test
+    void malformedCursorAndOutOfRangeLimitAreRejected() {
+        assertThatThrownBy(() -> attractionService.getAttractionsAfter("pas-un-curseur", 10))
+            .isInstanceOf(ValidationException.class);
+        assertThatThrownBy(() -> reviewService.getReviewsByTouristIdAfter("tourist_1", null, 0))
+            .isInstanceOf(ValidationException.class);
+        assertThatThrownBy(() -> reviewService.getReviewsByTouristIdAfter("tourist_1", null, CursorPage.MAX_LIMIT + 1))
+            .isInstanceOf(ValidationException.class);
+    }
+
+    private Attraction persistAttraction(String city, double rating) {
+        Attraction attraction = new Attraction();
+        attraction.setName("Attraction " + city + " " + rating);
+        attraction.setCategory(Category.MUSEUM);
+        attraction.setLocation(new Location(36.8, 10.18, "Rue", "1000", city, "Tunisie"));
+        attraction.setRating(rating);
+        entityManager.persist(attraction);
+        return attraction;
+    }
+}
@@ -0,0 +1,152 @@
+package com.smarttourism.attractions.service;
+
+import com.smarttourism.attractions.Entities.Attraction;
+import com.smarttourism.attractions.Entities.Category;
+import com.smarttourism.attractions.Entities.Location;
+import com.smarttourism.attractions.Entities.Review;
+import com.smarttourism.attractions.exception.ResourceNotFoundException;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import(HelpfulVoteCounters.class)
+class HelpfulVoteCountersTest {
+
+    private static final int THREADS = 16;
+    private static final int TOURISTS_PER_THREAD = 250;
+
+    @Autowired
+    private HelpfulVoteCounters helpfulVoteCounters;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void concurrentVotesAreCountedExactlyOncePerTourist() throws Exception {
+        // Le composant est partagé par les tests du même contexte: vider ce qui reste à écrire
+        helpfulVoteCounters.flush();
+        Long id = persistReview().getId();
+        // Premier vote dans le thread du test: le compteur y est créé (l'avis n'est pas encore validé en base)
+        assertThat(helpfulVoteCounters.vote(id, "tourist_0_0")).isTrue();
+
+        // Chaque touriste vote deux fois, depuis deux threads différents
+        int counted = runConcurrently(id);
+        int votes = THREADS / 2 * TOURISTS_PER_THREAD;
+
+        assertThat(counted).isEqualTo(votes - 1);
+        assertThat(helpfulVoteCounters.helpfulCount(id)).isEqualTo(votes);
+        assertThat(helpfulVoteCounters.flush()).isEqualTo(votes);
+        assertThat(helpfulCountInDatabase(id)).isEqualTo(votes);
+        // Tout est écrit: plus rien n'est gardé en mémoire, la valeur vient de la base
+        assertThat(helpfulVoteCounters.trackedReviews()).isZero();
+        assertThat(helpfulVoteCounters.helpfulCount(id)).isEqualTo(votes);
+        assertThat(helpfulVoteCounters.vote(id, "tourist_3_7")).isFalse();
+        assertThat(helpfulVoteCounters.flush()).isZero();
+    }
+
+    @Test
+    void votesSurviveARestartAndDuplicatesFromAnotherInstanceAreNotCounted() {
+        helpfulVoteCounters.flush();
+        Long id = persistReview().getId();
+        helpfulVoteCounters.vote(id, "ahmed");
+        helpfulVoteCounters.vote(id, "sarah");
+        helpfulVoteCounters.flush();
+
+        // Nouvelle instance: les votants sont relus depuis review_helpful_votes
+        HelpfulVoteCounters restarted = new HelpfulVoteCounters(jdbcTemplate, transactionTemplate);
+        assertThat(restarted.vote(id, "ahmed")).isFalse();
+        assertThat(restarted.helpfulCount(id)).isEqualTo(2);
+
+        // Même touriste accepté par deux instances qui ignorent le vote de l'autre: compté une fois en base
+        assertThat(helpfulVoteCounters.vote(id, "yassine")).isTrue();
+        assertThat(restarted.vote(id, "yassine")).isTrue();
+        helpfulVoteCounters.flush();
+        restarted.flush();
+        assertThat(helpfulCountInDatabase(id)).isEqualTo(3);
+        assertThat(helpfulVoteCounters.helpfulCount(id)).isEqualTo(3);
+
+        // Votes écrits par l'autre instance: visibles ici au prochain chargement du compteur
+        restarted.vote(id, "nour");
+        restarted.flush();
+        assertThat(helpfulVoteCounters.helpfulCount(id)).isEqualTo(4);
+        assertThat(helpfulVoteCounters.vote(id, "ines")).isTrue();
+        assertThat(helpfulVoteCounters.helpfulCount(id)).isEqualTo(5);
+
+        assertThatThrownBy(() -> helpfulVoteCounters.vote(-1L, "ahmed"))
+            .isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    private int runConcurrently(Long id) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> results = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            String prefix = "tourist_" + (t / 2) + "_";
+            results.add(executor.submit(() -> {
+                start.await();
+                int counted = 0;
+                for (int i = 0; i < TOURISTS_PER_THREAD; i++) {
+                    if (helpfulVoteCounters.vote(id, prefix + i)) {
+                        counted++;
+                    }
+                }
+                return counted;
+            }));
+        }
+        start.countDown();
+        int counted = 0;
+        for (Future<Integer> result : results) {
+            counted += result.get();
+        }
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+        return counted;
+    }
+
+    private Integer helpfulCountInDatabase(Long id) {
+        return jdbcTemplate.queryForObject("SELECT helpful_count FROM reviews WHERE id = ?", Integer.class, id);
+    }
+
+    private Review persistReview() {
+        Attraction attraction = new Attraction();
+        attraction.setName("Amphithéâtre d'El Jem");
+        attraction.setCategory(Category.HISTORICAL);
+        attraction.setLocation(new Location(35.30, 10.71, "El Jem", "5160", "El Jem", "Tunisie"));
+        entityManager.persist(attraction);
+
+        Review review = new Review();
+        review.setAttraction(attraction);
+        review.setTouristId("auteur");
+        review.setTouristName("Touriste");
+        review.setRating(5);
+        review.setComment("Impressionnant");
+        entityManager.persist(review);
+        entityManager.flush();
+        return review;
+    }
+}
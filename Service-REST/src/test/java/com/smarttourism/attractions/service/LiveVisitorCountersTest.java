@@ -0,0 +1,154 @@
+package com.smarttourism.attractions.service;
+
+import com.smarttourism.attractions.Entities.Attraction;
+import com.smarttourism.attractions.Entities.Category;
+import com.smarttourism.attractions.Entities.Location;
+import com.smarttourism.attractions.Entities.Reservation;
+import com.smarttourism.attractions.exception.BusinessException;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({LiveVisitorCounters.class, ReservationService.class, OccupancyLedger.class, SlotInventory.class})
+class LiveVisitorCountersTest {
+
+    private static final int THREADS = 16;
+
+    @Autowired
+    private LiveVisitorCounters liveVisitorCounters;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void concurrentGateEventsNeverExceedCapacityNorLoseUpdates() throws Exception {
+        Long id = persistAttraction(5_000).getId();
+        // Charger le compteur dans le thread du test (l'attraction n'est pas encore validée en base)
+        assertThat(liveVisitorCounters.current(id)).isZero();
+
+        int accepted = runConcurrently(500, () -> liveVisitorCounters.increment(id, 1));
+        assertThat(accepted).isEqualTo(5_000);
+        assertThat(liveVisitorCounters.current(id)).isEqualTo(5_000);
+
+        runConcurrently(250, () -> liveVisitorCounters.decrement(id, 1));
+        assertThat(liveVisitorCounters.current(id)).isEqualTo(1_000);
+    }
+
+    @Test
+    void flushWritesCountersInOneBatchAndDecrementNeverGoesNegative() {
+        // Le composant est partagé par les tests du même contexte: vider ce qui reste à écrire
+        liveVisitorCounters.flush();
+        Long first = persistAttraction(null).getId();
+        Long second = persistAttraction(null).getId();
+
+        liveVisitorCounters.increment(first, 12);
+        liveVisitorCounters.increment(second, 3);
+        liveVisitorCounters.decrement(second, 10);
+
+        assertThat(liveVisitorCounters.flush()).isEqualTo(2);
+        assertThat(currentVisitorsInDatabase(first)).isEqualTo(12);
+        assertThat(currentVisitorsInDatabase(second)).isZero();
+        assertThat(liveVisitorCounters.flush()).isZero();
+    }
+
+    @Test
+    void checkInAndCheckOutMoveTheCounter() {
+        Attraction attraction = persistAttraction(4);
+        Reservation family = persistReservation(attraction, 3);
+        Reservation couple = persistReservation(attraction, 2);
+
+        reservationService.checkInReservation(family.getId());
+        assertThat(liveVisitorCounters.current(attraction.getId())).isEqualTo(3);
+
+        assertThatThrownBy(() -> reservationService.checkInReservation(couple.getId()))
+            .isInstanceOf(BusinessException.class);
+        assertThat(couple.getCheckInTime()).isNull();
+
+        reservationService.checkOutReservation(family.getId());
+        assertThat(liveVisitorCounters.current(attraction.getId())).isZero();
+        reservationService.checkInReservation(couple.getId());
+        assertThat(liveVisitorCounters.current(attraction.getId())).isEqualTo(2);
+    }
+
+    private int runConcurrently(int eventsPerThread, Runnable event) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> results = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            results.add(executor.submit(() -> {
+                start.await();
+                int accepted = 0;
+                for (int i = 0; i < eventsPerThread; i++) {
+                    try {
+                        event.run();
+                        accepted++;
+                    } catch (BusinessException full) {
+                        // Capacité atteinte: l'événement est refusé
+                    }
+                }
+                return accepted;
+            }));
+        }
+        start.countDown();
+        int accepted = 0;
+        for (Future<Integer> result : results) {
+            accepted += result.get();
+        }
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+        return accepted;
+    }
+
+    private Integer currentVisitorsInDatabase(Long id) {
+        return jdbcTemplate.queryForObject("SELECT current_visitors FROM attractions WHERE id = ?", Integer.class, id);
+    }
+
+    private Attraction persistAttraction(Integer maxCapacity) {
+        Attraction attraction = new Attraction();
+        attraction.setName("Parc du Belvédère");
+        attraction.setCategory(Category.PARK);
+        attraction.setMaxCapacity(maxCapacity);
+        attraction.setLocation(new Location(36.82, 10.18, "Belvédère", "1002", "Tunis", "Tunisie"));
+        entityManager.persist(attraction);
+        entityManager.flush();
+        return attraction;
+    }
+
+    private Reservation persistReservation(Attraction attraction, int people) {
+        Reservation reservation = new Reservation();
+        reservation.setAttraction(attraction);
+        reservation.setTouristId("tourist_" + people);
+        reservation.setTouristName("Touriste");
+        reservation.setTouristEmail("touriste@example.com");
+        reservation.setVisitDate(LocalDate.now());
+        reservation.setNumberOfPeople(people);
+        reservation.setTotalPrice(0.0);
+        entityManager.persist(reservation);
+        return reservation;
+    }
+}
@@ -0,0 +1,218 @@
+package com.smarttourism.attractions.service;
+
+import com.smarttourism.attractions.Entities.Attraction;
+import com.smarttourism.attractions.Entities.Category;
+import com.smarttourism.attractions.Entities.Location;
+import com.smarttourism.attractions.Entities.Reservation;
+import com.smarttourism.attractions.dto.ReservationDTO;
+import com.smarttourism.attractions.dto.requests.CreateReservationRequest;
+import com.smarttourism.attractions.exception.BusinessException;
+import com.smarttourism.attractions.repository.AttractionRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Sans transaction de test: chaque réservation est validée pour de vrai, comme en production
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ReservationService.class, LiveVisitorCounters.class, OccupancyLedger.class, SlotInventory.class,
+         DailyOccupancyReconciliationJob.class})
+class OccupancyLedgerTest {
+
+    private static final int THREADS = 32;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private DailyOccupancyReconciliationJob reconciliationJob;
+
+    @Autowired
+    private AttractionRepository attractionRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM daily_occupancy");
+        jdbcTemplate.update("DELETE FROM reservations");
+        jdbcTemplate.update("DELETE FROM attractions");
+    }
+
+    @Test
+    void thousandsOfSimultaneousBookingsNeverOverbook() throws Exception {
+        Long id = saveAttraction(100).getId();
+        LocalDate date = LocalDate.now().plusDays(10);
+
+        int accepted = bookConcurrently(id, date, "wave1", 2_000);
+        assertThat(accepted).isEqualTo(100);
+        assertThat(confirmedPeople(id, date)).isEqualTo(100);
+        assertThat(occupancyPeople(id, date)).isEqualTo(100);
+
+        // Date complète: la seconde vague est entièrement refusée
+        assertThat(bookConcurrently(id, date, "wave2", 2_000)).isZero();
+        assertThat(confirmedPeople(id, date)).isEqualTo(100);
+        assertThat(occupancyPeople(id, date)).isEqualTo(100);
+        assertThat(reservationService.checkAvailability(id, date))
+            .containsEntry("available", false)
+            .containsEntry("availableSpots", 0);
+    }
+
+    @Test
+    void cancellationsAndDateChangesReturnSeats() {
+        Long id = saveAttraction(4).getId();
+        LocalDate date = LocalDate.now().plusDays(3);
+        LocalDate otherDate = date.plusDays(1);
+
+        ReservationDTO family = reservationService.createReservation(request(id, "family", date, 3));
+        reservationService.createReservation(request(id, "solo", date, 1));
+        assertThatThrownBy(() -> reservationService.createReservation(request(id, "couple", date, 2)))
+            .isInstanceOf(BusinessException.class);
+
+        reservationService.cancelReservation(family.getId(), "Empêchement");
+        ReservationDTO couple = reservationService.createReservation(request(id, "couple", date, 2));
+        assertThat(occupancyPeople(id, date)).isEqualTo(3);
+
+        reservationService.updateReservation(couple.getId(), request(id, "couple", otherDate, 2));
+        assertThat(occupancyPeople(id, date)).isEqualTo(1);
+        assertThat(occupancyPeople(id, otherDate)).isEqualTo(2);
+
+        // Plus de personnes que de places sur la nouvelle date: rien ne bouge
+        assertThatThrownBy(() -> reservationService.updateReservation(couple.getId(), request(id, "couple", otherDate, 5)))
+            .isInstanceOf(BusinessException.class);
+        assertThat(occupancyPeople(id, otherDate)).isEqualTo(2);
+        assertThat(confirmedPeople(id, otherDate)).isEqualTo(2);
+    }
+
+    @Test
+    void everyStateTransitionKeepsDailyOccupancyInStepWithReservations() {
+        Long id = saveAttraction(null).getId();
+        LocalDate today = LocalDate.now();
+
+        ReservationDTO visited = reservationService.createReservation(request(id, "visited", today, 2));
+        ReservationDTO cancelled = reservationService.createReservation(request(id, "cancelled", today, 3));
+        ReservationDTO absent = reservationService.createReservation(request(id, "absent", today, 1));
+        reservationService.createReservation(request(id, "confirmed", today, 4));
+        ReservationDTO moved = reservationService.createReservation(request(id, "moved", today, 5));
+
+        reservationService.checkInReservation(visited.getId());
+        reservationService.checkOutReservation(visited.getId());
+        reservationService.cancelReservation(cancelled.getId(), "Empêchement");
+        reservationService.updateReservationStatus(absent.getId(), Reservation.ReservationStatus.NO_SHOW);
+        reservationService.updateReservation(moved.getId(), request(id, "moved", today.plusDays(1), 6));
+
+        Map<String, Object> row = jdbcTemplate.queryForMap("SELECT * FROM daily_occupancy " +
+            "WHERE attraction_id = ? AND visit_date = ?", id, today);
+        assertThat(row).containsEntry("CONFIRMED_PEOPLE", 4).containsEntry("CONFIRMED_RESERVATIONS", 1)
+            .containsEntry("COMPLETED", 1).containsEntry("CANCELLED", 1).containsEntry("NO_SHOW", 1)
+            .containsEntry("TOTAL_RESERVATIONS", 4).containsEntry("REVENUE", 72.0);
+        assertThat(occupancyPeople(id, today.plusDays(1))).isEqualTo(6);
+
+        assertThat(reconciliationJob.reconcile(today.minusDays(1), today.plusDays(2))).isZero();
+        assertThat(reservationService.getReservationStatistics(id))
+            .containsEntry("totalReservations", 5L)
+            .containsEntry("completedReservations", 1L);
+    }
+
+    @Test
+    void reconciliationDetectsAndRepairsDrift() {
+        Long id = saveAttraction(10).getId();
+        LocalDate date = LocalDate.now().plusDays(4);
+        reservationService.createReservation(request(id, "a", date, 3));
+        reservationService.createReservation(request(id, "b", date.plusDays(1), 2));
+
+        jdbcTemplate.update("UPDATE daily_occupancy SET confirmed_people = 9 WHERE attraction_id = ? AND visit_date = ?",
+            id, date);
+        jdbcTemplate.update("DELETE FROM daily_occupancy WHERE attraction_id = ? AND visit_date = ?",
+            id, date.plusDays(1));
+
+        assertThat(reconciliationJob.reconcile(date, date.plusDays(1))).isEqualTo(2);
+        assertThat(occupancyPeople(id, date)).isEqualTo(3);
+        assertThat(occupancyPeople(id, date.plusDays(1))).isEqualTo(2);
+        assertThat(reconciliationJob.reconcile(date, date.plusDays(1))).isZero();
+    }
+
+    private int bookConcurrently(Long attractionId, LocalDate date, String prefix, int bookings) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger sequence = new AtomicInteger();
+        List<Future<Integer>> results = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            results.add(executor.submit(() -> {
+                start.await();
+                int accepted = 0;
+                for (int n = sequence.getAndIncrement(); n < bookings; n = sequence.getAndIncrement()) {
+                    try {
+                        reservationService.createReservation(request(attractionId, prefix + "_" + n, date, 1));
+                        accepted++;
+                    } catch (BusinessException full) {
+                        // Plus de places: la réservation est refusée
+                    }
+                }
+                return accepted;
+            }));
+        }
+        start.countDown();
+        int accepted = 0;
+        for (Future<Integer> result : results) {
+            accepted += result.get();
+        }
+        executor.shutdown();
+        assertThat(executor.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+        return accepted;
+    }
+
+    private Integer confirmedPeople(Long attractionId, LocalDate date) {
+        return jdbcTemplate.queryForObject("SELECT COALESCE(SUM(number_of_people), 0) FROM reservations " +
+            "WHERE attraction_id = ? AND visit_date = ? AND status = 'CONFIRMED'", Integer.class, attractionId, date);
+    }
+
+    private Integer occupancyPeople(Long attractionId, LocalDate date) {
+        return jdbcTemplate.queryForObject("SELECT confirmed_people FROM daily_occupancy WHERE attraction_id = ? AND visit_date = ?",
+            Integer.class, attractionId, date);
+    }
+
+    private CreateReservationRequest request(Long attractionId, String touristId, LocalDate date, int people) {
+        CreateReservationRequest request = new CreateReservationRequest();
+        request.setAttractionId(attractionId);
+        request.setTouristId(touristId);
+        request.setTouristName("Touriste " + touristId);
+        request.setTouristEmail(touristId + "@example.com");
+        request.setVisitDate(date);
+        request.setNumberOfPeople(people);
+        return request;
+    }
+
+    private Attraction saveAttraction(Integer maxCapacity) {
+        Attraction attraction = new Attraction();
+        attraction.setName("Musée du Bardo");
+        attraction.setCategory(Category.MUSEUM);
+        attraction.setMaxCapacity(maxCapacity);
+        attraction.setEntryPrice(12.0);
+        attraction.setLocation(new Location(36.81, 10.13, "Le Bardo", "2000", "Tunis", "Tunisie"));
+        return attractionRepository.save(attraction);
+    }
+}
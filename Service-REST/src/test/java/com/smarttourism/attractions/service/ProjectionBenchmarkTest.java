@@ -0,0 +1,153 @@
+package com.smarttourism.attractions.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smarttourism.attractions.Entities.Attraction;
+import com.smarttourism.attractions.Entities.Category;
+import com.smarttourism.attractions.Entities.Location;
+import com.smarttourism.attractions.config.SqlMonitoringConfig;
+import com.smarttourism.attractions.dto.ReservationDTO;
+import com.smarttourism.attractions.dto.ReservationSummaryDTO;
+import com.smarttourism.attractions.monitoring.SqlStatementCounter;
+import com.smarttourism.attractions.search.AttractionGeoIndex;
+import com.smarttourism.attractions.search.AttractionSearchIndex;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import java.lang.management.ManagementFactory;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Compare une page de réservations d'un touriste: entités + convertToDTO contre projection en ReservationSummaryDTO.
+// Mesure par page: requêtes SQL, temps, octets alloués sur le thread et taille du JSON renvoyé.
+// Lancement: mvn test -Dgroups=benchmark -Dsurefire.excludedGroups= -Dtest=ProjectionBenchmarkTest
+@Tag("benchmark")
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({SqlMonitoringConfig.class, ReservationService.class, AttractionService.class, AttractionSearchIndex.class,
+    AttractionGeoIndex.class, AttractionStatistics.class, LiveVisitorCounters.class, OccupancyLedger.class, SlotInventory.class})
+class ProjectionBenchmarkTest {
+
+    private static final int ATTRACTIONS = 50;
+    private static final int RESERVATIONS = 2_000;
+    private static final int PAGE_SIZE = 50;
+    private static final int RUNS = 200;
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void entityConversionVersusProjection() throws Exception {
+        List<Long> attractionIds = new ArrayList<>();
+        for (int i = 0; i < ATTRACTIONS; i++) {
+            Attraction attraction = new Attraction();
+            attraction.setName("Attraction " + i);
+            attraction.setDescription("Description détaillée ".repeat(50));
+            attraction.setCategory(Category.values()[i % Category.values().length]);
+            attraction.setLocation(new Location(36.8, 10.17, "Rue " + i, "1000", "Tunis", "Tunisie"));
+            entityManager.persist(attraction);
+            attractionIds.add(attraction.getId());
+        }
+        entityManager.flush();
+
+        List<Object[]> rows = new ArrayList<>(RESERVATIONS);
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 9, 0);
+        for (int i = 0; i < RESERVATIONS; i++) {
+            rows.add(new Object[] {"RES-" + i, attractionIds.get(i % ATTRACTIONS), start.plusMinutes(i),
+                LocalDate.of(2025, 1, 1).plusDays(i % 300)});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO reservations (reservation_code, attraction_id, tourist_id, tourist_name, " +
+            "tourist_email, tourist_phone, reservation_time, visit_date, number_of_people, status, total_price, " +
+            "special_requirements) VALUES (?, ?, 'voyageur', 'Touriste', 'touriste@example.com', '+216 00 000 000', ?, ?, " +
+            "2, 'CONFIRMED', 20.0, 'Accès poussette et visite guidée en français')", rows);
+
+        PageRequest page = PageRequest.of(1, PAGE_SIZE, Sort.by(Sort.Direction.DESC, "reservationTime"));
+        Measure entities = measure(() -> reservationService.getReservationsByTouristId("voyageur", page));
+        Measure summaries = measure(() -> reservationService.getReservationSummariesByTouristId("voyageur", page));
+
+        System.out.printf("📦 Page de %d réservations sur %d attractions (%d exécutions)%n", PAGE_SIZE, ATTRACTIONS, RUNS);
+        System.out.printf("   %-22s %8s %10s %14s %12s%n", "", "requêtes", "ms/page", "octets alloués", "octets JSON");
+        System.out.printf("   %-22s %s%n", "Entités + convertToDTO", entities.format());
+        System.out.printf("   %-22s %s%n", "Projection", summaries.format());
+
+        assertThat(summaries.statements).isLessThan(entities.statements);
+        assertThat(summaries.jsonBytes).isLessThan(entities.jsonBytes);
+        @SuppressWarnings("unchecked")
+        List<ReservationDTO> full = ((Page<ReservationDTO>) entities.page).getContent();
+        @SuppressWarnings("unchecked")
+        List<ReservationSummaryDTO> light = ((Page<ReservationSummaryDTO>) summaries.page).getContent();
+        assertThat(light).extracting(ReservationSummaryDTO::getId)
+            .containsExactlyElementsOf(full.stream().map(ReservationDTO::getId).toList());
+    }
+
+    private Measure measure(Supplier<Page<?>> call) throws Exception {
+        // Échauffement
+        for (int i = 0; i < 20; i++) {
+            entityManager.clear();
+            call.get();
+        }
+
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        Page<?> result = null;
+        long statements = 0;
+        long nanos = 0;
+        long allocated = 0;
+        for (int i = 0; i < RUNS; i++) {
+            entityManager.clear();
+            long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+            long startNanos = System.nanoTime();
+            try (SqlStatementCounter.Scope scope = SqlStatementCounter.open()) {
+                result = call.get();
+                statements += scope.getStatements();
+            }
+            nanos += System.nanoTime() - startNanos;
+            allocated += threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+        }
+        return new Measure(result, statements / RUNS, nanos / RUNS, allocated / RUNS,
+            objectMapper.writeValueAsBytes(result.getContent()).length);
+    }
+
+    private static final class Measure {
+        private final Page<?> page;
+        private final long statements;
+        private final long nanos;
+        private final long allocatedBytes;
+        private final int jsonBytes;
+
+        private Measure(Page<?> page, long statements, long nanos, long allocatedBytes, int jsonBytes) {
+            this.page = page;
+            this.statements = statements;
+            this.nanos = nanos;
+            this.allocatedBytes = allocatedBytes;
+            this.jsonBytes = jsonBytes;
+        }
+
+        private String format() {
+            return String.format("%8d %10.3f %14d %12d", statements, nanos / 1e6, allocatedBytes, jsonBytes);
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package com.smarttourism.attractions.service;
+
+import com.smarttourism.attractions.Entities.Attraction;
+import com.smarttourism.attractions.Entities.Category;
+import com.smarttourism.attractions.Entities.Location;
+import com.smarttourism.attractions.Entities.Reservation;
+import com.smarttourism.attractions.Entities.Review;
+import com.smarttourism.attractions.config.SqlMonitoringConfig;
+import com.smarttourism.attractions.dto.AttractionSummaryDTO;
+import com.smarttourism.attractions.dto.ReservationDTO;
+import com.smarttourism.attractions.dto.ReservationSummaryDTO;
+import com.smarttourism.attractions.dto.ReviewDTO;
+import com.smarttourism.attractions.dto.ReviewSummaryDTO;
+import com.smarttourism.attractions.monitoring.SqlStatementCounter;
+import com.smarttourism.attractions.search.AttractionGeoIndex;
+import com.smarttourism.attractions.search.AttractionSearchIndex;
+import com.smarttourism.attractions.search.ReviewSearchIndex;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.smarttourism.attractions.monitoring.SqlStatementAssertions.assertStatements;
+import static com.smarttourism.attractions.monitoring.SqlStatementAssertions.countStatements;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Nombre de requêtes SQL verrouillé par chemin de lecture: une régression (N+1) fait échouer le test
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({SqlMonitoringConfig.class, AttractionService.class, ReservationService.class, ReviewService.class,
+    HelpfulVoteCounters.class, ReviewSearchIndex.class, AttractionSearchIndex.class, AttractionGeoIndex.class,
+    AttractionStatistics.class, LiveVisitorCounters.class, OccupancyLedger.class, SlotInventory.class})
+class QueryBudgetTest {
+
+    @Autowired
+    private AttractionService attractionService;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private ReviewService reviewService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void attractionListIsOneStatementWhateverItsSize() {
+        seedAttractions(30);
+        clearPersistenceContext();
+
+        assertThat(assertStatements(1, () -> attractionService.getAllAttractions())).hasSize(30);
+    }
+
+    // N+1 connu: convertToDTO lit attraction.getName() sur un proxy paresseux, une requête par attraction distincte
+    @Test
+    void touristReservationsLoadEachDistinctAttractionSeparately() {
+        List<Attraction> attractions = seedAttractions(4);
+        for (Attraction attraction : attractions) {
+            reserve(attraction, "voyageur");
+            reserve(attraction, "voyageur");
+        }
+        clearPersistenceContext();
+
+        List<ReservationDTO> reservations = assertStatements(1 + attractions.size(),
+            () -> reservationService.getReservationsByTouristId("voyageur"));
+
+        assertThat(reservations).hasSize(8).extracting(ReservationDTO::getAttractionName).doesNotContainNull();
+    }
+
+    @Test
+    void attractionReviewPageLoadsItsAttractionOnce() {
+        Attraction attraction = seedAttractions(1).get(0);
+        for (int i = 0; i < 5; i++) {
+            review(attraction, "touriste-" + i);
+        }
+        clearPersistenceContext();
+
+        Page<ReviewDTO> page = assertStatements(2,
+            () -> reviewService.getReviewsByAttractionId(attraction.getId(), PageRequest.of(0, 10)));
+
+        assertThat(page.getContent()).hasSize(5);
+    }
+
+    // Projections: le nom de l'attraction vient de la jointure, une seule requête quel que soit le nombre d'attractions
+    // (pas de COUNT sur une première page incomplète)
+    @Test
+    void summaryPagesAreOneStatementWhateverTheNumberOfAttractions() {
+        List<Attraction> attractions = seedAttractions(4);
+        for (Attraction attraction : attractions) {
+            reserve(attraction, "voyageur");
+            reserve(attraction, "voyageur");
+            review(attraction, "voyageur");
+        }
+        clearPersistenceContext();
+
+        Page<ReservationSummaryDTO> reservations = assertStatements(1,
+            () -> reservationService.getReservationSummariesByTouristId("voyageur", PageRequest.of(0, 20)));
+        Page<ReviewSummaryDTO> reviews = assertStatements(1,
+            () -> reviewService.getReviewSummariesByTouristId("voyageur", PageRequest.of(0, 20)));
+        Page<AttractionSummaryDTO> search = assertStatements(1,
+            () -> attractionService.searchAttractionSummaries("tun", Category.MUSEUM, null, 50.0, null, PageRequest.of(0, 20)));
+
+        assertThat(reservations.getContent()).hasSize(8)
+            .extracting(ReservationSummaryDTO::getAttractionName).doesNotContainNull();
+        assertThat(reviews.getContent()).hasSize(4)
+            .extracting(ReviewSummaryDTO::getAttractionId).containsExactlyInAnyOrderElementsOf(
+                attractions.stream().map(Attraction::getId).toList());
+        assertThat(search.getContent()).hasSize(4).extracting(AttractionSummaryDTO::getCity).containsOnly("Tunis");
+    }
+
+    @Test
+    void summaryPagesCountOnlyWhenThePageIsFull() {
+        Attraction attraction = seedAttractions(1).get(0);
+        for (int i = 0; i < 5; i++) {
+            reserve(attraction, "touriste-" + i);
+        }
+        clearPersistenceContext();
+
+        Page<ReservationSummaryDTO> page = assertStatements(2,
+            () -> reservationService.getReservationSummariesByAttractionId(attraction.getId(), PageRequest.of(0, 3)));
+
+        assertThat(page.getTotalElements()).isEqualTo(5);
+        assertThat(page.getContent()).extracting(ReservationSummaryDTO::getAttractionId).containsOnly(attraction.getId());
+    }
+
+    @Test
+    void jdbcTemplateStatementsAreCountedAndNestedScopesAddUp() {
+        try (SqlStatementCounter.Scope outer = SqlStatementCounter.open()) {
+            int inner = countStatements(() -> {
+                jdbcTemplate.queryForObject("SELECT COUNT(*) FROM attractions", Long.class);
+                jdbcTemplate.queryForObject("SELECT COUNT(*) FROM reviews", Long.class);
+            });
+            jdbcTemplate.queryForObject("SELECT COUNT(*) FROM reservations", Long.class);
+
+            assertThat(inner).isEqualTo(2);
+            assertThat(outer.getStatements()).isEqualTo(3);
+            assertThat(outer.getNanos()).isPositive();
+        }
+
+        assertThatThrownBy(() -> assertStatements(0,
+                () -> jdbcTemplate.queryForObject("SELECT COUNT(*) FROM attractions", Long.class)))
+            .isInstanceOf(AssertionError.class)
+            .hasMessageContaining("0 attendues, 1 exécutées");
+    }
+
+    private void clearPersistenceContext() {
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private List<Attraction> seedAttractions(int count) {
+        List<Attraction> attractions = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Attraction attraction = new Attraction();
+            attraction.setName("Attraction " + i);
+            attraction.setCategory(Category.MUSEUM);
+            attraction.setMaxCapacity(100);
+            attraction.setEntryPrice(10.0);
+            attraction.setLocation(new Location(36.8, 10.18, "Rue " + i, "1000", "Tunis", "Tunisie"));
+            entityManager.persist(attraction);
+            attractions.add(attraction);
+        }
+        return attractions;
+    }
+
+    private void reserve(Attraction attraction, String touristId) {
+        Reservation reservation = new Reservation();
+        reservation.setReservationCode("RES-" + System.nanoTime());
+        reservation.setAttraction(attraction);
+        reservation.setTouristId(touristId);
+        reservation.setTouristName("Touriste");
+        reservation.setTouristEmail("touriste@example.com");
+        reservation.setVisitDate(LocalDate.now().plusDays(3));
+        reservation.setReservationTime(LocalDateTime.now());
+        reservation.setNumberOfPeople(2);
+        reservation.setStatus(Reservation.ReservationStatus.CONFIRMED);
+        reservation.setTotalPrice(20.0);
+        entityManager.persist(reservation);
+    }
+
+    private void review(Attraction attraction, String touristId) {
+        Review review = new Review();
+        review.setAttraction(attraction);
+        review.setTouristId(touristId);
+        review.setTouristName("Touriste");
+        review.setRating(4);
+        entityManager.persist(review);
+    }
+}
@@ -0,0 +1,109 @@
+package com.smarttourism.attractions.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smarttourism.attractions.Entities.Attraction;
+import com.smarttourism.attractions.Entities.Category;
+import com.smarttourism.attractions.Entities.Location;
+import com.smarttourism.attractions.Entities.Reservation;
+import com.smarttourism.attractions.exception.ValidationException;
+import com.smarttourism.attractions.service.ReservationExportService.ExportFormat;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({ReservationService.class, ReservationExportService.class, LiveVisitorCounters.class, OccupancyLedger.class,
+         SlotInventory.class})
+class ReservationExportServiceTest {
+
+    private static final LocalDate START = LocalDate.of(2024, 12, 1);
+
+    @Autowired
+    private ReservationExportService reservationExportService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void seed() {
+        Attraction attraction = new Attraction();
+        attraction.setName("Amphithéâtre d'El Jem");
+        attraction.setCategory(Category.HISTORICAL);
+        attraction.setLocation(new Location(35.29, 10.7, "El Jem", "5160", "Mahdia", "Tunisie"));
+        entityManager.persist(attraction);
+
+        for (int day = 0; day < 40; day++) {
+            for (int i = 0; i < 5; i++) {
+                Reservation reservation = new Reservation();
+                reservation.setAttraction(attraction);
+                reservation.setTouristId("tourist_" + day + "_" + i);
+                reservation.setTouristName(i == 0 ? "Dupont, \"Jean\"" : "Touriste " + i);
+                reservation.setTouristEmail("t" + day + "_" + i + "@example.com");
+                reservation.setVisitDate(START.plusDays(day));
+                reservation.setNumberOfPeople(2);
+                reservation.setTotalPrice(24.0);
+                entityManager.persist(reservation);
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void ndjsonExportWritesOneDetachedReservationPerLine() throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        long rows = reservationExportService.exportReservations(START, START.plusDays(30), ExportFormat.NDJSON, output);
+
+        List<String> lines = output.toString(StandardCharsets.UTF_8).lines().toList();
+        assertThat(rows).isEqualTo(155);
+        assertThat(lines).hasSize(155);
+        JsonNode first = objectMapper.readTree(lines.get(0));
+        assertThat(first.get("visitDate").asText()).isEqualTo("2024-12-01");
+        assertThat(first.get("attractionName").asText()).isEqualTo("Amphithéâtre d'El Jem");
+        // Aucune réservation ne reste attachée au contexte de persistance
+        assertThat(entityManager.unwrap(Session.class).getStatistics().getEntityCount())
+            .isLessThanOrEqualTo(1);
+    }
+
+    @Test
+    void csvExportEscapesSeparatorsAndQuotes() {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        reservationExportService.exportReservations(START, START, ExportFormat.CSV, output);
+
+        List<String> lines = output.toString(StandardCharsets.UTF_8).lines().toList();
+        assertThat(lines).hasSize(6);
+        assertThat(lines.get(0)).startsWith("id,reservationCode,attractionId,attractionName");
+        assertThat(lines).anySatisfy(line -> assertThat(line).contains(",\"Dupont, \"\"Jean\"\"\","));
+    }
+
+    @Test
+    void invertedRangeIsRejected() {
+        assertThatThrownBy(() -> reservationExportService.exportReservations(
+                START.plusDays(1), START, ExportFormat.CSV, new ByteArrayOutputStream()))
+            .isInstanceOf(ValidationException.class);
+    }
+}
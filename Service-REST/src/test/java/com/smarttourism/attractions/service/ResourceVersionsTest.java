@@ -0,0 +1,116 @@
+package com.smarttourism.attractions.service;
+
+import com.smarttourism.attractions.dto.AttractionDTO;
+import com.smarttourism.attractions.event.AttractionChangedEvent;
+import com.smarttourism.attractions.event.AttractionChangedEvent.ChangeType;
+import com.smarttourism.attractions.event.ReservationChangedEvent;
+import org.junit.jupiter.api.Test;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResourceVersionsTest {
+
+    private final ResourceVersions versions = new ResourceVersions();
+
+    @Test
+    void attractionChangeMovesOnlyItsOwnTagsAndTheCatalog() {
+        String attraction = versions.attractionTag(1L, true);
+        String other = versions.attractionTag(2L, true);
+        String summary = versions.reviewSummaryTag(1L);
+        String featured = versions.catalogTag("featured");
+        String cities = versions.catalogStructureTag("cities");
+
+        versions.onAttractionChanged(new AttractionChangedEvent(1L, ChangeType.RATING_CHANGED));
+
+        assertThat(versions.attractionTag(1L, true)).isNotEqualTo(attraction);
+        assertThat(versions.reviewSummaryTag(1L)).isNotEqualTo(summary);
+        assertThat(versions.attractionTag(2L, true)).isEqualTo(other);
+        assertThat(versions.catalogTag("featured")).isNotEqualTo(featured).startsWith("W/");
+        assertThat(versions.catalogStructureTag("cities")).isEqualTo(cities);
+        // Ouverture ou fermeture sans événement: l'ETag change quand même
+        assertThat(versions.attractionTag(2L, false)).isNotEqualTo(other);
+
+        versions.onAttractionChanged(new AttractionChangedEvent(3L, ChangeType.CREATED));
+        assertThat(versions.catalogStructureTag("cities")).isNotEqualTo(cities);
+    }
+
+    @Test
+    void visitorCountMovesOnlyTheAttractionTag() {
+        String attraction = versions.attractionTag(1L, true);
+        String summary = versions.reviewSummaryTag(1L);
+        String availability = versions.availabilityTag(1L);
+        String featured = versions.catalogTag("featured");
+
+        versions.onAttractionChanged(new AttractionChangedEvent(1L, ChangeType.VISITORS_CHANGED));
+
+        assertThat(versions.attractionTag(1L, true)).isNotEqualTo(attraction);
+        assertThat(versions.reviewSummaryTag(1L)).isEqualTo(summary);
+        assertThat(versions.availabilityTag(1L)).isEqualTo(availability);
+        assertThat(versions.catalogTag("featured")).isEqualTo(featured);
+    }
+
+    @Test
+    void availabilityFollowsReservationsAndBulkImportMovesEveryAttraction() {
+        String availability = versions.availabilityTag(1L);
+        String attraction = versions.attractionTag(1L, true);
+        String untouched = versions.attractionTag(42L, true);
+
+        versions.onReservationChanged(new ReservationChangedEvent(1L));
+        assertThat(versions.availabilityTag(1L)).isNotEqualTo(availability);
+        assertThat(versions.attractionTag(1L, true)).isEqualTo(attraction);
+
+        versions.onAttractionChanged(new AttractionChangedEvent(null, ChangeType.BULK_IMPORTED));
+        assertThat(versions.attractionTag(1L, true)).isNotEqualTo(attraction);
+        assertThat(versions.attractionTag(42L, true)).isNotEqualTo(untouched);
+    }
+
+    @Test
+    void cachedAttractionReportsTheCurrentOpenState() {
+        // DTO converti quand l'attraction était ouverte, lu après la fermeture
+        AttractionDTO attraction = new AttractionDTO();
+        attraction.setIsOpen(true);
+        attraction.setOpeningTime(LocalTime.now().plusHours(1));
+        attraction.setClosingTime(LocalTime.now().plusHours(2));
+        assertThat(attraction.getIsOpen()).isFalse();
+
+        // Sans horaires (lecture partielle): la valeur calculée à la conversion
+        attraction.setOpeningTime(null);
+        assertThat(attraction.getIsOpen()).isTrue();
+    }
+
+    @Test
+    void catalogListTagFollowsTheOpenStateOfItsItems() {
+        AttractionDTO open = new AttractionDTO();
+        open.setOpeningTime(LocalTime.MIN);
+        open.setClosingTime(LocalTime.MAX);
+        AttractionDTO closed = new AttractionDTO();
+        closed.setIsOpen(true);
+        closed.setOpeningTime(LocalTime.MAX);
+        closed.setClosingTime(LocalTime.MAX);
+        String version = versions.catalogTag("featured");
+
+        String before = ResourceVersions.withOpenState(version, List.of(open, closed));
+        assertThat(before).startsWith("W/\"featured-").endsWith("\"");
+        assertThat(ResourceVersions.withOpenState(version, List.of(open, closed))).isEqualTo(before);
+
+        // Fermeture sans événement: même version du catalogue, autre ETag
+        open.setOpeningTime(LocalTime.MAX);
+        assertThat(ResourceVersions.withOpenState(version, List.of(open, closed))).isNotEqualTo(before);
+    }
+
+    @Test
+    void ifNoneMatchUsesWeakComparison() {
+        String featured = versions.catalogTag("featured");
+        assertThat(ResourceVersions.matches(versions.attractionTag(1L, true), versions.attractionTag(1L, true))).isTrue();
+        assertThat(ResourceVersions.matches(featured, featured)).isTrue();
+        assertThat(ResourceVersions.matches(featured.substring(2), featured)).isTrue();
+        assertThat(ResourceVersions.matches("\"x\", " + featured, featured)).isTrue();
+        assertThat(ResourceVersions.matches("*", featured)).isTrue();
+        assertThat(ResourceVersions.matches(null, featured)).isFalse();
+
+        versions.onAttractionChanged(new AttractionChangedEvent(1L, ChangeType.UPDATED));
+        assertThat(ResourceVersions.matches(featured, versions.catalogTag("featured"))).isFalse();
+    }
+}
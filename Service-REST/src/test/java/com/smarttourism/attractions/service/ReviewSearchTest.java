@@ -0,0 +1,131 @@
+package com.smarttourism.attractions.service;
+
+import com.smarttourism.attractions.Entities.Attraction;
+import com.smarttourism.attractions.Entities.Category;
+import com.smarttourism.attractions.Entities.Location;
+import com.smarttourism.attractions.Entities.Review;
+import com.smarttourism.attractions.config.SqlMonitoringConfig;
+import com.smarttourism.attractions.dto.ReviewDTO;
+import com.smarttourism.attractions.event.ReviewChangedEvent;
+import com.smarttourism.attractions.exception.ValidationException;
+import com.smarttourism.attractions.search.ReviewSearchIndex;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import java.util.List;
+
+import static com.smarttourism.attractions.monitoring.SqlStatementAssertions.assertStatements;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({SqlMonitoringConfig.class, ReviewService.class, HelpfulVoteCounters.class, ReviewSearchIndex.class})
+class ReviewSearchTest {
+
+    @Autowired
+    private ReviewService reviewService;
+
+    @Autowired
+    private ReviewSearchIndex reviewSearchIndex;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void ranksByRelevanceIgnoringAccentsAndStopWordsAndAppliesFilters() {
+        Attraction bardo = persistAttraction("Musée du Bardo");
+        Attraction medina = persistAttraction("Médina de Tunis");
+        Review guided = persistReview(bardo, 5, true, "Guide passionnant",
+            "Le guide était passionnant, les mosaïques sont superbes");
+        Review mosaics = persistReview(bardo, 3, false, "Mosaïques",
+            "Belles mosaïques mais le guide était pressé");
+        Review souks = persistReview(medina, 4, true, "Souks animés", "Un guide local nous a montré les souks");
+        persistReview(medina, 2, false, "Trop de monde", "Beaucoup d'attente à l'entrée");
+        clearPersistenceContext();
+        reviewSearchIndex.rebuild();
+
+        // Une requête SQL pour charger les avis classés, attraction comprise
+        List<ReviewDTO> results = assertStatements(1, () ->
+            reviewService.searchReviews("GUIDE passionnant", null, null, null, null, 20));
+        assertThat(results).extracting(ReviewDTO::getId).containsExactly(guided.getId());
+        assertThat(results.get(0).getAttractionName()).isEqualTo("Musée du Bardo");
+
+        assertThat(ids("guide", null, null, null, null)).first().isEqualTo(guided.getId());
+        assertThat(ids("guide", null, null, null, null))
+            .containsExactlyInAnyOrder(guided.getId(), mosaics.getId(), souks.getId());
+        assertThat(ids("mosaiques", null, null, null, null)).first().isEqualTo(mosaics.getId());
+        assertThat(ids("le et les", null, null, null, null)).isEmpty();
+
+        assertThat(ids("guide", medina.getId(), null, null, null)).containsExactly(souks.getId());
+        assertThat(ids("guide", null, 4, null, null)).containsExactlyInAnyOrder(guided.getId(), souks.getId());
+        assertThat(ids("guide", null, null, 3, null)).containsExactly(mosaics.getId());
+        assertThat(ids("guide", bardo.getId(), null, null, true)).containsExactly(guided.getId());
+    }
+
+    @Test
+    void indexFollowsReviewEditsAndDeletions() {
+        Attraction attraction = persistAttraction("Sidi Bou Saïd");
+        Review review = persistReview(attraction, 4, false, "Vue magnifique", "Café des Nattes très agréable");
+        clearPersistenceContext();
+        reviewSearchIndex.rebuild();
+        assertThat(ids("nattes", null, null, null, null)).containsExactly(review.getId());
+
+        Review edited = entityManager.find(Review.class, review.getId());
+        edited.setComment("Coucher de soleil inoubliable");
+        edited.setRating(5);
+        clearPersistenceContext();
+        reviewSearchIndex.onReviewChanged(new ReviewChangedEvent(review.getId()));
+
+        assertThat(ids("nattes", null, null, null, null)).isEmpty();
+        assertThat(ids("soleil", null, 5, null, null)).containsExactly(review.getId());
+
+        entityManager.remove(entityManager.find(Review.class, review.getId()));
+        clearPersistenceContext();
+        reviewSearchIndex.onReviewChanged(new ReviewChangedEvent(review.getId()));
+        assertThat(ids("soleil", null, null, null, null)).isEmpty();
+
+        assertThatThrownBy(() -> reviewService.searchReviews(" ", null, null, null, null, 20))
+            .isInstanceOf(ValidationException.class);
+        assertThatThrownBy(() -> reviewService.searchReviews("soleil", null, 0, null, null, 20))
+            .isInstanceOf(ValidationException.class);
+    }
+
+    private List<Long> ids(String query, Long attractionId, Integer minRating, Integer maxRating, Boolean verified) {
+        return reviewService.searchReviews(query, attractionId, minRating, maxRating, verified, 20).stream()
+            .map(ReviewDTO::getId)
+            .toList();
+    }
+
+    private Attraction persistAttraction(String name) {
+        Attraction attraction = new Attraction();
+        attraction.setName(name);
+        attraction.setCategory(Category.HISTORICAL);
+        attraction.setLocation(new Location(36.8, 10.18, "Rue", "1000", "Tunis", "Tunisie"));
+        entityManager.persist(attraction);
+        return attraction;
+    }
+
+    private Review persistReview(Attraction attraction, int rating, boolean verified, String title, String comment) {
+        Review review = new Review();
+        review.setAttraction(attraction);
+        review.setTouristId("touriste-" + title.hashCode());
+        review.setTouristName("Touriste");
+        review.setRating(rating);
+        review.setIsVerifiedVisit(verified);
+        review.setTitle(title);
+        review.setComment(comment);
+        entityManager.persist(review);
+        return review;
+    }
+
+    private void clearPersistenceContext() {
+        entityManager.flush();
+        entityManager.clear();
+    }
+}
@@ -0,0 +1,99 @@
+package com.smarttourism.attractions.service;
+
+import com.smarttourism.attractions.Entities.Attraction;
+import com.smarttourism.attractions.Entities.Category;
+import com.smarttourism.attractions.Entities.Location;
+import com.smarttourism.attractions.dto.ReviewDTO;
+import com.smarttourism.attractions.dto.requests.CreateReviewRequest;
+import com.smarttourism.attractions.search.ReviewSearchIndex;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({ReviewService.class, HelpfulVoteCounters.class, ReviewSearchIndex.class, RatingCountersRebuildJob.class})
+class ReviewServiceRatingCountersTest {
+
+    @Autowired
+    private ReviewService reviewService;
+
+    @Autowired
+    private RatingCountersRebuildJob ratingCountersRebuildJob;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void reviewWritesKeepCountersInSyncAndRebuildAgrees() {
+        Attraction attraction = new Attraction();
+        attraction.setName("Musée du Bardo");
+        attraction.setCategory(Category.MUSEUM);
+        attraction.setLocation(new Location(36.81, 10.13, "Le Bardo", "2000", "Tunis", "Tunisie"));
+        entityManager.persist(attraction);
+        Long attractionId = attraction.getId();
+
+        ReviewDTO five = reviewService.createReview(request(attractionId, "tourist_1", 5));
+        ReviewDTO four = reviewService.createReview(request(attractionId, "tourist_2", 4));
+        reviewService.createReview(request(attractionId, "tourist_3", 2));
+        reviewService.updateReview(four.getId(), request(attractionId, "tourist_2", 1));
+        reviewService.deleteReview(five.getId(), "tourist_1");
+
+        assertCounters(attractionId);
+
+        // Corrompre les compteurs puis vérifier que la reconstruction retrouve les mêmes valeurs
+        entityManager.createQuery("UPDATE Attraction a SET a.ratingCount1 = 42, a.ratingSum = 0 WHERE a.id = :id")
+                .setParameter("id", attractionId)
+                .executeUpdate();
+        Attraction unrated = new Attraction();
+        unrated.setName("Dar Lasram");
+        unrated.setCategory(Category.MUSEUM);
+        unrated.setLocation(new Location(36.80, 10.17, "Médina", "1008", "Tunis", "Tunisie"));
+        unrated.setRatingCount3(7);
+        unrated.setRatingSum(21L);
+        unrated.setTotalReviews(7);
+        unrated.setRating(3.0);
+        entityManager.persist(unrated);
+        entityManager.flush();
+        entityManager.clear();
+        ratingCountersRebuildJob.rebuildAll();
+
+        assertCounters(attractionId);
+        Attraction reset = entityManager.find(Attraction.class, unrated.getId());
+        assertThat(reset.getRatingCount3()).isZero();
+        assertThat(reset.getRatingSum()).isZero();
+        assertThat(reset.getTotalReviews()).isZero();
+        assertThat(reset.getRating()).isZero();
+        assertThat(reset.getName()).isEqualTo("Dar Lasram");
+    }
+
+    private void assertCounters(Long attractionId) {
+        entityManager.flush();
+        entityManager.clear();
+        Attraction reloaded = entityManager.find(Attraction.class, attractionId);
+        assertThat(reloaded.getRatingCount1()).isEqualTo(1);
+        assertThat(reloaded.getRatingCount2()).isEqualTo(1);
+        assertThat(reloaded.getRatingCount3()).isZero();
+        assertThat(reloaded.getRatingCount4()).isZero();
+        assertThat(reloaded.getRatingCount5()).isZero();
+        assertThat(reloaded.getRatingSum()).isEqualTo(3L);
+        assertThat(reloaded.getTotalReviews()).isEqualTo(2);
+        assertThat(reloaded.getRating()).isEqualTo(1.5);
+    }
+
+    private CreateReviewRequest request(Long attractionId, String touristId, int rating) {
+        CreateReviewRequest request = new CreateReviewRequest();
+        request.setAttractionId(attractionId);
+        request.setTouristId(touristId);
+        request.setTouristName("Touriste " + touristId);
+        request.setRating(rating);
+        return request;
+    }
+}
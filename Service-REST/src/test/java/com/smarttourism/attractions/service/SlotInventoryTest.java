@@ -0,0 +1,298 @@
+package com.smarttourism.attractions.service;
+
+import com.smarttourism.attractions.Entities.Attraction;
+import com.smarttourism.attractions.Entities.Category;
+import com.smarttourism.attractions.Entities.Location;
+import com.smarttourism.attractions.Entities.Reservation;
+import com.smarttourism.attractions.dto.ReservationDTO;
+import com.smarttourism.attractions.dto.SlotAvailabilityDTO;
+import com.smarttourism.attractions.dto.requests.CreateReservationRequest;
+import com.smarttourism.attractions.event.AttractionChangedEvent;
+import com.smarttourism.attractions.event.AttractionChangedEvent.ChangeType;
+import com.smarttourism.attractions.exception.BusinessException;
+import com.smarttourism.attractions.exception.ErrorCode;
+import com.smarttourism.attractions.exception.ValidationException;
+import com.smarttourism.attractions.repository.AttractionRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Sans transaction de test: chaque réservation est validée pour de vrai, comme en production
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ReservationService.class, LiveVisitorCounters.class, OccupancyLedger.class, SlotInventory.class})
+class SlotInventoryTest {
+
+    private static final int THREADS = 16;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private SlotInventory slotInventory;
+
+    @Autowired
+    private AttractionRepository attractionRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM daily_occupancy");
+        jdbcTemplate.update("DELETE FROM reservations");
+        jdbcTemplate.update("DELETE FROM attractions");
+    }
+
+    @Test
+    void simultaneousBookingsNeverOverbookASlot() throws Exception {
+        Long id = saveAttraction(5).getId();
+        LocalDate date = LocalDate.now().plusDays(2);
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger sequence = new AtomicInteger();
+        List<Future<Integer>> results = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            results.add(executor.submit(() -> {
+                start.await();
+                int accepted = 0;
+                for (int n = sequence.getAndIncrement(); n < 200; n = sequence.getAndIncrement()) {
+                    try {
+                        reservationService.createReservation(request(id, "t" + n, date, "10:00", 1));
+                        accepted++;
+                    } catch (BusinessException full) {
+                        // Créneau complet: la réservation est refusée
+                    }
+                }
+                return accepted;
+            }));
+        }
+        start.countDown();
+        int accepted = 0;
+        for (Future<Integer> result : results) {
+            accepted += result.get();
+        }
+        executor.shutdown();
+        assertThat(executor.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(accepted).isEqualTo(5);
+        assertThat(confirmedPeople(id, date, "10:00")).isEqualTo(5);
+        assertThat(spotsByStart(id, date)).containsExactly(5, 0, 5, 5);
+    }
+
+    @Test
+    void reschedulingAndCancellingMoveSeatsBetweenSlots() {
+        Long id = saveAttraction(4).getId();
+        LocalDate date = LocalDate.now().plusDays(3);
+
+        ReservationDTO family = reservationService.createReservation(request(id, "family", date, "09:00", 3));
+        ReservationDTO couple = reservationService.createReservation(request(id, "couple", date, "11:00", 2));
+        assertThat(spotsByStart(id, date)).containsExactly(1, 4, 2, 4);
+
+        reservationService.updateReservation(family.getId(), request(id, "family", date, "10:00", 3));
+        assertThat(spotsByStart(id, date)).containsExactly(4, 1, 2, 4);
+
+        // Créneau trop petit: ni le créneau, ni la journée, ni la réservation ne bougent
+        assertThatThrownBy(() -> reservationService.updateReservation(couple.getId(),
+                request(id, "couple", date, "10:00", 2)))
+            .isInstanceOf(BusinessException.class)
+            .extracting("errorCode").isEqualTo(ErrorCode.TIME_SLOT_UNAVAILABLE);
+        assertThat(spotsByStart(id, date)).containsExactly(4, 1, 2, 4);
+        assertThat(confirmedPeople(id, date, "11:00")).isEqualTo(2);
+        assertThat(occupancyPeople(id, date)).isEqualTo(5);
+
+        reservationService.updateReservation(couple.getId(), request(id, "couple", date.plusDays(1), "12:00", 4));
+        assertThat(spotsByStart(id, date)).containsExactly(4, 1, 4, 4);
+        assertThat(spotsByStart(id, date.plusDays(1))).containsExactly(4, 4, 4, 0);
+
+        reservationService.cancelReservation(family.getId(), "Empêchement");
+        reservationService.updateReservationStatus(couple.getId(), Reservation.ReservationStatus.PENDING);
+        assertThat(spotsByStart(id, date)).containsExactly(4, 4, 4, 4);
+        assertThat(spotsByStart(id, date.plusDays(1))).containsExactly(4, 4, 4, 4);
+
+        reservationService.updateReservationStatus(couple.getId(), Reservation.ReservationStatus.CONFIRMED);
+        assertThat(spotsByStart(id, date.plusDays(1))).containsExactly(4, 4, 4, 0);
+    }
+
+    @Test
+    void visitTimeMustBeASlotStartAndIsNormalized() {
+        Long id = saveAttraction(4).getId();
+        LocalDate date = LocalDate.now().plusDays(1);
+
+        assertThatThrownBy(() -> reservationService.createReservation(request(id, "late", date, "10:30", 1)))
+            .isInstanceOf(ValidationException.class);
+        assertThatThrownBy(() -> reservationService.createReservation(request(id, "closed", date, "13:00", 1)))
+            .isInstanceOf(ValidationException.class);
+        assertThatThrownBy(() -> reservationService.createReservation(request(id, "vague", date, "MORNING", 1)))
+            .isInstanceOf(ValidationException.class);
+
+        ReservationDTO booked = reservationService.createReservation(request(id, "exact", date, "11:00:00", 2));
+        assertThat(booked.getVisitTime()).isEqualTo("11:00");
+    }
+
+    @Test
+    void inventoryReloadedFromReservationsMatchesInMemoryMoves() {
+        Attraction attraction = saveAttraction(6);
+        Long id = attraction.getId();
+        LocalDate date = LocalDate.now().plusDays(5);
+
+        reservationService.createReservation(request(id, "a", date, "09:00", 2));
+        ReservationDTO b = reservationService.createReservation(request(id, "b", date, "12:00", 6));
+        reservationService.updateReservation(b.getId(), request(id, "b", date, "10:00", 5));
+        List<Integer> inMemory = spotsByStart(id, date);
+
+        slotInventory.reload(id, date);
+        assertThat(spotsByStart(id, date)).isEqualTo(inMemory).containsExactly(4, 1, 6, 6);
+    }
+
+    @Test
+    void unrelatedUpdateKeepsSeatsOfUncommittedBookings() {
+        Long id = saveAttraction(4).getId();
+        LocalDate date = LocalDate.now().plusDays(2);
+        reservationService.createReservation(request(id, "a", date, "10:00", 1));
+        jdbcTemplate.update("UPDATE attractions SET description = 'Maison-musée' WHERE id = ?", id);
+
+        // L'événement est traité sur un autre thread pendant qu'une réservation tient une place sans être validée
+        ExecutorService listener = Executors.newSingleThreadExecutor();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                reservationService.createReservation(request(id, "b", date, "10:00", 3));
+                List<Integer> spots = onAnotherThread(listener, () -> {
+                    slotInventory.onAttractionChanged(new AttractionChangedEvent(id, ChangeType.UPDATED));
+                    return spotsByStart(id, date);
+                });
+                assertThat(spots).containsExactly(4, 0, 4, 4);
+            });
+        } finally {
+            listener.shutdown();
+        }
+        assertThat(spotsByStart(id, date)).containsExactly(4, 0, 4, 4);
+        assertThat(confirmedPeople(id, date, "10:00")).isEqualTo(4);
+    }
+
+    @Test
+    void newSlotDefinitionCarriesSeatsOfUncommittedBookings() {
+        Long id = saveAttraction(4).getId();
+        LocalDate date = LocalDate.now().plusDays(2);
+        reservationService.createReservation(request(id, "a", date, "10:00", 1));
+        jdbcTemplate.update("UPDATE attractions SET slot_capacity = 6 WHERE id = ?", id);
+
+        ExecutorService listener = Executors.newSingleThreadExecutor();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                reservationService.createReservation(request(id, "b", date, "10:00", 3));
+                List<Integer> spots = onAnotherThread(listener, () -> {
+                    slotInventory.onAttractionChanged(new AttractionChangedEvent(id, ChangeType.UPDATED));
+                    return spotsByStart(id, date);
+                });
+                assertThat(spots).containsExactly(6, 2, 6, 6);
+                // Annulée après la nouvelle définition: la place est rendue dans le nouvel inventaire
+                status.setRollbackOnly();
+            });
+        } finally {
+            listener.shutdown();
+        }
+        assertThat(spotsByStart(id, date)).containsExactly(6, 5, 6, 6);
+        assertThat(confirmedPeople(id, date, "10:00")).isEqualTo(1);
+    }
+
+    @Test
+    void attractionsWithoutSlotsKeepFreeFormVisitTimes() {
+        Attraction attraction = saveAttraction(null);
+        LocalDate date = LocalDate.now().plusDays(1);
+
+        ReservationDTO booked = reservationService.createReservation(
+            request(attraction.getId(), "free", date, "MORNING", 2));
+
+        assertThat(booked.getVisitTime()).isEqualTo("MORNING");
+        assertThatThrownBy(() -> slotInventory.availability(attraction.getId(), date))
+            .isInstanceOf(BusinessException.class);
+    }
+
+    private static <T> T onAnotherThread(ExecutorService executor, Callable<T> task) {
+        try {
+            return executor.submit(task).get(30, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            throw new IllegalStateException(e.getCause() != null ? e.getCause() : e);
+        }
+    }
+
+    private List<Integer> spotsByStart(Long attractionId, LocalDate date) {
+        SlotAvailabilityDTO availability = slotInventory.availability(attractionId, date);
+        assertThat(availability.getSlots()).extracting(SlotAvailabilityDTO.Slot::getStart)
+            .containsExactly(LocalTime.of(9, 0), LocalTime.of(10, 0), LocalTime.of(11, 0), LocalTime.of(12, 0));
+        return availability.getSlots().stream()
+            .map(SlotAvailabilityDTO.Slot::getAvailableSpots)
+            .collect(Collectors.toList());
+    }
+
+    private Integer confirmedPeople(Long attractionId, LocalDate date, String visitTime) {
+        return jdbcTemplate.queryForObject("SELECT COALESCE(SUM(number_of_people), 0) FROM reservations " +
+            "WHERE attraction_id = ? AND visit_date = ? AND visit_time = ? AND status = 'CONFIRMED'",
+            Integer.class, attractionId, date, visitTime);
+    }
+
+    private Integer occupancyPeople(Long attractionId, LocalDate date) {
+        return jdbcTemplate.queryForObject("SELECT confirmed_people FROM daily_occupancy WHERE attraction_id = ? AND visit_date = ?",
+            Integer.class, attractionId, date);
+    }
+
+    private CreateReservationRequest request(Long attractionId, String touristId, LocalDate date,
+                                             String visitTime, int people) {
+        CreateReservationRequest request = new CreateReservationRequest();
+        request.setAttractionId(attractionId);
+        request.setTouristId(touristId);
+        request.setTouristName("Touriste " + touristId);
+        request.setTouristEmail(touristId + "@example.com");
+        request.setVisitDate(date);
+        request.setVisitTime(visitTime);
+        request.setNumberOfPeople(people);
+        return request;
+    }
+
+    // Quatre créneaux d'une heure, de 9h à 13h
+    private Attraction saveAttraction(Integer slotCapacity) {
+        Attraction attraction = new Attraction();
+        attraction.setName("Dar Ben Abdallah");
+        attraction.setCategory(Category.MUSEUM);
+        attraction.setMaxCapacity(100);
+        attraction.setEntryPrice(5.0);
+        attraction.setOpeningTime(LocalTime.of(9, 0));
+        attraction.setClosingTime(LocalTime.of(13, 0));
+        if (slotCapacity != null) {
+            attraction.setSlotDurationMinutes(60);
+            attraction.setSlotCapacity(slotCapacity);
+        }
+        attraction.setLocation(new Location(36.79, 10.17, "Médina", "1008", "Tunis", "Tunisie"));
+        return attractionRepository.save(attraction);
+    }
+}
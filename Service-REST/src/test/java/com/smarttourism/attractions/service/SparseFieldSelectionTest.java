@@ -0,0 +1,196 @@
+package com.smarttourism.attractions.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.smarttourism.attractions.Entities.Attraction;
+import com.smarttourism.attractions.Entities.Category;
+import com.smarttourism.attractions.Entities.Location;
+import com.smarttourism.attractions.Entities.Reservation;
+import com.smarttourism.attractions.Entities.Review;
+import com.smarttourism.attractions.config.SparseFieldsetConfig;
+import com.smarttourism.attractions.config.SqlMonitoringConfig;
+import com.smarttourism.attractions.dto.AttractionDTO;
+import com.smarttourism.attractions.dto.FieldSelection;
+import com.smarttourism.attractions.dto.ReservationDTO;
+import com.smarttourism.attractions.dto.ReviewDTO;
+import com.smarttourism.attractions.exception.ValidationException;
+import com.smarttourism.attractions.search.AttractionGeoIndex;
+import com.smarttourism.attractions.search.AttractionSearchIndex;
+import com.smarttourism.attractions.search.ReviewSearchIndex;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.context.ActiveProfiles;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static com.smarttourism.attractions.monitoring.SqlStatementAssertions.assertStatements;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({SqlMonitoringConfig.class, AttractionService.class, ReservationService.class, ReviewService.class,
+    HelpfulVoteCounters.class, ReviewSearchIndex.class, AttractionSearchIndex.class, AttractionGeoIndex.class,
+    AttractionStatistics.class, LiveVisitorCounters.class, OccupancyLedger.class, SlotInventory.class})
+class SparseFieldSelectionTest {
+
+    @Autowired
+    private AttractionService attractionService;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private ReviewService reviewService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void attractionFieldsReadOnlyRequestedColumnsAndComputeDerivedOnDemand() {
+        Attraction attraction = attraction("Musée du Bardo", "Tunis");
+        attraction.setOpeningTime(LocalTime.MIN);
+        attraction.setClosingTime(LocalTime.of(23, 59, 59));
+        attraction.setRatingCount5(7);
+        entityManager.persist(attraction);
+        entityManager.persist(attraction("Carthage", "Carthage"));
+        clearPersistenceContext();
+
+        List<AttractionDTO> attractions = assertStatements(1, () -> attractionService.getAttractionsByCity("Tunis",
+            FieldSelection.parse("name,isOpen,ratingDistribution5", AttractionDTO.class)));
+
+        assertThat(attractions).singleElement().satisfies(dto -> {
+            assertThat(dto.getName()).isEqualTo("Musée du Bardo");
+            assertThat(dto.getIsOpen()).isTrue();
+            assertThat(dto.getRatingDistribution5()).isEqualTo(7);
+            assertThat(dto.getId()).isNull();
+            assertThat(dto.getDescription()).isNull();
+            assertThat(dto.getAvailableSpots()).isNull();
+            assertThat(dto.getOccupancyRate()).isNull();
+            assertThat(dto.getRatingDistribution1()).isNull();
+        });
+    }
+
+    @Test
+    void highVolumeListsReadOnlyRequestedColumnsInTheirOwnOrder() {
+        for (int i = 0; i < 12; i++) {
+            Attraction attraction = attraction("Attraction " + i, "Tunis");
+            attraction.setRating((double) i % 5);
+            attraction.setIsFeatured(i == 3);
+            entityManager.persist(attraction);
+        }
+        clearPersistenceContext();
+        FieldSelection fields = FieldSelection.parse("name,rating", AttractionDTO.class);
+
+        List<AttractionDTO> all = assertStatements(1, () -> attractionService.getAllAttractions(fields));
+        List<AttractionDTO> topRated = assertStatements(1, () -> attractionService.getTopRatedAttractions(fields));
+        List<AttractionDTO> featured = assertStatements(1, () -> attractionService.getFeaturedAttractions(fields));
+
+        assertThat(all).hasSize(12).allSatisfy(dto -> assertThat(dto.getDescription()).isNull());
+        assertThat(topRated).hasSize(10).extracting(AttractionDTO::getRating).isSortedAccordingTo((a, b) -> Double.compare(b, a));
+        assertThat(topRated.get(0).getRating()).isEqualTo(4.0);
+        assertThat(featured).singleElement().satisfies(dto -> {
+            assertThat(dto.getName()).isEqualTo("Attraction 3");
+            assertThat(dto.getId()).isNull();
+        });
+    }
+
+    @Test
+    void reservationAndReviewFieldsJoinAttractionOnlyWhenItsNameIsRequested() {
+        Attraction attraction = attraction("Médina", "Tunis");
+        entityManager.persist(attraction);
+        for (int i = 0; i < 3; i++) {
+            Reservation reservation = new Reservation();
+            reservation.setAttraction(attraction);
+            reservation.setTouristId("voyageur");
+            reservation.setTouristName("Touriste");
+            reservation.setTouristEmail("touriste@example.com");
+            reservation.setVisitDate(LocalDate.now().plusDays(i + 1));
+            reservation.setNumberOfPeople(2);
+            reservation.setTotalPrice(20.0);
+            reservation.setSpecialRequirements("Accès poussette");
+            entityManager.persist(reservation);
+
+            Review review = new Review();
+            review.setAttraction(attraction);
+            review.setTouristId("touriste-" + i);
+            review.setTouristName("Touriste");
+            review.setRating(4);
+            review.setComment("Très belle visite");
+            entityManager.persist(review);
+        }
+        clearPersistenceContext();
+
+        List<ReservationDTO> reservations = assertStatements(1, () -> reservationService.getReservationsByTouristId(
+            "voyageur", FieldSelection.parse("reservationCode,visitDate,status", ReservationDTO.class)));
+        List<ReviewDTO> reviews = assertStatements(1, () -> reviewService.getReviewsByAttractionId(
+            attraction.getId(), FieldSelection.parse("rating,attractionName", ReviewDTO.class)));
+
+        assertThat(reservations).hasSize(3).allSatisfy(dto -> {
+            assertThat(dto.getReservationCode()).startsWith("RES-");
+            assertThat(dto.getStatus()).isEqualTo(Reservation.ReservationStatus.CONFIRMED);
+            assertThat(dto.getAttractionName()).isNull();
+            assertThat(dto.getSpecialRequirements()).isNull();
+        });
+        assertThat(reviews).hasSize(3).allSatisfy(dto -> {
+            assertThat(dto.getAttractionName()).isEqualTo("Médina");
+            assertThat(dto.getRating()).isEqualTo(4);
+            assertThat(dto.getComment()).isNull();
+        });
+    }
+
+    @Test
+    void selectionIsValidatedAgainstTheDtoFields() {
+        assertThat(FieldSelection.parse(null, AttractionDTO.class).isAll()).isTrue();
+        assertThat(FieldSelection.parse(" , ", AttractionDTO.class).isAll()).isTrue();
+        assertThat(FieldSelection.parse("id, name", AttractionDTO.class).getNames()).containsExactly("id", "name");
+
+        assertThatThrownBy(() -> FieldSelection.parse("id,password", AttractionDTO.class))
+            .isInstanceOf(ValidationException.class)
+            .hasMessageContaining("password");
+    }
+
+    @Test
+    void jsonKeepsOnlySelectedFieldsAndEverythingWithoutSelection() throws Exception {
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json();
+        new SparseFieldsetConfig().sparseFieldsetCustomizer().customize(builder);
+        ObjectMapper objectMapper = builder.build();
+        AttractionDTO dto = new AttractionDTO();
+        dto.setId(1L);
+        dto.setName("Musée du Bardo");
+        dto.setRating(4.5);
+
+        JsonNode all = objectMapper.readTree(objectMapper.writeValueAsString(List.of(dto)));
+        JsonNode sparse = objectMapper.readTree(objectMapper.writer(new SimpleFilterProvider()
+                .addFilter(FieldSelection.FILTER_ID, SimpleBeanPropertyFilter.filterOutAllExcept("id", "name")))
+            .writeValueAsString(List.of(dto)));
+
+        assertThat(all.get(0).has("ratingDistribution5")).isTrue();
+        assertThat(sparse.get(0).size()).isEqualTo(2);
+        assertThat(sparse.get(0).get("name").asText()).isEqualTo("Musée du Bardo");
+    }
+
+    private Attraction attraction(String name, String city) {
+        Attraction attraction = new Attraction();
+        attraction.setName(name);
+        attraction.setDescription("Description détaillée");
+        attraction.setCategory(Category.MUSEUM);
+        attraction.setMaxCapacity(100);
+        attraction.setLocation(new Location(36.8, 10.18, "Rue", "1000", city, "Tunisie"));
+        return attraction;
+    }
+
+    private void clearPersistenceContext() {
+        entityManager.flush();
+        entityManager.clear();
+    }
+}
@@ -0,0 +1,73 @@
+package com.smarttourism.attractions.dto;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smarttourism.attractions.service.BenchmarkFixtures;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Écriture JSON d'une page de PAGE_SIZE DTO, comme MappingJackson2HttpMessageConverter pour les listes paginées.
+// ObjectMapper construit comme celui de Spring Boot (JavaTimeModule, dates ISO)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+
+    private ObjectMapper objectMapper;
+
+    private Page<AttractionDTO> attractions;
+    private Page<ReservationDTO> reservations;
+    private Page<ReviewDTO> reviews;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        List<AttractionDTO> attractionRows = new ArrayList<>();
+        List<ReservationDTO> reservationRows = new ArrayList<>();
+        List<ReviewDTO> reviewRows = new ArrayList<>();
+        for (long id = 1; id <= BenchmarkFixtures.PAGE_SIZE; id++) {
+            attractionRows.add(BenchmarkFixtures.attractionDTO(id));
+            reservationRows.add(BenchmarkFixtures.reservationDTO(id));
+            reviewRows.add(BenchmarkFixtures.reviewDTO(id));
+        }
+
+        PageRequest pageable = PageRequest.of(0, BenchmarkFixtures.PAGE_SIZE);
+        attractions = new PageImpl<>(attractionRows, pageable, 1_000);
+        reservations = new PageImpl<>(reservationRows, pageable, 1_000);
+        reviews = new PageImpl<>(reviewRows, pageable, 1_000);
+    }
+
+    @Benchmark
+    public byte[] attractionPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(attractions);
+    }
+
+    @Benchmark
+    public byte[] reservationPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(reservations);
+    }
+
+    @Benchmark
+    public byte[] reviewPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(reviews);
+    }
+}
@@ -0,0 +1,65 @@
+package com.smarttourism.attractions.exception;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import java.util.concurrent.TimeUnit;
+
+// Chemin d'erreur complet d'une requête refusée: création de l'exception (pile comprise), passage par
+// GlobalExceptionHandler puis écriture du corps ApiError. Les journaux sont coupés (logback.xml du module)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExceptionHandlerBenchmark {
+
+    private GlobalExceptionHandler handler;
+    private ObjectMapper objectMapper;
+    private MockHttpServletRequest request;
+
+    @Setup
+    public void setUp() {
+        handler = new GlobalExceptionHandler();
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        request = new MockHttpServletRequest("GET", "/attractions/42");
+    }
+
+    @Benchmark
+    public byte[] notFound() throws JsonProcessingException {
+        ResourceNotFoundException ex = new ResourceNotFoundException(ErrorCode.ATTRACTION_NOT_FOUND, "Attraction", "id", 42L);
+        return objectMapper.writeValueAsBytes(handler.handleResourceNotFound(ex, request).getBody());
+    }
+
+    @Benchmark
+    public byte[] businessRule() throws JsonProcessingException {
+        BusinessException ex = new BusinessException(ErrorCode.TIME_SLOT_UNAVAILABLE,
+            "Le créneau 10:00 est complet");
+        return objectMapper.writeValueAsBytes(handler.handleBusinessException(ex, request).getBody());
+    }
+
+    @Benchmark
+    public byte[] validation() throws JsonProcessingException {
+        ValidationException ex = new ValidationException(ErrorCode.INVALID_CAPACITY,
+            "numberOfPeople", "Le nombre de personnes doit être positif");
+        return objectMapper.writeValueAsBytes(handler.handleValidationException(ex, request).getBody());
+    }
+
+    @Benchmark
+    public byte[] unexpected() throws JsonProcessingException {
+        IllegalStateException ex = new IllegalStateException("Erreur inattendue");
+        return objectMapper.writeValueAsBytes(handler.handleAllExceptions(ex, request).getBody());
+    }
+}
@@ -0,0 +1,180 @@
+package com.smarttourism.attractions.service;
+
+import com.smarttourism.attractions.Entities.Attraction;
+import com.smarttourism.attractions.Entities.Category;
+import com.smarttourism.attractions.Entities.Location;
+import com.smarttourism.attractions.Entities.Reservation;
+import com.smarttourism.attractions.Entities.Review;
+import com.smarttourism.attractions.dto.AttractionDTO;
+import com.smarttourism.attractions.dto.ReservationDTO;
+import com.smarttourism.attractions.dto.ReviewDTO;
+import com.smarttourism.attractions.dto.requests.CreateAttractionRequest;
+import com.smarttourism.attractions.dto.requests.CreateReservationRequest;
+import com.smarttourism.attractions.dto.requests.CreateReviewRequest;
+import org.mockito.Mockito;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+// Données représentatives d'une ligne de production (champs texte remplis, attraction associée chargée).
+// Dans le paquet service pour exposer les DTO produits par les vrais convertToDTO aux autres benchmarks
+public final class BenchmarkFixtures {
+
+    public static final int PAGE_SIZE = 20;
+
+    private static final AttractionService ATTRACTIONS = service(AttractionService.class);
+    private static final ReservationService RESERVATIONS = service(ReservationService.class);
+    private static final ReviewService REVIEWS = service(ReviewService.class);
+
+    private BenchmarkFixtures() {
+    }
+
+    // Service construit par son constructeur d'injection, chaque collaborateur remplacé par un mock Mockito:
+    // un collaborateur ajouté au service ne casse pas les benchmarks
+    public static <T> T service(Class<T> type) {
+        Constructor<?> constructor = type.getConstructors()[0];
+        Object[] collaborators = new Object[constructor.getParameterCount()];
+        Class<?>[] parameterTypes = constructor.getParameterTypes();
+        for (int i = 0; i < collaborators.length; i++) {
+            collaborators[i] = Mockito.mock(parameterTypes[i]);
+        }
+        try {
+            return type.cast(constructor.newInstance(collaborators));
+        } catch (InstantiationException | IllegalAccessException | InvocationTargetException e) {
+            throw new IllegalStateException("Construction impossible de " + type.getSimpleName(), e);
+        }
+    }
+
+    public static Attraction attraction(long id) {
+        Attraction attraction = new Attraction();
+        attraction.setId(id);
+        attraction.setName("Musée national du Bardo " + id);
+        attraction.setDescription("Collection de mosaïques romaines parmi les plus riches au monde, "
+            + "installée dans un ancien palais beylical du XIXe siècle.");
+        attraction.setCategory(Category.values()[(int) (id % Category.values().length)]);
+        attraction.setLocation(new Location(36.8094, 10.1345, "Rue Mongi Slim, Le Bardo", "2000", "Tunis", "Tunisie"));
+        attraction.setEntryPrice(13.0);
+        attraction.setOpeningTime(LocalTime.of(9, 0));
+        attraction.setClosingTime(LocalTime.of(17, 0));
+        attraction.setMaxCapacity(1_500);
+        attraction.setSlotDurationMinutes(60);
+        attraction.setSlotCapacity(200);
+        attraction.setCurrentVisitors(420);
+        attraction.setRating(4.6);
+        attraction.setTotalReviews(1_284);
+        attraction.setRatingCount1(21);
+        attraction.setRatingCount2(35);
+        attraction.setRatingCount3(96);
+        attraction.setRatingCount4(310);
+        attraction.setRatingCount5(822);
+        attraction.setImageUrl("https://cdn.smarttourism.tn/attractions/" + id + "/cover.jpg");
+        attraction.setWebsiteUrl("https://www.bardomuseum.tn");
+        attraction.setPhoneNumber("+216 71 513 650");
+        attraction.setEmail("contact@bardomuseum.tn");
+        attraction.setAverageVisitDuration(150);
+        return attraction;
+    }
+
+    public static Reservation reservation(long id, Attraction attraction) {
+        Reservation reservation = new Reservation();
+        reservation.setId(id);
+        reservation.setReservationCode("RES-" + (100_000 + id));
+        reservation.setAttraction(attraction);
+        reservation.setTouristId("tourist-" + id);
+        reservation.setTouristName("Amira Ben Salah");
+        reservation.setTouristEmail("amira.bensalah@example.com");
+        reservation.setTouristPhone("+216 98 123 456");
+        reservation.setTouristCountry("Tunisie");
+        reservation.setVisitDate(LocalDate.of(2030, 5, 14));
+        reservation.setVisitTime("10:00");
+        reservation.setReservationTime(LocalDateTime.of(2030, 4, 2, 18, 30));
+        reservation.setNumberOfPeople(3);
+        reservation.setStatus(Reservation.ReservationStatus.CONFIRMED);
+        reservation.setTotalPrice(39.0);
+        reservation.setSpecialRequirements("Accès poussette");
+        reservation.setQrCodeUrl("https://cdn.smarttourism.tn/qr/RES-" + (100_000 + id) + ".png");
+        return reservation;
+    }
+
+    public static Review review(long id, Attraction attraction) {
+        Review review = new Review();
+        review.setId(id);
+        review.setAttraction(attraction);
+        review.setTouristId("tourist-" + id);
+        review.setTouristName("Jean Dupont");
+        review.setTouristCountry("France");
+        review.setRating(5);
+        review.setTitle("Des mosaïques exceptionnelles");
+        review.setComment("Visite passionnante, prévoir au moins deux heures. Les salles du premier étage "
+            + "sont les plus impressionnantes et le personnel est très accueillant.");
+        review.setReviewDate(LocalDateTime.of(2030, 5, 15, 20, 5));
+        review.setVisitDate(LocalDate.of(2030, 5, 14));
+        review.setIsVerifiedVisit(true);
+        review.setHelpfulCount(12);
+        return review;
+    }
+
+    public static AttractionDTO attractionDTO(long id) {
+        return ATTRACTIONS.convertToDTO(attraction(id));
+    }
+
+    public static ReservationDTO reservationDTO(long id) {
+        return RESERVATIONS.convertToDTO(reservation(id, attraction(id)));
+    }
+
+    public static ReviewDTO reviewDTO(long id) {
+        return REVIEWS.convertToDTO(review(id, attraction(id)));
+    }
+
+    public static CreateAttractionRequest attractionRequest() {
+        CreateAttractionRequest request = new CreateAttractionRequest();
+        Attraction attraction = attraction(1);
+        request.setName(attraction.getName());
+        request.setCity(attraction.getLocation().getCity());
+        request.setDescription(attraction.getDescription());
+        request.setCategory(attraction.getCategory());
+        request.setLocation(attraction.getLocation());
+        request.setEntryPrice(attraction.getEntryPrice());
+        request.setOpeningTime(attraction.getOpeningTime());
+        request.setClosingTime(attraction.getClosingTime());
+        request.setMaxCapacity(attraction.getMaxCapacity());
+        request.setSlotDurationMinutes(attraction.getSlotDurationMinutes());
+        request.setSlotCapacity(attraction.getSlotCapacity());
+        request.setImageUrl(attraction.getImageUrl());
+        request.setWebsiteUrl(attraction.getWebsiteUrl());
+        request.setPhoneNumber(attraction.getPhoneNumber());
+        request.setEmail(attraction.getEmail());
+        request.setAverageVisitDuration(attraction.getAverageVisitDuration());
+        return request;
+    }
+
+    public static CreateReservationRequest reservationRequest() {
+        CreateReservationRequest request = new CreateReservationRequest();
+        request.setAttractionId(1L);
+        request.setTouristId("tourist-1");
+        request.setTouristName("Amira Ben Salah");
+        request.setTouristEmail("amira.bensalah@example.com");
+        request.setTouristPhone("+216 98 123 456");
+        request.setTouristCountry("Tunisie");
+        request.setVisitDate(LocalDate.now().plusDays(30));
+        request.setVisitTime("10:00");
+        request.setNumberOfPeople(3);
+        return request;
+    }
+
+    public static CreateReviewRequest reviewRequest() {
+        CreateReviewRequest request = new CreateReviewRequest();
+        request.setAttractionId(1L);
+        request.setReservationId(1L);
+        request.setTouristId("tourist-1");
+        request.setTouristName("Jean Dupont");
+        request.setTouristCountry("France");
+        request.setRating(5);
+        request.setTitle("Des mosaïques exceptionnelles");
+        request.setComment("Visite passionnante, prévoir au moins deux heures.");
+        request.setVisitDate(LocalDate.now().minusDays(1));
+        return request;
+    }
+}
@@ -0,0 +1,64 @@
+package com.smarttourism.attractions.service;
+
+import com.smarttourism.attractions.Entities.Attraction;
+import com.smarttourism.attractions.Entities.Reservation;
+import com.smarttourism.attractions.Entities.Review;
+import com.smarttourism.attractions.dto.AttractionDTO;
+import com.smarttourism.attractions.dto.ReservationDTO;
+import com.smarttourism.attractions.dto.ReviewDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import java.util.concurrent.TimeUnit;
+
+// Entité -> DTO, appelé pour chaque ligne de chaque page renvoyée par les services.
+// Services construits avec des collaborateurs mockés (BenchmarkFixtures.service)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DtoConversionBenchmark {
+
+    private AttractionService attractionService;
+    private ReservationService reservationService;
+    private ReviewService reviewService;
+
+    private Attraction attraction;
+    private Reservation reservation;
+    private Review review;
+
+    @Setup
+    public void setUp() {
+        attractionService = BenchmarkFixtures.service(AttractionService.class);
+        reservationService = BenchmarkFixtures.service(ReservationService.class);
+        reviewService = BenchmarkFixtures.service(ReviewService.class);
+
+        attraction = BenchmarkFixtures.attraction(1);
+        reservation = BenchmarkFixtures.reservation(1, attraction);
+        review = BenchmarkFixtures.review(1, attraction);
+    }
+
+    @Benchmark
+    public AttractionDTO attraction() {
+        return attractionService.convertToDTO(attraction);
+    }
+
+    @Benchmark
+    public ReservationDTO reservation() {
+        return reservationService.convertToDTO(reservation);
+    }
+
+    @Benchmark
+    public ReviewDTO review() {
+        return reviewService.convertToDTO(review);
+    }
+}
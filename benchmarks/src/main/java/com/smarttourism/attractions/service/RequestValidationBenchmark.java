@@ -0,0 +1,97 @@
+package com.smarttourism.attractions.service;
+
+import com.smarttourism.attractions.dto.requests.CreateAttractionRequest;
+import com.smarttourism.attractions.dto.requests.CreateReservationRequest;
+import com.smarttourism.attractions.dto.requests.CreateReviewRequest;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+// Validation d'une requête valide, telle que la voit un contrôleur: contraintes @Valid (Hibernate Validator)
+// puis règles métier du service
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RequestValidationBenchmark {
+
+    private ValidatorFactory validatorFactory;
+    private Validator validator;
+
+    private AttractionService attractionService;
+    private ReservationService reservationService;
+    private ReviewService reviewService;
+
+    private CreateAttractionRequest attractionRequest;
+    private CreateReservationRequest reservationRequest;
+    private CreateReviewRequest reviewRequest;
+
+    @Setup
+    public void setUp() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        validator = validatorFactory.getValidator();
+
+        attractionService = BenchmarkFixtures.service(AttractionService.class);
+        reservationService = BenchmarkFixtures.service(ReservationService.class);
+        reviewService = BenchmarkFixtures.service(ReviewService.class);
+
+        attractionRequest = BenchmarkFixtures.attractionRequest();
+        reservationRequest = BenchmarkFixtures.reservationRequest();
+        reviewRequest = BenchmarkFixtures.reviewRequest();
+    }
+
+    @TearDown
+    public void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<CreateAttractionRequest>> attractionConstraints() {
+        return validator.validate(attractionRequest);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<CreateReservationRequest>> reservationConstraints() {
+        return validator.validate(reservationRequest);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<CreateReviewRequest>> reviewConstraints() {
+        return validator.validate(reviewRequest);
+    }
+
+    @Benchmark
+    public void attractionRules(Blackhole blackhole) {
+        attractionService.validateAttractionRequest(attractionRequest);
+        blackhole.consume(attractionRequest);
+    }
+
+    @Benchmark
+    public void reservationRules(Blackhole blackhole) {
+        reservationService.validateReservationRequest(reservationRequest);
+        blackhole.consume(reservationRequest);
+    }
+
+    @Benchmark
+    public void reviewRules(Blackhole blackhole) {
+        reviewService.validateReviewRequest(reviewRequest);
+        blackhole.consume(reviewRequest);
+    }
+}